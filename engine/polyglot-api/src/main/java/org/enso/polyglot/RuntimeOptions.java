@@ -40,6 +40,11 @@ public class RuntimeOptions {
   private static final OptionDescriptor ENABLE_AUTO_PARALLELISM_DESCRIPTOR =
       OptionDescriptor.newBuilder(ENABLE_AUTO_PARALLELISM_KEY, ENABLE_AUTO_PARALLELISM).build();
 
+  public static final String PARALLEL_COMPILATION = optionName("parallelCompilation");
+  public static final OptionKey<Boolean> PARALLEL_COMPILATION_KEY = new OptionKey<>(false);
+  private static final OptionDescriptor PARALLEL_COMPILATION_DESCRIPTOR =
+      OptionDescriptor.newBuilder(PARALLEL_COMPILATION_KEY, PARALLEL_COMPILATION).build();
+
   public static final String LOG_LEVEL = "log.level";
 
   public static final String LOG_MASKING = optionName("log.masking");
@@ -152,6 +157,7 @@ public class RuntimeOptions {
               DISABLE_PRIVATE_CHECK_DESCRIPTOR,
               ENABLE_STATIC_ANALYSIS_DESCRIPTOR,
               ENABLE_AUTO_PARALLELISM_DESCRIPTOR,
+              PARALLEL_COMPILATION_DESCRIPTOR,
               ENABLE_PROJECT_SUGGESTIONS_DESCRIPTOR,
               ENABLE_GLOBAL_SUGGESTIONS_DESCRIPTOR,
               INTERACTIVE_MODE_DESCRIPTOR,
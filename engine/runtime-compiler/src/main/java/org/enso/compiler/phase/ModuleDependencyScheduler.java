@@ -0,0 +1,187 @@
+package org.enso.compiler.phase;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Runs an action on a set of modules concurrently, while respecting the dependencies between them.
+ *
+ * <p>The action runs on a module only after it has finished on all the modules the module depends
+ * on. Modules may import each other, so the modules are first grouped into strongly connected
+ * components of the dependency graph. The modules of a component are processed sequentially, in the
+ * order in which they were given, while independent components are processed in parallel.
+ */
+public final class ModuleDependencyScheduler {
+  private ModuleDependencyScheduler() {}
+
+  /**
+   * Runs the action on all the modules and waits for it to finish.
+   *
+   * @param modules the modules to process, in the order in which they would be processed
+   *     sequentially
+   * @param dependencies computes the modules a module depends on; modules not in {@code modules}
+   *     are ignored
+   * @param action the action to run on each module
+   * @param executor the executor to run the action on
+   * @param <M> the type of the modules
+   * @throws RuntimeException the first exception thrown by the action; the action isn't run on the
+   *     modules depending on the failed one
+   */
+  public static <M> void run(
+      List<M> modules,
+      Function<M, ? extends Iterable<M>> dependencies,
+      Consumer<M> action,
+      Executor executor) {
+    var graph = new Graph<>(modules, dependencies);
+    var components = graph.components();
+
+    var componentFutures = new ArrayList<CompletableFuture<Void>>(components.size());
+    // components are ordered so that each one comes after all the components it depends on
+    for (var i = 0; i < components.size(); i++) {
+      var component = components.get(i);
+      var before =
+          graph.componentDependencies(i).stream()
+              .map(componentFutures::get)
+              .toArray(CompletableFuture[]::new);
+      componentFutures.add(
+          CompletableFuture.allOf(before)
+              .thenRunAsync(
+                  () -> {
+                    for (var index : component) {
+                      action.accept(modules.get(index));
+                    }
+                  },
+                  executor));
+    }
+
+    try {
+      CompletableFuture.allOf(componentFutures.toArray(CompletableFuture[]::new)).join();
+    } catch (CompletionException ex) {
+      // report the root cause, not the failure of a component waiting for a failed one
+      Throwable cause = ex;
+      while (cause instanceof CompletionException && cause.getCause() != null) {
+        cause = cause.getCause();
+      }
+      if (cause instanceof RuntimeException re) {
+        throw re;
+      }
+      if (cause instanceof Error err) {
+        throw err;
+      }
+      throw ex;
+    }
+  }
+
+  /** Dependency graph of the modules, with the modules represented by their indices. */
+  private static final class Graph<M> {
+    private final int[][] edges;
+    private final int[] componentOf;
+    private final List<List<Integer>> components = new ArrayList<>();
+
+    Graph(List<M> modules, Function<M, ? extends Iterable<M>> dependencies) {
+      var indices = new HashMap<M, Integer>();
+      for (var i = 0; i < modules.size(); i++) {
+        indices.putIfAbsent(modules.get(i), i);
+      }
+      edges = new int[modules.size()][];
+      for (var i = 0; i < modules.size(); i++) {
+        var targets = new LinkedHashSet<Integer>();
+        for (var dependency : dependencies.apply(modules.get(i))) {
+          var target = indices.get(dependency);
+          if (target != null && target != i) {
+            targets.add(target);
+          }
+        }
+        edges[i] = targets.stream().mapToInt(Integer::intValue).toArray();
+      }
+      componentOf = new int[modules.size()];
+      findComponents();
+    }
+
+    List<List<Integer>> components() {
+      return components;
+    }
+
+    /** Indices of the components the given component depends on. */
+    List<Integer> componentDependencies(int component) {
+      var result = new LinkedHashSet<Integer>();
+      for (var module : components.get(component)) {
+        for (var target : edges[module]) {
+          var targetComponent = componentOf[target];
+          if (targetComponent != component) {
+            result.add(targetComponent);
+          }
+        }
+      }
+      return new ArrayList<>(result);
+    }
+
+    /**
+     * Finds the strongly connected components with an iterative version of Tarjan's algorithm.
+     * Tarjan's algorithm completes a component only after all the components reachable from it,
+     * which is exactly the order in which they have to be processed.
+     */
+    private void findComponents() {
+      var n = edges.length;
+      var order = new int[n];
+      var lowLink = new int[n];
+      var onStack = new boolean[n];
+      var visited = new boolean[n];
+      var stack = new ArrayDeque<Integer>();
+      var counter = 0;
+
+      for (var root = 0; root < n; root++) {
+        if (visited[root]) {
+          continue;
+        }
+        // pairs of a module and the position of the next edge to explore
+        var work = new ArrayDeque<int[]>();
+        work.push(new int[] {root, 0});
+        while (!work.isEmpty()) {
+          var frame = work.peek();
+          var v = frame[0];
+          if (frame[1] == 0 && !visited[v]) {
+            visited[v] = true;
+            order[v] = lowLink[v] = counter++;
+            stack.push(v);
+            onStack[v] = true;
+          }
+          if (frame[1] < edges[v].length) {
+            var w = edges[v][frame[1]++];
+            if (!visited[w]) {
+              work.push(new int[] {w, 0});
+            } else if (onStack[w]) {
+              lowLink[v] = Math.min(lowLink[v], order[w]);
+            }
+            continue;
+          }
+          work.pop();
+          if (!work.isEmpty()) {
+            var parent = work.peek()[0];
+            lowLink[parent] = Math.min(lowLink[parent], lowLink[v]);
+          }
+          if (lowLink[v] == order[v]) {
+            var component = new ArrayList<Integer>();
+            int w;
+            do {
+              w = stack.pop();
+              onStack[w] = false;
+              componentOf[w] = components.size();
+              component.add(w);
+            } while (w != v);
+            component.sort(null);
+            components.add(component);
+          }
+        }
+      }
+    }
+  }
+}
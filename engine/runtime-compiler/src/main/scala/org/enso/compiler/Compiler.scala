@@ -22,10 +22,14 @@ import org.enso.compiler.core.ir.module.scope.Export
 import org.enso.compiler.core.ir.module.scope.Import
 import org.enso.compiler.core.ir.module.scope.imports
 import org.enso.compiler.core.EnsoParser
-import org.enso.compiler.data.CompilerConfig
+import org.enso.compiler.data.{BindingsMap, CompilerConfig}
 import org.enso.compiler.pass.PassManager
 import org.enso.compiler.pass.analyse._
-import org.enso.compiler.phase.{ImportResolver, ImportResolverAlgorithm}
+import org.enso.compiler.phase.{
+  ImportResolver,
+  ImportResolverAlgorithm,
+  ModuleDependencyScheduler
+}
 import org.enso.editions.LibraryName
 import org.enso.pkg.QualifiedName
 import org.enso.common.CompilationStage
@@ -39,6 +43,8 @@ import org.enso.syntax2.Tree
 import java.io.PrintStream
 import java.util.concurrent.{
   CompletableFuture,
+  CompletionException,
+  ConcurrentLinkedQueue,
   ExecutorService,
   Future,
   LinkedBlockingDeque,
@@ -74,19 +80,37 @@ class Compiler(
   /** Java accessor */
   def getConfig(): CompilerConfig = config
 
-  /** The thread pool that handles parsing of modules. */
-  private val pool: ExecutorService = if (config.parallelParsing) {
-    new ThreadPoolExecutor(
-      Compiler.startingThreadCount,
-      Compiler.maximumThreadCount,
-      Compiler.threadKeepalive,
-      TimeUnit.SECONDS,
-      new LinkedBlockingDeque[Runnable](),
-      (runnable: Runnable) => {
-        context.createThread(runnable)
-      }
-    )
-  } else null
+  /** The thread pool that handles parsing and compilation of modules in the
+    * parallel compilation mode, `null` otherwise.
+    */
+  private val pool: ExecutorService =
+    if (config.parallelCompilation && context.isCreateThreadAllowed) {
+      // the queue is unbounded, so the pool never grows past its core size
+      val threadCount = Math.max(
+        Compiler.startingThreadCount,
+        Math.min(
+          Compiler.maximumThreadCount,
+          Runtime.getRuntime.availableProcessors()
+        )
+      )
+      val executor = new ThreadPoolExecutor(
+        threadCount,
+        threadCount,
+        Compiler.threadKeepalive,
+        TimeUnit.SECONDS,
+        new LinkedBlockingDeque[Runnable](),
+        (runnable: Runnable) => {
+          context.createThread(runnable)
+        }
+      )
+      executor.allowCoreThreadTimeOut(true)
+      executor
+    } else null
+
+  /** Parsers that are not in use, so that modules can be parsed concurrently.
+    * The native parser keeps state and cannot be shared between threads.
+    */
+  private val idleParsers = new ConcurrentLinkedQueue[EnsoParser]()
 
   /** Duplicates this compiler with a different config.
     * @param newConfig Configuration to be used in the duplicated Compiler.
@@ -301,11 +325,11 @@ class Compiler(
     }.distinct
 
     if (irCachingEnabled) {
-      requiredModules.foreach { module =>
+      runOnModules(requiredModules) { module =>
         ensureParsed(module, !context.isInteractive(module))
       }
     }
-    requiredModules.foreach { module =>
+    runOnModulesInDependencyOrder(requiredModules) { module =>
       if (
         !context
           .getCompilationStage(module)
@@ -331,7 +355,7 @@ class Compiler(
         )
       }
     }
-    requiredModules.foreach { module =>
+    runOnModulesInDependencyOrder(requiredModules) { module =>
       if (
         !context
           .getCompilationStage(module)
@@ -459,19 +483,7 @@ class Compiler(
       try { new ExportsResolution(context).run(importedModules) }
       catch { case e: ExportCycleException => reportCycle(e) }
 
-    val parsingTasks: List[CompletableFuture[Unit]] =
-      modulesImportedWithCachedBindings.map { module =>
-        if (config.parallelParsing) {
-          CompletableFuture.supplyAsync(
-            () => ensureParsedAndAnalyzed(module),
-            pool
-          )
-        } else {
-          CompletableFuture.completedFuture(ensureParsedAndAnalyzed(module))
-        }
-      }
-
-    joinAllFutures(parsingTasks).get()
+    runOnModules(modulesImportedWithCachedBindings)(ensureParsedAndAnalyzed)
 
     // ** Order matters for codegen **
     // Consider a case when an exported symbol is referenced but the module that defines the symbol
@@ -519,6 +531,84 @@ class Compiler(
     CompletableFuture.allOf(futures: _*).thenApply(_ => futures.map(_.join()))
   }
 
+  /** Runs the action on all the modules, concurrently in the parallel
+    * compilation mode.
+    *
+    * @param modules the modules to process
+    * @param action the action that must not depend on the results of the
+    *               action on other modules
+    */
+  private def runOnModules(modules: List[Module])(action: Module => Unit): Unit =
+    if (pool == null) {
+      modules.foreach(action)
+    } else {
+      val tasks = modules.map { module =>
+        CompletableFuture.supplyAsync(() => action(module), pool)
+      }
+      try {
+        joinAllFutures(tasks).join()
+      } catch {
+        case e: CompletionException if e.getCause != null => throw e.getCause
+      }
+    }
+
+  /** Runs the action on all the modules, processing each module only after
+    * the modules it imports. In the parallel compilation mode the modules whose
+    * imports have been processed already are processed concurrently.
+    *
+    * @param modules the modules to process, in the order for sequential
+    *                processing
+    * @param action the action that may use the results of the action on the
+    *               imported modules
+    */
+  private def runOnModulesInDependencyOrder(
+    modules: List[Module]
+  )(action: Module => Unit): Unit =
+    if (pool == null) {
+      modules.foreach(action)
+    } else {
+      import scala.jdk.CollectionConverters._
+      ModuleDependencyScheduler.run[Module](
+        modules.asJava,
+        (module: Module) => importedModules(module).asJava,
+        (module: Module) => action(module),
+        pool
+      )
+    }
+
+  /** The modules imported by a module, as resolved by the import resolution.
+    *
+    * @param module the module after the import resolution
+    * @return the imported modules
+    */
+  private def importedModules(module: Module): List[Module] = {
+    val bindings = module.getBindingsMap
+    if (bindings == null) Nil
+    else
+      bindings.resolvedImports.flatMap { resolvedImport =>
+        resolvedImport.targets.map(_.module).collect {
+          case BindingsMap.ModuleReference.Concrete(imported) => imported
+        }
+      }.distinct
+  }
+
+  /** Runs the action with a parser not used by any other thread.
+    *
+    * @param action the action to run
+    * @return the result of the action
+    */
+  private def withParser[T](action: EnsoParser => T): T =
+    if (pool == null) {
+      action(ensoCompiler)
+    } else {
+      val parser = Option(idleParsers.poll()).getOrElse(new EnsoParser())
+      try action(parser)
+      finally {
+        if (pool.isShutdown) parser.close()
+        else idleParsers.offer(parser)
+      }
+    }
+
   /** Runs the initial passes of the compiler to gather the import statements,
     * used for dependency resolution.
     *
@@ -598,8 +688,10 @@ class Compiler(
 
     val src   = context.getCharacters(module)
     val idMap = context.getIdMap(module)
-    val tree  = ensoCompiler.parse(src)
-    val expr  = ensoCompiler.generateModuleIr(tree, idMap.values)
+    val expr = withParser { parser =>
+      val tree = parser.parse(src)
+      parser.generateModuleIr(tree, idMap.values)
+    }
 
     val exprWithModuleExports =
       if (context.isSynthetic(module))
@@ -1010,6 +1102,18 @@ class Compiler(
       } else {
         pool.shutdownNow()
       }
+      closeIdleParsers()
+    }
+  }
+
+  /** Closes the parsers not in use, releasing their native resources. Parsers
+    * still in use are closed when they are returned after the shutdown.
+    */
+  private def closeIdleParsers(): Unit = {
+    var parser = idleParsers.poll()
+    while (parser != null) {
+      parser.close()
+      parser = idleParsers.poll()
     }
   }
 
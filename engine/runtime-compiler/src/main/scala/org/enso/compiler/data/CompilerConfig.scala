@@ -11,6 +11,8 @@ import java.io.PrintStream
   * @param staticTypeInferenceEnabled whether or not type inference is enabled
   * @param isStrictErrors if true, presence of any Error in IR will result in an exception
   * @param outputRedirect redirection of the output of warnings and errors of compiler
+  * @param parallelCompilation whether or not independent modules are parsed
+  *                            and compiled in parallel
   */
 case class CompilerConfig(
   autoParallelismEnabled: Boolean     = false,
@@ -18,7 +20,25 @@ case class CompilerConfig(
   privateCheckEnabled: Boolean        = true,
   staticTypeInferenceEnabled: Boolean = false,
   isStrictErrors: Boolean             = false,
-  outputRedirect: Option[PrintStream] = None
+  outputRedirect: Option[PrintStream] = None,
+  parallelCompilation: Boolean        = false
 ) {
-  def parallelParsing: Boolean = false
+
+  /** Creates a configuration with parallel compilation disabled. */
+  def this(
+    autoParallelismEnabled: Boolean,
+    warningsEnabled: Boolean,
+    privateCheckEnabled: Boolean,
+    staticTypeInferenceEnabled: Boolean,
+    isStrictErrors: Boolean,
+    outputRedirect: Option[PrintStream]
+  ) = this(
+    autoParallelismEnabled,
+    warningsEnabled,
+    privateCheckEnabled,
+    staticTypeInferenceEnabled,
+    isStrictErrors,
+    outputRedirect,
+    false
+  )
 }
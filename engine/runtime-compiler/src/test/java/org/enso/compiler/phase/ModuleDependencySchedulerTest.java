@@ -0,0 +1,88 @@
+package org.enso.compiler.phase;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public final class ModuleDependencySchedulerTest {
+  private static ExecutorService executor;
+
+  @BeforeClass
+  public static void initExecutor() {
+    executor = Executors.newFixedThreadPool(4);
+  }
+
+  @AfterClass
+  public static void closeExecutor() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void dependenciesAreProcessedFirst() {
+    var imports =
+        Map.of(
+            "Main", List.of("Data", "Vector"),
+            "Vector", List.of("Data", "Any"),
+            "Data", List.of("Any"),
+            "Any", List.<String>of());
+    var finished = new ConcurrentHashMap<String, Integer>();
+    var counter = new AtomicInteger();
+    ModuleDependencyScheduler.run(
+        List.of("Main", "Vector", "Data", "Any"),
+        imports::get,
+        (module) -> {
+          for (var dependency : imports.get(module)) {
+            assertTrue(
+                dependency + " is finished before " + module, finished.containsKey(dependency));
+          }
+          finished.put(module, counter.incrementAndGet());
+        },
+        executor);
+    assertEquals(4, finished.size());
+  }
+
+  @Test
+  public void cyclicImportsAreProcessedInGivenOrder() {
+    var imports =
+        Map.of(
+            "A", List.of("B", "Base"),
+            "B", List.of("A", "Base"),
+            "Base", List.of("Base", "Unknown"));
+    var order = new ConcurrentLinkedQueue<String>();
+    ModuleDependencyScheduler.run(List.of("B", "A", "Base"), imports::get, order::add, executor);
+    assertEquals(List.of("Base", "B", "A"), List.copyOf(order));
+  }
+
+  @Test
+  public void failureIsPropagated() {
+    var imports = Map.of("Main", List.of("Broken"), "Broken", List.<String>of());
+    var processed = new ConcurrentHashMap<String, Boolean>();
+    try {
+      ModuleDependencyScheduler.run(
+          List.of("Main", "Broken"),
+          imports::get,
+          (module) -> {
+            if (module.equals("Broken")) {
+              throw new IllegalStateException("Cannot compile " + module);
+            }
+            processed.put(module, true);
+          },
+          executor);
+      fail("Expecting failure");
+    } catch (IllegalStateException ex) {
+      assertEquals("Cannot compile Broken", ex.getMessage());
+    }
+    assertTrue("Dependent module isn't processed: " + processed, processed.isEmpty());
+  }
+}
@@ -0,0 +1,97 @@
+package org.enso.compiler;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+import org.enso.pkg.QualifiedName;
+import org.enso.polyglot.RuntimeOptions;
+import org.enso.test.utils.ContextUtils;
+import org.enso.test.utils.ProjectUtils;
+import org.enso.test.utils.SourceModule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Checks that a project compiled with {@link RuntimeOptions#PARALLEL_COMPILATION} enabled behaves
+ * the same as one compiled sequentially.
+ */
+public class ParallelCompilationTest {
+  private static final int MODULE_COUNT = 8;
+
+  @Rule public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  @Test
+  public void parallelAndSequentialCompilationGiveSameResults() throws IOException {
+    var projDir = tempFolder.newFolder().toPath();
+    ProjectUtils.createProject("Proj", createModules(), projDir);
+
+    var sequential = run(projDir, false);
+    var parallel = run(projDir, true);
+    assertEquals(sequential, parallel);
+    assertEquals(expectedResult(), sequential);
+  }
+
+  private static String run(Path projDir, boolean parallel) {
+    var result = new String[1];
+    ProjectUtils.testProjectRun(
+        ContextUtils.defaultContextBuilder()
+            .option(RuntimeOptions.PARALLEL_COMPILATION, Boolean.toString(parallel)),
+        projDir,
+        res -> result[0] = res.asString());
+    return result[0];
+  }
+
+  /**
+   * Creates a chain of modules, each of them importing all the previous ones, so that the modules
+   * are compiled in several rounds.
+   */
+  private static Set<SourceModule> createModules() {
+    var modules = new HashSet<SourceModule>();
+    for (int i = 0; i < MODULE_COUNT; i++) {
+      var code = new StringBuilder("from Standard.Base import all\n");
+      for (int j = 0; j < i; j++) {
+        code.append("import project.Mod_").append(j).append("\n");
+      }
+      code.append("\ntype T_").append(i).append("\n    V x\n\n");
+      code.append("    value self = self.x + ").append(i);
+      for (int j = 0; j < i; j++) {
+        code.append(" + (Mod_").append(j).append(".compute ").append(j).append(")");
+      }
+      code.append("\n\ncompute n = (T_").append(i).append(".V n).value\n");
+      modules.add(new SourceModule(QualifiedName.fromString("Mod_" + i), code.toString()));
+    }
+
+    var main = new StringBuilder("from Standard.Base import all\n");
+    for (int i = 0; i < MODULE_COUNT; i++) {
+      main.append("import project.Mod_").append(i).append("\n");
+    }
+    main.append("\nmain =\n    results = [");
+    for (int i = 0; i < MODULE_COUNT; i++) {
+      main.append(i == 0 ? "" : ", ").append("Mod_").append(i).append(".compute ").append(i);
+    }
+    main.append("]\n    results.to_text\n");
+    modules.add(new SourceModule(QualifiedName.fromString("Main"), main.toString()));
+    return modules;
+  }
+
+  private static String expectedResult() {
+    var text = new StringBuilder("[");
+    for (int i = 0; i < MODULE_COUNT; i++) {
+      text.append(i == 0 ? "" : ", ").append(computed(i, i));
+    }
+    return text.append("]").toString();
+  }
+
+  /** Mirrors {@code Mod_i.compute n} of the generated modules. */
+  private static long computed(int module, long n) {
+    long result = n + module;
+    for (int j = 0; j < module; j++) {
+      result += computed(j, j);
+    }
+    return result;
+  }
+}
@@ -0,0 +1,162 @@
+package org.enso.interpreter.caches;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+
+import com.oracle.truffle.api.TruffleFile;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.enso.interpreter.runtime.EnsoContext;
+import org.enso.pkg.QualifiedName;
+import org.enso.pkg.SourceFile;
+import org.enso.test.utils.ContextUtils;
+import org.graalvm.polyglot.Context;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests that a {@link SourceManifest} reuses the hashes of unchanged sources only, so that its
+ * digest changes whenever a source is modified, added, removed or renamed.
+ */
+public class SourceManifestTest {
+  /** A modification time long before the manifests of the tests are recorded. */
+  private static final FileTime PAST =
+      FileTime.fromMillis(System.currentTimeMillis() - TimeUnit.HOURS.toMillis(1));
+
+  @Rule public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private Context ctx;
+  private EnsoContext ensoContext;
+
+  @Before
+  public void setup() {
+    ctx = ContextUtils.createDefaultContext();
+    ctx.enter();
+    ensoContext = ContextUtils.leakContext(ctx);
+  }
+
+  @After
+  public void teardown() {
+    ctx.leave();
+    ctx.close();
+  }
+
+  @Test
+  public void roundTripsThroughItsSerializedForm() throws IOException {
+    var manifest =
+        SourceManifest.of(
+            List.of(source("Main", "main = 42"), source("Data.Util", "util = 1")),
+            SourceManifest.EMPTY);
+
+    var bytes = new ByteArrayOutputStream();
+    try (var out = new DataOutputStream(bytes)) {
+      manifest.write(out);
+    }
+    SourceManifest read;
+    try (var in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      read = SourceManifest.read(in);
+    }
+
+    assertEquals(manifest, read);
+    assertEquals(manifest.digest(), read.digest());
+  }
+
+  @Test
+  public void reusesHashesOfUnchangedSources() throws IOException {
+    var main = source("Main", "main = 42");
+    var sources = List.of(main, source("Util", "util = 1"));
+    var recorded = SourceManifest.of(sources, SourceManifest.EMPTY);
+
+    var revalidated = SourceManifest.of(sources, recorded);
+    assertEquals(recorded.entries(), revalidated.entries());
+    assertSame(
+        recorded.entries().get("local.Test.Main"), revalidated.entries().get("local.Test.Main"));
+
+    // Keeping the size and the modification time hides the change, which shows that the file is
+    // not read again.
+    modify(main, "main = 43", PAST);
+    assertEquals(recorded.digest(), SourceManifest.of(sources, recorded).digest());
+    assertNotEquals(recorded.digest(), SourceManifest.of(sources, SourceManifest.EMPTY).digest());
+  }
+
+  @Test
+  public void rehashesSourcesModifiedWhenTheManifestWasRecorded() throws IOException {
+    var main = source("Main", "main = 42");
+    var future = FileTime.fromMillis(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1));
+    modify(main, "main = 42", future);
+    var sources = List.of(main);
+    var recorded = SourceManifest.of(sources, SourceManifest.EMPTY);
+
+    modify(main, "main = 43", future);
+    var revalidated = SourceManifest.of(sources, recorded);
+    assertNotEquals(recorded.digest(), revalidated.digest());
+    assertEquals(SourceManifest.of(sources, SourceManifest.EMPTY).digest(), revalidated.digest());
+  }
+
+  @Test
+  public void detectsChangedSources() throws IOException {
+    var main = source("Main", "main = 42");
+    var sources = List.of(main, source("Util", "util = 1"));
+    var recorded = SourceManifest.of(sources, SourceManifest.EMPTY);
+
+    modify(main, "main = 420", PAST);
+    var resized = SourceManifest.of(sources, recorded);
+    assertNotEquals(recorded.digest(), resized.digest());
+    assertEquals(SourceManifest.of(sources, SourceManifest.EMPTY).digest(), resized.digest());
+
+    modify(main, "main = 430", FileTime.fromMillis(PAST.toMillis() + 2000));
+    var touched = SourceManifest.of(sources, resized);
+    assertNotEquals(resized.digest(), touched.digest());
+    assertEquals(SourceManifest.of(sources, SourceManifest.EMPTY).digest(), touched.digest());
+  }
+
+  @Test
+  public void detectsAddedRemovedAndRenamedSources() throws IOException {
+    var main = source("Main", "main = 42");
+    var util = source("Util", "util = 1");
+    var recorded = SourceManifest.of(List.of(main, util), SourceManifest.EMPTY);
+
+    var added = SourceManifest.of(List.of(main, util, source("Extra", "extra = 2")), recorded);
+    assertNotEquals(recorded.digest(), added.digest());
+
+    var removed = SourceManifest.of(List.of(main), recorded);
+    assertNotEquals(recorded.digest(), removed.digest());
+
+    var renamedUtil = new SourceFile<>(QualifiedName.fromString("local.Test.Helpers"), util.file());
+    var renamed = SourceManifest.of(List.of(main, renamedUtil), recorded);
+    assertNotEquals(recorded.digest(), renamed.digest());
+    assertEquals(
+        SourceManifest.of(List.of(main, renamedUtil), SourceManifest.EMPTY).digest(),
+        renamed.digest());
+  }
+
+  private SourceFile<TruffleFile> source(String name, String contents) throws IOException {
+    var file = tempFolder.getRoot().toPath().resolve(name + ".enso");
+    write(file, contents, PAST);
+    return new SourceFile<>(
+        QualifiedName.fromString("local.Test." + name), ensoContext.getTruffleFile(file.toFile()));
+  }
+
+  private static void modify(SourceFile<TruffleFile> source, String contents, FileTime modified)
+      throws IOException {
+    write(Path.of(source.file().getPath()), contents, modified);
+  }
+
+  private static void write(Path file, String contents, FileTime modified) throws IOException {
+    Files.writeString(file, contents, StandardCharsets.UTF_8);
+    Files.setLastModifiedTime(file, modified);
+  }
+}
@@ -0,0 +1,61 @@
+package org.enso.interpreter.caches;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import org.junit.Test;
+
+public class XXHash64Test {
+  private static String hash(String text) {
+    return XXHash64.hexDigest(ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)));
+  }
+
+  @Test
+  public void testReferenceValues() {
+    assertEquals("ef46db3751d8e999", hash(""));
+    assertEquals("d24ec4f1a98c6e5b", hash("a"));
+    assertEquals("44bc2cf5ad770999", hash("abc"));
+    assertEquals("fbcea83c8a378bf1", hash("Nobody inspects the spammish repetition"));
+    assertEquals("0b242d361fda71bc", hash("The quick brown fox jumps over the lazy dog"));
+    assertEquals(
+        "5282b0966ccdb49d",
+        hash(
+            "The quick brown fox jumps over the lazy dog."
+                + " The quick brown fox jumps over the lazy dog."));
+  }
+
+  @Test
+  public void testReferenceValueOfAllByteValues() {
+    var bytes = new byte[1031];
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = (byte) i;
+    }
+    assertEquals("ebd35a5960a69ebc", XXHash64.hexDigest(ByteBuffer.wrap(bytes)));
+  }
+
+  @Test
+  public void testIncrementalUpdatesMatchSingleUpdate() {
+    var random = new Random(42);
+    for (int size : new int[] {7, 31, 32, 33, 100, 4097}) {
+      var bytes = new byte[size];
+      random.nextBytes(bytes);
+      var expected = XXHash64.hexDigest(ByteBuffer.wrap(bytes));
+
+      var hash = new XXHash64();
+      int offset = 0;
+      while (offset < size) {
+        int length = Math.min(size - offset, random.nextInt(40));
+        hash.update(bytes, offset, length);
+        offset += length;
+      }
+      assertEquals("Hash of " + size + " bytes fed in parts", expected, hash.hexDigest());
+
+      var direct = ByteBuffer.allocateDirect(size);
+      direct.put(bytes).flip();
+      assertEquals("Hash of " + size + " direct bytes", expected, XXHash64.hexDigest(direct));
+      assertEquals("Position is preserved", 0, direct.position());
+    }
+  }
+}
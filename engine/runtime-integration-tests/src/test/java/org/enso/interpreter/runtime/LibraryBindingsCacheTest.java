@@ -0,0 +1,158 @@
+package org.enso.interpreter.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.enso.compiler.Compiler;
+import org.enso.compiler.CompilerTest;
+import org.enso.editions.LibraryName;
+import org.enso.interpreter.caches.ImportExportCache;
+import org.enso.pkg.QualifiedName;
+import org.enso.polyglot.RuntimeOptions;
+import org.enso.test.utils.ContextUtils;
+import org.enso.test.utils.ProjectUtils;
+import org.enso.test.utils.SourceModule;
+import org.graalvm.polyglot.Context;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests that the bindings file of a library materializes the IR of its modules on request, and that
+ * serializing the library again replaces the file without disturbing the bindings loaded from it.
+ */
+public class LibraryBindingsCacheTest {
+  private static final LibraryName LIBRARY = new LibraryName("local", "Lib_Cache");
+  private static final QualifiedName MAIN = QualifiedName.fromString("local.Lib_Cache.Main");
+  private static final QualifiedName UTIL = QualifiedName.fromString("local.Lib_Cache.Util");
+
+  @Rule public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private Path projDir;
+  private Context ctx;
+  private EnsoContext ensoContext;
+  private Compiler compiler;
+  private TruffleCompilerContext compilerContext;
+
+  @Before
+  public void setup() throws IOException {
+    var utilMod = new SourceModule(QualifiedName.fromString("Util"), "util x = x + 1");
+    var mainMod =
+        new SourceModule(
+            QualifiedName.fromString("Main"),
+            """
+            import project.Util
+            main = Util.util 41
+            """);
+    projDir = tempFolder.newFolder().toPath();
+    ProjectUtils.createProject("Lib_Cache", Set.of(utilMod, mainMod), projDir);
+
+    ctx =
+        ContextUtils.defaultContextBuilder()
+            .option(RuntimeOptions.PROJECT_ROOT, projDir.toAbsolutePath().toString())
+            .option(RuntimeOptions.DISABLE_IR_CACHES, "false")
+            .build();
+    ctx.enter();
+    ensoContext = ContextUtils.leakContext(ctx);
+    compiler = ensoContext.getCompiler();
+    compilerContext = (TruffleCompilerContext) compiler.context();
+    var main = ensoContext.findModule(MAIN.toString()).get().asCompilerModule();
+    compiler.run(main);
+  }
+
+  @After
+  public void teardown() {
+    ctx.leave();
+    ctx.close();
+  }
+
+  @Test
+  public void materializesModulesOnRequest() throws Exception {
+    serialize();
+    var bindings = load();
+    assertSame("Loaded bindings are shared", bindings, load());
+
+    var util = bindings.findForModule(UTIL);
+    assertNotNull("Util is in the bindings", util);
+    assertSame("Util is materialized once", util, bindings.findForModule(UTIL));
+    CompilerTest.assertIR("Util is restored", compiledIr(UTIL), util);
+    CompilerTest.assertIR("Main is restored", compiledIr(MAIN), bindings.findForModule(MAIN));
+    assertNull(bindings.findForModule(QualifiedName.fromString("local.Lib_Cache.Missing")));
+  }
+
+  @Test
+  public void reloadsBindingsSerializedAgain() throws Exception {
+    serialize();
+    var bindings = load();
+
+    serialize();
+    var reloaded = load();
+    assertNotSame("Bindings are read again from the new file", bindings, reloaded);
+    CompilerTest.assertIR("Util is restored", compiledIr(UTIL), reloaded.findForModule(UTIL));
+  }
+
+  @Test
+  public void replacesBindingsFileAtomically() throws Exception {
+    serialize();
+    var bindings = load();
+    var file = bindingsFile();
+    var key = Files.readAttributes(file, BasicFileAttributes.class).fileKey();
+
+    serialize();
+    assertEquals("The file is written under the same name", file, bindingsFile());
+    var newKey = Files.readAttributes(file, BasicFileAttributes.class).fileKey();
+    if (key != null) {
+      assertNotEquals("The file is replaced, not overwritten", key, newKey);
+    }
+    assertEquals(
+        "No temporary file is left behind", List.of(file), bindingsFiles(file.getParent()));
+    // the modules not requested before the file was replaced are still read from the old data
+    CompilerTest.assertIR("Util is restored", compiledIr(UTIL), bindings.findForModule(UTIL));
+  }
+
+  private void serialize() throws Exception {
+    var persisted = compilerContext.serializeLibrary(compiler, LIBRARY, false);
+    assertTrue("Lib_Cache has been persisted", persisted.get(10, TimeUnit.SECONDS));
+  }
+
+  private ImportExportCache.MapToBindings load() throws InterruptedException {
+    var cached = compilerContext.deserializeLibraryBindings(LIBRARY);
+    assertTrue("Bindings of Lib_Cache are loaded", cached.isDefined());
+    return cached.get().bindings();
+  }
+
+  private org.enso.compiler.core.ir.Module compiledIr(QualifiedName name) {
+    return ensoContext.findModule(name.toString()).get().asCompilerModule().getIr();
+  }
+
+  private Path bindingsFile() throws IOException {
+    try (var files = Files.walk(projDir)) {
+      var found = files.filter(f -> f.getFileName().toString().endsWith(".bindings")).toList();
+      assertEquals("One bindings file is written: " + found, 1, found.size());
+      return found.get(0);
+    }
+  }
+
+  private static List<Path> bindingsFiles(Path dir) throws IOException {
+    try (var files = Files.list(dir)) {
+      return files
+          .filter(f -> f.getFileName().toString().contains(".bindings"))
+          .filter(f -> !f.getFileName().toString().endsWith(".meta"))
+          .toList();
+    }
+  }
+}
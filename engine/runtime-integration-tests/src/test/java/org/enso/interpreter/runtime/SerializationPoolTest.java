@@ -0,0 +1,201 @@
+package org.enso.interpreter.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.enso.common.LanguageInfo;
+import org.enso.common.MethodNames;
+import org.enso.pkg.QualifiedName;
+import org.enso.test.utils.ContextUtils;
+import org.graalvm.polyglot.Context;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the ordering, coalescing and per-key exclusion of the tasks in {@link SerializationPool}.
+ * The pool has a single background thread, which is kept busy by a blocking task while the tested
+ * tasks are submitted.
+ */
+public class SerializationPoolTest {
+  private static final QualifiedName BLOCKER = QualifiedName.fromString("local.Test.Blocker");
+
+  private Context ctx;
+  private TruffleCompilerContext compilerContext;
+  private SerializationPool pool;
+  private CountDownLatch blockerRunning;
+  private CountDownLatch releaseBlocker;
+  private final ConcurrentLinkedQueue<String> ran = new ConcurrentLinkedQueue<>();
+
+  @Before
+  public void setup() {
+    ctx = ContextUtils.createDefaultContext();
+    ctx.enter();
+    var ensoContext =
+        (EnsoContext)
+            ctx.getBindings(LanguageInfo.ID)
+                .invokeMember(MethodNames.TopScope.LEAK_CONTEXT)
+                .asHostObject();
+    compilerContext = new TruffleCompilerContext(ensoContext);
+    pool = new SerializationPool(compilerContext, 1);
+    blockerRunning = new CountDownLatch(1);
+    releaseBlocker = new CountDownLatch(1);
+  }
+
+  @After
+  public void teardown() throws InterruptedException {
+    releaseBlocker.countDown();
+    pool.shutdown(true);
+    ctx.leave();
+    ctx.close();
+  }
+
+  @Test
+  public void runsTasksOrderedByPriority() throws Exception {
+    blockPool();
+    var library = submit("library", SerializationPool.Priority.LIBRARY, "Library");
+    var module = submit("module", SerializationPool.Priority.MODULE, "Module");
+    var interactive =
+        submit("interactive", SerializationPool.Priority.INTERACTIVE_MODULE, "Interactive");
+    var opened = submit("opened", SerializationPool.Priority.MODULE, "Opened");
+    var reopened = submit("reopened", SerializationPool.Priority.INTERACTIVE_MODULE, "Opened");
+    assertSame("Raising the priority keeps the future", opened, reopened);
+
+    releaseBlocker.countDown();
+    for (var future : List.of(library, module, interactive, opened)) {
+      future.get(10, TimeUnit.SECONDS);
+    }
+    assertEquals(List.of("interactive", "reopened", "module", "library"), List.copyOf(ran));
+  }
+
+  @Test
+  public void coalescesTasksOfQueuedKey() throws Exception {
+    blockPool();
+    var first = submit("first", SerializationPool.Priority.MODULE, "Module");
+    var second = submit("second", SerializationPool.Priority.MODULE, "Module");
+    assertSame("Both requests share the future", first, second);
+    assertTrue(pool.isWaitingForSerialization(name("Module")));
+
+    releaseBlocker.countDown();
+    assertEquals("second", first.get(10, TimeUnit.SECONDS));
+    assertTrue(second.isDone());
+    assertEquals("Only the latest task is run, once", List.of("second"), List.copyOf(ran));
+    assertFalse(pool.isWaitingForSerialization(name("Module")));
+  }
+
+  @Test
+  public void abortsCoalescedTask() throws Exception {
+    blockPool();
+    var first = submit("first", SerializationPool.Priority.MODULE, "Module");
+    var second = submit("second", SerializationPool.Priority.MODULE, "Module");
+    var other = submit("other", SerializationPool.Priority.MODULE, "Other");
+
+    assertTrue(pool.abort(name("Module")));
+    assertFalse(pool.isWaitingForSerialization(name("Module")));
+    assertFalse("Nothing left to abort", pool.abort(name("Module")));
+    assertTrue(first.isCancelled());
+    assertTrue(second.isCancelled());
+
+    releaseBlocker.countDown();
+    other.get(10, TimeUnit.SECONDS);
+    assertEquals(List.of("other"), List.copyOf(ran));
+    try {
+      first.get();
+      throw new AssertionError("The aborted task should not complete");
+    } catch (CancellationException expected) {
+      // The task was aborted.
+    }
+  }
+
+  @Test
+  public void runsKeyResubmittedWhileRunningAfterIt() throws Exception {
+    var twoThreads = new SerializationPool(compilerContext, 2);
+    try {
+      var running = new AtomicInteger();
+      var overlapped = new AtomicInteger();
+      var firstStarted = new CountDownLatch(1);
+      var releaseFirst = new CountDownLatch(1);
+      Future<String> first =
+          twoThreads.submitTask(
+              () -> {
+                running.incrementAndGet();
+                firstStarted.countDown();
+                releaseFirst.await();
+                running.decrementAndGet();
+                ran.add("first");
+                return "first";
+              },
+              SerializationPool.Priority.MODULE,
+              true,
+              name("Module"));
+      assertTrue(firstStarted.await(10, TimeUnit.SECONDS));
+      assertFalse(
+          "A running task isn't waiting", twoThreads.isWaitingForSerialization(name("Module")));
+
+      Future<String> second =
+          twoThreads.submitTask(
+              () -> {
+                if (running.incrementAndGet() > 1) {
+                  overlapped.incrementAndGet();
+                }
+                running.decrementAndGet();
+                ran.add("second");
+                return "second";
+              },
+              SerializationPool.Priority.MODULE,
+              true,
+              name("Module"));
+      assertNotSame("The new request gets a new future", first, second);
+      Thread.sleep(100);
+      assertFalse("The second task waits for the first one", second.isDone());
+
+      releaseFirst.countDown();
+      assertEquals("first", first.get(10, TimeUnit.SECONDS));
+      assertEquals("second", second.get(10, TimeUnit.SECONDS));
+      assertEquals(0, overlapped.get());
+      assertEquals(List.of("first", "second"), List.copyOf(ran));
+    } finally {
+      twoThreads.shutdown(true);
+    }
+  }
+
+  /** Occupies the only background thread until {@link #releaseBlocker} is counted down. */
+  private void blockPool() throws InterruptedException {
+    pool.submitTask(
+        () -> {
+          blockerRunning.countDown();
+          releaseBlocker.await();
+          return null;
+        },
+        SerializationPool.Priority.INTERACTIVE_MODULE,
+        true,
+        BLOCKER);
+    assertTrue(blockerRunning.await(10, TimeUnit.SECONDS));
+  }
+
+  /** Submits a task recording its {@code label} when run. */
+  private Future<String> submit(String label, SerializationPool.Priority priority, String key) {
+    return pool.submitTask(
+        () -> {
+          ran.add(label);
+          return label;
+        },
+        priority,
+        true,
+        name(key));
+  }
+
+  private static QualifiedName name(String key) {
+    return QualifiedName.fromString("local.Test." + key);
+  }
+}
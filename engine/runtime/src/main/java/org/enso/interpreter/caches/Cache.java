@@ -5,13 +5,15 @@ import com.oracle.truffle.api.TruffleLogger;
 import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
 import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.logging.Level;
 import org.enso.interpreter.runtime.EnsoContext;
 import org.enso.logger.masking.MaskedPath;
@@ -139,11 +141,9 @@ public final class Cache<T, M> {
       byte[] bytesToWrite = spi.serialize(context, entry);
 
       String blobDigest = CacheUtils.computeDigestFromBytes(ByteBuffer.wrap(bytesToWrite));
-      String sourceDigest = spi.computeDigest(entry, logger).get();
-      if (sourceDigest == null) {
-        throw new IOException("unable to compute digest");
-      }
-      byte[] metadataBytes = spi.metadata(sourceDigest, blobDigest, entry);
+      byte[] metadataBytes =
+          spi.metadata(blobDigest, entry)
+              .orElseThrow(() -> new IOException("unable to compute digest"));
 
       TruffleFile cacheDataFile = getCacheDataPath(cacheRoot);
       TruffleFile metadataFile = getCacheMetadataPath(cacheRoot);
@@ -252,19 +252,10 @@ public final class Cache<T, M> {
       M meta = optMeta.get();
       boolean sourceDigestValid =
           !needsSourceDigestVerification
-              || spi.computeDigestFromSource(context, logger)
+              || spi.computeDigestFromSource(context, meta, logger)
                   .map(digest -> digest.equals(spi.sourceHash(meta)))
                   .orElseGet(() -> false);
-      var file = new File(dataPath.toUri());
-      ByteBuffer blobBytes;
-      var threeMbs = 3 * 1024 * 1024;
-      if (file.exists() && file.length() > threeMbs) {
-        logger.log(Level.FINE, "Cache file " + file + " mmapped with " + file.length() + " size");
-        var raf = new RandomAccessFile(file, "r");
-        blobBytes = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, file.length());
-      } else {
-        blobBytes = ByteBuffer.wrap(dataPath.readAllBytes());
-      }
+      var blobBytes = readCacheData(dataPath, logger);
       boolean blobDigestValid =
           !needsDataDigestVerification
               || CacheUtils.computeDigestFromBytes(blobBytes).equals(spi.blobHash(meta));
@@ -308,6 +299,45 @@ public final class Cache<T, M> {
     }
   }
 
+  /**
+   * Reads the cache data from the provided location.
+   *
+   * <p>Large files and the files of caches that {@linkplain Spi#deserializesLazily() deserialize
+   * lazily} are memory mapped, if {@link #isMappingSupported() supported}. Their data is then only
+   * paged in when the deserialized objects read it, so only the parts of a lazy cache that are
+   * actually used are ever read.
+   *
+   * @param dataPath location of the serialized data
+   * @param logger a logger
+   * @return the data
+   */
+  private ByteBuffer readCacheData(TruffleFile dataPath, TruffleLogger logger) throws IOException {
+    var file = new File(dataPath.toUri());
+    var threeMbs = 3 * 1024 * 1024;
+    if (file.exists()
+        && isMappingSupported()
+        && (spi.deserializesLazily() || file.length() > threeMbs)) {
+      logger.log(Level.FINE, "Cache file " + file + " mmapped with " + file.length() + " size");
+      // the mapping remains valid after the channel is closed
+      try (var channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+        return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      }
+    } else {
+      return ByteBuffer.wrap(dataPath.readAllBytes());
+    }
+  }
+
+  /**
+   * Checks if cache files can be memory mapped.
+   *
+   * <p>On Windows, a mapped file cannot be replaced or deleted until the mapping is garbage
+   * collected, so a new version of the cache could not be written. The files are read into memory
+   * there instead.
+   */
+  static boolean isMappingSupported() {
+    return !System.getProperty("os.name", "").startsWith("Windows");
+  }
+
   /**
    * Read metadata representation from the provided location
    *
@@ -414,21 +444,51 @@ public final class Cache<T, M> {
    */
   record Roots(TruffleFile localCacheRoot, TruffleFile globalCacheRoot) {}
 
+  /**
+   * Writes the bytes to a temporary file next to the given one and then moves it in its place.
+   *
+   * <p>The cache files may be memory mapped by readers, which would see their contents change or
+   * get truncated if the file was overwritten in place. A replaced file stays readable until the
+   * mappings of it are released.
+   */
   private static boolean writeBytesTo(TruffleFile file, byte[] bytes) {
-    try (OutputStream stream =
-        file.newOutputStream(
-            StandardOpenOption.WRITE,
-            StandardOpenOption.CREATE,
-            StandardOpenOption.TRUNCATE_EXISTING)) {
-      stream.write(bytes);
-    } catch (IOException ioe) {
-      return false;
-    } catch (SecurityException se) {
+    var temporary =
+        file.getParent()
+            .resolve(
+                file.getName() + "." + Long.toHexString(ThreadLocalRandom.current().nextLong()));
+    boolean moved = false;
+    try {
+      try (OutputStream stream =
+          temporary.newOutputStream(StandardOpenOption.WRITE, StandardOpenOption.CREATE_NEW)) {
+        stream.write(bytes);
+      }
+      try {
+        temporary.move(file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+      } catch (AtomicMoveNotSupportedException e) {
+        temporary.move(file, StandardCopyOption.REPLACE_EXISTING);
+      }
+      moved = true;
+    } catch (IOException | SecurityException e) {
       return false;
+    } finally {
+      if (!moved) {
+        deleteTemporary(temporary);
+      }
     }
     return true;
   }
 
+  /** Deletes a temporary file that could not be moved in place of the cache file, if it exists. */
+  private static void deleteTemporary(TruffleFile temporary) {
+    try {
+      temporary.delete();
+    } catch (NoSuchFileException e) {
+      // the temporary file was not created
+    } catch (IOException | SecurityException e) {
+      // the file is left behind, but it is not used as a cache file
+    }
+  }
+
   private static MaskedPath toMaskedPath(TruffleFile truffleFile) {
     return new MaskedPath(Path.of(truffleFile.getPath()));
   }
@@ -466,16 +526,16 @@ public final class Cache<T, M> {
     public abstract byte[] serialize(EnsoContext context, T entry) throws IOException;
 
     /**
-     * Return serialized representation of data's metadata.
+     * Compute digest of data's source and return serialized representation of data's metadata,
+     * which records it.
      *
-     * @param sourceDigest digest of data's source
      * @param blobDigest digest of serialized data
      * @param entry data to serialize
-     * @return raw bytes representing serialized metadata
+     * @return raw bytes representing serialized metadata, or empty if the digest of data's source
+     *     cannot be computed
      * @throws java.io.IOException in case of I/O error
      */
-    public abstract byte[] metadata(String sourceDigest, String blobDigest, T entry)
-        throws IOException;
+    public abstract Optional<byte[]> metadata(String blobDigest, T entry) throws IOException;
 
     /**
      * De-serializes raw bytes to data's metadata.
@@ -488,24 +548,17 @@ public final class Cache<T, M> {
     public abstract Optional<M> metadataFromBytes(byte[] bytes, TruffleLogger logger)
         throws IOException;
 
-    /**
-     * Compute digest of cache's data
-     *
-     * @param entry data for which digest should be computed
-     * @param logger Truffle's logger
-     * @return non-empty digest, if successful
-     */
-    public abstract Optional<String> computeDigest(T entry, TruffleLogger logger);
-
     /**
      * Compute digest of data's source
      *
      * @param context the language context in which loading is taking place
+     * @param meta metadata of the cache being validated, which may be used to avoid recomputing the
+     *     digest of the parts of the source that have not changed since the cache was written
      * @param logger Truffle's logger
      * @return non-empty digest, if successful
      */
     public abstract Optional<String> computeDigestFromSource(
-        EnsoContext context, TruffleLogger logger);
+        EnsoContext context, M meta, TruffleLogger logger);
 
     /**
      * Returns locations where caches can be located
@@ -517,6 +570,17 @@ public final class Cache<T, M> {
 
     public abstract String entryName();
 
+    /**
+     * Whether the {@link #deserialize deserialized} entry keeps reading its objects from the data
+     * only when they are first requested. The data of such caches is memory mapped, if {@link
+     * Cache#isMappingSupported() supported}.
+     *
+     * @return {@code true} if the entry is materialized lazily, {@code false} by default
+     */
+    public default boolean deserializesLazily() {
+      return false;
+    }
+
     public abstract String dataSuffix();
 
     public abstract String metadataSuffix();
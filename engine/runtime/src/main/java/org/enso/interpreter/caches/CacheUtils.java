@@ -2,11 +2,7 @@ package org.enso.interpreter.caches;
 
 import com.oracle.truffle.api.TruffleFile;
 import java.io.IOException;
-import java.io.InputStream;
 import java.nio.ByteBuffer;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
-import java.util.Comparator;
 import java.util.List;
 import java.util.UUID;
 import java.util.function.Function;
@@ -15,13 +11,10 @@ import org.enso.compiler.core.ir.ProcessingPass;
 import org.enso.editions.LibraryName;
 import org.enso.pkg.SourceFile;
 import org.enso.polyglot.Suggestion;
-import org.enso.text.Hex;
 
 final class CacheUtils {
   private CacheUtils() {}
 
-  private static int BUFFER_SIZE = 1024;
-
   static Function<Object, Object> writeReplace(CompilerContext context, boolean keepUUIDs) {
     return (obj) ->
         switch (obj) {
@@ -48,19 +41,6 @@ final class CacheUtils {
         };
   }
 
-  /**
-   * Returns a default hashing algorithm used for Enso caches.
-   *
-   * @return digest used for computing hashes
-   */
-  private static MessageDigest messageDigest() {
-    try {
-      return MessageDigest.getInstance("SHA-1");
-    } catch (NoSuchAlgorithmException ex) {
-      throw raise(RuntimeException.class, ex);
-    }
-  }
-
   /**
    * Computes digest from an array of bytes using a default hashing algorithm.
    *
@@ -68,52 +48,40 @@ final class CacheUtils {
    * @return string representation of bytes' hash
    */
   static String computeDigestFromBytes(ByteBuffer bytes) {
-    var sha = messageDigest();
-    sha.update(bytes);
-    return Hex.toHexString(sha.digest());
+    return XXHash64.hexDigest(bytes);
   }
 
   /**
    * Computes digest from package sources using a default hashing algorithm.
    *
    * @param pkgSources the list of package sources
-   * @return string representation of bytes' hash
+   * @param previous manifest of the sources recorded earlier, allowing to skip reading the sources
+   *     that were not modified since
+   * @return the manifest of the sources, providing their digest
    */
-  static final String computeDigestOfLibrarySources(List<SourceFile<TruffleFile>> pkgSources) {
-    pkgSources.sort(Comparator.comparing(o -> o.qualifiedName().toString()));
-
+  static SourceManifest computeManifestOfLibrarySources(
+      List<SourceFile<TruffleFile>> pkgSources, SourceManifest previous) {
     try {
-      var digest = messageDigest();
-      for (var source : pkgSources) {
-        byte[] buffer = new byte[BUFFER_SIZE];
-        try (InputStream is = source.file().newInputStream()) {
-          int read = is.read(buffer, 0, BUFFER_SIZE);
-          while (read > -1) {
-            digest.update(buffer, 0, read);
-            read = is.read(buffer, 0, BUFFER_SIZE);
-          }
-        }
-      }
-      return Hex.toHexString(digest.digest());
+      return SourceManifest.of(pkgSources, previous);
     } catch (IOException ex) {
       throw raise(RuntimeException.class, ex);
     }
   }
 
   public static String computeDigestFromSuggestions(List<Suggestion> suggestions) {
-    var digest = messageDigest();
+    var digest = new XXHash64();
     for (var suggestion : suggestions) {
       digest.update(suggestion.module().getBytes());
       digest.update(suggestion.name().getBytes());
       digest.update(suggestion.returnType().getBytes());
     }
-    return Hex.toHexString(digest.digest());
+    return digest.hexDigest();
   }
 
   public static String computeDigestFromLibName(LibraryName libName) {
-    var digest = messageDigest();
+    var digest = new XXHash64();
     digest.update(libName.qualifiedName().getBytes());
-    return Hex.toHexString(digest.digest());
+    return digest.hexDigest();
   }
 
   @SuppressWarnings("unchecked")
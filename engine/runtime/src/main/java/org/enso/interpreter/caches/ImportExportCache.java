@@ -13,6 +13,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.logging.Level;
 import org.apache.commons.lang3.StringUtils;
+import org.enso.compiler.core.ir.Module;
 import org.enso.compiler.data.BindingsMap;
 import org.enso.compiler.data.BindingsMap.DefinedEntity;
 import org.enso.compiler.data.BindingsMap.ModuleReference;
@@ -55,9 +56,20 @@ public final class ImportExportCache
   }
 
   @Override
-  public byte[] metadata(String sourceDigest, String blobDigest, CachedBindings entry)
-      throws IOException {
-    return new Metadata(sourceDigest, blobDigest).toBytes();
+  public boolean deserializesLazily() {
+    return true;
+  }
+
+  @Override
+  public Optional<byte[]> metadata(String blobDigest, CachedBindings entry) throws IOException {
+    if (entry.sources().isEmpty()) {
+      return Optional.empty();
+    }
+    // The manifest is stored alongside its digest, so that the next validation only needs to
+    // read the sources modified since.
+    var manifest =
+        CacheUtils.computeManifestOfLibrarySources(entry.sources().get(), SourceManifest.EMPTY);
+    return Optional.of(new Metadata(manifest.digest(), blobDigest, manifest).toBytes());
   }
 
   @Override
@@ -83,18 +95,18 @@ public final class ImportExportCache
     return Optional.of(Metadata.read(bytes));
   }
 
-  @Override
-  public Optional<String> computeDigest(CachedBindings entry, TruffleLogger logger) {
-    return entry.sources().map(sources -> CacheUtils.computeDigestOfLibrarySources(sources));
-  }
-
   @Override
   @SuppressWarnings("unchecked")
-  public Optional<String> computeDigestFromSource(EnsoContext context, TruffleLogger logger) {
+  public Optional<String> computeDigestFromSource(
+      EnsoContext context, Metadata meta, TruffleLogger logger) {
+    // Only the sources modified since the cache was written need to be read again.
     return context
         .getPackageRepository()
         .getPackageForLibraryJava(libraryName)
-        .map(pkg -> CacheUtils.computeDigestOfLibrarySources(pkg.listSourcesJava()));
+        .map(
+            pkg ->
+                CacheUtils.computeManifestOfLibrarySources(pkg.listSourcesJava(), meta.sources())
+                    .digest());
   }
 
   @Override
@@ -136,22 +148,51 @@ public final class ImportExportCache
     return meta.blobHash();
   }
 
+  /**
+   * IR of all the modules of a library, stored together in the library's bindings file.
+   *
+   * <p>Each module is persisted as a deferred {@link Persistance.Reference}, so the reference table
+   * of the file serves as an index of the modules. Loading the file reads just the names; a module
+   * is materialized when {@link #findForModule} requests it for the first time and the same
+   * instance is returned afterwards.
+   */
   public static final class MapToBindings {
-    private final java.util.Map<QualifiedName, org.enso.compiler.core.ir.Module> entries;
+    private final java.util.Map<QualifiedName, Persistance.Reference<Module>> entries;
 
-    public MapToBindings(java.util.Map<QualifiedName, org.enso.compiler.core.ir.Module> entries) {
+    private MapToBindings(java.util.Map<QualifiedName, Persistance.Reference<Module>> entries) {
       this.entries = entries;
     }
 
-    public org.enso.compiler.core.ir.Module findForModule(QualifiedName moduleName) {
-      return entries.get(moduleName);
+    /**
+     * Collects the IR of the modules of a library to be persisted.
+     *
+     * @param modules the IR of the modules keyed by their names
+     * @return bindings holding a reference to each module
+     */
+    public static MapToBindings of(java.util.Map<QualifiedName, Module> modules) {
+      var entries = new java.util.HashMap<QualifiedName, Persistance.Reference<Module>>();
+      for (var entry : modules.entrySet()) {
+        entries.put(entry.getKey(), Persistance.Reference.of(entry.getValue(), true));
+      }
+      return new MapToBindings(entries);
+    }
+
+    /**
+     * Finds the IR of a module of the library, reading it from the cache on first access.
+     *
+     * @param moduleName qualified name of the module
+     * @return the IR of the module or {@code null} if the library does not contain such module
+     */
+    public synchronized Module findForModule(QualifiedName moduleName) {
+      var ref = entries.get(moduleName);
+      return ref == null ? null : ref.get(Module.class);
     }
   }
 
   @ServiceProvider(service = Persistance.class)
   public static final class PersistMapToBindings extends Persistance<MapToBindings> {
     public PersistMapToBindings() {
-      super(MapToBindings.class, false, 3642);
+      super(MapToBindings.class, false, 3643);
     }
 
     @Override
@@ -172,12 +213,13 @@ public final class ImportExportCache
       MapToBindings bindings,
       Optional<List<SourceFile<TruffleFile>>> sources) {}
 
-  public record Metadata(String sourceHash, String blobHash) {
+  public record Metadata(String sourceHash, String blobHash, SourceManifest sources) {
     byte[] toBytes() throws IOException {
       try (var os = new ByteArrayOutputStream();
           var dos = new DataOutputStream(os)) {
         dos.writeUTF(sourceHash());
         dos.writeUTF(blobHash());
+        sources().write(dos);
         return os.toByteArray();
       }
     }
@@ -185,7 +227,7 @@ public final class ImportExportCache
     static Metadata read(byte[] arr) throws IOException {
       try (var is = new ByteArrayInputStream(arr);
           var dis = new DataInputStream(is)) {
-        return new Metadata(dis.readUTF(), dis.readUTF());
+        return new Metadata(dis.readUTF(), dis.readUTF(), SourceManifest.read(dis));
       }
     }
   }
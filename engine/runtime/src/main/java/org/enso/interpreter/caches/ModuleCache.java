@@ -51,9 +51,13 @@ public final class ModuleCache
   }
 
   @Override
-  public byte[] metadata(String sourceDigest, String blobDigest, CachedModule entry)
-      throws IOException {
-    return new Metadata(sourceDigest, blobDigest, entry.compilationStage().toString()).toBytes();
+  public Optional<byte[]> metadata(String blobDigest, CachedModule entry) throws IOException {
+    var sourceDigest = computeDigestOfModuleSources(entry.source());
+    if (sourceDigest.isEmpty()) {
+      return Optional.empty();
+    }
+    var meta = new Metadata(sourceDigest.get(), blobDigest, entry.compilationStage().toString());
+    return Optional.of(meta.toBytes());
   }
 
   @Override
@@ -95,12 +99,8 @@ public final class ModuleCache
   }
 
   @Override
-  public Optional<String> computeDigest(CachedModule entry, TruffleLogger logger) {
-    return computeDigestOfModuleSources(entry.source());
-  }
-
-  @Override
-  public Optional<String> computeDigestFromSource(EnsoContext context, TruffleLogger logger) {
+  public Optional<String> computeDigestFromSource(
+      EnsoContext context, Metadata meta, TruffleLogger logger) {
     try {
       return computeDigestOfModuleSources(module.getSource());
     } catch (IOException e) {
@@ -0,0 +1,130 @@
+package org.enso.interpreter.caches;
+
+import com.oracle.truffle.api.TruffleFile;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import org.enso.pkg.SourceFile;
+
+/**
+ * The sizes, modification times and content hashes of the source files of a library, recorded when
+ * its cache is written.
+ *
+ * <p>When the cache is validated, a source file whose size and modification time are the same as
+ * recorded is assumed to be unchanged, so only the files modified since then are read and hashed
+ * again. A file modified at the time the manifest was recorded or later may be modified again
+ * without its modification time changing, so such a file is always hashed again.
+ *
+ * @param recordedAt the time when the manifest started to be recorded, in milliseconds since the
+ *     epoch, truncated to whole seconds as file systems may record modification times in seconds
+ * @param entries the recorded source files, keyed by their qualified names
+ */
+record SourceManifest(long recordedAt, SortedMap<String, SourceManifest.Entry> entries) {
+  static final SourceManifest EMPTY =
+      new SourceManifest(Long.MIN_VALUE, Collections.emptySortedMap());
+
+  private static final int BUFFER_SIZE = 8192;
+
+  /**
+   * A recorded source file.
+   *
+   * @param size size of the file in bytes
+   * @param lastModified modification time of the file in milliseconds since the epoch
+   * @param hash hash of the contents of the file
+   */
+  record Entry(long size, long lastModified, long hash) {}
+
+  /**
+   * Records the current state of the given source files.
+   *
+   * @param sources the source files of a library
+   * @param previous a manifest recorded earlier, whose hashes are reused for the files that have
+   *     not been modified since and had not been modified when it was recorded
+   * @return the manifest of the sources
+   * @throws IOException if a source file cannot be read
+   */
+  static SourceManifest of(List<SourceFile<TruffleFile>> sources, SourceManifest previous)
+      throws IOException {
+    var recordedAt = System.currentTimeMillis() / 1000 * 1000;
+    var entries = new TreeMap<String, Entry>();
+    for (var source : sources) {
+      var name = source.qualifiedName().toString();
+      var file = source.file();
+      // The file is stamped before it is read, so that a concurrent modification is noticed on
+      // the next validation.
+      var size = file.size();
+      var lastModified = file.getLastModifiedTime().toMillis();
+      var recorded = previous.entries.get(name);
+      if (recorded != null
+          && recorded.size == size
+          && recorded.lastModified == lastModified
+          && lastModified < previous.recordedAt) {
+        entries.put(name, recorded);
+      } else {
+        entries.put(name, new Entry(size, lastModified, hashContents(file)));
+      }
+    }
+    return new SourceManifest(recordedAt, entries);
+  }
+
+  /**
+   * Computes the digest of all the recorded sources, which changes whenever a source file is added,
+   * removed, renamed or modified.
+   *
+   * @return string representation of the digest
+   */
+  String digest() {
+    var hash = new XXHash64();
+    for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+      var name = entry.getKey().getBytes(StandardCharsets.UTF_8);
+      hash.update(name.length);
+      hash.update(name);
+      hash.update(entry.getValue().hash);
+    }
+    return hash.hexDigest();
+  }
+
+  void write(DataOutputStream out) throws IOException {
+    out.writeLong(recordedAt);
+    out.writeInt(entries.size());
+    for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+      out.writeUTF(entry.getKey());
+      out.writeLong(entry.getValue().size);
+      out.writeLong(entry.getValue().lastModified);
+      out.writeLong(entry.getValue().hash);
+    }
+  }
+
+  static SourceManifest read(DataInputStream in) throws IOException {
+    long recordedAt = in.readLong();
+    int count = in.readInt();
+    if (count < 0) {
+      throw new IOException("Invalid number of sources in the manifest: " + count);
+    }
+    var entries = new TreeMap<String, Entry>();
+    for (int i = 0; i < count; i++) {
+      entries.put(in.readUTF(), new Entry(in.readLong(), in.readLong(), in.readLong()));
+    }
+    return new SourceManifest(recordedAt, entries);
+  }
+
+  private static long hashContents(TruffleFile file) throws IOException {
+    var hash = new XXHash64();
+    var buffer = new byte[BUFFER_SIZE];
+    try (InputStream is = file.newInputStream()) {
+      int read = is.read(buffer, 0, BUFFER_SIZE);
+      while (read > -1) {
+        hash.update(buffer, 0, read);
+        read = is.read(buffer, 0, BUFFER_SIZE);
+      }
+    }
+    return hash.digest();
+  }
+}
@@ -64,9 +64,9 @@ public final class SuggestionsCache
   }
 
   @Override
-  public byte[] metadata(String sourceDigest, String blobDigest, CachedSuggestions entry)
-      throws IOException {
-    return new Metadata(sourceDigest, blobDigest).toBytes();
+  public Optional<byte[]> metadata(String blobDigest, CachedSuggestions entry) throws IOException {
+    var sourceDigest = CacheUtils.computeDigestFromLibName(entry.libraryName);
+    return Optional.of(new Metadata(sourceDigest, blobDigest).toBytes());
   }
 
   @Override
@@ -90,12 +90,8 @@ public final class SuggestionsCache
   }
 
   @Override
-  public Optional<String> computeDigest(CachedSuggestions entry, TruffleLogger logger) {
-    return Optional.of(CacheUtils.computeDigestFromLibName(entry.libraryName));
-  }
-
-  @Override
-  public Optional<String> computeDigestFromSource(EnsoContext context, TruffleLogger logger) {
+  public Optional<String> computeDigestFromSource(
+      EnsoContext context, Metadata meta, TruffleLogger logger) {
     return Optional.of(CacheUtils.computeDigestFromLibName(libraryName));
   }
 
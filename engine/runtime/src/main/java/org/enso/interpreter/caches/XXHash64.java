@@ -0,0 +1,172 @@
+package org.enso.interpreter.caches;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.HexFormat;
+
+/**
+ * Incremental implementation of the 64-bit xxHash algorithm (XXH64).
+ *
+ * <p>The caches only need to detect whether their sources or data have changed, which does not
+ * require a cryptographic digest. XXH64 processes data at memory bandwidth, several times faster
+ * than SHA-1, while still making accidental collisions practically impossible.
+ */
+final class XXHash64 {
+  private static final long PRIME_1 = 0x9E3779B185EBCA87L;
+  private static final long PRIME_2 = 0xC2B2AE3D27D4EB4FL;
+  private static final long PRIME_3 = 0x165667B19E3779F9L;
+  private static final long PRIME_4 = 0x85EBCA77C2B2AE63L;
+  private static final long PRIME_5 = 0x27D4EB2F165667C5L;
+
+  private static final int STRIPE_SIZE = 32;
+  private static final int CHUNK_SIZE = 8192;
+
+  private static final VarHandle LONGS =
+      MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+  private static final VarHandle INTS =
+      MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+
+  private long acc1 = PRIME_1 + PRIME_2;
+  private long acc2 = PRIME_2;
+  private long acc3 = 0;
+  private long acc4 = -PRIME_1;
+
+  /** The bytes not yet consumed by a stripe. */
+  private final byte[] pending = new byte[STRIPE_SIZE];
+
+  private int pendingSize = 0;
+  private long totalSize = 0;
+
+  /**
+   * Computes the hash of the remaining bytes of a buffer, without changing its position.
+   *
+   * @param bytes the bytes to hash
+   * @return the hash as a hexadecimal string
+   */
+  static String hexDigest(ByteBuffer bytes) {
+    var hash = new XXHash64();
+    hash.update(bytes);
+    return hash.hexDigest();
+  }
+
+  /** Feeds the remaining bytes of a buffer to the hash, without changing its position. */
+  void update(ByteBuffer bytes) {
+    var input = bytes.duplicate();
+    if (input.hasArray()) {
+      update(input.array(), input.arrayOffset() + input.position(), input.remaining());
+      return;
+    }
+
+    var chunk = new byte[Math.min(CHUNK_SIZE, input.remaining())];
+    while (input.hasRemaining()) {
+      int length = Math.min(chunk.length, input.remaining());
+      input.get(chunk, 0, length);
+      update(chunk, 0, length);
+    }
+  }
+
+  void update(byte[] bytes) {
+    update(bytes, 0, bytes.length);
+  }
+
+  void update(byte[] bytes, int offset, int length) {
+    totalSize += length;
+
+    if (pendingSize + length < STRIPE_SIZE) {
+      System.arraycopy(bytes, offset, pending, pendingSize, length);
+      pendingSize += length;
+      return;
+    }
+
+    if (pendingSize > 0) {
+      int missing = STRIPE_SIZE - pendingSize;
+      System.arraycopy(bytes, offset, pending, pendingSize, missing);
+      consumeStripe(pending, 0);
+      offset += missing;
+      length -= missing;
+      pendingSize = 0;
+    }
+
+    while (length >= STRIPE_SIZE) {
+      consumeStripe(bytes, offset);
+      offset += STRIPE_SIZE;
+      length -= STRIPE_SIZE;
+    }
+
+    System.arraycopy(bytes, offset, pending, 0, length);
+    pendingSize = length;
+  }
+
+  /** Feeds the 8 bytes of a value to the hash, in little-endian order. */
+  void update(long value) {
+    var bytes = new byte[Long.BYTES];
+    LONGS.set(bytes, 0, value);
+    update(bytes, 0, bytes.length);
+  }
+
+  /** Returns the hash of all the bytes fed so far. */
+  long digest() {
+    long hash;
+    if (totalSize >= STRIPE_SIZE) {
+      hash =
+          Long.rotateLeft(acc1, 1)
+              + Long.rotateLeft(acc2, 7)
+              + Long.rotateLeft(acc3, 12)
+              + Long.rotateLeft(acc4, 18);
+      hash = mergeAccumulator(hash, acc1);
+      hash = mergeAccumulator(hash, acc2);
+      hash = mergeAccumulator(hash, acc3);
+      hash = mergeAccumulator(hash, acc4);
+    } else {
+      hash = PRIME_5;
+    }
+    hash += totalSize;
+
+    int i = 0;
+    for (; i + Long.BYTES <= pendingSize; i += Long.BYTES) {
+      hash ^= round(0, (long) LONGS.get(pending, i));
+      hash = Long.rotateLeft(hash, 27) * PRIME_1 + PRIME_4;
+    }
+    if (i + Integer.BYTES <= pendingSize) {
+      hash ^= (Integer.toUnsignedLong((int) INTS.get(pending, i))) * PRIME_1;
+      hash = Long.rotateLeft(hash, 23) * PRIME_2 + PRIME_3;
+      i += Integer.BYTES;
+    }
+    for (; i < pendingSize; i++) {
+      hash ^= (pending[i] & 0xFFL) * PRIME_5;
+      hash = Long.rotateLeft(hash, 11) * PRIME_1;
+    }
+
+    hash ^= hash >>> 33;
+    hash *= PRIME_2;
+    hash ^= hash >>> 29;
+    hash *= PRIME_3;
+    hash ^= hash >>> 32;
+    return hash;
+  }
+
+  /** Returns the hash of all the bytes fed so far as a hexadecimal string. */
+  String hexDigest() {
+    return HexFormat.of().toHexDigits(digest());
+  }
+
+  private void consumeStripe(byte[] bytes, int offset) {
+    acc1 = round(acc1, (long) LONGS.get(bytes, offset));
+    acc2 = round(acc2, (long) LONGS.get(bytes, offset + 8));
+    acc3 = round(acc3, (long) LONGS.get(bytes, offset + 16));
+    acc4 = round(acc4, (long) LONGS.get(bytes, offset + 24));
+  }
+
+  private static long round(long acc, long input) {
+    acc += input * PRIME_2;
+    acc = Long.rotateLeft(acc, 31);
+    return acc * PRIME_1;
+  }
+
+  private static long mergeAccumulator(long hash, long acc) {
+    hash ^= round(0, acc);
+    return hash * PRIME_1 + PRIME_4;
+  }
+}
@@ -148,7 +148,8 @@ public final class EnsoContext {
             !isPrivateCheckDisabled,
             isStaticTypeAnalysisEnabled,
             getOption(RuntimeOptions.STRICT_ERRORS_KEY),
-            scala.Option.empty());
+            scala.Option.empty(),
+            getOption(RuntimeOptions.PARALLEL_COMPILATION_KEY));
     this.home = home;
     this.builtins = new Builtins(this);
     this.notificationHandler = notificationHandler;
@@ -7,10 +7,12 @@ import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import org.enso.pkg.QualifiedName;
 
@@ -19,7 +21,7 @@ import org.enso.pkg.QualifiedName;
  * encapsulate working with threads:
  *
  * <ul>
- *   <li>serialization is done asychronously in a single background thread
+ *   <li>serialization is done asychronously in a small, bounded set of background threads
  *   <li>deserialization is done synchronously and tries to wait for possible background work to
  *       finish
  * </ul>
@@ -27,9 +29,15 @@ import org.enso.pkg.QualifiedName;
  * It is good to keep in mind, that serialization isn't the primary goal while Enso program is
  * running. When a program is running as much of the CPU time should be dedicated to compilation and
  * execution. Only when the Enso program execution is over, flushing the pending caches becomes a
- * priority. Future rewrites of this class may optimize towards such direction.
+ * priority. Hence the number of background threads is kept low and the pending tasks are ordered by
+ * their {@link Priority}. Repeated requests to serialize the same key that is still waiting in the
+ * queue are coalesced: only the latest task is run. At most one task for a given key runs at a
+ * time.
  */
 final class SerializationPool {
+  /** Maximal number of the background threads. */
+  private static final int MAXIMUM_THREAD_COUNT = 4;
+
   private final TruffleCompilerContext context;
 
   /**
@@ -45,26 +53,60 @@ final class SerializationPool {
    *
    * <p>This map is accessed concurrently.
    */
-  private final Map<QualifiedName, Future<?>> isWaitingForSerialization = new ConcurrentHashMap<>();
+  private final Map<QualifiedName, Job> isWaitingForSerialization = new ConcurrentHashMap<>();
 
   /** The thread pool that handles serialization. */
-  private final ExecutorService pool;
+  private final ThreadPoolExecutor pool;
 
   /** all associated threads */
   private final Set<Thread> threads = Collections.synchronizedSet(new HashSet<>());
 
+  /** Orders the jobs of the same priority by their submission. */
+  private final AtomicLong sequence = new AtomicLong();
+
+  private final Statistics statistics = new Statistics();
+
   SerializationPool(TruffleCompilerContext context) {
+    this(
+        context,
+        Math.max(
+            1, Math.min(MAXIMUM_THREAD_COUNT, Runtime.getRuntime().availableProcessors() / 2)));
+  }
+
+  /**
+   * Creates a pool with the given number of background threads.
+   *
+   * @param context the context creating the threads and logging the progress
+   * @param threadCount the number of the background threads
+   */
+  SerializationPool(TruffleCompilerContext context, int threadCount) {
     this.context = context;
+    var threadIndex = new AtomicInteger();
     this.pool =
-        Executors.newSingleThreadExecutor(
+        new ThreadPoolExecutor(
+            threadCount,
+            threadCount,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new PriorityBlockingQueue<>(),
             (r) -> {
               var t = context.createSystemThread(r);
-              t.setName("SerializationPool background thread");
+              t.setName("SerializationPool background thread " + threadIndex.incrementAndGet());
               threads.add(t);
               return t;
             });
   }
 
+  /** Priority of a serialization task. Tasks of higher priority are run first. */
+  enum Priority {
+    /** A module opened by the user. */
+    INTERACTIVE_MODULE,
+    /** Any other module. */
+    MODULE,
+    /** Bindings and suggestions of a whole library. */
+    LIBRARY
+  }
+
   /**
    * @return `true` if there are remaining serialization jobs, `false` otherwise
    */
@@ -121,6 +163,7 @@ final class SerializationPool {
         t.join();
       }
       context.logSerializationManager(Level.FINE, "Serialization manager has been shut down.");
+      statistics.log();
     }
   }
 
@@ -142,7 +185,8 @@ final class SerializationPool {
         var prev = isWaitingForSerialization.remove(key);
         isWaitingForSerialization.notifyAll();
         if (prev != null) {
-          return prev.cancel(false);
+          pool.remove(prev);
+          return prev.future.cancel(false);
         } else {
           return false;
         }
@@ -152,11 +196,30 @@ final class SerializationPool {
     }
   }
 
-  void startSerializing(QualifiedName name) {
+  /**
+   * Marks the {@code name} as being serialized. Waits until a previous serialization of the same
+   * key finishes.
+   *
+   * @param name the key to start serializing
+   * @param job the job that has to remain queued for the key, {@code null} when the serialization
+   *     isn't queued
+   * @return {@code false} if the job has been aborted in the meantime
+   * @throws InterruptedException if the wait is interrupted
+   */
+  private boolean startSerializing(QualifiedName name, Job job) throws InterruptedException {
     synchronized (isWaitingForSerialization) {
-      isWaitingForSerialization.remove(name);
+      while (isSerializing.containsKey(name)) {
+        isWaitingForSerialization.wait();
+      }
+      if (job != null) {
+        if (isWaitingForSerialization.get(name) != job) {
+          return false;
+        }
+        isWaitingForSerialization.remove(name);
+      }
       isSerializing.put(name, true);
       isWaitingForSerialization.notifyAll();
+      return true;
     }
   }
 
@@ -165,27 +228,62 @@ final class SerializationPool {
    *
    * @param name the key to set as having finished serialization
    */
-  void finishSerializing(QualifiedName name) {
+  private void finishSerializing(QualifiedName name) {
     synchronized (isWaitingForSerialization) {
       isSerializing.remove(name);
       isWaitingForSerialization.notifyAll();
     }
   }
 
-  <T> Future<T> submitTask(Callable<T> task, boolean useThreadPool, QualifiedName key) {
+  /**
+   * Submits a serialization task.
+   *
+   * <p>When a task for the same key is still waiting in the queue, the new task replaces it and
+   * both the requests share the returned future.
+   *
+   * @param task the task to run
+   * @param priority the priority of the task
+   * @param useThreadPool if true, the task is run asynchronously
+   * @param key the serialized module or library
+   * @return the future result of the task
+   */
+  @SuppressWarnings("unchecked")
+  <T> Future<T> submitTask(
+      Callable<T> task, Priority priority, boolean useThreadPool, QualifiedName key) {
     if (useThreadPool) {
       synchronized (isWaitingForSerialization) {
-        var future = pool.submit(task);
-        isWaitingForSerialization.put(key, future);
-        return future;
+        var pending = isWaitingForSerialization.get(key);
+        if (pending != null) {
+          pending.task = task;
+          if (priority.compareTo(pending.priority) < 0 && pool.remove(pending)) {
+            pending.priority = priority;
+            pool.execute(pending);
+          }
+          statistics.coalesced.incrementAndGet();
+          return (Future<T>) pending.future;
+        }
+        var job = new Job(key, task, priority, sequence.getAndIncrement());
+        isWaitingForSerialization.put(key, job);
+        pool.execute(job);
+        statistics.queued(pool.getQueue().size());
+        return (Future<T>) job.future;
       }
     } else {
+      try {
+        startSerializing(key, null);
+      } catch (InterruptedException e) {
+        return CompletableFuture.failedFuture(e);
+      }
+      var start = System.nanoTime();
       try {
         return CompletableFuture.completedFuture(task.call());
       } catch (Throwable e) {
         context.logSerializationManager(
             Level.WARNING, "Serialization task failed for [" + key + "].", e);
         return CompletableFuture.failedFuture(e);
+      } finally {
+        finishSerializing(key);
+        statistics.written(System.nanoTime() - start);
       }
     }
   }
@@ -199,8 +297,104 @@ final class SerializationPool {
   void waitWhileSerializing(QualifiedName name) throws InterruptedException {
     synchronized (isWaitingForSerialization) {
       while (isSerializing.containsKey(name)) {
-        isWaitingForSerialization.wait(100);
+        isWaitingForSerialization.wait();
       }
     }
   }
+
+  /** A queued serialization task. */
+  private final class Job implements Runnable, Comparable<Job> {
+    private final QualifiedName key;
+    private final long sequence;
+    private final long submittedAt = System.nanoTime();
+    private final CompletableFuture<Object> future = new CompletableFuture<>();
+
+    /** The latest task requested for the key. Guarded by {@link #isWaitingForSerialization}. */
+    private Callable<?> task;
+
+    /**
+     * Changed only while the job isn't in the queue. Guarded by {@link #isWaitingForSerialization}.
+     */
+    private Priority priority;
+
+    private Job(QualifiedName key, Callable<?> task, Priority priority, long sequence) {
+      this.key = key;
+      this.task = task;
+      this.priority = priority;
+      this.sequence = sequence;
+    }
+
+    @Override
+    public int compareTo(Job other) {
+      var byPriority = priority.compareTo(other.priority);
+      return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+    }
+
+    @Override
+    public void run() {
+      Callable<?> toRun;
+      try {
+        if (!startSerializing(key, this)) {
+          return;
+        }
+      } catch (InterruptedException e) {
+        future.completeExceptionally(e);
+        return;
+      }
+      synchronized (isWaitingForSerialization) {
+        toRun = task;
+      }
+      var start = System.nanoTime();
+      try {
+        future.complete(toRun.call());
+      } catch (Throwable e) {
+        context.logSerializationManager(
+            Level.WARNING, "Serialization task failed for [" + key + "].", e);
+        future.completeExceptionally(e);
+      } finally {
+        finishSerializing(key);
+        var end = System.nanoTime();
+        statistics.written(end - start);
+        context.logSerializationManager(
+            Level.FINEST,
+            "Serialized [{0}] in {1} ms after waiting {2} ms, {3} tasks queued.",
+            key,
+            TimeUnit.NANOSECONDS.toMillis(end - start),
+            TimeUnit.NANOSECONDS.toMillis(start - submittedAt),
+            pool.getQueue().size());
+      }
+    }
+  }
+
+  /** Counters describing the work of the pool, logged on shutdown. */
+  private final class Statistics {
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong totalWriteNanos = new AtomicLong();
+    private final AtomicLong longestWriteNanos = new AtomicLong();
+    private final AtomicInteger deepestQueue = new AtomicInteger();
+
+    private void queued(int queueDepth) {
+      deepestQueue.accumulateAndGet(queueDepth, Math::max);
+    }
+
+    private void written(long nanos) {
+      written.incrementAndGet();
+      totalWriteNanos.addAndGet(nanos);
+      longestWriteNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    private void log() {
+      var count = written.get();
+      context.logSerializationManager(
+          Level.FINE,
+          "Serialization pool ran {0} tasks ({1} requests coalesced), average write {2} ms,"
+              + " longest write {3} ms, deepest queue {4}.",
+          count,
+          coalesced.get(),
+          count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalWriteNanos.get() / count),
+          TimeUnit.NANOSECONDS.toMillis(longestWriteNanos.get()),
+          deepestQueue.get());
+    }
+  }
 }
@@ -15,6 +15,7 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Future;
 import java.util.function.Consumer;
 import java.util.logging.Level;
@@ -319,7 +320,10 @@ final class TruffleCompilerContext implements CompilerContext {
     var task = doSerializeLibrary(compiler, libraryName, useGlobalCacheLocations);
 
     return serializationPool.submitTask(
-        task, isCreateThreadAllowed(), toQualifiedName(libraryName));
+        task,
+        SerializationPool.Priority.LIBRARY,
+        isCreateThreadAllowed(),
+        toQualifiedName(libraryName));
   }
 
   /**
@@ -376,7 +380,11 @@ final class TruffleCompilerContext implements CompilerContext {
             module.getName(),
             src,
             useGlobalCacheLocations);
-    return serializationPool.submitTask(task, useThreadPool, module.getName());
+    var priority =
+        isInteractive(module)
+            ? SerializationPool.Priority.INTERACTIVE_MODULE
+            : SerializationPool.Priority.MODULE;
+    return serializationPool.submitTask(task, priority, useThreadPool, module.getName());
   }
 
   /**
@@ -398,11 +406,7 @@ final class TruffleCompilerContext implements CompilerContext {
       Source source,
       boolean useGlobalCacheLocations) {
     return () -> {
-      var pool = serializationPool;
-      pool.waitWhileSerializing(name);
-
       logSerializationManager(Level.FINE, "Running serialization for module [{0}].", name);
-      pool.startSerializing(name);
       try {
         var fixedStage =
             stage.isAtLeast(CompilationStage.AFTER_STATIC_PASSES)
@@ -420,29 +424,29 @@ final class TruffleCompilerContext implements CompilerContext {
             "Serialization of module `" + name + "` failed: " + e.getMessage(),
             e);
         throw e;
-      } finally {
-        pool.finishSerializing(name);
       }
     };
   }
 
-  private final Map<LibraryName, MapToBindings> known = new HashMap<>();
+  /**
+   * Bindings of the libraries loaded so far. Their modules are materialized from the (usually
+   * memory mapped) bindings file only when requested, so the bindings are shared by all the users.
+   */
+  private final Map<LibraryName, ImportExportCache.CachedBindings> known =
+      new ConcurrentHashMap<>();
 
   @Override
   public boolean deserializeModule(Compiler compiler, CompilerContext.Module module) {
     if (module.getPackage() != null) {
       var library = module.getPackage().libraryName();
-      var bindings = known.get(library);
-      if (bindings == null) {
-        try {
-          var cached = deserializeLibraryBindings(library);
-          if (cached.isDefined()) {
-            bindings = cached.get().bindings();
-            known.put(library, bindings);
-          }
-        } catch (InterruptedException ex) {
-          // proceed
+      MapToBindings bindings = null;
+      try {
+        var cached = deserializeLibraryBindings(library);
+        if (cached.isDefined()) {
+          bindings = cached.get().bindings();
         }
+      } catch (InterruptedException ex) {
+        // proceed
       }
       if (bindings != null) {
         var ir = bindings.findForModule(module.getName());
@@ -521,11 +525,7 @@ final class TruffleCompilerContext implements CompilerContext {
   Callable<Boolean> doSerializeLibrary(
       Compiler compiler, LibraryName libraryName, boolean useGlobalCacheLocations) {
     return () -> {
-      var pool = serializationPool;
-      pool.waitWhileSerializing(toQualifiedName(libraryName));
-
       logSerializationManager(Level.FINE, "Running serialization for bindings [{0}].", libraryName);
-      pool.startSerializing(toQualifiedName(libraryName));
       var map = new HashMap<QualifiedName, org.enso.compiler.core.ir.Module>();
       var it = context.getPackageRepository().getModulesForLibrary(libraryName);
       while (it.nonEmpty()) {
@@ -543,25 +543,24 @@ final class TruffleCompilerContext implements CompilerContext {
 
       var bindingsCache =
           new ImportExportCache.CachedBindings(
-              libraryName, new ImportExportCache.MapToBindings(map), snd);
+              libraryName, ImportExportCache.MapToBindings.of(map), snd);
+      boolean result =
+          doSerializeLibrarySuggestions(compiler, libraryName, useGlobalCacheLocations);
+      // the bindings loaded before are stale now, even if saving fails, the next use loads the
+      // new file
+      known.remove(libraryName);
       try {
-        boolean result =
-            doSerializeLibrarySuggestions(compiler, libraryName, useGlobalCacheLocations);
-        try {
-          var cache = ImportExportCache.create(libraryName);
-          var file = saveCache(cache, bindingsCache, useGlobalCacheLocations);
-          result &= file != null;
-        } catch (Throwable e) {
-          logSerializationManager(
-              e instanceof IOException ? Level.WARNING : Level.SEVERE,
-              "Serialization of bindings `" + libraryName + "` failed: " + e.getMessage() + "`",
-              e);
-          throw e;
-        }
-        return result;
-      } finally {
-        pool.finishSerializing(toQualifiedName(libraryName));
+        var cache = ImportExportCache.create(libraryName);
+        var file = saveCache(cache, bindingsCache, useGlobalCacheLocations);
+        result &= file != null;
+      } catch (Throwable e) {
+        logSerializationManager(
+            e instanceof IOException ? Level.WARNING : Level.SEVERE,
+            "Serialization of bindings `" + libraryName + "` failed: " + e.getMessage() + "`",
+            e);
+        throw e;
       }
+      return result;
     };
   }
 
@@ -640,6 +639,10 @@ final class TruffleCompilerContext implements CompilerContext {
 
   scala.Option<ImportExportCache.CachedBindings> deserializeLibraryBindings(LibraryName libraryName)
       throws InterruptedException {
+    var alreadyLoaded = known.get(libraryName);
+    if (alreadyLoaded != null) {
+      return scala.Option.apply(alreadyLoaded);
+    }
     var pool = serializationPool;
     if (pool.isWaitingForSerialization(toQualifiedName(libraryName))) {
       pool.abort(toQualifiedName(libraryName));
@@ -650,7 +653,9 @@ final class TruffleCompilerContext implements CompilerContext {
       var loaded = loadCache(cache);
       if (loaded.isPresent()) {
         logSerializationManager(Level.FINE, "Restored bindings for library [{0}].", libraryName);
-        return scala.Option.apply(loaded.get());
+        // modules compiled in parallel may load the same library at once
+        var bindings = known.putIfAbsent(libraryName, loaded.get());
+        return scala.Option.apply(bindings != null ? bindings : loaded.get());
       } else {
         logSerializationManager(
             Level.FINEST, "Unable to load bindings for library [{0}].", libraryName);
@@ -0,0 +1,188 @@
+package org.enso.persist.bench;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.enso.persist.Persistance;
+import org.enso.persist.Persistance.Reference;
+import org.openide.util.lookup.ServiceProvider;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures writing and loading of a graph of objects shaped like the IR cache of a library of the
+ * size of {@code Standard.Base}: a couple hundred modules, each stored as a deferred {@link
+ * Reference} to a tree of nodes sharing names, about two million nodes in total.
+ *
+ * <p>Run with {@code -prof gc} to see the allocation rate per operation next to the time.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class PersistanceBenchmark {
+  @Param({"200"})
+  public int modules;
+
+  @Param({"10000"})
+  public int nodesPerModule;
+
+  private Library library;
+  private byte[] bytes;
+
+  @Setup
+  public void setup() throws IOException {
+    var names = new String[5000];
+    for (var i = 0; i < names.length; i++) {
+      names[i] = "name_" + i;
+    }
+    var refs = new ArrayList<Reference<Node>>();
+    var counter = new int[1];
+    for (var i = 0; i < modules; i++) {
+      refs.add(Reference.of(build(names, counter, nodesPerModule), true));
+    }
+    library = new Library(refs);
+    bytes = Persistance.write(library, null);
+  }
+
+  private static Node build(String[] names, int[] counter, int size) {
+    var name = names[counter[0]++ % names.length];
+    var remaining = size - 1;
+    var children = new Node[Math.min(4, remaining)];
+    for (var i = 0; i < children.length; i++) {
+      var share = remaining / (children.length - i);
+      children[i] = build(names, counter, share);
+      remaining -= share;
+    }
+    return new Node(name, children);
+  }
+
+  @Benchmark
+  public byte[] write() throws IOException {
+    return Persistance.write(library, null);
+  }
+
+  @Benchmark
+  public long loadAll() throws IOException {
+    var loaded = Persistance.read(ByteBuffer.wrap(bytes), null).get(Library.class);
+    var count = 0L;
+    for (var ref : loaded.modules) {
+      count += ref.get(Node.class).count();
+    }
+    return count;
+  }
+
+  @Benchmark
+  public long loadOne() throws IOException {
+    var loaded = Persistance.read(ByteBuffer.wrap(bytes), null).get(Library.class);
+    return loaded.modules.get(loaded.modules.size() / 2).get(Node.class).count();
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    Options opt = new OptionsBuilder().include(PersistanceBenchmark.class.getSimpleName()).build();
+
+    new Runner(opt).run();
+  }
+
+  public static final class Library {
+    private final List<Reference<Node>> modules;
+
+    Library(List<Reference<Node>> modules) {
+      this.modules = modules;
+    }
+  }
+
+  public static final class Node {
+    private final String name;
+    private final Node[] children;
+
+    Node(String name, Node[] children) {
+      this.name = name;
+      this.children = children;
+    }
+
+    long count() {
+      var count = 1L;
+      for (var ch : children) {
+        count += ch.count();
+      }
+      return count;
+    }
+  }
+
+  @ServiceProvider(service = Persistance.class)
+  public static final class PersistLibrary extends Persistance<Library> {
+    public PersistLibrary() {
+      super(Library.class, false, 7001);
+    }
+
+    @Override
+    protected void writeObject(Library obj, Output out) throws IOException {
+      out.writeInt(obj.modules.size());
+      for (var ref : obj.modules) {
+        out.writeObject(ref);
+      }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected Library readObject(Input in) throws IOException, ClassNotFoundException {
+      var size = in.readInt();
+      var modules = new ArrayList<Reference<Node>>(size);
+      for (var i = 0; i < size; i++) {
+        modules.add((Reference<Node>) in.readObject());
+      }
+      return new Library(modules);
+    }
+  }
+
+  @ServiceProvider(service = Persistance.class)
+  public static final class PersistNode extends Persistance<Node> {
+    public PersistNode() {
+      super(Node.class, false, 7002);
+    }
+
+    @Override
+    protected void writeObject(Node obj, Output out) throws IOException {
+      out.writeObject(obj.name);
+      out.writeInt(obj.children.length);
+      for (var ch : obj.children) {
+        out.writeObject(ch);
+      }
+    }
+
+    @Override
+    protected Node readObject(Input in) throws IOException, ClassNotFoundException {
+      var name = (String) in.readObject();
+      var children = new Node[in.readInt()];
+      for (var i = 0; i < children.length; i++) {
+        children[i] = (Node) in.readObject();
+      }
+      return new Node(name, children);
+    }
+  }
+
+  @ServiceProvider(service = Persistance.class)
+  public static final class PersistString extends Persistance<String> {
+    public PersistString() {
+      super(String.class, false, 7003);
+    }
+
+    @Override
+    protected void writeObject(String obj, Output out) throws IOException {
+      out.writeUTF(obj);
+    }
+
+    @Override
+    protected String readObject(Input in) throws IOException, ClassNotFoundException {
+      return in.readUTF();
+    }
+  }
+}
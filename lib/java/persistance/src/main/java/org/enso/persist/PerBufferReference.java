@@ -20,7 +20,7 @@ final class PerBufferReference<T> extends Persistance.Reference<T> {
    * or non-{@code null} holding the cached value to be returned from the {@link #get(Class<V>)}
    * method until this reference instance is GCed.
    */
-  private Object cached;
+  private volatile Object cached;
 
   private PerBufferReference(
       Persistance<T> p, PerInputImpl.InputCache buffer, int offset, boolean allowCaching) {
@@ -33,8 +33,9 @@ final class PerBufferReference<T> extends Persistance.Reference<T> {
 
   @SuppressWarnings(value = "unchecked")
   final <T> T readObject(Class<T> clazz) throws IOException {
-    if (cached != this && clazz.isInstance(cached)) {
-      return clazz.cast(cached);
+    var found = cached;
+    if (found != this && clazz.isInstance(found)) {
+      return clazz.cast(found);
     }
 
     if (clazz.isAssignableFrom(p.clazz)) {
@@ -44,12 +45,21 @@ final class PerBufferReference<T> extends Persistance.Reference<T> {
           "Expecting " + clazz.getName() + " but found " + p.clazz.getName());
     }
 
-    var in = new PerInputImpl(cache, offset);
-    T obj = in.readInline(clazz);
-    if (cached != this) {
-      cached = obj;
+    // Modules compiled in parallel may read from the same buffer at once. The objects read so far
+    // are shared through the cache, which is guarded by its own lock.
+    synchronized (cache) {
+      found = cached;
+      if (found != this && clazz.isInstance(found)) {
+        return clazz.cast(found);
+      }
+
+      var in = new PerInputImpl(cache, offset);
+      T obj = in.readInline(clazz);
+      if (found != this) {
+        cached = obj;
+      }
+      return obj;
     }
-    return obj;
   }
 
   @Override
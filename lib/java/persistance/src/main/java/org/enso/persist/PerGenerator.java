@@ -7,7 +7,7 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 import org.slf4j.Logger;
@@ -15,9 +15,14 @@ import org.slf4j.Logger;
 final class PerGenerator {
   static final byte[] HEADER = new byte[] {0x0a, 0x0d, 0x13, 0x0f};
   private final OutputStream main;
-  private final Map<Object, WriteResult> knownObjects = new IdentityHashMap<>();
-  private int countReferences = 1;
-  private final Map<Object, Integer> pendingReferences = new IdentityHashMap<>();
+
+  /** Objects already written, associated with their {@link #packWriteResult packed position}. */
+  private final PerIdentityTable knownObjects = new PerIdentityTable();
+
+  /** Objects to write as references, the index in the list being their reference id. */
+  private final List<Object> pendingReferences = new ArrayList<>();
+
+  private final PerIdentityTable referenceIds = new PerIdentityTable();
   private final Histogram histogram;
   private final PerMap map;
   private final Function<Object, Object> writeReplace;
@@ -61,29 +66,39 @@ final class PerGenerator {
     arr[position + 3] = (byte) (value & 0xff);
   }
 
-  private record WriteResult(Persistance<?> usedPersistance, int position) {
-    void writePositionAndPersistanceId(DataOutput out) throws IOException {
-      if (usedPersistance == null) {
-        assert position == NULL_REFERENCE_ID;
-        out.writeInt(NULL_REFERENCE_ID);
-      } else {
-        out.writeInt(position);
-        out.writeInt(usedPersistance.id);
-      }
+  /**
+   * Packs the position of a written object and the id of the {@link Persistance} used to write it
+   * into a single non-negative value.
+   */
+  private static long packWriteResult(int position, int persistanceId) {
+    assert position >= 0;
+    return ((long) position << 32) | (persistanceId & 0xffffffffL);
+  }
+
+  private static void writePositionAndPersistanceId(long writeResult, DataOutput out)
+      throws IOException {
+    if (writeResult == NULL_WRITE_RESULT) {
+      out.writeInt(NULL_REFERENCE_ID);
+    } else {
+      out.writeInt((int) (writeResult >>> 32));
+      out.writeInt((int) writeResult);
     }
   }
 
-  final <T> WriteResult writeObject(T t) throws IOException {
+  final <T> long writeObject(T t) throws IOException {
     if (t == null) {
-      return new WriteResult(null, NULL_REFERENCE_ID);
+      return NULL_WRITE_RESULT;
     }
     java.lang.Object obj = writeReplace.apply(t);
-    WriteResult found = knownObjects.get(obj);
-    if (found == null) {
+    if (obj == null) {
+      return NULL_WRITE_RESULT;
+    }
+    var found = knownObjects.get(obj);
+    if (found == PerIdentityTable.MISSING) {
       org.enso.persist.Persistance<?> p = map.forType(obj.getClass());
       java.io.ByteArrayOutputStream os = new ByteArrayOutputStream();
       p.writeInline(obj, new ReferenceOutput(this, os));
-      found = new WriteResult(p, this.position);
+      found = packWriteResult(this.position, p.id);
       byte[] arr = os.toByteArray();
       main.write(arr);
       this.position += arr.length;
@@ -101,13 +116,13 @@ final class PerGenerator {
     if (obj instanceof String s) {
       obj = s.intern();
     }
-    WriteResult found = knownObjects.get(obj);
-    if (found == null) {
+    var found = knownObjects.get(obj);
+    if (found == PerIdentityTable.MISSING) {
       var os = new ByteArrayOutputStream();
       var osData = new ReferenceOutput(this, os);
       org.enso.persist.Persistance<?> p = map.forType(obj.getClass());
       p.writeInline(obj, osData);
-      found = new WriteResult(p, position);
+      found = packWriteResult(position, p.id);
       if (os.size() == 0) {
         os.write(0);
       }
@@ -119,7 +134,7 @@ final class PerGenerator {
         histogram.register(obj.getClass(), arr.length);
       }
     }
-    found.writePositionAndPersistanceId(out);
+    writePositionAndPersistanceId(found, out);
   }
 
   final int versionStamp() {
@@ -132,13 +147,14 @@ final class PerGenerator {
       return NULL_REFERENCE_ID;
     }
 
-    var existingId = pendingReferences.get(obj);
-    if (existingId == null) {
-      var currentSize = countReferences++;
-      pendingReferences.put(obj, currentSize);
-      return currentSize;
+    var existingId = referenceIds.get(obj);
+    if (existingId == PerIdentityTable.MISSING) {
+      var newId = pendingReferences.size();
+      pendingReferences.add(obj);
+      referenceIds.put(obj, newId);
+      return newId;
     } else {
-      return existingId;
+      return (int) existingId;
     }
   }
 
@@ -150,37 +166,21 @@ final class PerGenerator {
    * @return location of the table {@code int size and then int[size]}
    */
   private int writeObjectAndReferences(Object obj) throws IOException {
-    pendingReferences.put(obj, 0);
-    WriteResult root = writeObject(obj);
+    pendingReferences.add(obj);
+    if (obj != null) {
+      referenceIds.put(obj, 0);
+    }
+    var root = writeObject(obj);
 
     var refsOut = new ByteArrayOutputStream();
     var refsData = new DataOutputStream(refsOut);
     refsData.writeInt(-1); // space for size of references
-    root.writePositionAndPersistanceId(refsData);
+    writePositionAndPersistanceId(root, refsData);
     var count = 1;
-    for (; ; ) {
-      var all = new ArrayList<>(pendingReferences.entrySet());
-      all.sort(
-          (e1, e2) -> {
-            return e1.getValue() - e2.getValue();
-          });
-      var round = all.subList(count, all.size());
-      if (round.isEmpty()) {
-        break;
-      }
-      for (var entry : round) {
-        WriteResult writeResult = writeObject(entry.getKey());
-        assert count == entry.getValue()
-            : "Expecting "
-                + count
-                + " got "
-                + entry.getValue()
-                + " (in "
-                + entry.getKey().getClass().getCanonicalName()
-                + ")";
-        writeResult.writePositionAndPersistanceId(refsData);
-        count++;
-      }
+    // writing a reference may register new ones at the end of the list
+    for (; count < pendingReferences.size(); count++) {
+      var writeResult = writeObject(pendingReferences.get(count));
+      writePositionAndPersistanceId(writeResult, refsData);
     }
     refsData.flush();
     var arr = refsOut.toByteArray();
@@ -255,4 +255,5 @@ final class PerGenerator {
 
   static final int INLINED_REFERENCE_ID = -2;
   static final int NULL_REFERENCE_ID = -1;
+  private static final long NULL_WRITE_RESULT = PerIdentityTable.MISSING;
 }
@@ -0,0 +1,97 @@
+package org.enso.persist;
+
+/**
+ * Table of non-negative {@code long} values keyed by object identity.
+ *
+ * <p>Uses open addressing with linear probing over plain arrays, so neither the values get boxed
+ * nor an entry object is allocated for every object written.
+ *
+ * <p>Not thread safe. Each {@link PerGenerator} writes from a single thread; any other user has to
+ * guard all the calls, as a {@link #put} growing the table replaces the keys and the values in two
+ * separate steps.
+ */
+final class PerIdentityTable {
+  /** Value returned by {@link #get(Object)} for objects not in the table. */
+  static final long MISSING = -1L;
+
+  private static final int INITIAL_CAPACITY = 64;
+
+  private Object[] keys = new Object[INITIAL_CAPACITY];
+  private long[] values = new long[INITIAL_CAPACITY];
+  private int size;
+
+  /**
+   * Finds the value associated with given object.
+   *
+   * @param obj the object, compared by identity
+   * @return the value or {@link #MISSING}
+   */
+  long get(Object obj) {
+    assert obj != null;
+    var mask = keys.length - 1;
+    for (var i = index(obj, mask); ; i = (i + 1) & mask) {
+      var k = keys[i];
+      if (k == obj) {
+        return values[i];
+      }
+      if (k == null) {
+        return MISSING;
+      }
+    }
+  }
+
+  /**
+   * Associates a value with given object.
+   *
+   * @param obj the object, compared by identity
+   * @param value non-negative value
+   */
+  void put(Object obj, long value) {
+    assert obj != null;
+    assert value >= 0 : "Negative value " + value;
+    var mask = keys.length - 1;
+    for (var i = index(obj, mask); ; i = (i + 1) & mask) {
+      var k = keys[i];
+      if (k == obj) {
+        values[i] = value;
+        return;
+      }
+      if (k == null) {
+        keys[i] = obj;
+        values[i] = value;
+        if (++size * 2 > keys.length) {
+          resize();
+        }
+        return;
+      }
+    }
+  }
+
+  int size() {
+    return size;
+  }
+
+  private void resize() {
+    var oldKeys = keys;
+    var oldValues = values;
+    keys = new Object[oldKeys.length * 2];
+    values = new long[oldValues.length * 2];
+    var mask = keys.length - 1;
+    for (var j = 0; j < oldKeys.length; j++) {
+      var key = oldKeys[j];
+      if (key != null) {
+        var i = index(key, mask);
+        while (keys[i] != null) {
+          i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = oldValues[j];
+      }
+    }
+  }
+
+  private static int index(Object obj, int mask) {
+    var h = System.identityHashCode(obj) * 0x9E3779B9;
+    return (h ^ (h >>> 16)) & mask;
+  }
+}
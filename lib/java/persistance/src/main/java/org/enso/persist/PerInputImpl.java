@@ -7,8 +7,6 @@ import static org.enso.persist.PerUtils.raise;
 import java.io.DataInputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Objects;
 import java.util.function.Function;
 import org.enso.persist.Persistance.Input;
@@ -301,7 +299,9 @@ final class PerInputImpl implements Input {
       }
     }
 
-    private final Map<Integer, Object> cache = new HashMap<>();
+    /** Objects read so far. Guarded by this, see {@link PerBufferReference#readObject}. */
+    private final PerObjectTable cache = new PerObjectTable();
+
     private final Function<Object, Object> readResolve;
     private final PerMap map;
     private final ByteBuffer buf;
@@ -0,0 +1,99 @@
+package org.enso.persist;
+
+/**
+ * Table of objects read from a buffer, keyed by their non-negative offsets in the buffer.
+ *
+ * <p>Uses open addressing with linear probing over plain arrays, so neither the offsets get boxed
+ * nor an entry object is allocated for every object read.
+ *
+ * <p>The table is not thread safe, not even for concurrent reads next to a single writer, as
+ * growing it replaces the arrays of keys and values one after the other. Users accessing it from
+ * multiple threads have to synchronize all the accesses.
+ */
+final class PerObjectTable {
+  private static final int INITIAL_CAPACITY = 64;
+
+  /** Offsets shifted by one, so {@code 0} marks an empty slot. */
+  private int[] keys = new int[INITIAL_CAPACITY];
+
+  private Object[] values = new Object[INITIAL_CAPACITY];
+  private int size;
+
+  /**
+   * Finds the object stored at given offset.
+   *
+   * @param at the offset
+   * @return the object or {@code null} if none has been stored yet
+   */
+  Object get(int at) {
+    assert at >= 0 : "Negative offset " + at;
+    var key = at + 1;
+    var mask = keys.length - 1;
+    for (var i = index(key, mask); ; i = (i + 1) & mask) {
+      var k = keys[i];
+      if (k == key) {
+        return values[i];
+      }
+      if (k == 0) {
+        return null;
+      }
+    }
+  }
+
+  /**
+   * Stores an object at given offset.
+   *
+   * @param at the offset
+   * @param obj the object
+   * @return the object previously stored at the offset or {@code null}
+   */
+  Object put(int at, Object obj) {
+    assert at >= 0 : "Negative offset " + at;
+    var key = at + 1;
+    var mask = keys.length - 1;
+    for (var i = index(key, mask); ; i = (i + 1) & mask) {
+      var k = keys[i];
+      if (k == key) {
+        var prev = values[i];
+        values[i] = obj;
+        return prev;
+      }
+      if (k == 0) {
+        keys[i] = key;
+        values[i] = obj;
+        if (++size * 2 > keys.length) {
+          resize();
+        }
+        return null;
+      }
+    }
+  }
+
+  int size() {
+    return size;
+  }
+
+  private void resize() {
+    var oldKeys = keys;
+    var oldValues = values;
+    keys = new int[oldKeys.length * 2];
+    values = new Object[oldValues.length * 2];
+    var mask = keys.length - 1;
+    for (var j = 0; j < oldKeys.length; j++) {
+      var key = oldKeys[j];
+      if (key != 0) {
+        var i = index(key, mask);
+        while (keys[i] != 0) {
+          i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = oldValues[j];
+      }
+    }
+  }
+
+  private static int index(int key, int mask) {
+    var h = key * 0x9E3779B9;
+    return (h ^ (h >>> 16)) & mask;
+  }
+}
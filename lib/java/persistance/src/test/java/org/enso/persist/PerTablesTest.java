@@ -0,0 +1,68 @@
+package org.enso.persist;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import org.junit.Test;
+
+public class PerTablesTest {
+  @Test
+  public void objectTableStoresManyOffsets() {
+    var table = new PerObjectTable();
+    var values = new ArrayList<Object>();
+    for (var i = 0; i < 100_000; i++) {
+      var value = new Object();
+      values.add(value);
+      // offsets are spread like the ones of objects in a buffer
+      assertNull("No previous value at " + i, table.put(i * 12, value));
+    }
+    assertEquals(100_000, table.size());
+    for (var i = 0; i < 100_000; i++) {
+      assertSame("Found at " + i, values.get(i), table.get(i * 12));
+      assertNull("Nothing in between at " + i, table.get(i * 12 + 1));
+    }
+  }
+
+  @Test
+  public void objectTableReplacesValues() {
+    var table = new PerObjectTable();
+    var first = new Object();
+    var second = new Object();
+    assertNull(table.put(0, first));
+    assertSame("Previous value is returned", first, table.put(0, second));
+    assertSame(second, table.get(0));
+    assertEquals(1, table.size());
+  }
+
+  @Test
+  public void identityTableComparesByIdentity() {
+    var table = new PerIdentityTable();
+    var a = new String("same");
+    var b = new String("same");
+    table.put(a, 1);
+    assertEquals(1, table.get(a));
+    assertEquals("Equal object isn't found", PerIdentityTable.MISSING, table.get(b));
+    table.put(b, 2);
+    table.put(a, 3);
+    assertEquals(3, table.get(a));
+    assertEquals(2, table.get(b));
+    assertEquals(2, table.size());
+  }
+
+  @Test
+  public void identityTableStoresManyObjects() {
+    var table = new PerIdentityTable();
+    var keys = new ArrayList<Object>();
+    for (var i = 0; i < 100_000; i++) {
+      var key = new Object();
+      keys.add(key);
+      table.put(key, ((long) i << 32) | i);
+    }
+    assertEquals(100_000, table.size());
+    for (var i = 0; i < 100_000; i++) {
+      assertEquals("Found " + i, ((long) i << 32) | i, table.get(keys.get(i)));
+    }
+  }
+}
@@ -2,8 +2,13 @@ package org.enso.persist;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.enso.persist.Persistance.Reference;
 import org.junit.Test;
 import org.openide.util.lookup.ServiceProvider;
@@ -71,6 +76,42 @@ public final class ReferenceAsObjectTest {
     assertNull("Six objects and no more", item);
   }
 
+  @Test
+  public void readChainLazilyFromManyThreads() throws Exception {
+    var counter = new int[] {0};
+    Chain chain = null;
+    for (var i = 0; i < 1000; i++) {
+      chain = lazyChain("ch" + i, counter, chain);
+    }
+    var head = PersistanceTest.serde(Chain.class, chain, -1);
+
+    var pool = Executors.newFixedThreadPool(4);
+    try {
+      var walks = new ArrayList<Future<List<Chain>>>();
+      for (var i = 0; i < 4; i++) {
+        walks.add(
+            pool.submit(
+                () -> {
+                  var items = new ArrayList<Chain>();
+                  for (var item = head; item != null; item = item.getNext()) {
+                    items.add(item);
+                  }
+                  return items;
+                }));
+      }
+      var expected = walks.get(0).get();
+      assertEquals(1000, expected.size());
+      for (var walk : walks) {
+        var items = walk.get();
+        for (var i = 0; i < expected.size(); i++) {
+          assertSame("All threads get the same object", expected.get(i), items.get(i));
+        }
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
   public static final class Chain {
     private final String id;
     private final Reference<Chain> next;
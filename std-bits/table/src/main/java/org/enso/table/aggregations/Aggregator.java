@@ -39,4 +39,18 @@ public abstract class Aggregator {
    * @return aggregated value
    */
   public abstract Object aggregate(List<Integer> indexes, ProblemAggregator problemAggregator);
+
+  /**
+   * Creates an accumulator computing the value for all groups in a single pass over the rows.
+   *
+   * <p>The result for each group must be the same as the one of {@link #aggregate} called with the
+   * rows of that group.
+   *
+   * @param groupCount the number of groups
+   * @return the accumulator, or {@code null} if this aggregate can only be computed from whole
+   *     groups with {@link #aggregate}
+   */
+  public GroupAccumulator makeAccumulator(int groupCount, ProblemAggregator problemAggregator) {
+    return null;
+  }
 }
@@ -14,4 +14,17 @@ public class Count extends Aggregator {
   public Object aggregate(List<Integer> indexes, ProblemAggregator problemAggregator) {
     return indexes.size();
   }
+
+  @Override
+  public GroupAccumulator makeAccumulator(int groupCount, ProblemAggregator problemAggregator) {
+    return new CountAccumulator(groupCount) {
+      @Override
+      public void accumulate(int[] rowGroups, int from, int to) {
+        for (int row = from; row < to; row++) {
+          int group = rowGroups[row];
+          counts[group]++;
+        }
+      }
+    };
+  }
 }
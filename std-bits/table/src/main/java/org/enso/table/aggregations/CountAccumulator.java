@@ -0,0 +1,33 @@
+package org.enso.table.aggregations;
+
+/**
+ * A base for accumulators counting some of the rows in each group.
+ *
+ * <p>The counted rows may only be selected based on {@link
+ * org.enso.table.data.column.storage.Storage#isNothing}, which can be checked from any thread.
+ */
+abstract class CountAccumulator extends GroupAccumulator {
+  protected final long[] counts;
+
+  CountAccumulator(int groupCount) {
+    this.counts = new long[groupCount];
+  }
+
+  @Override
+  public boolean isThreadSafe() {
+    return true;
+  }
+
+  @Override
+  public void merge(GroupAccumulator other) {
+    long[] otherCounts = ((CountAccumulator) other).counts;
+    for (int i = 0; i < counts.length; i++) {
+      counts[i] += otherCounts[i];
+    }
+  }
+
+  @Override
+  public Object finish(int group) {
+    return counts[group];
+  }
+}
@@ -38,4 +38,19 @@ public class CountNothing extends Aggregator {
     }
     return count;
   }
+
+  @Override
+  public GroupAccumulator makeAccumulator(int groupCount, ProblemAggregator problemAggregator) {
+    return new CountAccumulator(groupCount) {
+      @Override
+      public void accumulate(int[] rowGroups, int from, int to) {
+        for (int row = from; row < to; row++) {
+          int group = rowGroups[row];
+          if (storage.isNothing(row) == isNothing) {
+            counts[group]++;
+          }
+        }
+      }
+    };
+  }
 }
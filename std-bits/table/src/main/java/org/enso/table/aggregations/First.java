@@ -47,6 +47,30 @@ public class First extends Aggregator {
     }
   }
 
+  @Override
+  public GroupAccumulator makeAccumulator(int groupCount, ProblemAggregator problemAggregator) {
+    if (orderByColumns.length != 0) {
+      return null;
+    }
+
+    return new RowSelectingAccumulator(storage, groupCount) {
+      @Override
+      public void accumulate(int[] rowGroups, int from, int to) {
+        for (int row = from; row < to; row++) {
+          int group = rowGroups[row];
+          if (!ignoreNothing || !storage.isNothing(row)) {
+            selectIfMissing(group, row);
+          }
+        }
+      }
+
+      @Override
+      public void merge(GroupAccumulator other) {
+        mergeFirst((RowSelectingAccumulator) other);
+      }
+    };
+  }
+
   private Object firstBySpecifiedOrder(List<Integer> indexes) {
     OrderedMultiValueKey key = null;
     Object current = null;
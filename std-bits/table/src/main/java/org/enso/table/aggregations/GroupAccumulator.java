@@ -0,0 +1,46 @@
+package org.enso.table.aggregations;
+
+/**
+ * Computes an aggregate for all groups of a table at once, in a single pass over its rows.
+ *
+ * <p>An accumulator is created by {@link Aggregator#makeAccumulator} with an empty state for each
+ * group. It is then fed the rows of the table, together with the ids of the groups they belong to,
+ * and finally yields the aggregated value of each group.
+ *
+ * <p>The accumulators do not poll safepoints, so the caller should feed the rows in chunks.
+ */
+public abstract class GroupAccumulator {
+  /**
+   * Accumulates the rows in the range {@code [from, to)}, where row {@code i} belongs to the group
+   * {@code rowGroups[i]}.
+   *
+   * <p>Rows must be accumulated in increasing order.
+   */
+  public abstract void accumulate(int[] rowGroups, int from, int to);
+
+  /**
+   * Checks if the accumulator can be fed from threads that are not entered into the polyglot
+   * context.
+   *
+   * <p>It must not call back into Enso nor report problems while accumulating. Accumulators that
+   * need to do so must be fed on the main thread.
+   */
+  public boolean isThreadSafe() {
+    return false;
+  }
+
+  /**
+   * Merges the state of another accumulator into this one.
+   *
+   * <p>The other accumulator must have been created by the same aggregator, for the same number of
+   * groups, and it must only have accumulated rows following all rows accumulated by this one.
+   */
+  public abstract void merge(GroupAccumulator other);
+
+  /**
+   * Returns the aggregated value of the given group.
+   *
+   * <p>It is called on the main thread, exactly once for each group.
+   */
+  public abstract Object finish(int group);
+}
@@ -18,4 +18,22 @@ public class GroupBy extends Aggregator {
   public Object aggregate(List<Integer> indexes, ProblemAggregator problemAggregator) {
     return indexes.isEmpty() ? null : storage.getItemBoxed(indexes.get(0));
   }
+
+  @Override
+  public GroupAccumulator makeAccumulator(int groupCount, ProblemAggregator problemAggregator) {
+    return new RowSelectingAccumulator(storage, groupCount) {
+      @Override
+      public void accumulate(int[] rowGroups, int from, int to) {
+        for (int row = from; row < to; row++) {
+          int group = rowGroups[row];
+          selectIfMissing(group, row);
+        }
+      }
+
+      @Override
+      public void merge(GroupAccumulator other) {
+        mergeFirst((RowSelectingAccumulator) other);
+      }
+    };
+  }
 }
@@ -46,6 +46,30 @@ public class Last extends Aggregator {
     }
   }
 
+  @Override
+  public GroupAccumulator makeAccumulator(int groupCount, ProblemAggregator problemAggregator) {
+    if (orderByColumns.length != 0) {
+      return null;
+    }
+
+    return new RowSelectingAccumulator(storage, groupCount) {
+      @Override
+      public void accumulate(int[] rowGroups, int from, int to) {
+        for (int row = from; row < to; row++) {
+          int group = rowGroups[row];
+          if (!ignoreNothing || !storage.isNothing(row)) {
+            select(group, row);
+          }
+        }
+      }
+
+      @Override
+      public void merge(GroupAccumulator other) {
+        mergeLast((RowSelectingAccumulator) other);
+      }
+    };
+  }
+
   private Object lastBySpecifiedOrder(List<Integer> indexes) {
     OrderedMultiValueKey key = null;
     Object current = null;
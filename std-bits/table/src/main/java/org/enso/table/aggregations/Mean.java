@@ -57,4 +57,15 @@ public class Mean extends Aggregator {
     }
     return current == null ? null : current.total / current.count;
   }
+
+  @Override
+  public GroupAccumulator makeAccumulator(int groupCount, ProblemAggregator problemAggregator) {
+    return new MomentsAccumulator(
+        getName(), storage, groupCount, new ColumnAggregatedProblemAggregator(problemAggregator)) {
+      @Override
+      protected Object compute(int group) {
+        return totals[group] / counts[group];
+      }
+    };
+  }
 }
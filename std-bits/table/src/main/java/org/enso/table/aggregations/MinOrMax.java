@@ -1,9 +1,12 @@
 package org.enso.table.aggregations;
 
+import java.util.Arrays;
 import java.util.List;
 import org.enso.base.CompareException;
 import org.enso.base.ObjectComparator;
 import org.enso.table.data.column.storage.Storage;
+import org.enso.table.data.column.storage.numeric.AbstractLongStorage;
+import org.enso.table.data.column.storage.numeric.DoubleStorage;
 import org.enso.table.data.table.Column;
 import org.enso.table.data.table.problems.InvalidAggregation;
 import org.enso.table.problems.ColumnAggregatedProblemAggregator;
@@ -61,4 +64,121 @@ public class MinOrMax extends Aggregator {
     }
     return current;
   }
+
+  @Override
+  public GroupAccumulator makeAccumulator(int groupCount, ProblemAggregator problemAggregator) {
+    return new MinOrMaxAccumulator(
+        groupCount, new ColumnAggregatedProblemAggregator(problemAggregator));
+  }
+
+  /** Keeps the row holding the current minimum or maximum of each group. */
+  private final class MinOrMaxAccumulator extends GroupAccumulator {
+    private static final int NO_ROW = -1;
+
+    private final ColumnAggregatedProblemAggregator innerAggregator;
+    private final int[] bestRows;
+    private final boolean[] invalid;
+
+    MinOrMaxAccumulator(int groupCount, ColumnAggregatedProblemAggregator innerAggregator) {
+      this.innerAggregator = innerAggregator;
+      this.bestRows = new int[groupCount];
+      Arrays.fill(bestRows, NO_ROW);
+      this.invalid = new boolean[groupCount];
+    }
+
+    @Override
+    public void accumulate(int[] rowGroups, int from, int to) {
+      switch (storage) {
+        case AbstractLongStorage longStorage -> {
+          for (int row = from; row < to; row++) {
+            int group = rowGroups[row];
+            if (!longStorage.isNothing(row)) {
+              int best = bestRows[group];
+              if (best == NO_ROW
+                  || Integer.signum(
+                          Long.compare(longStorage.getItem(row), longStorage.getItem(best)))
+                      == minOrMax) {
+                bestRows[group] = row;
+              }
+            }
+          }
+        }
+        case DoubleStorage doubleStorage -> {
+          for (int row = from; row < to; row++) {
+            int group = rowGroups[row];
+            if (!doubleStorage.isNothing(row)) {
+              int best = bestRows[group];
+              if (best == NO_ROW
+                  || Integer.signum(
+                          Double.compare(
+                              doubleStorage.getItemAsDouble(row),
+                              doubleStorage.getItemAsDouble(best)))
+                      == minOrMax) {
+                bestRows[group] = row;
+              }
+            }
+          }
+        }
+        default -> {
+          for (int row = from; row < to; row++) {
+            int group = rowGroups[row];
+            if (!storage.isNothing(row)) {
+              offer(group, row);
+            }
+          }
+        }
+      }
+    }
+
+    /** Replaces the best row of the group if the given row is better, comparing boxed values. */
+    private void offer(int group, int row) {
+      if (invalid[group]) {
+        return;
+      }
+
+      int best = bestRows[group];
+      if (best == NO_ROW) {
+        bestRows[group] = row;
+        return;
+      }
+
+      try {
+        Object value = storage.getItemBoxed(row);
+        Object current = storage.getItemBoxed(best);
+        if (Integer.signum(ObjectComparator.DEFAULT.compare(value, current)) == minOrMax) {
+          bestRows[group] = row;
+        }
+      } catch (CompareException e) {
+        innerAggregator.reportColumnAggregatedProblem(
+            new InvalidAggregation(
+                getName(),
+                row,
+                "Cannot compare values " + e.getLeftOperand() + " with " + e.getRightOperand()));
+        invalid[group] = true;
+      }
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+      return storage instanceof AbstractLongStorage || storage instanceof DoubleStorage;
+    }
+
+    @Override
+    public void merge(GroupAccumulator other) {
+      MinOrMaxAccumulator otherMinOrMax = (MinOrMaxAccumulator) other;
+      for (int group = 0; group < bestRows.length; group++) {
+        if (otherMinOrMax.invalid[group]) {
+          invalid[group] = true;
+        } else if (otherMinOrMax.bestRows[group] != NO_ROW) {
+          offer(group, otherMinOrMax.bestRows[group]);
+        }
+      }
+    }
+
+    @Override
+    public Object finish(int group) {
+      int best = bestRows[group];
+      return invalid[group] || best == NO_ROW ? null : storage.getItemBoxed(best);
+    }
+  }
 }
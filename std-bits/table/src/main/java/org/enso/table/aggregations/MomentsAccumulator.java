@@ -0,0 +1,118 @@
+package org.enso.table.aggregations;
+
+import org.enso.base.polyglot.NumericConverter;
+import org.enso.table.data.column.storage.Storage;
+import org.enso.table.data.column.storage.numeric.AbstractLongStorage;
+import org.enso.table.data.column.storage.numeric.DoubleStorage;
+import org.enso.table.data.table.problems.InvalidAggregation;
+import org.enso.table.problems.ColumnAggregatedProblemAggregator;
+
+/**
+ * A base for accumulators computing statistics from the count, the sum and the sum of squares of
+ * the numeric values in each group.
+ *
+ * <p>A group containing a value that is not a number is marked as invalid and yields {@code null}.
+ */
+abstract class MomentsAccumulator extends GroupAccumulator {
+  private final String name;
+  private final Storage<?> storage;
+  private final ColumnAggregatedProblemAggregator problemAggregator;
+  private final boolean[] invalid;
+  protected final long[] counts;
+  protected final double[] totals;
+  protected final double[] totalSquares;
+
+  MomentsAccumulator(
+      String name,
+      Storage<?> storage,
+      int groupCount,
+      ColumnAggregatedProblemAggregator problemAggregator) {
+    this.name = name;
+    this.storage = storage;
+    this.problemAggregator = problemAggregator;
+    this.invalid = new boolean[groupCount];
+    this.counts = new long[groupCount];
+    this.totals = new double[groupCount];
+    this.totalSquares = new double[groupCount];
+  }
+
+  @Override
+  public void accumulate(int[] rowGroups, int from, int to) {
+    switch (storage) {
+      case AbstractLongStorage longStorage -> {
+        for (int row = from; row < to; row++) {
+          int group = rowGroups[row];
+          if (!longStorage.isNothing(row)) {
+            add(group, (double) longStorage.getItem(row));
+          }
+        }
+      }
+      case DoubleStorage doubleStorage -> {
+        for (int row = from; row < to; row++) {
+          int group = rowGroups[row];
+          if (!doubleStorage.isNothing(row)) {
+            add(group, doubleStorage.getItemAsDouble(row));
+          }
+        }
+      }
+      default -> {
+        for (int row = from; row < to; row++) {
+          int group = rowGroups[row];
+          Object value = storage.getItemBoxed(row);
+          if (value != null && !invalid[group]) {
+            Double dValue = NumericConverter.tryConvertingToDouble(value);
+            if (dValue == null) {
+              problemAggregator.reportColumnAggregatedProblem(
+                  new InvalidAggregation(name, row, "Cannot convert to a number."));
+              invalid[group] = true;
+            } else {
+              add(group, dValue);
+            }
+          }
+        }
+      }
+    }
+  }
+
+  private void add(int group, double value) {
+    // The first value is stored as is, so that a sum of a single -0.0 is not turned into 0.0.
+    if (counts[group]++ == 0) {
+      totals[group] = value;
+      totalSquares[group] = value * value;
+    } else {
+      totals[group] += value;
+      totalSquares[group] += value * value;
+    }
+  }
+
+  @Override
+  public boolean isThreadSafe() {
+    return storage instanceof AbstractLongStorage || storage instanceof DoubleStorage;
+  }
+
+  @Override
+  public void merge(GroupAccumulator other) {
+    MomentsAccumulator otherMoments = (MomentsAccumulator) other;
+    for (int group = 0; group < counts.length; group++) {
+      invalid[group] |= otherMoments.invalid[group];
+      if (otherMoments.counts[group] == 0) {
+        continue;
+      } else if (counts[group] == 0) {
+        totals[group] = otherMoments.totals[group];
+        totalSquares[group] = otherMoments.totalSquares[group];
+      } else {
+        totals[group] += otherMoments.totals[group];
+        totalSquares[group] += otherMoments.totalSquares[group];
+      }
+      counts[group] += otherMoments.counts[group];
+    }
+  }
+
+  @Override
+  public Object finish(int group) {
+    return invalid[group] || counts[group] == 0 ? null : compute(group);
+  }
+
+  /** Computes the statistic of a valid, non-empty group. */
+  protected abstract Object compute(int group);
+}
@@ -1,11 +1,11 @@
 package org.enso.table.aggregations;
 
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
-import java.util.SortedMap;
-import java.util.TreeMap;
 import org.enso.base.polyglot.NumericConverter;
 import org.enso.table.data.column.storage.Storage;
+import org.enso.table.data.column.storage.numeric.AbstractLongStorage;
+import org.enso.table.data.column.storage.numeric.DoubleStorage;
 import org.enso.table.data.column.storage.type.FloatType;
 import org.enso.table.data.table.Column;
 import org.enso.table.data.table.problems.InvalidAggregation;
@@ -13,11 +13,21 @@ import org.enso.table.problems.ColumnAggregatedProblemAggregator;
 import org.enso.table.problems.ProblemAggregator;
 import org.graalvm.polyglot.Context;
 
-/** Aggregate Column computing a percentile value in a group. */
+/**
+ * Aggregate Column computing a percentile value in a group.
+ *
+ * <p>The values of the group are gathered into a primitive array, in which the order statistics are
+ * found by selection, without sorting the whole group.
+ */
 public class Percentile extends Aggregator {
+  private static final int INITIAL_BUFFER_SIZE = 16;
+
   private final Storage<?> storage;
   private final double percentile;
 
+  /** The non-missing values of the current group, reused between groups. */
+  private double[] values = new double[INITIAL_BUFFER_SIZE];
+
   public Percentile(String name, Column column, double percentile) {
     super(name, FloatType.FLOAT_64);
     this.storage = column.getStorage();
@@ -30,24 +40,33 @@ public class Percentile extends Aggregator {
         new ColumnAggregatedProblemAggregator(problemAggregator);
     Context context = Context.getCurrent();
     int count = 0;
-    SortedMap<Double, Integer> currentMap = new TreeMap<>();
     for (int row : indexes) {
-      Object value = storage.getItemBoxed(row);
-      if (value != null) {
-        Double dValue = NumericConverter.tryConvertingToDouble(value);
-
-        if (dValue == null) {
-          innerAggregator.reportColumnAggregatedProblem(
-              new InvalidAggregation(this.getName(), row, "Cannot convert to a number."));
-          return null;
-        } else if (dValue.isNaN()) {
+      if (!storage.isNothing(row)) {
+        double value;
+        if (storage instanceof DoubleStorage doubleStorage) {
+          value = doubleStorage.getItemAsDouble(row);
+        } else if (storage instanceof AbstractLongStorage longStorage) {
+          value = longStorage.getItem(row);
+        } else {
+          Double dValue = NumericConverter.tryConvertingToDouble(storage.getItemBoxed(row));
+          if (dValue == null) {
+            innerAggregator.reportColumnAggregatedProblem(
+                new InvalidAggregation(this.getName(), row, "Cannot convert to a number."));
+            return null;
+          }
+          value = dValue;
+        }
+
+        if (Double.isNaN(value)) {
           // If any of the input values is a NaN, we do not know where in the ordering it should be
           // and so we return NaN.
           return Double.NaN;
-        } else {
-          count++;
-          currentMap.put(dValue, currentMap.getOrDefault(dValue, 0) + 1);
         }
+
+        if (count == values.length) {
+          values = Arrays.copyOf(values, count * 2);
+        }
+        values[count++] = value;
       }
 
       context.safepoint();
@@ -59,34 +78,101 @@ public class Percentile extends Aggregator {
 
     double mid_value = (count - 1) * percentile + 1;
     if (mid_value <= 1) {
-      return currentMap.firstKey();
+      return min(values, 0, count);
     } else if (mid_value >= count) {
-      return currentMap.lastKey();
+      return max(values, count);
     }
 
-    double mid = Math.floor(mid_value);
+    int mid = (int) Math.floor(mid_value);
+    double first = select(values, count, mid - 1, context);
+    // After the selection, all values following the selected one are not smaller than it.
+    double second = min(values, mid, count);
+    return interpolate(first, second, mid_value - mid);
+  }
 
-    double first = 0;
-    int current = 0;
-    for (Map.Entry<Double, Integer> entry : currentMap.entrySet()) {
-      int nextCurrent = current + entry.getValue();
+  /**
+   * Finds the {@code k}-th smallest of the first {@code count} values, using the introselect
+   * algorithm.
+   *
+   * <p>The values are reordered, so that the result ends up at index {@code k}, preceded by values
+   * that are not greater and followed by values that are not smaller than it. The values are
+   * ordered as by {@link Double#compare}, consistently with {@link Arrays#sort(double[])}, which is
+   * used as a fallback if the partitioning does not make enough progress.
+   */
+  private static double select(double[] values, int count, int k, Context context) {
+    int from = 0;
+    int to = count - 1;
+    int depthLimit = 2 * (32 - Integer.numberOfLeadingZeros(count));
+    while (from < to) {
+      if (depthLimit-- == 0) {
+        Arrays.sort(values, from, to + 1);
+        break;
+      }
 
-      if (current <= mid - 1 && nextCurrent > mid - 1) {
-        first = entry.getKey();
+      double pivot = medianOfThree(values[from], values[(from + to) >>> 1], values[to]);
+      int i = from;
+      int j = to;
+      while (i <= j) {
+        while (isLess(values[i], pivot)) {
+          i++;
+        }
+        while (isLess(pivot, values[j])) {
+          j--;
+        }
+        if (i <= j) {
+          double tmp = values[i];
+          values[i] = values[j];
+          values[j] = tmp;
+          i++;
+          j--;
+        }
       }
 
-      if (current <= mid && nextCurrent > mid) {
-        double second = entry.getKey();
-        return interpolate(first, second, mid_value - mid);
+      // Now the values up to j are not greater than the pivot, the values from i are not smaller,
+      // and any values in between are equal to it.
+      if (k <= j) {
+        to = j;
+      } else if (k >= i) {
+        from = i;
+      } else {
+        break;
       }
 
-      current = nextCurrent;
       context.safepoint();
     }
+    return values[k];
+  }
+
+  private static boolean isLess(double a, double b) {
+    return Double.compare(a, b) < 0;
+  }
+
+  private static double medianOfThree(double a, double b, double c) {
+    if (isLess(a, b)) {
+      return isLess(b, c) ? b : (isLess(a, c) ? c : a);
+    } else {
+      return isLess(a, c) ? a : (isLess(b, c) ? c : b);
+    }
+  }
 
-    innerAggregator.reportColumnAggregatedProblem(
-        new InvalidAggregation(this.getName(), -1, "Failed calculating the percentile."));
-    return null;
+  private static double min(double[] values, int from, int to) {
+    double result = values[from];
+    for (int i = from + 1; i < to; i++) {
+      if (isLess(values[i], result)) {
+        result = values[i];
+      }
+    }
+    return result;
+  }
+
+  private static double max(double[] values, int count) {
+    double result = values[0];
+    for (int i = 1; i < count; i++) {
+      if (isLess(result, values[i])) {
+        result = values[i];
+      }
+    }
+    return result;
   }
 
   double interpolate(double first, double second, double alpha) {
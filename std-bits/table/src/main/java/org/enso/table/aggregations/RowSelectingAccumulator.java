@@ -0,0 +1,64 @@
+package org.enso.table.aggregations;
+
+import java.util.Arrays;
+import org.enso.table.data.column.storage.Storage;
+
+/**
+ * A base for accumulators selecting a single row of each group and returning its value.
+ *
+ * <p>The values are only read when the result is taken. The rows may only be selected based on
+ * {@link Storage#isNothing}, which can be checked from any thread.
+ */
+abstract class RowSelectingAccumulator extends GroupAccumulator {
+  private static final int NO_ROW = -1;
+
+  private final Storage<?> storage;
+  private final int[] selectedRows;
+
+  RowSelectingAccumulator(Storage<?> storage, int groupCount) {
+    this.storage = storage;
+    this.selectedRows = new int[groupCount];
+    Arrays.fill(selectedRows, NO_ROW);
+  }
+
+  /** Selects the row, unless a row was already selected for the group. */
+  protected void selectIfMissing(int group, int row) {
+    if (selectedRows[group] == NO_ROW) {
+      selectedRows[group] = row;
+    }
+  }
+
+  /** Selects the row, replacing any row selected for the group before. */
+  protected void select(int group, int row) {
+    selectedRows[group] = row;
+  }
+
+  /** Merges the other accumulator, keeping the rows selected by this one where present. */
+  protected void mergeFirst(RowSelectingAccumulator other) {
+    for (int i = 0; i < selectedRows.length; i++) {
+      if (selectedRows[i] == NO_ROW) {
+        selectedRows[i] = other.selectedRows[i];
+      }
+    }
+  }
+
+  /** Merges the other accumulator, preferring the rows selected by it where present. */
+  protected void mergeLast(RowSelectingAccumulator other) {
+    for (int i = 0; i < selectedRows.length; i++) {
+      if (other.selectedRows[i] != NO_ROW) {
+        selectedRows[i] = other.selectedRows[i];
+      }
+    }
+  }
+
+  @Override
+  public boolean isThreadSafe() {
+    return true;
+  }
+
+  @Override
+  public Object finish(int group) {
+    int row = selectedRows[group];
+    return row == NO_ROW ? null : storage.getItemBoxed(row);
+  }
+}
@@ -65,4 +65,21 @@ public class StandardDeviation extends Aggregator {
     return (population ? 1 : Math.sqrt(current.count / (current.count - 1.0)))
         * Math.sqrt(current.total_sqr / current.count - Math.pow(current.total / current.count, 2));
   }
+
+  @Override
+  public GroupAccumulator makeAccumulator(int groupCount, ProblemAggregator problemAggregator) {
+    return new MomentsAccumulator(
+        getName(), storage, groupCount, new ColumnAggregatedProblemAggregator(problemAggregator)) {
+      @Override
+      protected Object compute(int group) {
+        long count = counts[group];
+        if (!population && count <= 1) {
+          return null;
+        }
+
+        return (population ? 1 : Math.sqrt(count / (count - 1.0)))
+            * Math.sqrt(totalSquares[group] / count - Math.pow(totals[group] / count, 2));
+      }
+    };
+  }
 }
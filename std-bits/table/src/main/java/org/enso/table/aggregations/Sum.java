@@ -4,6 +4,8 @@ import java.util.List;
 import org.enso.base.polyglot.NumericConverter;
 import org.enso.table.data.column.operation.map.MapOperationProblemAggregator;
 import org.enso.table.data.column.storage.Storage;
+import org.enso.table.data.column.storage.numeric.AbstractLongStorage;
+import org.enso.table.data.column.storage.numeric.DoubleStorage;
 import org.enso.table.data.column.storage.type.FloatType;
 import org.enso.table.data.column.storage.type.IntegerType;
 import org.enso.table.data.table.Column;
@@ -59,4 +61,194 @@ public class Sum extends Aggregator {
     }
     return current;
   }
+
+  @Override
+  public GroupAccumulator makeAccumulator(int groupCount, ProblemAggregator problemAggregator) {
+    return new SumAccumulator(
+        groupCount, new MapOperationProblemAggregator(problemAggregator, getName()));
+  }
+
+  /**
+   * Keeps the sum of each group either as a long or as a double, switching between them exactly
+   * like {@link #aggregate} does.
+   *
+   * <p>Overflows are only recorded while accumulating and reported when the result is taken, so
+   * that sums of numeric storages can be accumulated on worker threads.
+   */
+  private final class SumAccumulator extends GroupAccumulator {
+    private static final byte EMPTY = 0;
+    private static final byte LONG = 1;
+    private static final byte DOUBLE = 2;
+    private static final byte INVALID = 3;
+    private static final byte OVERFLOW = 4;
+
+    private final MapOperationProblemAggregator innerAggregator;
+    private final byte[] kinds;
+    private final long[] longSums;
+    private final double[] doubleSums;
+
+    SumAccumulator(int groupCount, MapOperationProblemAggregator innerAggregator) {
+      this.innerAggregator = innerAggregator;
+      this.kinds = new byte[groupCount];
+      this.longSums = new long[groupCount];
+      this.doubleSums = new double[groupCount];
+    }
+
+    @Override
+    public void accumulate(int[] rowGroups, int from, int to) {
+      switch (storage) {
+        case AbstractLongStorage longStorage -> {
+          for (int row = from; row < to; row++) {
+            int group = rowGroups[row];
+            if (!longStorage.isNothing(row)) {
+              long value = longStorage.getItem(row);
+              add(group, true, value, value);
+            }
+          }
+        }
+        case DoubleStorage doubleStorage -> {
+          for (int row = from; row < to; row++) {
+            int group = rowGroups[row];
+            if (!doubleStorage.isNothing(row)) {
+              double value = doubleStorage.getItemAsDouble(row);
+              add(group, isWhole(value), (long) value, value);
+            }
+          }
+        }
+        default -> {
+          for (int row = from; row < to; row++) {
+            int group = rowGroups[row];
+            Object value = storage.getItemBoxed(row);
+            if (value != null) {
+              addBoxed(group, row, value);
+            }
+          }
+        }
+      }
+    }
+
+    private void addBoxed(int group, int row, Object value) {
+      if (isFailed(kinds[group])) {
+        return;
+      }
+
+      Long lValue = NumericConverter.tryConvertingToLong(value);
+      if (lValue != null) {
+        add(group, true, lValue, lValue.doubleValue());
+      } else {
+        Double dValue = NumericConverter.tryConvertingToDouble(value);
+        if (dValue != null) {
+          add(group, false, 0, dValue);
+        } else {
+          innerAggregator.reportColumnAggregatedProblem(
+              new InvalidAggregation(getName(), row, "Cannot convert to a number."));
+          kinds[group] = INVALID;
+        }
+      }
+    }
+
+    /**
+     * Adds a value to the sum of the group.
+     *
+     * @param isWhole whether the value can be represented as a long
+     * @param lValue the value as a long, only valid if {@code isWhole} is true
+     * @param dValue the value as a double
+     */
+    private void add(int group, boolean isWhole, long lValue, double dValue) {
+      switch (kinds[group]) {
+        case EMPTY -> {
+          // The sum starts at 0L, so a whole value is taken as is.
+          if (isWhole) {
+            kinds[group] = LONG;
+            longSums[group] = lValue;
+          } else {
+            kinds[group] = DOUBLE;
+            doubleSums[group] = dValue;
+          }
+        }
+        case LONG -> {
+          if (isWhole) {
+            addExact(group, longSums[group], lValue);
+          } else {
+            kinds[group] = DOUBLE;
+            doubleSums[group] = longSums[group] + dValue;
+          }
+        }
+        case DOUBLE -> {
+          double current = doubleSums[group];
+          if (isWhole && isWhole(current)) {
+            addExact(group, (long) current, lValue);
+          } else {
+            doubleSums[group] = current + dValue;
+          }
+        }
+        default -> {}
+      }
+    }
+
+    private void addExact(int group, long current, long value) {
+      try {
+        longSums[group] = Math.addExact(current, value);
+        kinds[group] = LONG;
+      } catch (ArithmeticException exception) {
+        kinds[group] = OVERFLOW;
+      }
+    }
+
+    private static boolean isFailed(byte kind) {
+      return kind == INVALID || kind == OVERFLOW;
+    }
+
+    private static boolean isWhole(double value) {
+      return value % 1.0 == 0.0;
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+      return storage instanceof AbstractLongStorage || storage instanceof DoubleStorage;
+    }
+
+    @Override
+    public void merge(GroupAccumulator other) {
+      SumAccumulator otherSum = (SumAccumulator) other;
+      for (int group = 0; group < kinds.length; group++) {
+        if (kinds[group] == EMPTY) {
+          kinds[group] = otherSum.kinds[group];
+          longSums[group] = otherSum.longSums[group];
+          doubleSums[group] = otherSum.doubleSums[group];
+          continue;
+        }
+
+        switch (otherSum.kinds[group]) {
+          case LONG -> {
+            long value = otherSum.longSums[group];
+            add(group, true, value, value);
+          }
+          case DOUBLE -> {
+            double value = otherSum.doubleSums[group];
+            add(group, isWhole(value), (long) value, value);
+          }
+          case INVALID, OVERFLOW -> {
+            if (!isFailed(kinds[group])) {
+              kinds[group] = otherSum.kinds[group];
+            }
+          }
+          default -> {}
+        }
+      }
+    }
+
+    @Override
+    public Object finish(int group) {
+      return switch (kinds[group]) {
+        case LONG -> longSums[group];
+        case DOUBLE -> doubleSums[group];
+        case OVERFLOW -> {
+          innerAggregator.reportOverflow(IntegerType.INT_64, "Sum");
+          yield null;
+        }
+        default -> null;
+      };
+    }
+  }
 }
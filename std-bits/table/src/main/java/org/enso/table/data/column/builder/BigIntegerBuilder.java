@@ -14,6 +14,7 @@ import org.enso.table.data.column.storage.type.IntegerType;
 import org.enso.table.data.column.storage.type.StorageType;
 import org.enso.table.error.ValueTypeMismatchException;
 import org.enso.table.problems.ProblemAggregator;
+import org.enso.table.util.ParallelTasks;
 import org.graalvm.polyglot.Context;
 
 public class BigIntegerBuilder extends TypedBuilderImpl<BigInteger> {
@@ -111,10 +112,12 @@ public class BigIntegerBuilder extends TypedBuilderImpl<BigInteger> {
     BigIntegerBuilder res =
         new BigIntegerBuilder(longBuilder.data.length, longBuilder.problemAggregator);
     int n = longBuilder.currentSize;
-    Context context = Context.getCurrent();
+    Context context = ParallelTasks.getCurrentContextOrNull();
     for (int i = 0; i < n; i++) {
       res.appendNoGrow(BigInteger.valueOf(longBuilder.data[i]));
-      context.safepoint();
+      if (context != null) {
+        context.safepoint();
+      }
     }
     return res;
   }
@@ -10,6 +10,7 @@ import org.enso.table.data.column.storage.type.DateTimeType;
 import org.enso.table.data.column.storage.type.DateType;
 import org.enso.table.data.column.storage.type.StorageType;
 import org.enso.table.error.ValueTypeMismatchException;
+import org.enso.table.util.ParallelTasks;
 import org.graalvm.polyglot.Context;
 
 /** A builder for ZonedDateTime columns. */
@@ -49,7 +50,7 @@ public class DateTimeBuilder extends TypedBuilderImpl<ZonedDateTime> {
   public void appendBulkStorage(Storage<?> storage) {
     if (storage.getType() instanceof DateType) {
       if (storage instanceof DateStorage dateStorage) {
-        Context context = Context.getCurrent();
+        Context context = ParallelTasks.getCurrentContextOrNull();
         for (int i = 0; i < dateStorage.size(); ++i) {
           LocalDate date = dateStorage.getItemBoxed(i);
           if (date == null) {
@@ -58,7 +59,9 @@ public class DateTimeBuilder extends TypedBuilderImpl<ZonedDateTime> {
             data[currentSize++] = convertDate(date);
           }
 
-          context.safepoint();
+          if (context != null) {
+            context.safepoint();
+          }
         }
       } else {
         throw new IllegalStateException(
@@ -97,7 +97,8 @@ public class DoubleBuilder extends NumericBuilder {
       if (storage instanceof DoubleStorage doubleStorage) {
         int n = doubleStorage.size();
         ensureFreeSpaceFor(n);
-        System.arraycopy(doubleStorage.getRawData(), 0, data, currentSize, n);
+        System.arraycopy(
+            doubleStorage.getRawData(), doubleStorage.getRawDataOffset(), data, currentSize, n);
         BitSets.copy(doubleStorage.getIsNothingMap(), isNothing, currentSize, n);
         currentSize += n;
       } else {
@@ -1,5 +1,6 @@
 package org.enso.table.data.column.builder;
 
+import org.enso.table.data.column.storage.DictionaryStringStorage;
 import org.enso.table.data.column.storage.SpecializedStorage;
 import org.enso.table.data.column.storage.Storage;
 import org.enso.table.data.column.storage.StringStorage;
@@ -53,6 +54,14 @@ public class StringBuilder extends TypedBuilderImpl<String> {
   public void appendBulkStorage(Storage<?> storage) {
     if (storage.getType() instanceof TextType gotType) {
       if (type.fitsExactly(gotType)) {
+        if (storage instanceof DictionaryStringStorage dictionaryStorage) {
+          // Copying the values directly avoids decoding the whole storage into a new array.
+          for (int i = 0; i < storage.size(); i++) {
+            data[currentSize++] = dictionaryStorage.getItem(i);
+          }
+          return;
+        }
+
         if (storage instanceof SpecializedStorage<?>) {
           // This cast is safe, because storage.getType() == this.getType() == TextType iff
           // storage.T == String
@@ -70,6 +79,11 @@ public class StringBuilder extends TypedBuilderImpl<String> {
 
   @Override
   protected Storage<String> doSeal() {
+    DictionaryStringStorage encoded = DictionaryStringStorage.tryEncode(data, currentSize, type);
+    if (encoded != null) {
+      return encoded;
+    }
+
     return new StringStorage(data, currentSize, type);
   }
 }
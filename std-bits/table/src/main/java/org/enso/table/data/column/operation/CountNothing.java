@@ -3,6 +3,7 @@ package org.enso.table.data.column.operation;
 import org.enso.table.data.column.storage.ColumnStorage;
 import org.enso.table.data.column.storage.ColumnStorageWithNothingMap;
 import org.enso.table.data.table.Column;
+import org.enso.table.util.ParallelTasks;
 import org.graalvm.polyglot.Context;
 
 /** An operation for counting the number of Nothing values in a Column. */
@@ -52,12 +53,15 @@ public class CountNothing {
       return withNothingMap.getIsNothingMap().nextClearBit(0) >= storage.getSize();
     }
 
-    Context context = Context.getCurrent();
+    // It is also used by parsers, which may run on worker threads.
+    Context context = ParallelTasks.getCurrentContextOrNull();
     for (long i = 0; i < storage.getSize(); i++) {
       if (!storage.isNothing(i)) {
         return false;
       }
-      context.safepoint();
+      if (context != null) {
+        context.safepoint();
+      }
     }
     return true;
   }
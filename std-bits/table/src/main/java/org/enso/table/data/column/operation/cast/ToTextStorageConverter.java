@@ -8,6 +8,7 @@ import java.util.function.Function;
 import org.enso.polyglot.common_utils.Core_Date_Utils;
 import org.enso.table.data.column.builder.StringBuilder;
 import org.enso.table.data.column.storage.BoolStorage;
+import org.enso.table.data.column.storage.DictionaryStringStorage;
 import org.enso.table.data.column.storage.Storage;
 import org.enso.table.data.column.storage.StringStorage;
 import org.enso.table.data.column.storage.datetime.DateStorage;
@@ -243,6 +244,14 @@ public class ToTextStorageConverter implements StorageConverter<String> {
    * canAvoidCopying}.
    */
   private Storage<String> retypeStringStorage(StringStorage stringStorage) {
+    if (stringStorage instanceof DictionaryStringStorage dictionaryStorage) {
+      return new DictionaryStringStorage(
+          dictionaryStorage.getCodes(),
+          dictionaryStorage.getDictionary(),
+          dictionaryStorage.size(),
+          targetType);
+    }
+
     return new StringStorage(stringStorage.getData(), stringStorage.size(), targetType);
   }
 }
@@ -14,7 +14,10 @@ import org.enso.table.data.column.storage.BoolStorage;
 import org.enso.table.data.column.storage.Storage;
 import org.enso.table.data.column.storage.numeric.AbstractLongStorage;
 import org.enso.table.data.column.storage.numeric.BigIntegerStorage;
+import org.enso.table.data.column.storage.numeric.DoubleSegmentStatistics;
 import org.enso.table.data.column.storage.numeric.DoubleStorage;
+import org.enso.table.data.column.storage.numeric.LongSegmentStatistics;
+import org.enso.table.data.column.storage.numeric.LongStorage;
 import org.enso.table.data.column.storage.type.AnyObjectType;
 import org.enso.table.util.BitSets;
 import org.graalvm.polyglot.Context;
@@ -90,6 +93,13 @@ public abstract class NumericComparison<T extends Number, I extends Storage<? su
 
   protected BoolStorage runLongMap(
       AbstractLongStorage lhs, long rhs, MapOperationProblemAggregator problemAggregator) {
+    if (lhs instanceof LongStorage longStorage) {
+      LongSegmentStatistics statistics = longStorage.getStatisticsIfReused();
+      if (statistics != null) {
+        return runLongMapBySegments(longStorage, statistics, rhs);
+      }
+    }
+
     int n = lhs.size();
     BitSet comparisonResults = new BitSet();
     BitSet isNothing = BitSets.makeDuplicate(lhs.getIsNothingMap());
@@ -111,6 +121,13 @@ public abstract class NumericComparison<T extends Number, I extends Storage<? su
 
   protected BoolStorage runDoubleMap(
       DoubleArrayAdapter lhs, double rhs, MapOperationProblemAggregator problemAggregator) {
+    if (lhs instanceof DoubleStorage doubleStorage) {
+      DoubleSegmentStatistics statistics = doubleStorage.getStatisticsIfReused();
+      if (statistics != null) {
+        return runDoubleMapBySegments(doubleStorage, statistics, rhs);
+      }
+    }
+
     int n = lhs.size();
     BitSet comparisonResults = new BitSet();
     BitSet isNothing = new BitSet();
@@ -132,6 +149,94 @@ public abstract class NumericComparison<T extends Number, I extends Storage<? su
     return new BoolStorage(comparisonResults, isNothing, n, false);
   }
 
+  /**
+   * Compares the storage with a constant, deciding the result for whole segments from their
+   * statistics where possible.
+   *
+   * <p>The values satisfying each of the comparisons form an interval, so if both the minimum and
+   * maximum of a segment satisfy it, all of its values do. If neither does and the constant is
+   * outside of the segment's range, none of them do.
+   */
+  private BoolStorage runLongMapBySegments(
+      LongStorage lhs, LongSegmentStatistics statistics, long rhs) {
+    int n = lhs.size();
+    BitSet isNothing = lhs.getIsNothingMap();
+    BitSet comparisonResults = new BitSet();
+    Context context = Context.getCurrent();
+    for (int segment = 0; segment < statistics.getSegmentCount(); segment++) {
+      if (statistics.isAllNothing(segment)) {
+        continue;
+      }
+
+      int start = statistics.getSegmentStart(segment);
+      int end = statistics.getSegmentEnd(segment);
+      long min = statistics.getMin(segment);
+      long max = statistics.getMax(segment);
+      boolean minMatches = doLong(min, rhs);
+      boolean maxMatches = doLong(max, rhs);
+      if (minMatches && maxMatches) {
+        setPresentRows(comparisonResults, isNothing, start, end);
+      } else if (minMatches || maxMatches || (min <= rhs && rhs <= max)) {
+        for (int i = start; i < end; ++i) {
+          if (!isNothing.get(i) && doLong(lhs.getItem(i), rhs)) {
+            comparisonResults.set(i);
+          }
+        }
+      }
+
+      context.safepoint();
+    }
+
+    return new BoolStorage(comparisonResults, BitSets.makeDuplicate(isNothing), n, false);
+  }
+
+  /**
+   * The counterpart of {@link #runLongMapBySegments} for floating point values.
+   *
+   * <p>Segments containing NaN are always checked row by row.
+   */
+  private BoolStorage runDoubleMapBySegments(
+      DoubleStorage lhs, DoubleSegmentStatistics statistics, double rhs) {
+    int n = lhs.size();
+    BitSet isNothing = lhs.getIsNothingMap();
+    BitSet comparisonResults = new BitSet();
+    Context context = Context.getCurrent();
+    for (int segment = 0; segment < statistics.getSegmentCount(); segment++) {
+      if (statistics.isAllNothing(segment)) {
+        continue;
+      }
+
+      int start = statistics.getSegmentStart(segment);
+      int end = statistics.getSegmentEnd(segment);
+      double min = statistics.getMin(segment);
+      double max = statistics.getMax(segment);
+      boolean minMatches = doDouble(min, rhs);
+      boolean maxMatches = doDouble(max, rhs);
+      boolean isDecided = !statistics.hasNaN(segment) && !Double.isNaN(rhs);
+      if (isDecided && minMatches && maxMatches) {
+        setPresentRows(comparisonResults, isNothing, start, end);
+      } else if (!isDecided || minMatches || maxMatches || (min <= rhs && rhs <= max)) {
+        for (int i = start; i < end; ++i) {
+          if (!isNothing.get(i) && doDouble(lhs.getItemAsDouble(i), rhs)) {
+            comparisonResults.set(i);
+          }
+        }
+      }
+
+      context.safepoint();
+    }
+
+    return new BoolStorage(comparisonResults, isNothing.get(0, n), n, false);
+  }
+
+  /** Sets the bits of all rows in {@code [start, end)} that are not missing. */
+  private static void setPresentRows(BitSet results, BitSet isNothing, int start, int end) {
+    results.set(start, end);
+    for (int i = isNothing.nextSetBit(start); i >= 0 && i < end; i = isNothing.nextSetBit(i + 1)) {
+      results.clear(i);
+    }
+  }
+
   protected BoolStorage runBigIntegerMap(
       BigIntegerArrayAdapter lhs, BigInteger rhs, MapOperationProblemAggregator problemAggregator) {
     int n = lhs.size();
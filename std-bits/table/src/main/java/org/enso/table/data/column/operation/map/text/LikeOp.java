@@ -6,6 +6,7 @@ import java.util.regex.Pattern;
 import org.enso.base.Regex_Utils;
 import org.enso.table.data.column.operation.map.MapOperationProblemAggregator;
 import org.enso.table.data.column.storage.BoolStorage;
+import org.enso.table.data.column.storage.DictionaryStringStorage;
 import org.enso.table.data.column.storage.SpecializedStorage;
 import org.enso.table.data.column.storage.Storage;
 import org.enso.table.error.UnexpectedTypeException;
@@ -46,6 +47,10 @@ public class LikeOp extends StringBooleanOp {
       return new BoolStorage(newVals, newIsNothing, storage.size(), false);
     } else if (arg instanceof String argString) {
       Pattern pattern = createRegexPatternFromSql(argString);
+      if (storage instanceof DictionaryStringStorage dictionaryStorage) {
+        return dictionaryStorage.mapToBoolean(s -> pattern.matcher(s).matches());
+      }
+
       BitSet newVals = new BitSet();
       BitSet newIsNothing = new BitSet();
       Context context = Context.getCurrent();
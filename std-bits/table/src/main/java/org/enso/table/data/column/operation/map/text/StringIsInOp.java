@@ -1,8 +1,11 @@
 package org.enso.table.data.column.operation.map.text;
 
+import java.util.BitSet;
 import java.util.HashSet;
 import java.util.List;
 import org.enso.table.data.column.operation.map.SpecializedIsInOp;
+import org.enso.table.data.column.storage.BoolStorage;
+import org.enso.table.data.column.storage.DictionaryStringStorage;
 import org.enso.table.data.column.storage.Storage;
 import org.graalvm.polyglot.Context;
 
@@ -22,4 +25,37 @@ public class StringIsInOp<S extends Storage<String>> extends SpecializedIsInOp<S
     }
     return new CompactRepresentation<>(set, hasNulls);
   }
+
+  @Override
+  public Storage<?> runMap(S storage, List<?> arg) {
+    if (!(storage instanceof DictionaryStringStorage dictionaryStorage) || arg.isEmpty()) {
+      return super.runMap(storage, arg);
+    }
+
+    // Each value of the dictionary is looked up only once.
+    CompactRepresentation<String> compactRepresentation = prepareList(arg);
+    String[] dictionary = dictionaryStorage.getDictionary();
+    boolean[] isInList = new boolean[dictionary.length];
+    for (int i = 0; i < dictionary.length; i++) {
+      isInList[i] = compactRepresentation.coercedValues().contains(dictionary[i]);
+    }
+
+    Context context = Context.getCurrent();
+    int[] codes = dictionaryStorage.getCodes();
+    BitSet newVals = new BitSet();
+    BitSet isNothing = new BitSet();
+    for (int i = 0; i < dictionaryStorage.size(); i++) {
+      int code = codes[i];
+      if (code == DictionaryStringStorage.NOTHING) {
+        isNothing.set(i);
+      } else if (isInList[code]) {
+        newVals.set(i);
+      } else if (compactRepresentation.hasNulls()) {
+        isNothing.set(i);
+      }
+
+      context.safepoint();
+    }
+    return new BoolStorage(newVals, isNothing, dictionaryStorage.size(), false);
+  }
 }
@@ -0,0 +1,264 @@
+package org.enso.table.data.column.storage;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.function.Predicate;
+import org.enso.table.data.column.operation.CountNothing;
+import org.enso.table.data.column.storage.type.TextType;
+import org.enso.table.data.mask.OrderMask;
+import org.enso.table.data.mask.SliceRange;
+import org.enso.table.util.ParallelTasks;
+import org.graalvm.polyglot.Context;
+
+/**
+ * A column storing strings as codes pointing into a dictionary of distinct values.
+ *
+ * <p>It is used for text columns with few distinct values, where it avoids keeping many duplicate
+ * string instances and allows operations to process each distinct value only once. Filtering and
+ * reordering the rows keeps the dictionary, so it may contain values that do not occur in the
+ * column anymore.
+ */
+public final class DictionaryStringStorage extends StringStorage {
+  /** The code denoting a missing value. */
+  public static final int NOTHING = -1;
+
+  /** Columns smaller than this are never encoded. */
+  private static final int MIN_ENCODED_SIZE = 1024;
+
+  private static final int MAX_DICTIONARY_SIZE = 1 << 16;
+
+  /** A column is only encoded if each value occurs at least this many times on average. */
+  private static final int MIN_AVERAGE_OCCURRENCES = 4;
+
+  /**
+   * The encoding is abandoned early if more than this fraction of the values seen so far (checked
+   * after each power of two of rows, starting at {@link #MIN_ENCODED_SIZE}) are distinct, so that
+   * columns of mostly unique values are not scanned and hashed in vain.
+   */
+  private static final double MAX_EARLY_DISTINCT_FRACTION = 0.875;
+
+  private final int[] codes;
+  private final String[] dictionary;
+
+  /** The decoded values, computed on the first call to {@link #getData()}. */
+  private volatile String[] decoded;
+
+  /**
+   * @param codes the index of each value in the dictionary, or {@link #NOTHING}
+   * @param dictionary the distinct values
+   * @param size the number of items stored
+   * @param type the type of the column
+   */
+  public DictionaryStringStorage(int[] codes, String[] dictionary, int size, TextType type) {
+    super(null, size, type);
+    this.codes = codes;
+    this.dictionary = dictionary;
+  }
+
+  /**
+   * Encodes the given strings if they have few distinct values.
+   *
+   * <p>It may be called from worker threads.
+   *
+   * @return the encoded storage, or {@code null} if the strings are not worth encoding
+   */
+  public static DictionaryStringStorage tryEncode(String[] data, int size, TextType type) {
+    if (size < MIN_ENCODED_SIZE) {
+      return null;
+    }
+
+    int maxDictionarySize = Math.min(MAX_DICTIONARY_SIZE, size / MIN_AVERAGE_OCCURRENCES);
+    HashMap<String, Integer> dictionaryIndex = new HashMap<>();
+    int[] codes = new int[size];
+    Context context = ParallelTasks.getCurrentContextOrNull();
+    int nextCheck = MIN_ENCODED_SIZE;
+    for (int i = 0; i < size; i++) {
+      if (i == nextCheck) {
+        if (dictionaryIndex.size() > i * MAX_EARLY_DISTINCT_FRACTION) {
+          return null;
+        }
+        nextCheck *= 2;
+      }
+
+      String value = data[i];
+      if (value == null) {
+        codes[i] = NOTHING;
+      } else {
+        Integer code = dictionaryIndex.putIfAbsent(value, dictionaryIndex.size());
+        if (code == null) {
+          if (dictionaryIndex.size() > maxDictionarySize) {
+            return null;
+          }
+          code = dictionaryIndex.size() - 1;
+        }
+        codes[i] = code;
+      }
+
+      if (context != null) {
+        context.safepoint();
+      }
+    }
+
+    String[] dictionary = new String[dictionaryIndex.size()];
+    dictionaryIndex.forEach((value, code) -> dictionary[code] = value);
+    return new DictionaryStringStorage(codes, dictionary, size, type);
+  }
+
+  /** Returns the dictionary code of each row. */
+  public int[] getCodes() {
+    return codes;
+  }
+
+  /** Returns the distinct values that the codes point into. */
+  public String[] getDictionary() {
+    return dictionary;
+  }
+
+  @Override
+  public String getItem(long idx) {
+    int code = codes[(int) idx];
+    return code == NOTHING ? null : dictionary[code];
+  }
+
+  @Override
+  public String getItemBoxed(int idx) {
+    return getItem(idx);
+  }
+
+  @Override
+  public boolean isNothing(long idx) {
+    return codes[(int) idx] == NOTHING;
+  }
+
+  /**
+   * Returns the decoded values.
+   *
+   * <p>The array is created on the first call and kept for the lifetime of the storage, doubling
+   * its memory footprint, so the encoded storage should be preferred wherever possible. The
+   * returned array must not be modified.
+   */
+  @Override
+  public String[] getData() {
+    String[] result = decoded;
+    if (result == null) {
+      result = new String[size];
+      for (int i = 0; i < size; i++) {
+        result[i] = getItem(i);
+      }
+      decoded = result;
+    }
+    return result;
+  }
+
+  /**
+   * Evaluates the predicate for each row, computing it only once for each value of the dictionary.
+   * Missing values yield missing results.
+   */
+  public BoolStorage mapToBoolean(Predicate<String> predicate) {
+    Context context = Context.getCurrent();
+    boolean[] dictionaryResults = new boolean[dictionary.length];
+    for (int i = 0; i < dictionary.length; i++) {
+      dictionaryResults[i] = predicate.test(dictionary[i]);
+      context.safepoint();
+    }
+
+    BitSet values = new BitSet();
+    BitSet isNothing = new BitSet();
+    for (int i = 0; i < size; i++) {
+      int code = codes[i];
+      if (code == NOTHING) {
+        isNothing.set(i);
+      } else if (dictionaryResults[code]) {
+        values.set(i);
+      }
+
+      context.safepoint();
+    }
+    return new BoolStorage(values, isNothing, size, false);
+  }
+
+  private DictionaryStringStorage withCodes(int[] newCodes) {
+    return new DictionaryStringStorage(newCodes, dictionary, newCodes.length, getType());
+  }
+
+  @Override
+  public DictionaryStringStorage applyFilter(BitSet filterMask, int newLength) {
+    Context context = Context.getCurrent();
+    int[] newCodes = new int[newLength];
+    int resIx = 0;
+    for (int i = 0; i < size; i++) {
+      if (filterMask.get(i)) {
+        newCodes[resIx++] = codes[i];
+      }
+
+      context.safepoint();
+    }
+    return withCodes(newCodes);
+  }
+
+  @Override
+  public DictionaryStringStorage applyMask(OrderMask mask) {
+    Context context = Context.getCurrent();
+    int[] newCodes = new int[mask.length()];
+    for (int i = 0; i < mask.length(); i++) {
+      int position = mask.get(i);
+      newCodes[i] = position == Storage.NOT_FOUND_INDEX ? NOTHING : codes[position];
+      context.safepoint();
+    }
+    return withCodes(newCodes);
+  }
+
+  @Override
+  public DictionaryStringStorage slice(int offset, int limit) {
+    int newSize = Math.min(size - offset, limit);
+    return withCodes(Arrays.copyOfRange(codes, offset, offset + newSize));
+  }
+
+  @Override
+  public DictionaryStringStorage slice(List<SliceRange> ranges) {
+    Context context = Context.getCurrent();
+    int[] newCodes = new int[SliceRange.totalLength(ranges)];
+    int offset = 0;
+    for (SliceRange range : ranges) {
+      int length = range.end() - range.start();
+      System.arraycopy(codes, range.start(), newCodes, offset, length);
+      offset += length;
+      context.safepoint();
+    }
+    return withCodes(newCodes);
+  }
+
+  @Override
+  public DictionaryStringStorage appendNulls(int count) {
+    int[] newCodes = Arrays.copyOf(codes, size + count);
+    Arrays.fill(newCodes, size, size + count, NOTHING);
+    return withCodes(newCodes);
+  }
+
+  @Override
+  public DictionaryStringStorage fillMissingFromPrevious(BoolStorage missingIndicator) {
+    if (missingIndicator != null && CountNothing.anyNothing(missingIndicator)) {
+      throw new IllegalArgumentException(
+          "Missing indicator must not contain missing values itself.");
+    }
+
+    int[] newCodes = new int[size];
+    int previous = NOTHING;
+    boolean hasPrevious = false;
+    Context context = Context.getCurrent();
+    for (int i = 0; i < size; i++) {
+      boolean isCurrentValueMissing =
+          missingIndicator == null ? isNothing(i) : missingIndicator.getItem(i);
+      if (!isCurrentValueMissing) {
+        previous = codes[i];
+        hasPrevious = true;
+      }
+
+      newCodes[i] = hasPrevious ? previous : codes[i];
+      context.safepoint();
+    }
+    return withCodes(newCodes);
+  }
+}
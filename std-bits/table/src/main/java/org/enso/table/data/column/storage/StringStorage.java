@@ -15,7 +15,8 @@ import org.enso.table.data.column.storage.type.TextType;
 import org.graalvm.polyglot.Context;
 
 /** A column storing strings. */
-public final class StringStorage extends SpecializedStorage<String> {
+public sealed class StringStorage extends SpecializedStorage<String>
+    permits DictionaryStringStorage {
 
   private final TextType type;
 
@@ -53,6 +54,11 @@ public final class StringStorage extends SpecializedStorage<String> {
               SpecializedStorage<String> storage,
               Object arg,
               MapOperationProblemAggregator problemAggregator) {
+            if (storage instanceof DictionaryStringStorage dictionaryStorage && arg != null) {
+              return dictionaryStorage.mapToBoolean(
+                  s -> arg instanceof String argString && Text_Utils.equals(s, argString));
+            }
+
             BitSet r = new BitSet();
             BitSet isNothing = new BitSet();
             Context context = Context.getCurrent();
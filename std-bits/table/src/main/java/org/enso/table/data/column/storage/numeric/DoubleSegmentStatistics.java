@@ -0,0 +1,75 @@
+package org.enso.table.data.column.storage.numeric;
+
+import java.util.BitSet;
+import org.graalvm.polyglot.Context;
+
+/**
+ * The minimum and maximum of each segment of a {@link DoubleStorage}.
+ *
+ * <p>NaN is not ordered with respect to other values, so segments containing it are marked and
+ * their minimum and maximum only cover the remaining values.
+ */
+public final class DoubleSegmentStatistics extends SegmentStatistics {
+  private final double[] minimums;
+  private final double[] maximums;
+  private final BitSet segmentsWithNaN = new BitSet();
+
+  private DoubleSegmentStatistics(int size) {
+    super(size);
+    this.minimums = new double[getSegmentCount()];
+    this.maximums = new double[getSegmentCount()];
+  }
+
+  static DoubleSegmentStatistics compute(long[] data, int offset, BitSet isNothing, int size) {
+    DoubleSegmentStatistics statistics = new DoubleSegmentStatistics(size);
+    Context context = Context.getCurrent();
+    for (int segment = 0; segment < statistics.getSegmentCount(); segment++) {
+      double min = Double.POSITIVE_INFINITY;
+      double max = Double.NEGATIVE_INFINITY;
+      boolean hasNaN = false;
+      int nothingCount = 0;
+      int end = statistics.getSegmentEnd(segment);
+      for (int row = statistics.getSegmentStart(segment); row < end; row++) {
+        if (isNothing.get(row)) {
+          nothingCount++;
+        } else {
+          double value = Double.longBitsToDouble(data[offset + row]);
+          if (Double.isNaN(value)) {
+            hasNaN = true;
+          } else {
+            // Plain comparisons are used, so that -0.0 and 0.0 are treated as equal, as they are
+            // by the numeric operations.
+            if (value < min) {
+              min = value;
+            }
+            if (value > max) {
+              max = value;
+            }
+          }
+        }
+      }
+
+      statistics.minimums[segment] = min;
+      statistics.maximums[segment] = max;
+      statistics.segmentsWithNaN.set(segment, hasNaN);
+      statistics.setNothingCount(segment, nothingCount);
+      context.safepoint();
+    }
+    return statistics;
+  }
+
+  /** Checks if the segment contains a NaN value. */
+  public boolean hasNaN(int segment) {
+    return segmentsWithNaN.get(segment);
+  }
+
+  /** Returns the smallest value in the segment other than NaN. */
+  public double getMin(int segment) {
+    return minimums[segment];
+  }
+
+  /** Returns the largest value in the segment other than NaN. */
+  public double getMax(int segment) {
+    return maximums[segment];
+  }
+}
@@ -3,6 +3,7 @@ package org.enso.table.data.column.storage.numeric;
 import java.math.BigInteger;
 import java.util.BitSet;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.enso.table.data.column.builder.NumericBuilder;
 import org.enso.table.data.column.operation.map.MapOperationProblemAggregator;
 import org.enso.table.data.column.operation.map.MapOperationStorage;
@@ -37,6 +38,13 @@ import org.graalvm.polyglot.Value;
 public final class DoubleStorage extends NumericStorage<Double>
     implements DoubleArrayAdapter, ColumnStorageWithNothingMap {
   private final long[] data;
+
+  /**
+   * The position of the first row in {@code data}. It is non-zero for slices sharing the array of
+   * their parent.
+   */
+  private final int offset;
+
   private final BitSet isNothing;
   private final int size;
   private static final MapOperationStorage<Double, DoubleStorage> ops = buildOps();
@@ -48,7 +56,12 @@ public final class DoubleStorage extends NumericStorage<Double>
    *     Nothing.
    */
   public DoubleStorage(long[] data, int size, BitSet isNothing) {
+    this(data, 0, size, isNothing);
+  }
+
+  private DoubleStorage(long[] data, int offset, int size, BitSet isNothing) {
     this.data = data;
+    this.offset = offset;
     this.isNothing = isNothing;
     this.size = size;
   }
@@ -72,12 +85,12 @@ public final class DoubleStorage extends NumericStorage<Double>
    * @return the data item contained at the given index.
    */
   public double getItem(long idx) {
-    return Double.longBitsToDouble(data[(int) idx]);
+    return Double.longBitsToDouble(data[offset + (int) idx]);
   }
 
   @Override
   public Double getItemBoxed(int idx) {
-    return isNothing.get(idx) ? null : Double.longBitsToDouble(data[idx]);
+    return isNothing.get(idx) ? null : Double.longBitsToDouble(data[offset + idx]);
   }
 
   /**
@@ -98,7 +111,7 @@ public final class DoubleStorage extends NumericStorage<Double>
 
   @Override
   public double getItemAsDouble(int i) {
-    return Double.longBitsToDouble(data[i]);
+    return Double.longBitsToDouble(data[offset + i]);
   }
 
   @Override
@@ -140,7 +153,7 @@ public final class DoubleStorage extends NumericStorage<Double>
       if (isNothing.get(i)) {
         builder.appendRawNoGrow(rawArg);
       } else {
-        builder.appendRawNoGrow(data[i]);
+        builder.appendRawNoGrow(data[offset + i]);
       }
 
       context.safepoint();
@@ -156,7 +169,7 @@ public final class DoubleStorage extends NumericStorage<Double>
       if (isNothing.get(i)) {
         builder.appendBigInteger(arg);
       } else {
-        builder.appendRawNoGrow(data[i]);
+        builder.appendRawNoGrow(data[offset + i]);
       }
 
       context.safepoint();
@@ -172,7 +185,7 @@ public final class DoubleStorage extends NumericStorage<Double>
       if (isNothing.get(i)) {
         builder.appendLong(arg);
       } else {
-        builder.appendRawNoGrow(data[i]);
+        builder.appendRawNoGrow(data[offset + i]);
       }
 
       context.safepoint();
@@ -219,7 +232,7 @@ public final class DoubleStorage extends NumericStorage<Double>
           newIsNothing.set(i);
         }
       } else {
-        long currentValueRaw = data[i];
+        long currentValueRaw = data[offset + i];
         newData[i] = currentValueRaw;
         previousValueRaw = currentValueRaw;
         hasPrevious = true;
@@ -231,21 +244,33 @@ public final class DoubleStorage extends NumericStorage<Double>
     return new DoubleStorage(newData, n, newIsNothing);
   }
 
+  /**
+   * Copies the selected rows in runs, so that rows that are not selected are skipped without being
+   * visited.
+   */
   @Override
   public Storage<Double> applyFilter(BitSet filterMask, int newLength) {
     BitSet newIsNothing = new BitSet();
     long[] newData = new long[newLength];
     int resIx = 0;
     Context context = Context.getCurrent();
-    for (int i = 0; i < size; i++) {
-      if (filterMask.get(i)) {
-        if (isNothing.get(i)) {
-          newIsNothing.set(resIx++);
-        } else {
-          newData[resIx++] = data[i];
-        }
+    int runStart = filterMask.nextSetBit(0);
+    while (runStart >= 0 && runStart < size) {
+      int runEnd = Math.min(filterMask.nextClearBit(runStart), size);
+      // Storages with only missing values may not have their data allocated.
+      int copyEnd = Math.min(runEnd, data.length - offset);
+      if (copyEnd > runStart) {
+        System.arraycopy(data, offset + runStart, newData, resIx, copyEnd - runStart);
+      }
+      for (int i = isNothing.nextSetBit(runStart);
+          i >= 0 && i < runEnd;
+          i = isNothing.nextSetBit(i + 1)) {
+        newData[resIx + i - runStart] = 0;
+        newIsNothing.set(resIx + i - runStart);
       }
 
+      resIx += runEnd - runStart;
+      runStart = filterMask.nextSetBit(runEnd);
       context.safepoint();
     }
     return new DoubleStorage(newData, newLength, newIsNothing);
@@ -261,7 +286,7 @@ public final class DoubleStorage extends NumericStorage<Double>
       if (position == Storage.NOT_FOUND_INDEX || isNothing.get(position)) {
         newIsNothing.set(i);
       } else {
-        newData[i] = data[position];
+        newData[i] = data[offset + position];
       }
 
       context.safepoint();
@@ -269,10 +294,43 @@ public final class DoubleStorage extends NumericStorage<Double>
     return new DoubleStorage(newData, newData.length, newIsNothing);
   }
 
+  /**
+   * Returns the underlying array, with the value of row {@code i} at index {@code
+   * getRawDataOffset() + i}.
+   *
+   * <p>Slices may share the array of their parent, so it can extend past the rows of this storage.
+   * It can also be shorter than the storage if all the remaining rows are missing.
+   */
   public long[] getRawData() {
     return data;
   }
 
+  /** Returns the index of the first row of this storage in the array from {@link #getRawData()}. */
+  public int getRawDataOffset() {
+    return offset;
+  }
+
+  private volatile DoubleSegmentStatistics statistics = null;
+  private final AtomicInteger statisticsRequests = new AtomicInteger();
+
+  /**
+   * Returns the statistics of the segments of this storage, or {@code null} if they are not worth
+   * computing yet.
+   *
+   * <p>Computing the statistics takes a full pass over the data, which only pays off if the storage
+   * is scanned more than once, so they are computed on the second request. The statistics are
+   * immutable and published through a volatile field, so threads racing on the second request may
+   * each compute them, but all of them see complete results.
+   */
+  public DoubleSegmentStatistics getStatisticsIfReused() {
+    DoubleSegmentStatistics result = statistics;
+    if (result == null && statisticsRequests.incrementAndGet() >= 2) {
+      result = DoubleSegmentStatistics.compute(data, offset, isNothing, size);
+      statistics = result;
+    }
+    return result;
+  }
+
   private static MapOperationStorage<Double, DoubleStorage> buildOps() {
     MapOperationStorage<Double, DoubleStorage> ops = new MapOperationStorage<>();
     ops.add(new AddOp<>())
@@ -292,26 +350,48 @@ public final class DoubleStorage extends NumericStorage<Double>
   }
 
   @Override
-  public Storage<Double> slice(int offset, int limit) {
+  public DoubleStorage slice(int offset, int limit) {
     int newSize = Math.min(size - offset, limit);
+    BitSet newMask = isNothing.get(offset, offset + newSize);
+    // Storages with only missing values may not have their data allocated, so they are not shared.
+    if (data.length >= this.offset + size && SliceSharingPolicy.shouldShare(newSize, data.length)) {
+      return new DoubleStorage(data, this.offset + offset, newSize, newMask);
+    }
+
     long[] newData = new long[newSize];
-    System.arraycopy(data, offset, newData, 0, newSize);
-    BitSet newMask = isNothing.get(offset, offset + limit);
+    copyRows(offset, newData, 0, newSize);
     return new DoubleStorage(newData, newSize, newMask);
   }
 
+  /**
+   * Copies the values of {@code length} rows starting at {@code from} into {@code target}. Storages
+   * with only missing values may not have their data allocated, so the rows past the end of the
+   * array are left as zeros.
+   */
+  private void copyRows(int from, long[] target, int targetOffset, int length) {
+    int available = Math.min(length, data.length - offset - from);
+    if (available > 0) {
+      System.arraycopy(data, offset + from, target, targetOffset, available);
+    }
+  }
+
   @Override
   public DoubleStorage appendNulls(int count) {
     BitSet newIsNothing = BitSets.makeDuplicate(isNothing);
     newIsNothing.set(size, size + count);
 
     long[] newData = new long[size + count];
-    System.arraycopy(data, 0, newData, 0, size);
+    copyRows(0, newData, 0, size);
     return new DoubleStorage(newData, size + count, newIsNothing);
   }
 
   @Override
   public Storage<Double> slice(List<SliceRange> ranges) {
+    if (ranges.size() == 1) {
+      SliceRange range = ranges.get(0);
+      return slice(range.start(), range.end() - range.start());
+    }
+
     int newSize = SliceRange.totalLength(ranges);
     long[] newData = new long[newSize];
     BitSet newIsNothing = new BitSet(newSize);
@@ -319,7 +399,7 @@ public final class DoubleStorage extends NumericStorage<Double>
     Context context = Context.getCurrent();
     for (SliceRange range : ranges) {
       int length = range.end() - range.start();
-      System.arraycopy(data, range.start(), newData, offset, length);
+      copyRows(range.start(), newData, offset, length);
       for (int i = 0; i < length; ++i) {
         newIsNothing.set(offset + i, isNothing.get(range.start() + i));
         context.safepoint();
@@ -342,7 +422,7 @@ public final class DoubleStorage extends NumericStorage<Double>
           continue;
         }
 
-        double value = Double.longBitsToDouble(data[i]);
+        double value = Double.longBitsToDouble(data[offset + i]);
         visitedNumbers++;
         boolean isWholeNumber = value % 1.0 == 0.0;
         boolean canBeInteger = isWholeNumber && IntegerType.INT_64.fits(value);
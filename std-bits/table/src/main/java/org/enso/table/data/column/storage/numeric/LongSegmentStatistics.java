@@ -0,0 +1,52 @@
+package org.enso.table.data.column.storage.numeric;
+
+import java.util.BitSet;
+import org.graalvm.polyglot.Context;
+
+/** The minimum and maximum of each segment of a {@link LongStorage}. */
+public final class LongSegmentStatistics extends SegmentStatistics {
+  private final long[] minimums;
+  private final long[] maximums;
+
+  private LongSegmentStatistics(int size) {
+    super(size);
+    this.minimums = new long[getSegmentCount()];
+    this.maximums = new long[getSegmentCount()];
+  }
+
+  static LongSegmentStatistics compute(long[] data, int offset, BitSet isNothing, int size) {
+    LongSegmentStatistics statistics = new LongSegmentStatistics(size);
+    Context context = Context.getCurrent();
+    for (int segment = 0; segment < statistics.getSegmentCount(); segment++) {
+      long min = Long.MAX_VALUE;
+      long max = Long.MIN_VALUE;
+      int nothingCount = 0;
+      int end = statistics.getSegmentEnd(segment);
+      for (int row = statistics.getSegmentStart(segment); row < end; row++) {
+        if (isNothing.get(row)) {
+          nothingCount++;
+        } else {
+          long value = data[offset + row];
+          min = Math.min(min, value);
+          max = Math.max(max, value);
+        }
+      }
+
+      statistics.minimums[segment] = min;
+      statistics.maximums[segment] = max;
+      statistics.setNothingCount(segment, nothingCount);
+      context.safepoint();
+    }
+    return statistics;
+  }
+
+  /** Returns the smallest value in the segment, which must not be all missing. */
+  public long getMin(int segment) {
+    return minimums[segment];
+  }
+
+  /** Returns the largest value in the segment, which must not be all missing. */
+  public long getMax(int segment) {
+    return maximums[segment];
+  }
+}
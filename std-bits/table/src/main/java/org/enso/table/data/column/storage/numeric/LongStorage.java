@@ -3,6 +3,7 @@ package org.enso.table.data.column.storage.numeric;
 import java.math.BigInteger;
 import java.util.BitSet;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.enso.base.polyglot.NumericConverter;
 import org.enso.table.data.column.builder.BigIntegerBuilder;
 import org.enso.table.data.column.builder.NumericBuilder;
@@ -22,6 +23,13 @@ public final class LongStorage extends AbstractLongStorage {
   // for more compact storage and more efficient handling of smaller integers; for now we will be
   // handling this just by checking the bounds
   private final long[] data;
+
+  /**
+   * The position of the first row in {@code data}. It is non-zero for slices sharing the array of
+   * their parent.
+   */
+  private final int offset;
+
   private final BitSet isNothing;
   private final int size;
 
@@ -35,7 +43,12 @@ public final class LongStorage extends AbstractLongStorage {
    * @param type the type specifying the bit-width of integers that are allowed in this storage
    */
   public LongStorage(long[] data, int size, BitSet isNothing, IntegerType type) {
+    this(data, 0, size, isNothing, type);
+  }
+
+  private LongStorage(long[] data, int offset, int size, BitSet isNothing, IntegerType type) {
     this.data = data;
+    this.offset = offset;
     this.isNothing = isNothing;
     this.size = size;
     this.type = type;
@@ -68,12 +81,12 @@ public final class LongStorage extends AbstractLongStorage {
    * @return the data item contained at the given index.
    */
   public long getItem(int idx) {
-    return data[idx];
+    return data[offset + idx];
   }
 
   @Override
   public Long getItemBoxed(int idx) {
-    return isNothing.get(idx) ? null : data[idx];
+    return isNothing.get(idx) ? null : data[offset + idx];
   }
 
   /**
@@ -100,7 +113,7 @@ public final class LongStorage extends AbstractLongStorage {
       if (isNothing.get(i)) {
         builder.appendRawNoGrow(rawArg);
       } else {
-        double coerced = data[i];
+        double coerced = data[offset + i];
         builder.appendRawNoGrow(Double.doubleToRawLongBits(coerced));
       }
 
@@ -118,7 +131,7 @@ public final class LongStorage extends AbstractLongStorage {
       if (isNothing.get(i)) {
         builder.appendRawNoGrow(arg);
       } else {
-        builder.appendRawNoGrow(data[i]);
+        builder.appendRawNoGrow(data[offset + i]);
       }
 
       context.safepoint();
@@ -135,7 +148,7 @@ public final class LongStorage extends AbstractLongStorage {
       if (isNothing.get(i)) {
         builder.appendRawNoGrow(bigInteger);
       } else {
-        builder.appendRawNoGrow(BigInteger.valueOf(data[i]));
+        builder.appendRawNoGrow(BigInteger.valueOf(data[offset + i]));
       }
 
       context.safepoint();
@@ -160,21 +173,33 @@ public final class LongStorage extends AbstractLongStorage {
     return super.fillMissing(arg, commonType, problemAggregator);
   }
 
+  /**
+   * Copies the selected rows in runs, so that rows that are not selected are skipped without being
+   * visited.
+   */
   @Override
   public Storage<Long> applyFilter(BitSet filterMask, int newLength) {
     BitSet newIsNothing = new BitSet();
     long[] newData = new long[newLength];
     int resIx = 0;
     Context context = Context.getCurrent();
-    for (int i = 0; i < size; i++) {
-      if (filterMask.get(i)) {
-        if (isNothing.get(i)) {
-          newIsNothing.set(resIx++);
-        } else {
-          newData[resIx++] = data[i];
-        }
+    int runStart = filterMask.nextSetBit(0);
+    while (runStart >= 0 && runStart < size) {
+      int runEnd = Math.min(filterMask.nextClearBit(runStart), size);
+      // Storages with only missing values may not have their data allocated.
+      int copyEnd = Math.min(runEnd, data.length - offset);
+      if (copyEnd > runStart) {
+        System.arraycopy(data, offset + runStart, newData, resIx, copyEnd - runStart);
+      }
+      for (int i = isNothing.nextSetBit(runStart);
+          i >= 0 && i < runEnd;
+          i = isNothing.nextSetBit(i + 1)) {
+        newData[resIx + i - runStart] = 0;
+        newIsNothing.set(resIx + i - runStart);
       }
 
+      resIx += runEnd - runStart;
+      runStart = filterMask.nextSetBit(runEnd);
       context.safepoint();
     }
     return new LongStorage(newData, newLength, newIsNothing, type);
@@ -190,7 +215,7 @@ public final class LongStorage extends AbstractLongStorage {
       if (position == Storage.NOT_FOUND_INDEX || isNothing.get(position)) {
         newIsNothing.set(i);
       } else {
-        newData[i] = data[position];
+        newData[i] = data[offset + position];
       }
 
       context.safepoint();
@@ -203,30 +228,85 @@ public final class LongStorage extends AbstractLongStorage {
     return isNothing;
   }
 
+  /**
+   * Returns the underlying array, with the value of row {@code i} at index {@code
+   * getRawDataOffset() + i}.
+   *
+   * <p>Slices may share the array of their parent, so it can extend past the rows of this storage.
+   * It can also be shorter than the storage if all the remaining rows are missing.
+   */
   public long[] getRawData() {
     return data;
   }
 
+  /** Returns the index of the first row of this storage in the array from {@link #getRawData()}. */
+  public int getRawDataOffset() {
+    return offset;
+  }
+
+  private volatile LongSegmentStatistics statistics = null;
+  private final AtomicInteger statisticsRequests = new AtomicInteger();
+
+  /**
+   * Returns the statistics of the segments of this storage, or {@code null} if they are not worth
+   * computing yet.
+   *
+   * <p>Computing the statistics takes a full pass over the data, which only pays off if the storage
+   * is scanned more than once, so they are computed on the second request. The statistics are
+   * immutable and published through a volatile field, so threads racing on the second request may
+   * each compute them, but all of them see complete results.
+   */
+  public LongSegmentStatistics getStatisticsIfReused() {
+    LongSegmentStatistics result = statistics;
+    if (result == null && statisticsRequests.incrementAndGet() >= 2) {
+      result = LongSegmentStatistics.compute(data, offset, isNothing, size);
+      statistics = result;
+    }
+    return result;
+  }
+
   @Override
   public LongStorage slice(int offset, int limit) {
     int newSize = Math.min(size - offset, limit);
+    BitSet newMask = isNothing.get(offset, offset + newSize);
+    // Storages with only missing values may not have their data allocated, so they are not shared.
+    if (data.length >= this.offset + size && SliceSharingPolicy.shouldShare(newSize, data.length)) {
+      return new LongStorage(data, this.offset + offset, newSize, newMask, type);
+    }
+
     long[] newData = new long[newSize];
-    System.arraycopy(data, offset, newData, 0, newSize);
-    BitSet newMask = isNothing.get(offset, offset + limit);
+    copyRows(offset, newData, 0, newSize);
     return new LongStorage(newData, newSize, newMask, type);
   }
 
+  /**
+   * Copies the values of {@code length} rows starting at {@code from} into {@code target}. Storages
+   * with only missing values may not have their data allocated, so the rows past the end of the
+   * array are left as zeros.
+   */
+  private void copyRows(int from, long[] target, int targetOffset, int length) {
+    int available = Math.min(length, data.length - offset - from);
+    if (available > 0) {
+      System.arraycopy(data, offset + from, target, targetOffset, available);
+    }
+  }
+
   @Override
   public LongStorage appendNulls(int count) {
     BitSet newIsNothing = BitSets.makeDuplicate(isNothing);
     newIsNothing.set(size, size + count);
     long[] newData = new long[size + count];
-    System.arraycopy(data, 0, newData, 0, size);
+    copyRows(0, newData, 0, size);
     return new LongStorage(newData, size + count, newIsNothing, type);
   }
 
   @Override
   public LongStorage slice(List<SliceRange> ranges) {
+    if (ranges.size() == 1) {
+      SliceRange range = ranges.get(0);
+      return slice(range.start(), range.end() - range.start());
+    }
+
     int newSize = SliceRange.totalLength(ranges);
     long[] newData = new long[newSize];
     BitSet newIsNothing = new BitSet(newSize);
@@ -234,7 +314,7 @@ public final class LongStorage extends AbstractLongStorage {
     Context context = Context.getCurrent();
     for (SliceRange range : ranges) {
       int length = range.end() - range.start();
-      System.arraycopy(data, range.start(), newData, offset, length);
+      copyRows(range.start(), newData, offset, length);
       for (int i = 0; i < length; ++i) {
         newIsNothing.set(offset + i, isNothing.get(range.start() + i));
         context.safepoint();
@@ -249,6 +329,6 @@ public final class LongStorage extends AbstractLongStorage {
   @Override
   public LongStorage widen(IntegerType widerType) {
     assert widerType.fits(type);
-    return new LongStorage(data, size, isNothing, widerType);
+    return new LongStorage(data, offset, size, isNothing, widerType);
   }
 }
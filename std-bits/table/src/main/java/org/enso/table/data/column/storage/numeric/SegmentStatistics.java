@@ -0,0 +1,49 @@
+package org.enso.table.data.column.storage.numeric;
+
+/**
+ * Summaries of fixed-size segments of a numeric storage.
+ *
+ * <p>Operations that can decide the result for a whole segment from its summary, like comparisons
+ * with a constant, can skip looking at its values. The statistics are computed on first use and
+ * cached by the storage, as storages are immutable.
+ */
+public abstract class SegmentStatistics {
+  /** The number of rows in each segment, except possibly the last one. */
+  public static final int SEGMENT_SIZE = 1 << 12;
+
+  private final int size;
+  private final int[] nothingCounts;
+
+  protected SegmentStatistics(int size) {
+    this.size = size;
+    this.nothingCounts = new int[(size + SEGMENT_SIZE - 1) / SEGMENT_SIZE];
+  }
+
+  public int getSegmentCount() {
+    return nothingCounts.length;
+  }
+
+  /** Returns the first row of the segment. */
+  public int getSegmentStart(int segment) {
+    return segment * SEGMENT_SIZE;
+  }
+
+  /** Returns the row after the last row of the segment. */
+  public int getSegmentEnd(int segment) {
+    return Math.min((segment + 1) * SEGMENT_SIZE, size);
+  }
+
+  /** Returns the number of missing values in the segment. */
+  public int getNothingCount(int segment) {
+    return nothingCounts[segment];
+  }
+
+  /** Checks if all values of the segment are missing, so its minimum and maximum are undefined. */
+  public boolean isAllNothing(int segment) {
+    return nothingCounts[segment] == getSegmentEnd(segment) - getSegmentStart(segment);
+  }
+
+  protected void setNothingCount(int segment, int nothingCount) {
+    nothingCounts[segment] = nothingCount;
+  }
+}
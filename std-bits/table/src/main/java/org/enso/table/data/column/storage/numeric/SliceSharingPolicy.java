@@ -0,0 +1,26 @@
+package org.enso.table.data.column.storage.numeric;
+
+/**
+ * Decides whether a slice of a primitive storage shares the underlying array of its parent, or gets
+ * a copy of its part of it.
+ *
+ * <p>Sharing makes slicing constant-time, but keeps the whole array alive for as long as the slice
+ * is. So it is only done for slices that cover a large enough part of the array, bounding the
+ * memory retained by a slice to a few times its own size. Small slices are copied, as this is cheap
+ * anyway.
+ */
+final class SliceSharingPolicy {
+  private SliceSharingPolicy() {}
+
+  /** Slices with fewer rows than this are always copied. */
+  static final int MIN_SHARED_SLICE_LENGTH = 1 << 12;
+
+  /** A shared slice must cover at least this fraction of the underlying array. */
+  static final int MAX_RETAINED_ARRAY_RATIO = 4;
+
+  /** Checks if a slice of the given length should share an underlying array of the given length. */
+  static boolean shouldShare(int sliceLength, int arrayLength) {
+    return sliceLength >= MIN_SHARED_SLICE_LENGTH
+        && (long) sliceLength * MAX_RETAINED_ARRAY_RATIO >= arrayLength;
+  }
+}
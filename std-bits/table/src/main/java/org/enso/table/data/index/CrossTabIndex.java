@@ -8,6 +8,7 @@ import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import org.enso.base.text.TextFoldingStrategy;
 import org.enso.table.aggregations.Aggregator;
+import org.enso.table.aggregations.GroupAccumulator;
 import org.enso.table.data.column.builder.Builder;
 import org.enso.table.data.table.Column;
 import org.enso.table.data.table.Table;
@@ -24,13 +25,13 @@ public class CrossTabIndex {
 
   private Column[] yColumns;
 
-  private MultiValueIndex<UnorderedMultiValueKey> combinedIndex;
+  private MultiValueIndex combinedIndex;
 
   private ObjectNumberer<UnorderedMultiValueKey> xKeyNumberer;
 
   private ObjectNumberer<UnorderedMultiValueKey> yKeyNumberer;
 
-  private UnorderedMultiValueKey[][] grid;
+  private int[][] grid;
 
   public CrossTabIndex(
       Column[] xColumns, Column[] yColumns, int tableSize, ProblemAggregator problemAggregator) {
@@ -48,14 +49,15 @@ public class CrossTabIndex {
             TextFoldingStrategy.unicodeNormalizedFold,
             problemAggregator);
 
-    // Generate lists of combined keys and subkeys
-    List<UnorderedMultiValueKey> combinedKeys = new ArrayList<>(combinedIndex.keys());
-    List<UnorderedMultiValueKey> xSubKeys = new ArrayList<>(combinedKeys.size());
-    List<UnorderedMultiValueKey> ySubKeys = new ArrayList<>(combinedKeys.size());
+    // Generate lists of subkeys of each group
+    int groupCount = combinedIndex.size();
+    List<UnorderedMultiValueKey> xSubKeys = new ArrayList<>(groupCount);
+    List<UnorderedMultiValueKey> ySubKeys = new ArrayList<>(groupCount);
     int[] xColumnIndices = IntStream.range(0, xColumns.length).toArray();
     int[] yColumnIndices =
         IntStream.range(xColumns.length, xColumns.length + yColumns.length).toArray();
-    for (var key : combinedKeys) {
+    for (int group = 0; group < groupCount; group++) {
+      UnorderedMultiValueKey key = combinedIndex.getGroupKey(group);
       xSubKeys.add(key.subKey(xColumnIndices));
       ySubKeys.add(key.subKey(yColumnIndices));
     }
@@ -64,28 +66,31 @@ public class CrossTabIndex {
     xKeyNumberer = new ObjectNumberer<>(xSubKeys);
     yKeyNumberer = new ObjectNumberer<>(ySubKeys);
 
-    // Create grid of cells, mapping x and y key indices to combined keys.
-    grid = new UnorderedMultiValueKey[xKeysCount()][yKeysCount()];
+    // Create grid of cells, mapping x and y key indices to combined groups.
+    grid = new int[xKeysCount()][yKeysCount()];
+    for (int[] row : grid) {
+      Arrays.fill(row, -1);
+    }
 
-    // For each combined key, use the two subkeys to determine row+col
-    // coordinates, and put the key at those coordinates.
-    for (int i = 0; i < combinedIndex.size(); ++i) {
-      UnorderedMultiValueKey combinedKey = combinedKeys.get(i);
-      int xCoordinate = getXCoordinate(xSubKeys.get(i));
-      int yCoordinate = getYCoordinate(ySubKeys.get(i));
+    // For each combined group, use the two subkeys to determine row+col
+    // coordinates, and put the group at those coordinates.
+    for (int group = 0; group < groupCount; ++group) {
+      int xCoordinate = getXCoordinate(xSubKeys.get(group));
+      int yCoordinate = getYCoordinate(ySubKeys.get(group));
 
       // The pair (xCoordinate, yCoordinate) must be unique so this
       // check is not really necessary.
-      if (grid[xCoordinate][yCoordinate] != null) {
+      if (grid[xCoordinate][yCoordinate] != -1) {
         throw new IllegalStateException("Internal error: makeCrossTabTable coordinate conflict");
       }
 
-      grid[xCoordinate][yCoordinate] = combinedKey;
+      grid[xCoordinate][yCoordinate] = group;
     }
   }
 
   public List<Integer> get(UnorderedMultiValueKey xKey, UnorderedMultiValueKey yKey) {
-    return combinedIndex.get(grid[getXCoordinate(xKey)][getYCoordinate(yKey)]);
+    int group = grid[getXCoordinate(xKey)][getYCoordinate(yKey)];
+    return group == -1 ? null : combinedIndex.getGroupRows(group);
   }
 
   public Set<UnorderedMultiValueKey> getXKeys() {
@@ -146,6 +151,9 @@ public class CrossTabIndex {
       }
     }
 
+    // Compute the aggregates of all groups in one pass, where possible.
+    GroupAccumulator[] accumulators = combinedIndex.accumulate(aggregates);
+
     // Fill the columns.
     for (UnorderedMultiValueKey ySubKey : getYKeys()) {
 
@@ -156,13 +164,13 @@ public class CrossTabIndex {
 
       // Fill the aggregate columns.
       for (UnorderedMultiValueKey xSubKey : getXKeys()) {
-        List<Integer> rowIds = get(xSubKey, ySubKey);
-        if (rowIds == null) {
-          rowIds = List.of();
-        }
-
+        int group = grid[getXCoordinate(xSubKey)][getYCoordinate(ySubKey)];
         for (int i = 0; i < aggregates.length; i++) {
-          storage[offset + i].appendNoGrow(aggregates[i].aggregate(rowIds, problemAggregator));
+          Object value =
+              group == -1
+                  ? aggregates[i].aggregate(List.of(), problemAggregator)
+                  : combinedIndex.getAggregate(aggregates[i], accumulators[i], group);
+          storage[offset + i].appendNoGrow(value);
         }
 
         offset += aggregates.length;
@@ -0,0 +1,135 @@
+package org.enso.table.data.index;
+
+import java.util.Arrays;
+
+/**
+ * An open-addressing hash table assigning dense ids to distinct keys of a table.
+ *
+ * <p>Groups are identified by the first row containing their key, so the table does not store the
+ * keys themselves. Each slot contains the id of the group whose hash maps to it, shifted by one, so
+ * that 0 denotes an empty slot. Collisions are resolved by linear probing.
+ */
+public final class GroupTable {
+  public static final int NO_GROUP = -1;
+
+  private static final int INITIAL_CAPACITY = 16;
+
+  private final KeyColumn[] keys;
+  private int groupCount;
+  private int[] groupHashes;
+  private int[] firstRows;
+  private int[] slots;
+
+  public GroupTable(KeyColumn[] keys) {
+    this.keys = keys;
+    this.groupHashes = new int[INITIAL_CAPACITY];
+    this.firstRows = new int[INITIAL_CAPACITY];
+    this.slots = new int[INITIAL_CAPACITY * 2];
+  }
+
+  /**
+   * Creates a table containing the given distinct groups, with ids assigned in the order of the
+   * arrays.
+   */
+  static GroupTable ofDistinctGroups(KeyColumn[] keys, int[] groupHashes, int[] firstRows) {
+    GroupTable table = new GroupTable(keys);
+    table.groupCount = groupHashes.length;
+    table.groupHashes = groupHashes;
+    table.firstRows = firstRows;
+    table.rehash(Math.max(INITIAL_CAPACITY, Integer.highestOneBit(groupHashes.length) * 4));
+    return table;
+  }
+
+  public int size() {
+    return groupCount;
+  }
+
+  int getHash(int group) {
+    return groupHashes[group];
+  }
+
+  public int getFirstRow(int group) {
+    return firstRows[group];
+  }
+
+  /** Trims the arrays to the number of groups, once no more groups are going to be added. */
+  void trim() {
+    groupHashes = Arrays.copyOf(groupHashes, groupCount);
+    firstRows = Arrays.copyOf(firstRows, groupCount);
+  }
+
+  /**
+   * Returns the id of the group containing the key at the given row of this table's key columns,
+   * adding a new group if there is none yet.
+   */
+  public int findOrInsert(int hash, int row) {
+    int slot = findSlot(hash, keys, row);
+    int group = slots[slot] - 1;
+    if (group != NO_GROUP) {
+      return group;
+    }
+
+    if (groupCount == groupHashes.length) {
+      groupHashes = Arrays.copyOf(groupHashes, groupCount * 2);
+      firstRows = Arrays.copyOf(firstRows, groupCount * 2);
+    }
+
+    group = groupCount++;
+    groupHashes[group] = hash;
+    firstRows[group] = row;
+    slots[slot] = group + 1;
+    if (groupCount * 2 > slots.length) {
+      rehash(slots.length * 2);
+    }
+    return group;
+  }
+
+  /**
+   * Returns the id of the group with a key equal to the key at {@code row} of {@code probeKeys}, or
+   * {@link #NO_GROUP} if there is no such group.
+   */
+  int find(int hash, KeyColumn[] probeKeys, int row) {
+    return slots[findSlot(hash, probeKeys, row)] - 1;
+  }
+
+  /**
+   * Finds the slot containing the group with a key equal to the key at {@code row} of {@code
+   * probeKeys}, or the empty slot where such group should be inserted.
+   */
+  private int findSlot(int hash, KeyColumn[] probeKeys, int row) {
+    int mask = slots.length - 1;
+    int slot = spread(hash) & mask;
+    while (true) {
+      int group = slots[slot] - 1;
+      if (group == NO_GROUP) {
+        return slot;
+      }
+
+      if (groupHashes[group] == hash
+          && KeyColumn.rowsEqual(keys, firstRows[group], probeKeys, row)) {
+        return slot;
+      }
+
+      slot = (slot + 1) & mask;
+    }
+  }
+
+  private void rehash(int capacity) {
+    int[] newSlots = new int[capacity];
+    int mask = capacity - 1;
+    for (int group = 0; group < groupCount; group++) {
+      int slot = spread(groupHashes[group]) & mask;
+      while (newSlots[slot] != 0) {
+        slot = (slot + 1) & mask;
+      }
+      newSlots[slot] = group + 1;
+    }
+    slots = newSlots;
+  }
+
+  /** Scatters the bits of the hash, so that similar hashes do not end up in adjacent slots. */
+  static int spread(int hash) {
+    int h = hash * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+}
@@ -0,0 +1,364 @@
+package org.enso.table.data.index;
+
+import java.util.List;
+import java.util.Objects;
+import org.enso.base.polyglot.EnsoObjectWrapper;
+import org.enso.base.polyglot.NumericConverter;
+import org.enso.base.text.TextFoldingStrategy;
+import org.enso.table.data.column.storage.DictionaryStringStorage;
+import org.enso.table.data.column.storage.Storage;
+import org.enso.table.data.column.storage.StringStorage;
+import org.enso.table.data.column.storage.numeric.AbstractLongStorage;
+import org.enso.table.data.column.storage.numeric.DoubleStorage;
+import org.enso.table.data.table.Column;
+
+/**
+ * Gives access to the hashes and equality of values of a single key column, without creating a key
+ * object for every row.
+ *
+ * <p>The hashing and equality are consistent with {@link UnorderedMultiValueKey} - values are
+ * compared after being folded by {@link EnsoObjectWrapper#foldObject}. Numeric and text columns
+ * have specialized implementations that avoid boxing the values.
+ */
+public abstract class KeyColumn {
+  protected final Storage<?> storage;
+
+  private KeyColumn(Storage<?> storage) {
+    this.storage = storage;
+  }
+
+  /** Creates a key column for the given storage. */
+  public static KeyColumn of(Storage<?> storage, TextFoldingStrategy textFoldingStrategy) {
+    return switch (storage) {
+      case AbstractLongStorage longStorage -> new LongKeyColumn(longStorage);
+      case DoubleStorage doubleStorage -> new DoubleKeyColumn(doubleStorage);
+      case DictionaryStringStorage dictionaryStorage -> new DictionaryTextKeyColumn(
+          dictionaryStorage, textFoldingStrategy);
+      case StringStorage stringStorage -> new TextKeyColumn(stringStorage, textFoldingStrategy);
+      default -> new GenericKeyColumn(storage, textFoldingStrategy);
+    };
+  }
+
+  /** Creates key columns for each of the given columns. */
+  public static KeyColumn[] of(Column[] columns, List<TextFoldingStrategy> textFoldingStrategies) {
+    KeyColumn[] result = new KeyColumn[columns.length];
+    for (int i = 0; i < columns.length; i++) {
+      result[i] = of(columns[i].getStorage(), textFoldingStrategies.get(i));
+    }
+    return result;
+  }
+
+  /** Creates key columns for each of the given storages. */
+  public static KeyColumn[] of(
+      Storage<?>[] storages, List<TextFoldingStrategy> textFoldingStrategies) {
+    KeyColumn[] result = new KeyColumn[storages.length];
+    for (int i = 0; i < storages.length; i++) {
+      result[i] = of(storages[i], textFoldingStrategies.get(i));
+    }
+    return result;
+  }
+
+  public Storage<?> getStorage() {
+    return storage;
+  }
+
+  public boolean isNothing(int row) {
+    return storage.isNothing(row);
+  }
+
+  /** Checks if the value at the given row is a floating point number. */
+  public boolean isFloatLike(int row) {
+    return NumericConverter.isFloatLike(storage.getItemBoxed(row));
+  }
+
+  /**
+   * Checks if the hashes and equality of this column can be computed from threads that are not
+   * entered into the polyglot context.
+   *
+   * <p>This is the case for numeric and text columns. Other values may need to call back into Enso.
+   */
+  public boolean isThreadSafe() {
+    return false;
+  }
+
+  /** Checks if all the given columns are thread-safe. */
+  public static boolean areThreadSafe(KeyColumn[] columns) {
+    for (KeyColumn column : columns) {
+      if (!column.isThreadSafe()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Returns the value at the given row, folded for comparison. */
+  public abstract Object getFolded(int row);
+
+  /**
+   * Computes the hash of the folded value at the given row.
+   *
+   * <p>It is consistent with {@code getFolded(row).hashCode()}. It must only be called for rows
+   * that are not missing.
+   */
+  public int hash(int row) {
+    return getFolded(row).hashCode();
+  }
+
+  /**
+   * Checks if the value at {@code row} is equal to the value at {@code otherRow} of the {@code
+   * other} column. It must only be called for rows that are not missing.
+   */
+  public boolean valueEquals(int row, KeyColumn other, int otherRow) {
+    return Objects.equals(getFolded(row), other.getFolded(otherRow));
+  }
+
+  /**
+   * Computes the hash of a whole row of key columns.
+   *
+   * <p>It uses the same algorithm as {@link UnorderedMultiValueKey#hashCode()}.
+   */
+  public static int hashRow(KeyColumn[] columns, int row) {
+    int h = 1;
+    for (KeyColumn column : columns) {
+      h = 31 * h;
+      if (!column.isNothing(row)) {
+        h += column.hash(row);
+      }
+    }
+    return h;
+  }
+
+  /**
+   * Checks if the key at {@code row} of {@code columns} is equal to the key at {@code otherRow} of
+   * {@code otherColumns}. Missing values are considered equal to each other.
+   */
+  public static boolean rowsEqual(
+      KeyColumn[] columns, int row, KeyColumn[] otherColumns, int otherRow) {
+    for (int i = 0; i < columns.length; i++) {
+      boolean isNothing = columns[i].isNothing(row);
+      boolean otherIsNothing = otherColumns[i].isNothing(otherRow);
+      if (isNothing || otherIsNothing) {
+        if (isNothing != otherIsNothing) {
+          return false;
+        }
+      } else if (!columns[i].valueEquals(row, otherColumns[i], otherRow)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Checks if any cell of the key at the given row is missing. */
+  public static boolean hasAnyNulls(KeyColumn[] columns, int row) {
+    for (KeyColumn column : columns) {
+      if (column.isNothing(row)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static final class LongKeyColumn extends KeyColumn {
+    private final AbstractLongStorage longStorage;
+
+    LongKeyColumn(AbstractLongStorage storage) {
+      super(storage);
+      this.longStorage = storage;
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+      return true;
+    }
+
+    @Override
+    public boolean isFloatLike(int row) {
+      return false;
+    }
+
+    @Override
+    public Object getFolded(int row) {
+      return longStorage.getItem(row);
+    }
+
+    @Override
+    public int hash(int row) {
+      return Long.hashCode(longStorage.getItem(row));
+    }
+
+    @Override
+    public boolean valueEquals(int row, KeyColumn other, int otherRow) {
+      return switch (other) {
+        case LongKeyColumn otherLong -> longStorage.getItem(row)
+            == otherLong.longStorage.getItem(otherRow);
+        case DoubleKeyColumn otherDouble -> otherDouble.equalsLong(
+            otherRow, longStorage.getItem(row));
+        default -> super.valueEquals(row, other, otherRow);
+      };
+    }
+  }
+
+  private static final class DoubleKeyColumn extends KeyColumn {
+    private final DoubleStorage doubleStorage;
+
+    DoubleKeyColumn(DoubleStorage storage) {
+      super(storage);
+      this.doubleStorage = storage;
+    }
+
+    /** Whole numbers are folded to {@code Long}, consistently with {@link EnsoObjectWrapper}. */
+    private static boolean isWhole(double value) {
+      return value % 1 == 0;
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+      return true;
+    }
+
+    @Override
+    public boolean isFloatLike(int row) {
+      return true;
+    }
+
+    @Override
+    public Object getFolded(int row) {
+      double value = doubleStorage.getItemAsDouble(row);
+      return isWhole(value) ? (Object) (long) value : (Object) value;
+    }
+
+    @Override
+    public int hash(int row) {
+      double value = doubleStorage.getItemAsDouble(row);
+      return isWhole(value) ? Long.hashCode((long) value) : Double.hashCode(value);
+    }
+
+    boolean equalsLong(int row, long other) {
+      double value = doubleStorage.getItemAsDouble(row);
+      return isWhole(value) && (long) value == other;
+    }
+
+    @Override
+    public boolean valueEquals(int row, KeyColumn other, int otherRow) {
+      return switch (other) {
+        case DoubleKeyColumn otherDouble -> {
+          double value = doubleStorage.getItemAsDouble(row);
+          double otherValue = otherDouble.doubleStorage.getItemAsDouble(otherRow);
+          if (isWhole(value)) {
+            yield isWhole(otherValue) && (long) value == (long) otherValue;
+          } else {
+            yield !isWhole(otherValue)
+                && Double.doubleToLongBits(value) == Double.doubleToLongBits(otherValue);
+          }
+        }
+        case LongKeyColumn otherLong -> equalsLong(row, otherLong.longStorage.getItem(otherRow));
+        default -> super.valueEquals(row, other, otherRow);
+      };
+    }
+  }
+
+  private static final class TextKeyColumn extends KeyColumn {
+    private final String[] data;
+    private final TextFoldingStrategy textFoldingStrategy;
+
+    TextKeyColumn(StringStorage storage, TextFoldingStrategy textFoldingStrategy) {
+      super(storage);
+      this.data = storage.getData();
+      this.textFoldingStrategy = textFoldingStrategy;
+    }
+
+    @Override
+    public boolean isNothing(int row) {
+      return data[row] == null;
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+      return true;
+    }
+
+    @Override
+    public boolean isFloatLike(int row) {
+      return false;
+    }
+
+    @Override
+    public Object getFolded(int row) {
+      return textFoldingStrategy.fold(data[row]);
+    }
+  }
+
+  /**
+   * Folds and hashes each value of the dictionary only once. Rows with equal codes are equal
+   * without comparing their values.
+   */
+  private static final class DictionaryTextKeyColumn extends KeyColumn {
+    private final int[] codes;
+    private final String[] foldedDictionary;
+    private final int[] dictionaryHashes;
+
+    DictionaryTextKeyColumn(
+        DictionaryStringStorage storage, TextFoldingStrategy textFoldingStrategy) {
+      super(storage);
+      this.codes = storage.getCodes();
+      String[] dictionary = storage.getDictionary();
+      this.foldedDictionary = new String[dictionary.length];
+      this.dictionaryHashes = new int[dictionary.length];
+      for (int i = 0; i < dictionary.length; i++) {
+        foldedDictionary[i] = textFoldingStrategy.fold(dictionary[i]);
+        dictionaryHashes[i] = foldedDictionary[i].hashCode();
+      }
+    }
+
+    @Override
+    public boolean isNothing(int row) {
+      return codes[row] == DictionaryStringStorage.NOTHING;
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+      return true;
+    }
+
+    @Override
+    public boolean isFloatLike(int row) {
+      return false;
+    }
+
+    @Override
+    public Object getFolded(int row) {
+      int code = codes[row];
+      return code == DictionaryStringStorage.NOTHING ? null : foldedDictionary[code];
+    }
+
+    @Override
+    public int hash(int row) {
+      return dictionaryHashes[codes[row]];
+    }
+
+    @Override
+    public boolean valueEquals(int row, KeyColumn other, int otherRow) {
+      int code = codes[row];
+      if (other instanceof DictionaryTextKeyColumn otherDictionary
+          && otherDictionary.foldedDictionary == foldedDictionary
+          && otherDictionary.codes[otherRow] == code) {
+        return true;
+      }
+      return foldedDictionary[code].equals(other.getFolded(otherRow));
+    }
+  }
+
+  private static final class GenericKeyColumn extends KeyColumn {
+    private final TextFoldingStrategy textFoldingStrategy;
+
+    GenericKeyColumn(Storage<?> storage, TextFoldingStrategy textFoldingStrategy) {
+      super(storage);
+      this.textFoldingStrategy = textFoldingStrategy;
+    }
+
+    @Override
+    public Object getFolded(int row) {
+      return EnsoObjectWrapper.foldObject(storage.getItemBoxed(row), textFoldingStrategy);
+    }
+  }
+}
@@ -2,61 +2,80 @@ package org.enso.table.data.index;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
-import java.util.TreeMap;
-import java.util.function.IntFunction;
-import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import org.enso.base.text.TextFoldingStrategy;
 import org.enso.table.aggregations.Aggregator;
+import org.enso.table.aggregations.GroupAccumulator;
 import org.enso.table.data.column.builder.Builder;
-import org.enso.table.data.column.operation.CountNothing;
 import org.enso.table.data.column.storage.Storage;
 import org.enso.table.data.table.Column;
 import org.enso.table.data.table.Table;
+import org.enso.table.data.table.problems.FloatingPointGrouping;
 import org.enso.table.problems.ColumnAggregatedProblemAggregator;
 import org.enso.table.problems.ProblemAggregator;
 import org.enso.table.util.ConstantList;
+import org.enso.table.util.IntArraySlice;
+import org.enso.table.util.ParallelTasks;
 import org.graalvm.polyglot.Context;
 
-public class MultiValueIndex<KeyType extends MultiValueKeyBase> {
+/**
+ * An index grouping rows of a table by equality of values in the key columns.
+ *
+ * <p>Each group of equal keys is assigned a dense id, in order of first occurrence. The groups are
+ * found using an open-addressing hash table over the row hashes, so no key object is created for
+ * the rows. The rows belonging to each group are stored in a single array, ordered by group id and
+ * then by row index, with offsets denoting where each group starts.
+ *
+ * <p>Large tables with numeric or text keys are grouped and aggregated on multiple threads. The
+ * resulting group ids and aggregates are the same as when computed on a single thread.
+ *
+ * <p>The equality is consistent with {@link UnorderedMultiValueKey}.
+ */
+public class MultiValueIndex {
+  private static final int NO_GROUP = GroupTable.NO_GROUP;
+
+  /** The number of rows fed to the accumulators between safepoints. */
+  private static final int ACCUMULATE_CHUNK_SIZE = 4096;
+
+  /**
+   * The number of rows processed at once by a single parallel task. Tables with fewer rows than
+   * {@link ParallelTasks#getParallelThreshold()} are always grouped and aggregated on the current
+   * thread.
+   */
+  private static final int PARALLEL_CHUNK_SIZE = 1 << 14;
+
   private final ProblemAggregator problemAggregator;
   private final Column[] keyColumns;
-  private final Map<KeyType, List<Integer>> locs;
+  private final List<TextFoldingStrategy> textFoldingStrategies;
+  private final KeyColumn[] keys;
   private final boolean isUnique;
 
-  public static MultiValueIndex<OrderedMultiValueKey> makeOrderedIndex(
-      Column[] keyColumns,
-      int tableSize,
-      int[] ordering,
-      Comparator<Object> objectComparator,
-      ProblemAggregator problemAggregator) {
-    TreeMap<OrderedMultiValueKey, List<Integer>> locs = new TreeMap<>();
-    final Storage<?>[] storage =
-        Arrays.stream(keyColumns).map(Column::getStorage).toArray(Storage[]::new);
-    IntFunction<OrderedMultiValueKey> keyFactory =
-        i -> new OrderedMultiValueKey(storage, i, ordering, objectComparator);
-    return new MultiValueIndex<>(keyColumns, tableSize, locs, keyFactory, problemAggregator);
-  }
+  /** The number of groups. */
+  private final int groupCount;
+
+  /** The table mapping keys to group ids, or {@code null} if there are no key columns. */
+  private final GroupTable groupTable;
+
+  /** The id of the group each row belongs to. */
+  private final int[] rowGroups;
+
+  /**
+   * The rows of each group are {@code groupRows[groupOffsets[i]]..groupRows[groupOffsets[i+1]]}.
+   */
+  private final int[] groupOffsets;
+
+  private final int[] groupRows;
 
-  public static MultiValueIndex<UnorderedMultiValueKey> makeUnorderedIndex(
+  public static MultiValueIndex makeUnorderedIndex(
       Column[] keyColumns,
       int tableSize,
       List<TextFoldingStrategy> textFoldingStrategies,
       ProblemAggregator problemAggregator) {
-    HashMap<UnorderedMultiValueKey, List<Integer>> locs = new HashMap<>();
-    final Storage<?>[] storage =
-        Arrays.stream(keyColumns).map(Column::getStorage).toArray(Storage[]::new);
-    IntFunction<UnorderedMultiValueKey> keyFactory =
-        i -> new UnorderedMultiValueKey(storage, i, textFoldingStrategies);
-    return new MultiValueIndex<>(keyColumns, tableSize, locs, keyFactory, problemAggregator);
+    return new MultiValueIndex(keyColumns, tableSize, textFoldingStrategies, problemAggregator);
   }
 
-  public static MultiValueIndex<UnorderedMultiValueKey> makeUnorderedIndex(
+  public static MultiValueIndex makeUnorderedIndex(
       Column[] keyColumns,
       int tableSize,
       TextFoldingStrategy commonTextFoldingStrategy,
@@ -69,37 +88,184 @@ public class MultiValueIndex<KeyType extends MultiValueKeyBase> {
   private MultiValueIndex(
       Column[] keyColumns,
       int tableSize,
-      Map<KeyType, List<Integer>> initialLocs,
-      IntFunction<KeyType> keyFactory,
+      List<TextFoldingStrategy> textFoldingStrategies,
       ProblemAggregator problemAggregator) {
     this.keyColumns = keyColumns;
-    this.locs = initialLocs;
+    this.textFoldingStrategies = textFoldingStrategies;
+    this.keys = KeyColumn.of(keyColumns, textFoldingStrategies);
     this.problemAggregator = problemAggregator;
 
     if (keyColumns.length != 0) {
-      boolean isUnique = true;
       int size = keyColumns[0].getSize();
-      ColumnAggregatedProblemAggregator groupingProblemAggregator =
-          new ColumnAggregatedProblemAggregator(problemAggregator);
+      rowGroups = new int[size];
+      if (size >= ParallelTasks.getParallelThreshold()
+          && ParallelTasks.isParallelismAvailable()
+          && KeyColumn.areThreadSafe(keys)) {
+        groupTable = groupInParallel(size);
+      } else {
+        groupTable = groupSequentially(size);
+      }
 
-      Context context = Context.getCurrent();
-      for (int i = 0; i < size; i++) {
-        KeyType key = keyFactory.apply(i);
-        key.checkAndReportFloatingEquality(
-            groupingProblemAggregator, columnIx -> keyColumns[columnIx].getName());
+      groupCount = groupTable.size();
+      this.isUnique = groupCount == size;
+    } else {
+      // Without key columns, all rows belong to a single group.
+      rowGroups = new int[tableSize];
+      groupTable = null;
+      groupCount = 1;
+      this.isUnique = tableSize <= 1;
+    }
 
-        List<Integer> ids = this.locs.computeIfAbsent(key, x -> new ArrayList<>());
-        ids.add(i);
-        isUnique = isUnique && ids.size() == 1;
+    // Lay out the rows of each group next to each other. Rows are visited in increasing order, so
+    // within each group they stay in their original order.
+    groupOffsets = new int[groupCount + 1];
+    for (int group : rowGroups) {
+      groupOffsets[group + 1]++;
+    }
+    for (int i = 0; i < groupCount; i++) {
+      groupOffsets[i + 1] += groupOffsets[i];
+    }
 
-        context.safepoint();
+    groupRows = new int[rowGroups.length];
+    int[] positions = Arrays.copyOf(groupOffsets, groupCount);
+    for (int i = 0; i < rowGroups.length; i++) {
+      groupRows[positions[rowGroups[i]]++] = i;
+    }
+  }
+
+  private GroupTable groupSequentially(int size) {
+    ColumnAggregatedProblemAggregator groupingProblemAggregator =
+        new ColumnAggregatedProblemAggregator(problemAggregator);
+    GroupTable table = new GroupTable(keys);
+    Context context = Context.getCurrent();
+    for (int i = 0; i < size; i++) {
+      reportFloatingEquality(i, groupingProblemAggregator);
+      rowGroups[i] = table.findOrInsert(KeyColumn.hashRow(keys, i), i);
+      context.safepoint();
+    }
+
+    table.trim();
+    return table;
+  }
+
+  /**
+   * Groups the rows on multiple threads.
+   *
+   * <p>The rows are partitioned by the hashes of their keys, so that all rows of a group end up in
+   * the same partition, and each partition is grouped separately. The groups of all partitions are
+   * then merged in the order of their first rows, so that the group ids are the same as the ones
+   * assigned by {@link #groupSequentially}.
+   */
+  private GroupTable groupInParallel(int size) {
+    int chunkSize = ParallelTasks.getChunkSize(PARALLEL_CHUNK_SIZE);
+    int[] hashes = new int[size];
+    ParallelTasks.forEachRange(
+        0,
+        size,
+        chunkSize,
+        (from, to) -> {
+          for (int i = from; i < to; i++) {
+            hashes[i] = KeyColumn.hashRow(keys, i);
+          }
+        });
+
+    // Bucket the rows by their partitions, keeping them in increasing order within each bucket.
+    int partitionCount = ParallelTasks.getParallelism();
+    int[] bucketOffsets = new int[partitionCount + 1];
+    for (int i = 0; i < size; i++) {
+      bucketOffsets[partitionOf(hashes[i], partitionCount) + 1]++;
+    }
+    for (int partition = 0; partition < partitionCount; partition++) {
+      bucketOffsets[partition + 1] += bucketOffsets[partition];
+    }
+    int[] bucketRows = new int[size];
+    int[] bucketPositions = Arrays.copyOf(bucketOffsets, partitionCount);
+    Context context = Context.getCurrent();
+    for (int i = 0; i < size; i++) {
+      bucketRows[bucketPositions[partitionOf(hashes[i], partitionCount)]++] = i;
+      context.safepoint();
+    }
+
+    // Each partition writes the partition-local group ids of its rows into `rowGroups`.
+    GroupTable[] partitions = new GroupTable[partitionCount];
+    ParallelTasks.forEachRange(
+        0,
+        partitionCount,
+        1,
+        (from, to) -> {
+          for (int partition = from; partition < to; partition++) {
+            GroupTable table = new GroupTable(keys);
+            for (int j = bucketOffsets[partition]; j < bucketOffsets[partition + 1]; j++) {
+              int row = bucketRows[j];
+              rowGroups[row] = table.findOrInsert(hashes[row], row);
+            }
+            partitions[partition] = table;
+          }
+        });
+
+    // Merge the groups of partitions, which are already ordered by their first rows.
+    int totalCount = 0;
+    int[][] globalIds = new int[partitionCount][];
+    for (int partition = 0; partition < partitionCount; partition++) {
+      totalCount += partitions[partition].size();
+      globalIds[partition] = new int[partitions[partition].size()];
+    }
+
+    int[] groupHashes = new int[totalCount];
+    int[] firstRows = new int[totalCount];
+    int[] heads = new int[partitionCount];
+    for (int group = 0; group < totalCount; group++) {
+      int next = -1;
+      for (int partition = 0; partition < partitionCount; partition++) {
+        if (heads[partition] < partitions[partition].size()
+            && (next == -1
+                || partitions[partition].getFirstRow(heads[partition])
+                    < partitions[next].getFirstRow(heads[next]))) {
+          next = partition;
+        }
       }
 
-      this.isUnique = isUnique;
-    } else {
-      this.isUnique = tableSize <= 1;
-      this.locs.put(
-          keyFactory.apply(0), IntStream.range(0, tableSize).boxed().collect(Collectors.toList()));
+      int localGroup = heads[next]++;
+      globalIds[next][localGroup] = group;
+      groupHashes[group] = partitions[next].getHash(localGroup);
+      firstRows[group] = partitions[next].getFirstRow(localGroup);
+    }
+
+    ParallelTasks.forEachRange(
+        0,
+        size,
+        chunkSize,
+        (from, to) -> {
+          for (int i = from; i < to; i++) {
+            rowGroups[i] = globalIds[partitionOf(hashes[i], partitionCount)][rowGroups[i]];
+          }
+        });
+
+    ColumnAggregatedProblemAggregator groupingProblemAggregator =
+        new ColumnAggregatedProblemAggregator(problemAggregator);
+    for (int i = 0; i < size; i++) {
+      reportFloatingEquality(i, groupingProblemAggregator);
+      context.safepoint();
+    }
+
+    return GroupTable.ofDistinctGroups(keys, groupHashes, firstRows);
+  }
+
+  /**
+   * Assigns a hash to one of the partitions. It uses the high bits of the spread hash, which are
+   * independent of the low bits used to find slots in the hash tables.
+   */
+  private static int partitionOf(int hash, int partitionCount) {
+    return ((GroupTable.spread(hash) >>> 16) * partitionCount) >>> 16;
+  }
+
+  private void reportFloatingEquality(
+      int row, ColumnAggregatedProblemAggregator groupingProblemAggregator) {
+    for (int columnIx = 0; columnIx < keys.length; columnIx++) {
+      if (!keys[columnIx].isNothing(row) && keys[columnIx].isFloatLike(row)) {
+        groupingProblemAggregator.reportColumnAggregatedProblem(
+            new FloatingPointGrouping(keyColumns[columnIx].getName(), row));
+      }
     }
   }
 
@@ -110,29 +276,20 @@ public class MultiValueIndex<KeyType extends MultiValueKeyBase> {
   public Table makeTable(Aggregator[] columns) {
     Context context = Context.getCurrent();
     final int length = columns.length;
-    final int size = locs.size();
+    final int size = groupCount;
 
-    boolean emptyScenario = size == 0 && keyColumns.length == 0;
     Builder[] storage =
         Arrays.stream(columns)
-            .map(c -> Builder.getForType(c.getType(), emptyScenario ? 1 : size, problemAggregator))
+            .map(c -> Builder.getForType(c.getType(), size, problemAggregator))
             .toArray(Builder[]::new);
 
-    if (emptyScenario) {
-      // No grouping and no data
-      List<Integer> empty = new ArrayList<>();
+    GroupAccumulator[] accumulators = accumulate(columns);
+    for (int group = 0; group < size; group++) {
       for (int i = 0; i < length; i++) {
-        storage[i].appendNoGrow(columns[i].aggregate(empty, problemAggregator));
+        Object value = getAggregate(columns[i], accumulators[i], group);
+        storage[i].appendNoGrow(value);
         context.safepoint();
       }
-    } else {
-      for (List<Integer> group_locs : this.locs.values()) {
-        for (int i = 0; i < length; i++) {
-          Object value = columns[i].aggregate(group_locs, problemAggregator);
-          storage[i].appendNoGrow(value);
-          context.safepoint();
-        }
-      }
     }
 
     return new Table(
@@ -141,44 +298,203 @@ public class MultiValueIndex<KeyType extends MultiValueKeyBase> {
             .toArray(Column[]::new));
   }
 
-  public Set<KeyType> keys() {
-    return locs.keySet();
-  }
+  /**
+   * Computes the aggregates that support accumulation for all groups, in a single pass over the
+   * rows.
+   *
+   * @return the accumulator of each aggregate, or {@code null} for aggregates that need to be
+   *     computed from whole groups
+   */
+  GroupAccumulator[] accumulate(Aggregator[] aggregates) {
+    GroupAccumulator[] accumulators = new GroupAccumulator[aggregates.length];
+    for (int i = 0; i < aggregates.length; i++) {
+      accumulators[i] = aggregates[i].makeAccumulator(groupCount, problemAggregator);
+    }
+
+    List<GroupAccumulator> sequential = new ArrayList<>();
+    List<Integer> parallel = new ArrayList<>();
+    // Each task keeps a partial state of all groups, which are merged on the main thread, so with
+    // too many groups merging would take longer than accumulating the rows.
+    boolean canRunInParallel =
+        rowGroups.length >= ParallelTasks.getParallelThreshold()
+            && (long) groupCount * ParallelTasks.getParallelism() <= rowGroups.length
+            && ParallelTasks.isParallelismAvailable();
+    for (int i = 0; i < accumulators.length; i++) {
+      GroupAccumulator accumulator = accumulators[i];
+      if (accumulator != null) {
+        if (canRunInParallel && accumulator.isThreadSafe()) {
+          parallel.add(i);
+        } else {
+          sequential.add(accumulator);
+        }
+      }
+    }
+
+    if (!parallel.isEmpty()) {
+      accumulateInParallel(aggregates, accumulators, parallel);
+    }
+
+    Context context = Context.getCurrent();
+    for (int from = 0; from < rowGroups.length; from += ACCUMULATE_CHUNK_SIZE) {
+      int to = Math.min(from + ACCUMULATE_CHUNK_SIZE, rowGroups.length);
+      for (GroupAccumulator accumulator : sequential) {
+        accumulator.accumulate(rowGroups, from, to);
+      }
+      context.safepoint();
+    }
 
-  public boolean contains(KeyType key) {
-    return this.locs.containsKey(key);
+    return accumulators;
   }
 
-  public List<Integer> get(KeyType key) {
-    return this.locs.get(key);
+  /**
+   * Feeds the accumulators of the given aggregates on multiple threads.
+   *
+   * <p>The rows are split into consecutive ranges, each accumulated by a separate task. The first
+   * range is fed to the accumulator itself, every other range to a new partial accumulator. The
+   * partial accumulators are then merged in the order of their ranges, so the results are exactly
+   * the same as if all rows were accumulated sequentially.
+   */
+  private void accumulateInParallel(
+      Aggregator[] aggregates, GroupAccumulator[] accumulators, List<Integer> indices) {
+    int partCount = ParallelTasks.getParallelism();
+    GroupAccumulator[][] parts = new GroupAccumulator[partCount][indices.size()];
+    for (int part = 0; part < partCount; part++) {
+      for (int i = 0; i < indices.size(); i++) {
+        int index = indices.get(i);
+        parts[part][i] =
+            part == 0
+                ? accumulators[index]
+                : aggregates[index].makeAccumulator(groupCount, problemAggregator);
+      }
+    }
+
+    ParallelTasks.forEachRange(
+        0,
+        partCount,
+        1,
+        (from, to) -> {
+          for (int part = from; part < to; part++) {
+            int rowFrom = (int) ((long) rowGroups.length * part / partCount);
+            int rowTo = (int) ((long) rowGroups.length * (part + 1) / partCount);
+            for (int row = rowFrom; row < rowTo; row += ACCUMULATE_CHUNK_SIZE) {
+              int chunkTo = Math.min(row + ACCUMULATE_CHUNK_SIZE, rowTo);
+              for (GroupAccumulator accumulator : parts[part]) {
+                accumulator.accumulate(rowGroups, row, chunkTo);
+              }
+            }
+          }
+        });
+
+    Context context = Context.getCurrent();
+    for (int part = 1; part < partCount; part++) {
+      for (int i = 0; i < indices.size(); i++) {
+        parts[0][i].merge(parts[part][i]);
+      }
+      context.safepoint();
+    }
   }
 
-  public Map<KeyType, List<Integer>> mapping() {
-    return locs;
+  /**
+   * Returns the value of the aggregate for the group, taking it from the accumulator if the
+   * aggregate has one.
+   */
+  Object getAggregate(Aggregator aggregate, GroupAccumulator accumulator, int group) {
+    return accumulator != null
+        ? accumulator.finish(group)
+        : aggregate.aggregate(getGroupRows(group), problemAggregator);
   }
 
+  /** Returns the number of groups. */
   public int size() {
-    return this.locs.size();
+    return groupCount;
+  }
+
+  /** Returns the key columns of this index. */
+  public KeyColumn[] getKeyColumns() {
+    return keys;
+  }
+
+  /** Returns the id of the group each row belongs to. The returned array must not be modified. */
+  public int[] getRowGroups() {
+    return rowGroups;
+  }
+
+  /** Returns the number of rows in the given group. */
+  public int getGroupSize(int group) {
+    return groupOffsets[group + 1] - groupOffsets[group];
+  }
+
+  /** Returns the first row of the given group. */
+  public int getFirstRow(int group) {
+    return groupRows[groupOffsets[group]];
+  }
+
+  /** Returns the indexes of rows belonging to the given group, in increasing order. */
+  public List<Integer> getGroupRows(int group) {
+    return new IntArraySlice(groupRows, groupOffsets[group], groupOffsets[group + 1]);
+  }
+
+  /** Checks if any cell of the key of the given group is missing. */
+  public boolean groupHasAnyNulls(int group) {
+    return KeyColumn.hasAnyNulls(keys, getFirstRow(group));
+  }
+
+  /** Creates a key object representing the key of the given group. */
+  public UnorderedMultiValueKey getGroupKey(int group) {
+    Storage<?>[] storages = Arrays.stream(keys).map(KeyColumn::getStorage).toArray(Storage[]::new);
+    return new UnorderedMultiValueKey(storages, getFirstRow(group), textFoldingStrategies);
   }
 
   /**
-   * Finds a key of which at least one cell is null. Returns that key, or null if no such key is
-   * found.
+   * Finds the group with a key equal to the key at {@code row} of {@code probeKeys}.
+   *
+   * <p>The probed key columns may come from a different table, but they should use the same text
+   * folding strategies as this index.
+   *
+   * @return the id of the matching group, or {@code -1} if there is no such group
    */
-  public KeyType findAnyNullKey() {
-    for (Column c : keyColumns) {
-      boolean containsNulls = CountNothing.anyNothing(c.getStorage());
-      if (containsNulls) {
-        for (KeyType key : locs.keySet()) {
-          if (key.hasAnyNulls()) {
-            return key;
-          }
-        }
+  public int findGroup(KeyColumn[] probeKeys, int row) {
+    if (groupCount == 0) {
+      return NO_GROUP;
+    } else if (keys.length == 0) {
+      return 0;
+    }
+
+    return groupTable.find(KeyColumn.hashRow(probeKeys, row), probeKeys, row);
+  }
+
+  /**
+   * Finds the group with a key equal to the key at {@code row} of {@code probeKeys}, given the hash
+   * of that key computed by {@link KeyColumn#hashRow}.
+   *
+   * <p>It must only be used if the index has key columns.
+   *
+   * @return the id of the matching group, or {@code -1} if there is no such group
+   */
+  public int findGroup(int hash, KeyColumn[] probeKeys, int row) {
+    return groupCount == 0 ? NO_GROUP : groupTable.find(hash, probeKeys, row);
+  }
 
-        assert false : "Null values found in a column, so a null key should be found";
+  /**
+   * Returns the hash of the key of the given group, as computed by {@link KeyColumn#hashRow}.
+   *
+   * <p>It must only be used if the index has key columns.
+   */
+  public int getGroupHash(int group) {
+    return groupTable.getHash(group);
+  }
+
+  /**
+   * Finds a group of which at least one key cell is null. Returns the id of that group, or -1 if no
+   * such group is found.
+   */
+  public int findAnyNullGroup() {
+    for (int group = 0; group < groupCount; group++) {
+      if (groupHasAnyNulls(group)) {
+        return group;
       }
     }
 
-    return null;
+    return NO_GROUP;
   }
 }
@@ -163,8 +163,7 @@ public class Table {
    * @param columns set of columns to use as an index
    * @return a table indexed by the proper column
    */
-  public MultiValueIndex<?> indexFromColumns(
-      Column[] columns, ProblemAggregator problemAggregator) {
+  public MultiValueIndex indexFromColumns(Column[] columns, ProblemAggregator problemAggregator) {
     return MultiValueIndex.makeUnorderedIndex(
         columns, this.rowCount(), TextFoldingStrategy.unicodeNormalizedFold, problemAggregator);
   }
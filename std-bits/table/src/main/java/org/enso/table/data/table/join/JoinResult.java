@@ -1,5 +1,6 @@
 package org.enso.table.data.table.join;
 
+import java.util.List;
 import org.enso.base.arrays.IntArrayBuilder;
 import org.enso.table.data.mask.OrderMask;
 
@@ -14,6 +15,24 @@ public class JoinResult {
     this.rightIndices = rightIndices;
   }
 
+  /** Concatenates the pairs of the given results, in order. */
+  public static JoinResult concatenate(List<JoinResult> results) {
+    int length = 0;
+    for (JoinResult result : results) {
+      length = Math.addExact(length, result.length);
+    }
+
+    int[] leftIndices = new int[length];
+    int[] rightIndices = new int[length];
+    int offset = 0;
+    for (JoinResult result : results) {
+      System.arraycopy(result.leftIndices, 0, leftIndices, offset, result.length);
+      System.arraycopy(result.rightIndices, 0, rightIndices, offset, result.length);
+      offset += result.length;
+    }
+    return new JoinResult(leftIndices, rightIndices, length);
+  }
+
   // ** Represents a pair of indices of matched rows. -1 means an unmatched row.*/
   public record RowPair(int leftIndex, int rightIndex) {}
 
@@ -0,0 +1,249 @@
+package org.enso.table.data.table.join.between;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import org.enso.table.data.column.storage.Storage;
+import org.enso.table.data.column.storage.datetime.DateStorage;
+import org.enso.table.data.column.storage.numeric.AbstractLongStorage;
+import org.enso.table.data.column.storage.numeric.DoubleStorage;
+import org.enso.table.data.table.join.conditions.Between;
+import org.enso.table.operations.sort.IndexSorter;
+import org.graalvm.polyglot.Context;
+
+/**
+ * The columns of {@code Between} conditions, with all values encoded as {@code long}s.
+ *
+ * <p>The encodings compare the same way as the values do with {@link
+ * org.enso.base.ObjectComparator}, so the rows can be sorted and matched using primitive arrays,
+ * instead of an {@code OrderedMultiValueKey} for each row. This is possible if the columns of each
+ * condition are all integers, all floating point numbers, all dates, or integers mixed with
+ * floating point numbers that can all be compared exactly as doubles.
+ */
+final class EncodedBetweenConditions {
+  /** Integers with a larger magnitude may not be exactly representable as a double. */
+  private static final long MAX_EXACT_DOUBLE_INTEGER = 1L << 53;
+
+  private enum Encoding {
+    INTEGER,
+    FLOAT,
+    EXACT_DOUBLE,
+    DATE
+  }
+
+  private final long[][] leftValues;
+  private final long[][] lowerValues;
+  private final long[][] upperValues;
+
+  /** The left rows that have a missing value in any of the conditions, so they never match. */
+  private final BitSet leftRowsWithNothing;
+
+  /** The right rows that have a missing bound in any of the conditions, so they never match. */
+  private final BitSet rightRowsWithNothing;
+
+  private EncodedBetweenConditions(
+      long[][] leftValues,
+      long[][] lowerValues,
+      long[][] upperValues,
+      BitSet leftRowsWithNothing,
+      BitSet rightRowsWithNothing) {
+    this.leftValues = leftValues;
+    this.lowerValues = lowerValues;
+    this.upperValues = upperValues;
+    this.leftRowsWithNothing = leftRowsWithNothing;
+    this.rightRowsWithNothing = rightRowsWithNothing;
+  }
+
+  /**
+   * Encodes the columns of the given conditions.
+   *
+   * @return the encoded conditions, or {@code null} if some of the columns cannot be encoded
+   */
+  static EncodedBetweenConditions tryEncode(List<Between> conditions) {
+    int n = conditions.size();
+    long[][] leftValues = new long[n][];
+    long[][] lowerValues = new long[n][];
+    long[][] upperValues = new long[n][];
+    BitSet leftRowsWithNothing = new BitSet();
+    BitSet rightRowsWithNothing = new BitSet();
+    for (int i = 0; i < n; i++) {
+      Between condition = conditions.get(i);
+      Storage<?> left = condition.left().getStorage();
+      Storage<?> lower = condition.rightLower().getStorage();
+      Storage<?> upper = condition.rightUpper().getStorage();
+      Encoding encoding = findEncoding(left, lower, upper);
+      if (encoding == null) {
+        return null;
+      }
+
+      leftValues[i] = encode(left, encoding, leftRowsWithNothing);
+      lowerValues[i] = encode(lower, encoding, rightRowsWithNothing);
+      upperValues[i] = encode(upper, encoding, rightRowsWithNothing);
+      if (leftValues[i] == null || lowerValues[i] == null || upperValues[i] == null) {
+        return null;
+      }
+    }
+
+    return new EncodedBetweenConditions(
+        leftValues, lowerValues, upperValues, leftRowsWithNothing, rightRowsWithNothing);
+  }
+
+  private static Encoding findEncoding(Storage<?>... storages) {
+    if (Arrays.stream(storages).allMatch(s -> s instanceof AbstractLongStorage)) {
+      return Encoding.INTEGER;
+    } else if (Arrays.stream(storages).allMatch(s -> s instanceof DoubleStorage)) {
+      return Encoding.FLOAT;
+    } else if (Arrays.stream(storages)
+        .allMatch(s -> s instanceof AbstractLongStorage || s instanceof DoubleStorage)) {
+      return Encoding.EXACT_DOUBLE;
+    } else if (Arrays.stream(storages).allMatch(s -> s instanceof DateStorage)) {
+      return Encoding.DATE;
+    } else {
+      return null;
+    }
+  }
+
+  /**
+   * Encodes the values of the storage, marking the rows with missing values in {@code nothing}.
+   *
+   * @return the encoded values, or {@code null} if some value cannot be encoded
+   */
+  private static long[] encode(Storage<?> storage, Encoding encoding, BitSet nothing) {
+    Context context = Context.getCurrent();
+    int size = storage.size();
+    long[] values = new long[size];
+    for (int row = 0; row < size; row++) {
+      if (storage.isNothing(row)) {
+        nothing.set(row);
+        continue;
+      }
+
+      switch (encoding) {
+        case INTEGER -> values[row] = ((AbstractLongStorage) storage).getItem(row);
+        case FLOAT -> values[row] = encodeDouble(((DoubleStorage) storage).getItemAsDouble(row));
+        case DATE -> values[row] = ((DateStorage) storage).getItem(row).toEpochDay();
+        case EXACT_DOUBLE -> {
+          if (storage instanceof AbstractLongStorage longStorage) {
+            long value = longStorage.getItem(row);
+            if (value < -MAX_EXACT_DOUBLE_INTEGER || value > MAX_EXACT_DOUBLE_INTEGER) {
+              return null;
+            }
+            values[row] = encodeDouble(value);
+          } else {
+            // Integers compare equal to both zeros, and to NaN, so such values are not ordered
+            // consistently.
+            double value = ((DoubleStorage) storage).getItemAsDouble(row);
+            if (Double.isNaN(value) || Double.doubleToRawLongBits(value) == Long.MIN_VALUE) {
+              return null;
+            }
+            values[row] = encodeDouble(value);
+          }
+        }
+      }
+
+      context.safepoint();
+    }
+    return values;
+  }
+
+  /**
+   * Encodes a double such that comparing the encodings as {@code long}s gives the same result as
+   * {@link Double#compare}.
+   */
+  private static long encodeDouble(double value) {
+    long bits = Double.doubleToLongBits(value);
+    return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+  }
+
+  /**
+   * Sorts the given left rows by their value in the first condition, skipping the rows that cannot
+   * match anything. Rows with equal values keep their relative order.
+   */
+  SortedLeftRows sortLeftRows(int[] rows) {
+    int[] sortedRows = Arrays.stream(rows).filter(row -> !leftRowsWithNothing.get(row)).toArray();
+    long[] firstValues = leftValues[0];
+    IndexSorter.parallelSort(
+        sortedRows, 0, sortedRows.length, (i, j) -> Long.compare(firstValues[i], firstValues[j]));
+
+    long[] sortedValues = new long[sortedRows.length];
+    for (int i = 0; i < sortedRows.length; i++) {
+      sortedValues[i] = firstValues[sortedRows[i]];
+    }
+    return new SortedLeftRows(sortedRows, sortedValues);
+  }
+
+  /** Checks if the right row has no bound missing, and the lower bounds are not above the upper. */
+  boolean hasValidRange(int rightRow) {
+    if (rightRowsWithNothing.get(rightRow)) {
+      return false;
+    }
+
+    for (int i = 0; i < lowerValues.length; i++) {
+      if (lowerValues[i][rightRow] > upperValues[i][rightRow]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Checks if the left row is within the bounds of the right row in all conditions but the first
+   * one, which is already ensured by {@link SortedLeftRows}.
+   */
+  boolean isInRemainingRanges(int leftRow, int rightRow) {
+    for (int i = 1; i < leftValues.length; i++) {
+      long value = leftValues[i][leftRow];
+      if (value < lowerValues[i][rightRow] || value > upperValues[i][rightRow]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Left rows sorted by their encoded value in the first condition. */
+  final class SortedLeftRows {
+    private final int[] rows;
+    private final long[] values;
+
+    private SortedLeftRows(int[] rows, long[] values) {
+      this.rows = rows;
+      this.values = values;
+    }
+
+    int getRow(int position) {
+      return rows[position];
+    }
+
+    /** Finds the first position with a value not less than the lower bound of the right row. */
+    int findStart(int rightRow) {
+      long lowerBound = lowerValues[0][rightRow];
+      int start = 0;
+      int end = values.length;
+      while (start < end) {
+        int mid = (start + end) >>> 1;
+        if (values[mid] < lowerBound) {
+          start = mid + 1;
+        } else {
+          end = mid;
+        }
+      }
+      return start;
+    }
+
+    /** Finds the first position with a value greater than the upper bound of the right row. */
+    int findEnd(int rightRow) {
+      long upperBound = upperValues[0][rightRow];
+      int start = 0;
+      int end = values.length;
+      while (start < end) {
+        int mid = (start + end) >>> 1;
+        if (values[mid] <= upperBound) {
+          start = mid + 1;
+        } else {
+          end = mid;
+        }
+      }
+      return start;
+    }
+  }
+}
@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.BitSet;
 import java.util.Comparator;
 import java.util.List;
+import java.util.stream.IntStream;
 import org.enso.base.ObjectComparator;
 import org.enso.table.data.column.storage.Storage;
 import org.enso.table.data.index.OrderedMultiValueKey;
@@ -14,6 +15,13 @@ import org.enso.table.data.table.join.conditions.Between;
 import org.enso.table.problems.ProblemAggregator;
 import org.graalvm.polyglot.Context;
 
+/**
+ * A strategy that joins on {@code Between} conditions by sorting the left rows by their value in
+ * the first condition, and finding the rows within the bounds of each right row by binary search.
+ *
+ * <p>If all the conditions are on numeric or date columns, the values are encoded as primitives
+ * upfront, so that no key objects are created for the rows.
+ */
 public class SortJoin implements JoinStrategy {
 
   public SortJoin(List<Between> conditions, JoinKind joinKind) {
@@ -33,6 +41,8 @@ public class SortJoin implements JoinStrategy {
       upperStorages[i] = conditions.get(i).rightUpper().getStorage();
       context.safepoint();
     }
+
+    encodedConditions = EncodedBetweenConditions.tryEncode(conditions);
   }
 
   private final JoinKind joinKind;
@@ -43,6 +53,12 @@ public class SortJoin implements JoinStrategy {
   private final Storage<?>[] upperStorages;
   private final BitSet matchedLeftRows = new BitSet();
 
+  /**
+   * The conditions encoded as primitive values, or {@code null} if some of their columns cannot be
+   * encoded.
+   */
+  private final EncodedBetweenConditions encodedConditions;
+
   @Override
   public JoinResult join(ProblemAggregator problemAggregator) {
     Context context = Context.getCurrent();
@@ -54,16 +70,10 @@ public class SortJoin implements JoinStrategy {
       // if one group is completely empty, there will be no matches to report
       return resultBuilder.buildAndInvalidate();
     }
-    List<OrderedMultiValueKey> leftKeys = new ArrayList<>(leftRowCount);
-    for (int i = 0; i < leftRowCount; i++) {
-      leftKeys.add(new OrderedMultiValueKey(leftStorages, i, directions));
-      context.safepoint();
-    }
-
-    SortedListIndex<OrderedMultiValueKey> leftIndex = buildSortedLeftIndex(leftKeys);
+    LeftIndex leftIndex = buildLeftIndex(IntStream.range(0, leftRowCount).toArray());
 
     for (int rightRowIx = 0; rightRowIx < rightRowCount; rightRowIx++) {
-      int matches = addMatchingLeftRows(leftIndex, rightRowIx, resultBuilder);
+      int matches = leftIndex.addMatchingLeftRows(rightRowIx, resultBuilder);
       if (joinKind.wantsRightUnmatched && matches == 0) {
         resultBuilder.addUnmatchedRightRow(rightRowIx);
       }
@@ -89,19 +99,15 @@ public class SortJoin implements JoinStrategy {
       ProblemAggregator problemAggregator) {
     Context context = Context.getCurrent();
 
-    List<OrderedMultiValueKey> leftKeys =
-        leftGroup.stream()
-            .map(i -> new OrderedMultiValueKey(leftStorages, i, directions, objectComparator))
-            .toList();
-    if (leftKeys.isEmpty()) {
+    if (leftGroup.isEmpty()) {
       // left group is completely empty - there will be no matches at all
       return;
     }
 
-    SortedListIndex<OrderedMultiValueKey> leftIndex = buildSortedLeftIndex(leftKeys);
+    LeftIndex leftIndex = buildLeftIndex(leftGroup.stream().mapToInt(Integer::intValue).toArray());
 
     for (int rightRowIx : rightGroup) {
-      int matches = addMatchingLeftRows(leftIndex, rightRowIx, resultBuilder);
+      int matches = leftIndex.addMatchingLeftRows(rightRowIx, resultBuilder);
       if (joinKind.wantsRightUnmatched && matches == 0) {
         resultBuilder.addUnmatchedRightRow(rightRowIx);
       }
@@ -118,9 +124,34 @@ public class SortJoin implements JoinStrategy {
     }
   }
 
-  private SortedListIndex<OrderedMultiValueKey> buildSortedLeftIndex(
-      List<OrderedMultiValueKey> keys) {
-    return SortedListIndex.build(keys, firstCoordinateComparator);
+  /** An index of the left rows, finding the ones matching a given right row. */
+  private interface LeftIndex {
+    /**
+     * Adds all pairs of left rows matching the right row to the builder, and reports the match
+     * count.
+     */
+    int addMatchingLeftRows(int rightRowIx, JoinResult.Builder resultBuilder);
+  }
+
+  private LeftIndex buildLeftIndex(int[] leftRows) {
+    if (encodedConditions != null) {
+      EncodedBetweenConditions.SortedLeftRows sortedLeftRows =
+          encodedConditions.sortLeftRows(leftRows);
+      return (rightRowIx, resultBuilder) ->
+          addMatchingLeftRows(sortedLeftRows, rightRowIx, resultBuilder);
+    }
+
+    Context context = Context.getCurrent();
+    List<OrderedMultiValueKey> leftKeys = new ArrayList<>(leftRows.length);
+    for (int leftRowIx : leftRows) {
+      leftKeys.add(new OrderedMultiValueKey(leftStorages, leftRowIx, directions, objectComparator));
+      context.safepoint();
+    }
+
+    SortedListIndex<OrderedMultiValueKey> sortedLeftIndex =
+        SortedListIndex.build(leftKeys, firstCoordinateComparator);
+    return (rightRowIx, resultBuilder) ->
+        addMatchingLeftRows(sortedLeftIndex, rightRowIx, resultBuilder);
   }
 
   private OrderedMultiValueKey buildLowerBound(int rightRowIx) {
@@ -174,6 +205,44 @@ public class SortJoin implements JoinStrategy {
     return matchCount;
   }
 
+  /**
+   * The counterpart of {@link #addMatchingLeftRows(SortedListIndex, int, JoinResult.Builder)} for
+   * the encoded conditions.
+   *
+   * <p>The left rows within the bounds of the first condition are found by binary search in the
+   * sorted values, and only the remaining conditions are checked for each of them.
+   */
+  private int addMatchingLeftRows(
+      EncodedBetweenConditions.SortedLeftRows sortedLeftRows,
+      int rightRowIx,
+      JoinResult.Builder resultBuilder) {
+    // If the match interval is invalid or empty, there is nothing to do.
+    if (!encodedConditions.hasValidRange(rightRowIx)) {
+      return 0;
+    }
+
+    int matchCount = 0;
+
+    int end = sortedLeftRows.findEnd(rightRowIx);
+    Context context = Context.getCurrent();
+    for (int i = sortedLeftRows.findStart(rightRowIx); i < end; i++) {
+      int leftRowIx = sortedLeftRows.getRow(i);
+      if (encodedConditions.isInRemainingRanges(leftRowIx, rightRowIx)) {
+        matchCount++;
+        if (joinKind.wantsCommon) {
+          resultBuilder.addMatchedRowsPair(leftRowIx, rightRowIx);
+        }
+        if (joinKind.wantsLeftUnmatched) {
+          matchedLeftRows.set(leftRowIx);
+        }
+      }
+
+      context.safepoint();
+    }
+
+    return matchCount;
+  }
+
   private boolean isInRange(
       OrderedMultiValueKey key, OrderedMultiValueKey lowerBound, OrderedMultiValueKey upperBound) {
     assert key.getNumberOfColumns() == lowerBound.getNumberOfColumns();
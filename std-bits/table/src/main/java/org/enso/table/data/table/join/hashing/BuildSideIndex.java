@@ -0,0 +1,108 @@
+package org.enso.table.data.table.join.hashing;
+
+import java.util.List;
+import org.enso.base.text.TextFoldingStrategy;
+import org.enso.table.data.index.KeyColumn;
+import org.enso.table.data.index.MultiValueIndex;
+import org.enso.table.data.table.Column;
+import org.enso.table.problems.ProblemAggregator;
+import org.graalvm.polyglot.Context;
+
+/**
+ * The hashed side of a hash join - an index of its key columns that the rows of the other side are
+ * looked up in.
+ *
+ * <p>Large indexes are accompanied by a blocked bloom filter of their key hashes. It is much
+ * smaller than the hash table of the index, so checking it first allows most of the probed keys
+ * that have no match to be rejected without a cache miss in the hash table.
+ *
+ * <p>Once built, it may be probed from multiple threads if the key columns are thread-safe.
+ */
+final class BuildSideIndex {
+  /** Indexes with fewer groups than this are small enough to be probed without a filter. */
+  private static final int BLOOM_FILTER_MIN_GROUPS = 1 << 16;
+
+  /** The number of filter bits per group, giving a false positive rate of a few percent. */
+  private static final int BLOOM_FILTER_BITS_PER_GROUP = 8;
+
+  private final MultiValueIndex index;
+
+  /**
+   * The bloom filter, consisting of 64-bit blocks, or {@code null} if the index is small. Each key
+   * sets 3 bits in a single block, so that checking it touches only one cache line.
+   */
+  private final long[] bloomFilter;
+
+  private BuildSideIndex(MultiValueIndex index, long[] bloomFilter) {
+    this.index = index;
+    this.bloomFilter = bloomFilter;
+  }
+
+  /** Builds the index of the given key columns. */
+  static BuildSideIndex build(
+      Column[] keyColumns,
+      List<TextFoldingStrategy> textFoldingStrategies,
+      ProblemAggregator problemAggregator) {
+    MultiValueIndex index =
+        MultiValueIndex.makeUnorderedIndex(
+            keyColumns, keyColumns[0].getSize(), textFoldingStrategies, problemAggregator);
+    return new BuildSideIndex(index, buildBloomFilter(index));
+  }
+
+  private static long[] buildBloomFilter(MultiValueIndex index) {
+    int groupCount = index.size();
+    if (groupCount < BLOOM_FILTER_MIN_GROUPS) {
+      return null;
+    }
+
+    long minBlocks = (long) groupCount * BLOOM_FILTER_BITS_PER_GROUP / Long.SIZE;
+    long[] filter = new long[Integer.highestOneBit((int) minBlocks - 1) << 1];
+    Context context = Context.getCurrent();
+    for (int group = 0; group < groupCount; group++) {
+      long h = mix(index.getGroupHash(group));
+      filter[blockIndex(h, filter.length)] |= blockMask(h);
+      context.safepoint();
+    }
+    return filter;
+  }
+
+  MultiValueIndex getIndex() {
+    return index;
+  }
+
+  /**
+   * Finds the group with a key equal to the key at {@code row} of {@code probeKeys}.
+   *
+   * @return the id of the matching group, or {@code -1} if there is no such group
+   */
+  int findGroup(KeyColumn[] probeKeys, int row) {
+    if (bloomFilter == null) {
+      return index.findGroup(probeKeys, row);
+    }
+
+    int hash = KeyColumn.hashRow(probeKeys, row);
+    long h = mix(hash);
+    long mask = blockMask(h);
+    if ((bloomFilter[blockIndex(h, bloomFilter.length)] & mask) != mask) {
+      return -1;
+    }
+
+    return index.findGroup(hash, probeKeys, row);
+  }
+
+  /** Spreads the bits of the key hash, to select the block and the bits within it. */
+  private static long mix(int hash) {
+    long h = (hash & 0xFFFFFFFFL) * 0x9E3779B97F4A7C15L;
+    h ^= h >>> 29;
+    h *= 0xBF58476D1CE4E5B9L;
+    return h ^ (h >>> 32);
+  }
+
+  private static int blockIndex(long h, int blockCount) {
+    return (int) (h >>> 32) & (blockCount - 1);
+  }
+
+  private static long blockMask(long h) {
+    return (1L << (h & 63)) | (1L << ((h >>> 6) & 63)) | (1L << ((h >>> 12) & 63));
+  }
+}
@@ -1,24 +1,39 @@
 package org.enso.table.data.table.join.hashing;
 
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
+import org.enso.base.text.TextFoldingStrategy;
+import org.enso.table.data.index.KeyColumn;
 import org.enso.table.data.index.MultiValueIndex;
-import org.enso.table.data.index.UnorderedMultiValueKey;
+import org.enso.table.data.table.Column;
 import org.enso.table.data.table.join.JoinKind;
 import org.enso.table.data.table.join.JoinResult;
 import org.enso.table.data.table.join.JoinStrategy;
 import org.enso.table.data.table.join.between.SortJoin;
 import org.enso.table.data.table.join.conditions.Between;
 import org.enso.table.data.table.join.conditions.HashableCondition;
+import org.enso.table.problems.ColumnAggregatedProblemAggregator;
 import org.enso.table.problems.ProblemAggregator;
+import org.enso.table.util.IntArraySlice;
+import org.enso.table.util.ParallelTasks;
 import org.graalvm.polyglot.Context;
 
 /**
  * A strategy that uses a hash-map to perform join on the equality conditions.
  *
+ * <p>Only the smaller table is hashed. The rows of the other table are looked up in its index one
+ * by one, possibly on multiple threads, and are grouped by the matching group afterwards.
+ *
  * <p>It then delegates to {@code SortJoin} to perform the remaining conditions on the matching
  * pairs of row subsets.
  */
 public class CompoundHashJoin implements JoinStrategy {
+  /**
+   * The number of rows probed by a single parallel task. Tables with fewer rows than {@link
+   * ParallelTasks#getParallelThreshold()} are always probed on the current thread.
+   */
+  private static final int PARALLEL_CHUNK_SIZE = 1 << 14;
 
   public CompoundHashJoin(
       List<HashableCondition> hashableConditions,
@@ -35,56 +50,201 @@ public class CompoundHashJoin implements JoinStrategy {
 
   @Override
   public JoinResult join(ProblemAggregator problemAggregator) {
-    Context context = Context.getCurrent();
+    boolean isLeftHashed = hashJoinConfig.getLeftNumRows() < hashJoinConfig.getRightNumRows();
+    Column[] hashedEquals =
+        isLeftHashed ? hashJoinConfig.getLeftEquals() : hashJoinConfig.getRightEquals();
+    Column[] probedEquals =
+        isLeftHashed ? hashJoinConfig.getRightEquals() : hashJoinConfig.getLeftEquals();
+    List<TextFoldingStrategy> textFoldingStrategies = hashJoinConfig.getTextFoldingStrategies();
 
-    var leftIndex =
-        MultiValueIndex.makeUnorderedIndex(
-            hashJoinConfig.getLeftEquals(),
-            hashJoinConfig.getLeftNumRows(),
-            hashJoinConfig.getTextFoldingStrategies(),
-            problemAggregator);
-    var rightIndex =
-        MultiValueIndex.makeUnorderedIndex(
-            hashJoinConfig.getRightEquals(),
-            hashJoinConfig.getRightNumRows(),
-            hashJoinConfig.getTextFoldingStrategies(),
-            problemAggregator);
+    // The aggregators are created in this order, so that the problems of the left table are
+    // reported first, regardless of which table is hashed.
+    var probedProblemAggregator =
+        isLeftHashed ? null : new ColumnAggregatedProblemAggregator(problemAggregator);
+    var hashedIndex = BuildSideIndex.build(hashedEquals, textFoldingStrategies, problemAggregator);
+    if (probedProblemAggregator == null) {
+      probedProblemAggregator = new ColumnAggregatedProblemAggregator(problemAggregator);
+    }
+
+    KeyColumn[] probedKeys = KeyColumn.of(probedEquals, textFoldingStrategies);
+    int[] probedRowGroups = new int[probedEquals[0].getSize()];
+    findMatchingGroups(probedKeys, hashedIndex, probedRowGroups)
+        .report(probedEquals, probedProblemAggregator);
+    ProbedRows probedRows = new ProbedRows(probedRowGroups, hashedIndex.getIndex().size());
 
     JoinResult.Builder resultBuilder = new JoinResult.Builder();
-    for (var leftEntry : leftIndex.mapping().entrySet()) {
-      UnorderedMultiValueKey leftKey = leftEntry.getKey();
-      List<Integer> leftRows = leftEntry.getValue();
-      // If any field of the key is null, it cannot match anything.
-      List<Integer> rightRows = leftKey.hasAnyNulls() ? null : rightIndex.get(leftKey);
-
-      if (rightRows != null) {
-        sortJoin.joinSubsets(leftRows, rightRows, resultBuilder, problemAggregator);
-      } else {
+    if (isLeftHashed) {
+      joinByLeftGroups(hashedIndex.getIndex(), probedRows, resultBuilder, problemAggregator);
+    } else {
+      joinByLeftRows(probedRows, hashedIndex.getIndex(), resultBuilder, problemAggregator);
+    }
+    return resultBuilder.buildAndInvalidate();
+  }
+
+  /** Joins the groups of the hashed left table with the matching rows of the right table. */
+  private void joinByLeftGroups(
+      MultiValueIndex leftIndex,
+      ProbedRows rightRows,
+      JoinResult.Builder resultBuilder,
+      ProblemAggregator problemAggregator) {
+    Context context = Context.getCurrent();
+    for (int leftGroup = 0; leftGroup < leftIndex.size(); leftGroup++) {
+      List<Integer> leftRows = leftIndex.getGroupRows(leftGroup);
+      List<Integer> matchingRightRows = rightRows.getRowsMatching(leftGroup);
+      if (!matchingRightRows.isEmpty()) {
+        sortJoin.joinSubsets(leftRows, matchingRightRows, resultBuilder, problemAggregator);
+      } else if (joinKind.wantsLeftUnmatched) {
+        for (int leftRow : leftRows) {
+          resultBuilder.addUnmatchedLeftRow(leftRow);
+          context.safepoint();
+        }
+      }
+
+      context.safepoint();
+    }
+
+    if (joinKind.wantsRightUnmatched) {
+      for (int rightRow = 0; rightRow < rightRows.rowGroups.length; rightRow++) {
+        if (rightRows.rowGroups[rightRow] == -1) {
+          resultBuilder.addUnmatchedRightRow(rightRow);
+        }
+        context.safepoint();
+      }
+    }
+  }
+
+  /**
+   * Joins the rows of the left table with the matching groups of the hashed right table, in the
+   * order of the first left row matching each group.
+   */
+  private void joinByLeftRows(
+      ProbedRows leftRows,
+      MultiValueIndex rightIndex,
+      JoinResult.Builder resultBuilder,
+      ProblemAggregator problemAggregator) {
+    Context context = Context.getCurrent();
+    BitSet matchedRightGroups = new BitSet();
+    for (int leftRow = 0; leftRow < leftRows.rowGroups.length; leftRow++) {
+      int rightGroup = leftRows.rowGroups[leftRow];
+      if (rightGroup == -1) {
         if (joinKind.wantsLeftUnmatched) {
-          for (int leftRow : leftRows) {
-            resultBuilder.addUnmatchedLeftRow(leftRow);
-            context.safepoint();
-          }
+          resultBuilder.addUnmatchedLeftRow(leftRow);
         }
+      } else if (!matchedRightGroups.get(rightGroup)) {
+        matchedRightGroups.set(rightGroup);
+        sortJoin.joinSubsets(
+            leftRows.getRowsMatching(rightGroup),
+            rightIndex.getGroupRows(rightGroup),
+            resultBuilder,
+            problemAggregator);
       }
 
       context.safepoint();
     }
 
     if (joinKind.wantsRightUnmatched) {
-      for (var rightEntry : rightIndex.mapping().entrySet()) {
-        UnorderedMultiValueKey rightKey = rightEntry.getKey();
-        // If any field of the key is null, it cannot match anything.
-        boolean wasCompletelyUnmatched =
-            rightKey.hasAnyNulls() ? true : !leftIndex.contains(rightKey);
+      for (int rightGroup = 0; rightGroup < rightIndex.size(); rightGroup++) {
+        // Groups with null keys are never matched, so they are also not marked as such.
+        boolean wasCompletelyUnmatched = !matchedRightGroups.get(rightGroup);
         if (wasCompletelyUnmatched) {
-          for (int rightRow : rightEntry.getValue()) {
+          for (int rightRow : rightIndex.getGroupRows(rightGroup)) {
             resultBuilder.addUnmatchedRightRow(rightRow);
           }
         }
+        context.safepoint();
       }
     }
+  }
 
-    return resultBuilder.buildAndInvalidate();
+  /**
+   * Finds the group of the hashed table with the same key as each row of the probed table, or -1 if
+   * there is none.
+   *
+   * <p>If the key columns are thread-safe, large tables are probed on multiple threads. The
+   * remaining conditions are then checked on the current thread, as they may need to compare
+   * arbitrary objects.
+   *
+   * @return the probed key columns containing floating point values
+   */
+  private static FloatingPointKeys findMatchingGroups(
+      KeyColumn[] probedKeys, BuildSideIndex hashedIndex, int[] rowGroups) {
+    int chunkSize = ParallelTasks.getChunkSize(PARALLEL_CHUNK_SIZE);
+    int chunkCount = (rowGroups.length + chunkSize - 1) / chunkSize;
+    FloatingPointKeys[] chunkFloatingPointKeys = new FloatingPointKeys[chunkCount];
+    ParallelTasks.RangeAction probe =
+        (from, to) -> {
+          for (int chunk = from; chunk < to; chunk++) {
+            FloatingPointKeys floatingPointKeys = new FloatingPointKeys(probedKeys);
+            int rowTo = Math.min((chunk + 1) * chunkSize, rowGroups.length);
+            for (int row = chunk * chunkSize; row < rowTo; row++) {
+              floatingPointKeys.check(row);
+              // If any field of the key is null, it cannot match anything.
+              rowGroups[row] =
+                  KeyColumn.hasAnyNulls(probedKeys, row)
+                      ? -1
+                      : hashedIndex.findGroup(probedKeys, row);
+            }
+            chunkFloatingPointKeys[chunk] = floatingPointKeys;
+          }
+        };
+
+    if (rowGroups.length >= ParallelTasks.getParallelThreshold()
+        && KeyColumn.areThreadSafe(probedKeys)
+        && KeyColumn.areThreadSafe(hashedIndex.getIndex().getKeyColumns())) {
+      ParallelTasks.forEachRange(0, chunkCount, 1, probe);
+    } else {
+      Context context = Context.getCurrent();
+      for (int chunk = 0; chunk < chunkCount; chunk++) {
+        probe.run(chunk, chunk + 1);
+        context.safepoint();
+      }
+    }
+
+    FloatingPointKeys floatingPointKeys = new FloatingPointKeys(probedKeys);
+    for (FloatingPointKeys chunkKeys : chunkFloatingPointKeys) {
+      floatingPointKeys.merge(chunkKeys);
+    }
+    return floatingPointKeys;
+  }
+
+  /**
+   * The rows of the probed table, grouped by the matching group of the hashed table.
+   *
+   * <p>The rows matching each group are stored next to each other, in increasing order, with
+   * offsets denoting where the rows of each group start.
+   */
+  private static final class ProbedRows {
+    /** The group of the hashed table matching each row, or -1. */
+    private final int[] rowGroups;
+
+    private final int[] groupOffsets;
+    private final int[] groupRows;
+
+    ProbedRows(int[] rowGroups, int groupCount) {
+      this.rowGroups = rowGroups;
+      groupOffsets = new int[groupCount + 1];
+      for (int group : rowGroups) {
+        if (group != -1) {
+          groupOffsets[group + 1]++;
+        }
+      }
+      for (int i = 0; i < groupCount; i++) {
+        groupOffsets[i + 1] += groupOffsets[i];
+      }
+
+      groupRows = new int[groupOffsets[groupCount]];
+      int[] positions = Arrays.copyOf(groupOffsets, groupCount);
+      for (int row = 0; row < rowGroups.length; row++) {
+        int group = rowGroups[row];
+        if (group != -1) {
+          groupRows[positions[group]++] = row;
+        }
+      }
+    }
+
+    /** Returns the rows matching the given group of the hashed table. */
+    List<Integer> getRowsMatching(int group) {
+      return new IntArraySlice(groupRows, groupOffsets[group], groupOffsets[group + 1]);
+    }
   }
 }
@@ -0,0 +1,64 @@
+package org.enso.table.data.table.join.hashing;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+import org.enso.table.data.index.KeyColumn;
+import org.enso.table.data.table.Column;
+import org.enso.table.data.table.problems.FloatingPointGrouping;
+import org.enso.table.problems.ColumnAggregatedProblemAggregator;
+
+/**
+ * Finds the key columns of the probed side of a hash join that contain floating point values.
+ *
+ * <p>Only the first such row of each column is remembered, as the problems are merged per column
+ * anyway. This allows the rows to be checked on worker threads and the problems to be reported
+ * afterwards.
+ */
+final class FloatingPointKeys {
+  private final KeyColumn[] keys;
+  private final int[] firstRows;
+
+  FloatingPointKeys(KeyColumn[] keys) {
+    this.keys = keys;
+    this.firstRows = new int[keys.length];
+    Arrays.fill(firstRows, -1);
+  }
+
+  /** Checks the key at the given row. */
+  void check(int row) {
+    for (int columnIx = 0; columnIx < keys.length; columnIx++) {
+      if (firstRows[columnIx] == -1
+          && !keys[columnIx].isNothing(row)
+          && keys[columnIx].isFloatLike(row)) {
+        firstRows[columnIx] = row;
+      }
+    }
+  }
+
+  /** Merges the results of checking later rows into this instance. */
+  void merge(FloatingPointKeys later) {
+    for (int columnIx = 0; columnIx < firstRows.length; columnIx++) {
+      if (firstRows[columnIx] == -1) {
+        firstRows[columnIx] = later.firstRows[columnIx];
+      }
+    }
+  }
+
+  /**
+   * Reports a floating point equality problem for each key column containing floating point values.
+   *
+   * <p>The problems are reported in the order of the rows where they were first encountered, as
+   * they would be if they were reported while iterating over the rows.
+   */
+  void report(Column[] columns, ColumnAggregatedProblemAggregator problemAggregator) {
+    IntStream.range(0, firstRows.length)
+        .filter(columnIx -> firstRows[columnIx] != -1)
+        .boxed()
+        .sorted(Comparator.comparingInt(columnIx -> firstRows[columnIx]))
+        .forEach(
+            columnIx ->
+                problemAggregator.reportColumnAggregatedProblem(
+                    new FloatingPointGrouping(columns[columnIx].getName(), firstRows[columnIx])));
+  }
+}
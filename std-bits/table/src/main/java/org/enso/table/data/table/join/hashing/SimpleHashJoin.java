@@ -1,23 +1,31 @@
 package org.enso.table.data.table.join.hashing;
 
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
-import org.enso.table.data.column.storage.Storage;
+import org.enso.table.data.index.KeyColumn;
 import org.enso.table.data.index.MultiValueIndex;
-import org.enso.table.data.index.UnorderedMultiValueKey;
-import org.enso.table.data.table.Column;
 import org.enso.table.data.table.join.JoinKind;
 import org.enso.table.data.table.join.JoinResult;
 import org.enso.table.data.table.join.JoinStrategy;
 import org.enso.table.data.table.join.conditions.HashableCondition;
 import org.enso.table.problems.ColumnAggregatedProblemAggregator;
 import org.enso.table.problems.ProblemAggregator;
+import org.enso.table.util.ParallelTasks;
 import org.graalvm.polyglot.Context;
 
-/** A strategy that uses a hash-map to perform join on the equality conditions. */
+/**
+ * A strategy that uses a hash-map to perform join on the equality conditions.
+ *
+ * <p>Large tables with numeric or text keys are probed on multiple threads. The resulting pairs are
+ * the same, and in the same order, as when probed on a single thread.
+ */
 public class SimpleHashJoin implements JoinStrategy {
+  /**
+   * The number of left rows probed by a single parallel task. Left tables with fewer rows than
+   * {@link ParallelTasks#getParallelThreshold()} are always probed on the current thread.
+   */
+  private static final int PARALLEL_CHUNK_SIZE = 1 << 14;
 
   public SimpleHashJoin(List<HashableCondition> conditions, JoinKind joinKind) {
     var tempHashJoinConfig = new HashJoinConfig(conditions);
@@ -54,52 +62,128 @@ public class SimpleHashJoin implements JoinStrategy {
 
     var groupingProblemAggregator = new ColumnAggregatedProblemAggregator(problemAggregator);
     var rightIndex =
-        MultiValueIndex.makeUnorderedIndex(
+        BuildSideIndex.build(
             hashJoinConfig.getRightEquals(),
-            hashJoinConfig.getRightNumRows(),
             hashJoinConfig.getTextFoldingStrategies(),
             problemAggregator);
-    var storage =
-        Arrays.stream(hashJoinConfig.getLeftEquals())
-            .map(Column::getStorage)
-            .toArray(Storage[]::new);
-    Set<UnorderedMultiValueKey> matchedRightKeys = new HashSet<>();
+    var leftEquals = hashJoinConfig.getLeftEquals();
+    KeyColumn[] leftKeys = KeyColumn.of(leftEquals, hashJoinConfig.getTextFoldingStrategies());
+    boolean[] matchedRightGroups = new boolean[rightIndex.getIndex().size()];
+
+    int leftNumRows = hashJoinConfig.getLeftNumRows();
+    List<JoinResult> probeResults = new ArrayList<>();
+    FloatingPointKeys floatingPointKeys;
+    if (leftNumRows >= ParallelTasks.getParallelThreshold()
+        && ParallelTasks.isParallelismAvailable()
+        && KeyColumn.areThreadSafe(leftKeys)
+        && KeyColumn.areThreadSafe(rightIndex.getIndex().getKeyColumns())) {
+      floatingPointKeys = probeInParallel(leftKeys, rightIndex, matchedRightGroups, probeResults);
+    } else {
+      floatingPointKeys =
+          probeRows(0, leftNumRows, leftKeys, rightIndex, matchedRightGroups, resultBuilder);
+    }
+    floatingPointKeys.report(leftEquals, groupingProblemAggregator);
 
-    Context context = Context.getCurrent();
-    for (int leftRow = 0; leftRow < hashJoinConfig.getLeftNumRows(); leftRow++) {
-      var leftKey = makeLeftKey(storage, leftRow, groupingProblemAggregator);
+    if (joinKind.wantsRightUnmatched) {
+      addUnmatchedRightRows(rightIndex.getIndex(), matchedRightGroups);
+    }
+
+    if (probeResults.isEmpty()) {
+      return resultBuilder.buildAndInvalidate();
+    }
+
+    probeResults.add(resultBuilder.buildAndInvalidate());
+    return JoinResult.concatenate(probeResults);
+  }
+
+  /**
+   * Probes the right index with chunks of the left rows on multiple threads.
+   *
+   * <p>Each chunk is collected into a separate result, and the results are added to {@code
+   * probeResults} in the order of the chunks, so that the pairs are in the same order as if the
+   * rows were probed sequentially.
+   *
+   * @return the key columns containing floating point values
+   */
+  private FloatingPointKeys probeInParallel(
+      KeyColumn[] leftKeys,
+      BuildSideIndex rightIndex,
+      boolean[] matchedRightGroups,
+      List<JoinResult> probeResults) {
+    int leftNumRows = hashJoinConfig.getLeftNumRows();
+    int chunkSize = ParallelTasks.getChunkSize(PARALLEL_CHUNK_SIZE);
+    int chunkCount = (leftNumRows + chunkSize - 1) / chunkSize;
+    JoinResult[] chunkResults = new JoinResult[chunkCount];
+    FloatingPointKeys[] chunkFloatingPointKeys = new FloatingPointKeys[chunkCount];
+    ParallelTasks.forEachRange(
+        0,
+        chunkCount,
+        1,
+        (from, to) -> {
+          for (int chunk = from; chunk < to; chunk++) {
+            int rowFrom = chunk * chunkSize;
+            int rowTo = Math.min(rowFrom + chunkSize, leftNumRows);
+            var chunkBuilder = new SimpleHashJoinResultBuilder(resultBuilder.flipLeftAndRight);
+            chunkFloatingPointKeys[chunk] =
+                probeRows(rowFrom, rowTo, leftKeys, rightIndex, matchedRightGroups, chunkBuilder);
+            chunkResults[chunk] = chunkBuilder.buildAndInvalidate();
+          }
+        });
+
+    probeResults.addAll(Arrays.asList(chunkResults));
+    FloatingPointKeys floatingPointKeys = chunkFloatingPointKeys[0];
+    for (int chunk = 1; chunk < chunkCount; chunk++) {
+      floatingPointKeys.merge(chunkFloatingPointKeys[chunk]);
+    }
+    return floatingPointKeys;
+  }
+
+  /**
+   * Matches the left rows from {@code from} (inclusive) to {@code to} (exclusive) against the right
+   * index, adding the resulting pairs to the builder and marking the matched right groups.
+   *
+   * <p>It may be called from worker threads if the key columns are thread-safe.
+   *
+   * @return the key columns containing floating point values
+   */
+  private FloatingPointKeys probeRows(
+      int from,
+      int to,
+      KeyColumn[] leftKeys,
+      BuildSideIndex rightIndex,
+      boolean[] matchedRightGroups,
+      SimpleHashJoinResultBuilder builder) {
+    FloatingPointKeys floatingPointKeys = new FloatingPointKeys(leftKeys);
+    Context context = ParallelTasks.getCurrentContextOrNull();
+    for (int leftRow = from; leftRow < to; leftRow++) {
+      floatingPointKeys.check(leftRow);
       // If any field of the key is null, it cannot match anything.
-      List<Integer> rightRows = leftKey.hasAnyNulls() ? null : rightIndex.get(leftKey);
-      if (rightRows != null) {
+      int rightGroup =
+          KeyColumn.hasAnyNulls(leftKeys, leftRow) ? -1 : rightIndex.findGroup(leftKeys, leftRow);
+      if (rightGroup != -1) {
         if (joinKind.wantsCommon) {
-          addAll(leftRow, rightRows, resultBuilder);
+          addAll(leftRow, rightIndex.getIndex().getGroupRows(rightGroup), builder, context);
         }
         if (joinKind.wantsRightUnmatched) {
-          matchedRightKeys.add(leftKey);
+          matchedRightGroups[rightGroup] = true;
         }
       } else if (joinKind.wantsLeftUnmatched) {
-        resultBuilder.addUnmatchedLeftRow(leftRow);
-        context.safepoint();
+        builder.addUnmatchedLeftRow(leftRow);
       }
-      context.safepoint();
-    }
 
-    if (joinKind.wantsRightUnmatched) {
-      addUnmatchedRightRows(rightIndex, matchedRightKeys);
+      if (context != null) {
+        context.safepoint();
+      }
     }
-
-    return resultBuilder.buildAndInvalidate();
+    return floatingPointKeys;
   }
 
-  private void addUnmatchedRightRows(
-      MultiValueIndex<UnorderedMultiValueKey> rightIndex,
-      Set<UnorderedMultiValueKey> matchedRightKeys) {
+  private void addUnmatchedRightRows(MultiValueIndex rightIndex, boolean[] matchedRightGroups) {
     Context context = Context.getCurrent();
-    for (var rightEntry : rightIndex.mapping().entrySet()) {
-      UnorderedMultiValueKey rightKey = rightEntry.getKey();
-      boolean wasCompletelyUnmatched = !matchedRightKeys.contains(rightKey);
+    for (int rightGroup = 0; rightGroup < rightIndex.size(); rightGroup++) {
+      boolean wasCompletelyUnmatched = !matchedRightGroups[rightGroup];
       if (wasCompletelyUnmatched) {
-        for (int rightRow : rightEntry.getValue()) {
+        for (int rightRow : rightIndex.getGroupRows(rightGroup)) {
           resultBuilder.addUnmatchedRightRow(rightRow);
           context.safepoint();
         }
@@ -108,26 +192,17 @@ public class SimpleHashJoin implements JoinStrategy {
     }
   }
 
-  public UnorderedMultiValueKey makeLeftKey(
-      Storage[] storage,
-      int rowNumber,
-      ColumnAggregatedProblemAggregator groupingProblemAggregator) {
-    var leftEquals = hashJoinConfig.getLeftEquals();
-    var leftKey =
-        new UnorderedMultiValueKey(storage, rowNumber, hashJoinConfig.getTextFoldingStrategies());
-    leftKey.checkAndReportFloatingEquality(
-        groupingProblemAggregator, columnIx -> leftEquals[columnIx].getName());
-    return leftKey;
-  }
-
   private static void addAll(
-      int leftRow, List<Integer> rightGroup, SimpleHashJoinResultBuilder resultBuilder) {
-    Context context = Context.getCurrent();
+      int leftRow,
+      List<Integer> rightGroup,
+      SimpleHashJoinResultBuilder resultBuilder,
+      Context context) {
     for (var rightRow : rightGroup) {
       resultBuilder.addMatchedRowsPair(leftRow, rightRow);
-      context.safepoint();
+      if (context != null) {
+        context.safepoint();
+      }
     }
-    context.safepoint();
   }
 
   private static JoinKind flipJoinKind(JoinKind joinKind) {
@@ -2,12 +2,11 @@ package org.enso.table.data.table.join.lookup;
 
 import java.util.Arrays;
 import java.util.List;
-import java.util.stream.IntStream;
 import org.enso.base.text.TextFoldingStrategy;
 import org.enso.table.data.column.builder.Builder;
 import org.enso.table.data.column.storage.Storage;
+import org.enso.table.data.index.KeyColumn;
 import org.enso.table.data.index.MultiValueIndex;
-import org.enso.table.data.index.UnorderedMultiValueKey;
 import org.enso.table.data.mask.OrderMask;
 import org.enso.table.data.table.Column;
 import org.enso.table.data.table.Table;
@@ -40,17 +39,14 @@ public class LookupJoin {
   private final List<LookupColumnDescription> columnDescriptions;
   private final List<String> keyColumnNames;
 
-  private final MultiValueIndex<UnorderedMultiValueKey> lookupIndex;
+  private final MultiValueIndex lookupIndex;
 
   private final Storage<?>[] baseKeyStorages;
+  private final KeyColumn[] baseKeys;
   private final List<TextFoldingStrategy> textFoldingStrategies;
   private final int baseTableRowCount;
   private final boolean allowUnmatchedRows;
 
-  private UnorderedMultiValueKey makeTableRowKey(int ix) {
-    return new UnorderedMultiValueKey(baseKeyStorages, ix, textFoldingStrategies);
-  }
-
   private LookupJoin(
       List<Equals> keys,
       List<LookupColumnDescription> columnDescriptions,
@@ -62,6 +58,7 @@ public class LookupJoin {
     this.allowUnmatchedRows = allowUnmatchedRows;
     this.problemAggregator = problemAggregator;
     textFoldingStrategies = ConstantList.make(TEXT_FOLDING, baseKeyStorages.length);
+    baseKeys = KeyColumn.of(baseKeyStorages, textFoldingStrategies);
 
     Column[] lookupKeyColumns = keys.stream().map(Equals::right).toArray(Column[]::new);
     keyColumnNames = Arrays.stream(lookupKeyColumns).map(Column::getName).toList();
@@ -75,9 +72,9 @@ public class LookupJoin {
   }
 
   private void checkNullsInKey() {
-    UnorderedMultiValueKey nullKey = lookupIndex.findAnyNullKey();
-    if (nullKey != null) {
-      throw new NullValuesInKeyColumns(nullKey.getValues());
+    int nullGroup = lookupIndex.findAnyNullGroup();
+    if (nullGroup != -1) {
+      throw new NullValuesInKeyColumns(lookupIndex.getGroupKey(nullGroup).getValues());
     }
   }
 
@@ -128,26 +125,28 @@ public class LookupJoin {
   }
 
   private int findLookupRow(int baseRowIx) {
-    UnorderedMultiValueKey key = makeTableRowKey(baseRowIx);
-    List<Integer> lookupRowIndices = lookupIndex.get(key);
-    if (lookupRowIndices == null) {
+    int lookupGroup = lookupIndex.findGroup(baseKeys, baseRowIx);
+    if (lookupGroup == -1) {
       if (allowUnmatchedRows) {
         return Storage.NOT_FOUND_INDEX;
       } else {
-        List<Object> exampleKeyValues =
-            IntStream.range(0, keyColumnNames.size()).mapToObj(key::get).toList();
-        throw new UnmatchedRow(exampleKeyValues);
+        throw new UnmatchedRow(getBaseKeyValues(baseRowIx));
       }
     }
 
-    if (lookupRowIndices.size() > 1) {
-      List<Object> exampleValues =
-          IntStream.range(0, keyColumnNames.size()).mapToObj(key::get).toList();
-      throw new NonUniqueLookupKey(keyColumnNames, exampleValues, lookupRowIndices.size());
+    int groupSize = lookupIndex.getGroupSize(lookupGroup);
+    if (groupSize > 1) {
+      throw new NonUniqueLookupKey(keyColumnNames, getBaseKeyValues(baseRowIx), groupSize);
     }
 
-    assert !lookupRowIndices.isEmpty() : "No Index group should be empty.";
-    return lookupRowIndices.get(0);
+    assert groupSize > 0 : "No Index group should be empty.";
+    return lookupIndex.getFirstRow(lookupGroup);
+  }
+
+  private List<Object> getBaseKeyValues(int baseRowIx) {
+    return Arrays.stream(baseKeyStorages)
+        .<Object>map(storage -> storage.getItemBoxed(baseRowIx))
+        .toList();
   }
 
   private LookupOutputColumn prepareOutputColumn(LookupColumnDescription description) {
@@ -0,0 +1,8 @@
+package org.enso.table.error;
+
+/** An error thrown when the contents of a file do not match its expected format. */
+public class CorruptedFileException extends RuntimeException {
+  public CorruptedFileException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,11 @@
+package org.enso.table.error;
+
+/**
+ * An error thrown when a memory-mapped file turns out not to be valid UTF-8 while it is read. The
+ * file should then be read as a stream, so that the decoding problems are reported.
+ */
+public class MalformedMappedInputException extends RuntimeException {
+  public MalformedMappedInputException(Throwable cause) {
+    super("The file is not valid UTF-8.", cause);
+  }
+}
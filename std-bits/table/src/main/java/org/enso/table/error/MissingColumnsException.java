@@ -0,0 +1,22 @@
+package org.enso.table.error;
+
+import java.util.Arrays;
+
+/** An exception thrown when some columns selected by name or index do not exist. */
+public class MissingColumnsException extends RuntimeException {
+  private final Object[] criteria;
+
+  /**
+   * Creates a new instance of this error.
+   *
+   * @param criteria the names or indices that did not match any columns
+   */
+  public MissingColumnsException(Object[] criteria) {
+    super("The criteria " + Arrays.toString(criteria) + " did not match any columns.");
+    this.criteria = criteria;
+  }
+
+  public Object[] getCriteria() {
+    return criteria;
+  }
+}
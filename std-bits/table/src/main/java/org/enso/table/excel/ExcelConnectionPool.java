@@ -8,17 +8,18 @@ import java.io.OutputStream;
 import java.nio.file.AccessMode;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.function.Function;
 import org.apache.poi.UnsupportedFileFormatException;
 import org.apache.poi.hssf.usermodel.HSSFWorkbook;
 import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
-import org.apache.poi.openxml4j.exceptions.OpenXML4JRuntimeException;
 import org.apache.poi.openxml4j.opc.OPCPackage;
 import org.apache.poi.openxml4j.opc.PackageAccess;
 import org.apache.poi.poifs.filesystem.POIFSFileSystem;
 import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
 public class ExcelConnectionPool {
@@ -78,9 +79,26 @@ public class ExcelConnectionPool {
       this.format = format;
     }
 
+    /**
+     * Opens the workbook stored in the file (or creates an empty one if the file does not exist),
+     * applies the action to it and saves the result back to the file.
+     *
+     * <p>XLSX workbooks are given to the action as a {@link SXSSFWorkbook}, so that the rows of
+     * newly created sheets are flushed to disk as they are written instead of being kept in memory.
+     * The sheets already present in the file are only accessible through the underlying {@link
+     * XSSFWorkbook}.
+     *
+     * <p>An existing XLSX file is loaded in full as the template of the streaming workbook, so
+     * writing to it takes memory proportional to all the rows of the file, including the rows of
+     * sheets that are replaced or left untouched. Only the newly written rows are streamed.
+     */
     public <R> R writeWorkbook(File file, Function<Workbook, R> writeAction) throws IOException {
       boolean preExistingFile = file.exists() && Files.size(file.toPath()) > 0;
 
+      if (format == ExcelFileFormat.XLSX) {
+        return writeStreamingWorkbook(file, preExistingFile, writeAction);
+      }
+
       try (Workbook workbook =
           preExistingFile
               ? ExcelConnectionPool.openWorkbook(file, format, true)
@@ -93,25 +111,71 @@ public class ExcelConnectionPool {
             case HSSFWorkbook wb -> {
               wb.write();
             }
-            case XSSFWorkbook wb -> {
-              try {
-                wb.write(null);
-              } catch (OpenXML4JRuntimeException e) {
-                // Ignore: Workaround for bug https://bz.apache.org/bugzilla/show_bug.cgi?id=59252
-              }
-            }
             default -> throw new IllegalStateException(
                 "Unknown workbook type: " + workbook.getClass());
           }
         } else {
-          try (OutputStream fileOut = Files.newOutputStream(file.toPath())) {
-            try (BufferedOutputStream workbookOut = new BufferedOutputStream(fileOut)) {
-              workbook.write(workbookOut);
+          writeToFile(workbook, file);
+        }
+
+        return result;
+      }
+    }
+
+    private static <R> R writeStreamingWorkbook(
+        File file, boolean preExistingFile, Function<Workbook, R> writeAction) throws IOException {
+      XSSFWorkbook template =
+          preExistingFile
+              ? (XSSFWorkbook) ExcelConnectionPool.openWorkbook(file, ExcelFileFormat.XLSX, true)
+              : null;
+      SXSSFWorkbook workbook =
+          template == null
+              ? new SXSSFWorkbook(SXSSFWorkbook.DEFAULT_WINDOW_SIZE)
+              : new SXSSFWorkbook(template, SXSSFWorkbook.DEFAULT_WINDOW_SIZE);
+      workbook.setCompressTempFiles(true);
+
+      try {
+        R result = writeAction.apply(workbook);
+
+        if (template == null) {
+          writeToFile(workbook, file);
+        } else {
+          // A streaming workbook cannot be saved in place, so the result is written next to the
+          // original file, which is replaced once the package is released.
+          Path output =
+              Files.createTempFile(
+                  file.getAbsoluteFile().getParentFile().toPath(), file.getName(), ".tmp");
+          try {
+            try (OutputStream fileOut = Files.newOutputStream(output)) {
+              try (BufferedOutputStream workbookOut = new BufferedOutputStream(fileOut)) {
+                workbook.write(workbookOut);
+              }
             }
+            template.getPackage().revert();
+            Files.move(output, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+          } finally {
+            Files.deleteIfExists(output);
           }
         }
 
         return result;
+      } finally {
+        workbook.dispose();
+        if (template != null) {
+          // The package was opened for writing, so closing it would save it in place. Reverting it
+          // again after it was already released is harmless.
+          template.getPackage().revert();
+        } else {
+          workbook.close();
+        }
+      }
+    }
+
+    private static void writeToFile(Workbook workbook, File file) throws IOException {
+      try (OutputStream fileOut = Files.newOutputStream(file.toPath())) {
+        try (BufferedOutputStream workbookOut = new BufferedOutputStream(fileOut)) {
+          workbook.write(workbookOut);
+        }
       }
     }
   }
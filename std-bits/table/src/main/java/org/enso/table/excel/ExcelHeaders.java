@@ -1,6 +1,5 @@
 package org.enso.table.excel;
 
-import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.DataFormatter;
 import org.apache.poi.ss.util.CellReference;
 import org.enso.table.problems.ProblemAggregator;
@@ -60,9 +59,7 @@ public class ExcelHeaders {
 
     String[] output = new String[currentEndCol - startCol + 1];
     for (int col = startCol; col <= currentEndCol; col++) {
-      Cell cell = row.get(col);
-
-      String cellText = cell == null ? "" : formatter.formatCellValue(cell);
+      String cellText = row.getFormattedCell(col, formatter);
       String name = cellText.isEmpty() ? "" : deduplicator.makeUnique(cellText);
 
       output[col - startCol] = name;
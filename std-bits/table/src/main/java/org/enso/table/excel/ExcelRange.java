@@ -2,6 +2,7 @@ package org.enso.table.excel;
 
 import java.util.Optional;
 import java.util.function.Function;
+import java.util.function.IntFunction;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.apache.poi.ss.usermodel.Workbook;
@@ -182,7 +183,19 @@ public class ExcelRange {
    * @return Expanded range covering the connected table of cells.
    */
   public static ExcelRange expandSingleCell(ExcelRange excelRange, ExcelSheet sheet) {
-    ExcelRow currentRow = sheet.get(excelRange.getTopRow());
+    return expandSingleCell(excelRange, sheet::get);
+  }
+
+  /**
+   * Given a single cell and a function returning the rows of the containing sheet, expand the range
+   * to cover the connected table of cells. The rows are requested in increasing order.
+   *
+   * @param excelRange Range referring to top left cell.
+   * @param getRow Function returning the row with the given 1-based index, or null if it is empty.
+   * @return Expanded range covering the connected table of cells.
+   */
+  public static ExcelRange expandSingleCell(ExcelRange excelRange, IntFunction<ExcelRow> getRow) {
+    ExcelRow currentRow = getRow.apply(excelRange.getTopRow());
     if (currentRow == null || currentRow.isEmpty(excelRange.getLeftColumn())) {
       return new ExcelRange(
           excelRange.getSheetName(),
@@ -199,7 +212,7 @@ public class ExcelRange {
     while (currentRow != null && !currentRow.isEmpty(excelRange.getLeftColumn(), rightColumn)) {
       rightColumn = currentRow.findEndRight(rightColumn);
       bottomRow++;
-      currentRow = sheet.get(bottomRow);
+      currentRow = getRow.apply(bottomRow);
 
       context.safepoint();
     }
@@ -2,91 +2,35 @@ package org.enso.table.excel;
 
 import java.time.LocalDateTime;
 import java.time.ZoneId;
-import org.apache.poi.ss.usermodel.Cell;
-import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DataFormatter;
 import org.apache.poi.ss.usermodel.DateUtil;
-import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.ExcelNumberFormat;
 import org.graalvm.polyglot.Context;
 
-/** Wrapper class to handle Excel rows. */
-public class ExcelRow {
-  private final Row row;
-  private final int firstColumn;
-  private final int lastColumn;
+/** A row of an Excel sheet. Columns are 1-based. */
+public interface ExcelRow {
+  int getFirstColumn();
 
-  public ExcelRow(Row row) {
-    this.row = row;
-    this.firstColumn = row.getFirstCellNum() + 1;
-    this.lastColumn = row.getLastCellNum();
-  }
-
-  public int getFirstColumn() {
-    return firstColumn;
-  }
-
-  public int getLastColumn() {
-    return lastColumn;
-  }
-
-  public Cell get(int column) {
-    return (column < firstColumn || column > lastColumn) ? null : row.getCell(column - 1);
-  }
-
-  public Object getCellValue(int column) {
-    Cell cell = get(column);
-    CellType cellType = getCellType(cell);
-    switch (cellType) {
-      case NUMERIC:
-        double dblValue = cell.getNumericCellValue();
-        if (DateUtil.isCellDateFormatted(cell) && DateUtil.isValidExcelDate(dblValue)) {
-          var dateTime = DateUtil.getLocalDateTime(dblValue);
-          if (dateTime.isBefore(LocalDateTime.of(1900, 1, 2, 0, 0))) {
-            // Excel stores times as if they are on the 1st January 1900.
-            // Due to the 1900 leap year bug might be 31st December 1899.
-            return dateTime.toLocalTime();
-          }
-          if (dateTime.getHour() == 0 && dateTime.getMinute() == 0 && dateTime.getSecond() == 0) {
-            var dateFormat = cell.getCellStyle().getDataFormatString();
-            if (!dateFormat.contains("h") && !dateFormat.contains("H")) {
-              return dateTime.toLocalDate();
-            }
-          }
-          return dateTime.atZone(ZoneId.systemDefault());
-        } else {
-          if (dblValue == (long) dblValue) {
-            return (long) dblValue;
-          } else {
-            return dblValue;
-          }
-        }
-      case STRING:
-        return cell.getStringCellValue();
-      case BOOLEAN:
-        return cell.getBooleanCellValue();
-      default:
-        return null;
-    }
-  }
+  int getLastColumn();
 
-  public static CellType getCellType(Cell cell) {
-    if (cell == null) {
-      return CellType._NONE;
-    }
+  /**
+   * Returns the value of the cell as a value of the corresponding Enso type, or {@code null} if the
+   * cell is empty or contains an error.
+   */
+  Object getCellValue(int column);
 
-    CellType cellType = cell.getCellType();
-    if (cellType == CellType.FORMULA) {
-      cellType = cell.getCachedFormulaResultType();
-    }
+  /** Returns the value of the cell formatted as it is displayed in Excel. */
+  String getFormattedCell(int column, DataFormatter formatter);
 
-    return cellType;
-  }
+  boolean isEmpty(int column);
 
-  public boolean isEmpty(int column) {
-    CellType cellType = getCellType(get(column));
-    return (cellType == CellType._NONE) || (cellType == CellType.BLANK);
-  }
+  /**
+   * Returns the texts of the cells in the given range, treating empty cells as empty texts, or
+   * {@code null} if any of the cells contains a value that is not a text.
+   */
+  String[] getCellsAsText(int startCol, int endCol);
 
-  public boolean isEmpty(int start, int end) {
+  default boolean isEmpty(int start, int end) {
     Context context = Context.getCurrent();
     int currentEnd = end == -1 ? getLastColumn() : end;
     for (int column = Math.max(getFirstColumn(), start);
@@ -101,7 +45,7 @@ public class ExcelRow {
     return true;
   }
 
-  public int findEndRight(int start) {
+  default int findEndRight(int start) {
     Context context = Context.getCurrent();
     int column = start;
     while (!isEmpty(column + 1)) {
@@ -111,22 +55,31 @@ public class ExcelRow {
     return column;
   }
 
-  public String[] getCellsAsText(int startCol, int endCol) {
-    Context context = Context.getCurrent();
-    int currentEndCol = endCol == -1 ? getLastColumn() : endCol;
-
-    String[] output = new String[currentEndCol - startCol + 1];
-    for (int col = startCol; col <= currentEndCol; col++) {
-      Cell cell = get(col);
-      CellType type = ExcelRow.getCellType(cell);
-      if (type != CellType._NONE && type != CellType.BLANK && type != CellType.STRING) {
-        return null;
+  /**
+   * Converts the value of a numeric cell, which is a date, a time of day or a date-time if the cell
+   * has a date format.
+   */
+  static Object convertNumericValue(double value, ExcelNumberFormat format) {
+    if (format != null && DateUtil.isADateFormat(format) && DateUtil.isValidExcelDate(value)) {
+      var dateTime = DateUtil.getLocalDateTime(value);
+      if (dateTime.isBefore(LocalDateTime.of(1900, 1, 2, 0, 0))) {
+        // Excel stores times as if they are on the 1st January 1900.
+        // Due to the 1900 leap year bug might be 31st December 1899.
+        return dateTime.toLocalTime();
+      }
+      if (dateTime.getHour() == 0 && dateTime.getMinute() == 0 && dateTime.getSecond() == 0) {
+        var dateFormat = format.getFormat();
+        if (!dateFormat.contains("h") && !dateFormat.contains("H")) {
+          return dateTime.toLocalDate();
+        }
+      }
+      return dateTime.atZone(ZoneId.systemDefault());
+    } else {
+      if (value == (long) value) {
+        return (long) value;
+      } else {
+        return value;
       }
-      output[col - startCol] =
-          type == CellType.STRING && cell != null ? cell.getStringCellValue() : "";
-      context.safepoint();
     }
-
-    return output;
   }
 }
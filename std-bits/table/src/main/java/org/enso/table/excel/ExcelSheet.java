@@ -24,9 +24,9 @@ public class ExcelSheet {
     return firstRow;
   }
 
-  public ExcelRow get(int row) {
+  public ExcelWorkbookRow get(int row) {
     Row underlyingRow = row < firstRow || row > lastRow ? null : sheet.getRow(row - 1);
-    return underlyingRow == null ? null : new ExcelRow(underlyingRow);
+    return underlyingRow == null ? null : new ExcelWorkbookRow(underlyingRow);
   }
 
   public Sheet getSheet() {
@@ -0,0 +1,144 @@
+package org.enso.table.excel;
+
+import java.util.Arrays;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.ExcelNumberFormat;
+import org.graalvm.polyglot.Context;
+
+/**
+ * A row parsed from the XML of a sheet by {@link ExcelStreamingSheet}, holding only the cells
+ * present in the file.
+ *
+ * <p>The cells are interpreted the same way as the cells of a loaded workbook by {@link
+ * ExcelWorkbookRow}, with formulas represented by their cached results. As in a loaded workbook
+ * without a formula evaluator, the formatted text of a formula cell is the text of its formula.
+ */
+public class ExcelStreamingRow implements ExcelRow {
+  /** The kinds of cell values, corresponding to the cell types of a loaded workbook. */
+  enum CellKind {
+    BLANK,
+    NUMERIC,
+    STRING,
+    BOOLEAN,
+    ERROR
+  }
+
+  private final int rowNumber;
+  private final int[] columns;
+  private final CellKind[] kinds;
+  private final String[] values;
+  private final String[] formulas;
+  private final ExcelNumberFormat[] formats;
+
+  /**
+   * Creates a row from its cells, given by their 1-based columns in increasing order.
+   *
+   * @param values the text of each cell: the string, the number, "1" for true or the error
+   * @param formulas the text of the formula of each cell, or {@code null} for cells without one
+   * @param formats the number format of each cell, used for numeric cells
+   */
+  ExcelStreamingRow(
+      int rowNumber,
+      int[] columns,
+      CellKind[] kinds,
+      String[] values,
+      String[] formulas,
+      ExcelNumberFormat[] formats) {
+    this.rowNumber = rowNumber;
+    this.columns = columns;
+    this.kinds = kinds;
+    this.values = values;
+    this.formulas = formulas;
+    this.formats = formats;
+  }
+
+  /** Returns the 1-based index of the row. */
+  public int getRowNumber() {
+    return rowNumber;
+  }
+
+  @Override
+  public int getFirstColumn() {
+    return columns.length == 0 ? 0 : columns[0];
+  }
+
+  @Override
+  public int getLastColumn() {
+    return columns.length == 0 ? -1 : columns[columns.length - 1];
+  }
+
+  private int indexOf(int column) {
+    return Arrays.binarySearch(columns, column);
+  }
+
+  private CellKind kindAt(int index) {
+    return index < 0 ? null : kinds[index];
+  }
+
+  @Override
+  public Object getCellValue(int column) {
+    int index = indexOf(column);
+    CellKind kind = kindAt(index);
+    if (kind == null) {
+      return null;
+    }
+
+    return switch (kind) {
+      case NUMERIC -> ExcelRow.convertNumericValue(
+          Double.parseDouble(values[index]), formats[index]);
+      case STRING -> values[index];
+      case BOOLEAN -> "1".equals(values[index]);
+      case BLANK, ERROR -> null;
+    };
+  }
+
+  @Override
+  public String getFormattedCell(int column, DataFormatter formatter) {
+    int index = indexOf(column);
+    CellKind kind = kindAt(index);
+    if (kind == null) {
+      return "";
+    }
+    if (formulas[index] != null) {
+      return formulas[index];
+    }
+
+    return switch (kind) {
+      case NUMERIC -> {
+        ExcelNumberFormat format = formats[index];
+        double value = Double.parseDouble(values[index]);
+        yield format == null
+            ? formatter.formatRawCellContents(value, 0, "General")
+            : formatter.formatRawCellContents(value, format.getIdx(), format.getFormat());
+      }
+      case BOOLEAN -> "1".equals(values[index]) ? "TRUE" : "FALSE";
+      case STRING, ERROR -> values[index];
+      case BLANK -> "";
+    };
+  }
+
+  @Override
+  public boolean isEmpty(int column) {
+    CellKind kind = kindAt(indexOf(column));
+    return kind == null || kind == CellKind.BLANK;
+  }
+
+  @Override
+  public String[] getCellsAsText(int startCol, int endCol) {
+    Context context = Context.getCurrent();
+    int currentEndCol = endCol == -1 ? getLastColumn() : endCol;
+
+    String[] output = new String[currentEndCol - startCol + 1];
+    for (int col = startCol; col <= currentEndCol; col++) {
+      int index = indexOf(col);
+      CellKind kind = kindAt(index);
+      if (kind != null && kind != CellKind.BLANK && kind != CellKind.STRING) {
+        return null;
+      }
+      output[col - startCol] = kind == CellKind.STRING ? values[index] : "";
+      context.safepoint();
+    }
+
+    return output;
+  }
+}
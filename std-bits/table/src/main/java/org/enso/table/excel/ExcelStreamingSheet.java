@@ -0,0 +1,302 @@
+package org.enso.table.excel;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import org.apache.poi.ooxml.POIXMLException;
+import org.apache.poi.ss.usermodel.ExcelNumberFormat;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFRichTextString;
+import org.enso.table.excel.ExcelStreamingRow.CellKind;
+import org.graalvm.polyglot.Context;
+
+/**
+ * A forward-only cursor over the rows of a sheet of an XLSX file, parsing the XML of the sheet
+ * incrementally, so that only a couple of rows are held in memory at any time.
+ *
+ * <p>Rows must be requested in increasing order. The two most recently parsed rows and the first
+ * row of the sheet are retained, so that a row may be requested again after looking at the row
+ * following it, as is needed to detect headers.
+ */
+public class ExcelStreamingSheet implements AutoCloseable {
+  private final InputStream input;
+  private final XMLStreamReader reader;
+  private final SharedStrings sharedStrings;
+  private final StylesTable styles;
+  private final Map<Integer, ExcelNumberFormat> formats = new HashMap<>();
+
+  private boolean isExhausted = false;
+  private ExcelStreamingRow firstRow = null;
+  private ExcelStreamingRow previousRow = null;
+  private ExcelStreamingRow lastRow = null;
+
+  /** The number of the latest row that was parsed and is no longer retained. */
+  private int discardedRowNumber = 0;
+
+  ExcelStreamingSheet(InputStream input, SharedStrings sharedStrings, StylesTable styles)
+      throws IOException {
+    this.input = input;
+    this.sharedStrings = sharedStrings;
+    this.styles = styles;
+    try {
+      this.reader = XMLHelper.newXMLInputFactory().createXMLStreamReader(input);
+    } catch (XMLStreamException e) {
+      input.close();
+      throw new POIXMLException("Unable to read the sheet.", e);
+    }
+  }
+
+  /**
+   * Returns the row with the given 1-based index, or {@code null} if it does not exist.
+   *
+   * @throws IllegalStateException if the row precedes the rows that are still retained
+   */
+  public ExcelStreamingRow get(int row) {
+    while (!isExhausted && (lastRow == null || lastRow.getRowNumber() < row)) {
+      parseNextRow();
+    }
+
+    for (ExcelStreamingRow retained : new ExcelStreamingRow[] {lastRow, previousRow, firstRow}) {
+      if (retained != null && retained.getRowNumber() == row) {
+        return retained;
+      }
+    }
+
+    if (row <= discardedRowNumber) {
+      throw new IllegalStateException(
+          "Row " + row + " of a streamed sheet was requested after it was discarded.");
+    }
+    return null;
+  }
+
+  /** Checks if the sheet contains any rows following the row with the given 1-based index. */
+  public boolean hasRowsAfter(int row) {
+    while (!isExhausted && (lastRow == null || lastRow.getRowNumber() <= row)) {
+      parseNextRow();
+    }
+    return lastRow != null && lastRow.getRowNumber() > row;
+  }
+
+  /** Returns the first row present in the sheet, or {@code null} if the sheet has no rows. */
+  public ExcelStreamingRow getFirstRow() {
+    while (!isExhausted && firstRow == null) {
+      parseNextRow();
+    }
+    return firstRow;
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      reader.close();
+    } catch (XMLStreamException e) {
+      // Closing the reader only releases its resources, so the error can be ignored.
+    }
+    input.close();
+  }
+
+  private void parseNextRow() {
+    try {
+      while (reader.hasNext()) {
+        int event = reader.next();
+        if (event == XMLStreamConstants.START_ELEMENT && reader.getLocalName().equals("row")) {
+          ExcelStreamingRow row = parseRow();
+          if (firstRow == null) {
+            firstRow = row;
+          }
+          if (previousRow != null) {
+            discardedRowNumber = previousRow.getRowNumber();
+          }
+          previousRow = lastRow;
+          lastRow = row;
+          Context.getCurrent().safepoint();
+          return;
+        } else if (event == XMLStreamConstants.END_ELEMENT
+            && reader.getLocalName().equals("sheetData")) {
+          // The remainder of the sheet does not contain any cells.
+          break;
+        }
+      }
+      isExhausted = true;
+    } catch (XMLStreamException e) {
+      throw new POIXMLException("Unable to read the sheet.", e);
+    }
+  }
+
+  private ExcelStreamingRow parseRow() throws XMLStreamException {
+    String rowReference = reader.getAttributeValue(null, "r");
+    int rowNumber =
+        rowReference == null
+            ? (lastRow == null ? 1 : lastRow.getRowNumber() + 1)
+            : Integer.parseInt(rowReference);
+
+    List<Integer> columns = new ArrayList<>();
+    List<CellKind> kinds = new ArrayList<>();
+    List<String> values = new ArrayList<>();
+    List<String> formulas = new ArrayList<>();
+    List<ExcelNumberFormat> cellFormats = new ArrayList<>();
+    while (reader.hasNext()) {
+      int event = reader.next();
+      if (event == XMLStreamConstants.START_ELEMENT && reader.getLocalName().equals("c")) {
+        String cellReference = reader.getAttributeValue(null, "r");
+        int column =
+            cellReference == null
+                ? (columns.isEmpty() ? 1 : columns.get(columns.size() - 1) + 1)
+                : parseColumn(cellReference);
+        String style = reader.getAttributeValue(null, "s");
+        String type = reader.getAttributeValue(null, "t");
+        ExcelNumberFormat format = getFormat(style == null ? 0 : Integer.parseInt(style));
+
+        // Cells are normally ordered, but the order is restored if they are not.
+        int index = columns.size();
+        while (index > 0 && columns.get(index - 1) > column) {
+          index--;
+        }
+        columns.add(index, column);
+        parseCell(type, index, kinds, values, formulas);
+        cellFormats.add(index, format);
+      } else if (event == XMLStreamConstants.END_ELEMENT && reader.getLocalName().equals("row")) {
+        break;
+      }
+    }
+
+    return new ExcelStreamingRow(
+        rowNumber,
+        columns.stream().mapToInt(Integer::intValue).toArray(),
+        kinds.toArray(new CellKind[0]),
+        values.toArray(new String[0]),
+        formulas.toArray(new String[0]),
+        cellFormats.toArray(new ExcelNumberFormat[0]));
+  }
+
+  /**
+   * Parses the contents of a cell element, determining its kind as a loaded workbook would.
+   *
+   * <p>The text of the formula of the cell is kept, or {@code null} if it has none. The cells of a
+   * shared formula other than the first one only refer to it and are left without their own text,
+   * as translating it to their position would require parsing the formula.
+   */
+  private void parseCell(
+      String type, int index, List<CellKind> kinds, List<String> values, List<String> formulas)
+      throws XMLStreamException {
+    boolean isFormula = false;
+    String formula = null;
+    String value = null;
+    String inlineString = null;
+    while (reader.hasNext()) {
+      int event = reader.next();
+      if (event == XMLStreamConstants.START_ELEMENT) {
+        switch (reader.getLocalName()) {
+          case "f" -> {
+            isFormula = true;
+            String text = reader.getElementText();
+            formula = text.isEmpty() ? null : text;
+          }
+          case "v" -> value = reader.getElementText();
+          case "is" -> inlineString = parseInlineString();
+          default -> skipElement();
+        }
+      } else if (event == XMLStreamConstants.END_ELEMENT) {
+        break;
+      }
+    }
+
+    CellKind kind;
+    String text;
+    switch (type == null ? "n" : type) {
+      case "s" -> {
+        kind = CellKind.STRING;
+        text =
+            value == null
+                ? ""
+                : sharedStrings.getItemAt(Integer.parseInt(value.trim())).getString();
+      }
+      case "inlineStr", "str" -> {
+        kind = CellKind.STRING;
+        String raw = inlineString != null ? inlineString : value == null ? "" : value;
+        text = new XSSFRichTextString(raw).getString();
+      }
+      case "b" -> {
+        kind = CellKind.BOOLEAN;
+        text = value;
+      }
+      case "e" -> {
+        kind = CellKind.ERROR;
+        text = value == null ? "" : value;
+      }
+      case "n" -> {
+        // A formula without a cached value evaluates to 0.
+        kind = value != null || isFormula ? CellKind.NUMERIC : CellKind.BLANK;
+        text = value == null || value.isEmpty() ? "0" : value.trim();
+      }
+      default -> {
+        kind = CellKind.STRING;
+        text = value == null ? "" : value;
+      }
+    }
+    kinds.add(index, kind);
+    values.add(index, text);
+    formulas.add(index, formula);
+  }
+
+  /** Concatenates the text runs of an inline string, skipping its phonetic runs. */
+  private String parseInlineString() throws XMLStreamException {
+    StringBuilder text = new StringBuilder();
+    while (reader.hasNext()) {
+      int event = reader.next();
+      if (event == XMLStreamConstants.START_ELEMENT) {
+        switch (reader.getLocalName()) {
+          case "t" -> text.append(reader.getElementText());
+          case "rPh" -> skipElement();
+          default -> {}
+        }
+      } else if (event == XMLStreamConstants.END_ELEMENT && reader.getLocalName().equals("is")) {
+        break;
+      }
+    }
+    return text.toString();
+  }
+
+  /** Skips the element that the reader is positioned at, including its contents. */
+  private void skipElement() throws XMLStreamException {
+    int depth = 1;
+    while (depth > 0 && reader.hasNext()) {
+      int event = reader.next();
+      if (event == XMLStreamConstants.START_ELEMENT) {
+        depth++;
+      } else if (event == XMLStreamConstants.END_ELEMENT) {
+        depth--;
+      }
+    }
+  }
+
+  /** Returns the number format of the cell style with the given index. */
+  private ExcelNumberFormat getFormat(int styleIndex) {
+    if (styles == null || styles.getNumCellStyles() == 0) {
+      return null;
+    }
+    return formats.computeIfAbsent(
+        styleIndex, index -> ExcelNumberFormat.from(styles.getStyleAt(index)));
+  }
+
+  /** Parses the 1-based column of a cell reference such as {@code AB12}. */
+  private static int parseColumn(String cellReference) {
+    int column = 0;
+    for (int i = 0; i < cellReference.length(); i++) {
+      char c = cellReference.charAt(i);
+      if (c < 'A' || c > 'Z') {
+        break;
+      }
+      column = 26 * column + (c - 'A' + 1);
+    }
+    return column;
+  }
+}
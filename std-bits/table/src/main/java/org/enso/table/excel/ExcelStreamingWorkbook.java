@@ -0,0 +1,146 @@
+package org.enso.table.excel;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import org.apache.poi.ooxml.POIXMLException;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.xml.sax.SAXException;
+
+/**
+ * An XLSX file opened for streaming its sheets row by row, without loading them into a workbook.
+ *
+ * <p>Only the shared strings, the styles and the list of sheets and defined names are loaded up
+ * front. Sheets and names are looked up case-insensitively, as in a loaded workbook.
+ */
+public class ExcelStreamingWorkbook implements AutoCloseable {
+  private final OPCPackage pkg;
+  private final ReadOnlySharedStringsTable sharedStrings;
+  private final StylesTable styles;
+  private final List<String> sheetNames = new ArrayList<>();
+  private final List<PackagePart> sheetParts = new ArrayList<>();
+  private final Map<String, String> definedNames = new HashMap<>();
+
+  private ExcelStreamingWorkbook(OPCPackage pkg) throws IOException, OpenXML4JException {
+    this.pkg = pkg;
+    XSSFReader reader = new XSSFReader(pkg);
+    try {
+      this.sharedStrings = new ReadOnlySharedStringsTable(pkg, false);
+    } catch (SAXException e) {
+      throw new POIXMLException("Unable to read the shared strings of the workbook.", e);
+    }
+    this.styles = reader.getStylesTable();
+
+    XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+    while (sheets.hasNext()) {
+      sheets.next().close();
+      sheetNames.add(sheets.getSheetName());
+      sheetParts.add(sheets.getSheetPart());
+    }
+
+    try (InputStream workbookData = reader.getWorkbookData()) {
+      readDefinedNames(workbookData);
+    }
+  }
+
+  /**
+   * Opens the given XLSX file for reading.
+   *
+   * @throws IOException if the file cannot be read or is not a valid XLSX file
+   */
+  public static ExcelStreamingWorkbook open(File file) throws IOException {
+    if (!file.exists()) {
+      throw new FileNotFoundException(file.toString());
+    }
+
+    OPCPackage pkg;
+    try {
+      pkg = OPCPackage.open(file, PackageAccess.READ);
+    } catch (InvalidFormatException e) {
+      throw new IOException(
+          "Invalid format encountered when opening the file " + file + " as XLSX.", e);
+    }
+
+    try {
+      return new ExcelStreamingWorkbook(pkg);
+    } catch (OpenXML4JException e) {
+      pkg.revert();
+      throw new IOException(
+          "Invalid format encountered when opening the file " + file + " as XLSX.", e);
+    } catch (IOException | RuntimeException e) {
+      pkg.revert();
+      throw e;
+    }
+  }
+
+  public int getSheetCount() {
+    return sheetNames.size();
+  }
+
+  /** Returns the 0-based index of the sheet with the given name, or -1 if there is none. */
+  public int getSheetIndex(String name) {
+    for (int i = 0; i < sheetNames.size(); i++) {
+      if (sheetNames.get(i).equalsIgnoreCase(name)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /** Returns the formula that the defined name refers to, or null if there is no such name. */
+  public String getNameFormula(String name) {
+    return definedNames.get(name.toLowerCase(Locale.ENGLISH));
+  }
+
+  /** Opens the sheet with the given 0-based index for reading its rows. */
+  public ExcelStreamingSheet openSheet(int index) throws IOException {
+    return new ExcelStreamingSheet(sheetParts.get(index).getInputStream(), sharedStrings, styles);
+  }
+
+  @Override
+  public void close() {
+    // The package is opened read-only, so there is nothing to save.
+    pkg.revert();
+  }
+
+  private void readDefinedNames(InputStream workbookData) {
+    try {
+      XMLStreamReader reader = XMLHelper.newXMLInputFactory().createXMLStreamReader(workbookData);
+      try {
+        while (reader.hasNext()) {
+          int event = reader.next();
+          if (event == XMLStreamConstants.START_ELEMENT
+              && reader.getLocalName().equals("definedName")) {
+            String name = reader.getAttributeValue(null, "name");
+            String formula = reader.getElementText();
+            if (name != null && !formula.isEmpty()) {
+              // As in a loaded workbook, the first of the names differing only in case is used.
+              definedNames.putIfAbsent(name.toLowerCase(Locale.ENGLISH), formula);
+            }
+          }
+        }
+      } finally {
+        reader.close();
+      }
+    } catch (XMLStreamException e) {
+      throw new POIXMLException("Unable to read the workbook.", e);
+    }
+  }
+}
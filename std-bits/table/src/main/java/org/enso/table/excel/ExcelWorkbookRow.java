@@ -0,0 +1,97 @@
+package org.enso.table.excel;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.ExcelNumberFormat;
+import org.apache.poi.ss.usermodel.Row;
+import org.graalvm.polyglot.Context;
+
+/** Wrapper class to handle rows of a sheet of a loaded workbook. */
+public class ExcelWorkbookRow implements ExcelRow {
+  private final Row row;
+  private final int firstColumn;
+  private final int lastColumn;
+
+  public ExcelWorkbookRow(Row row) {
+    this.row = row;
+    this.firstColumn = row.getFirstCellNum() + 1;
+    this.lastColumn = row.getLastCellNum();
+  }
+
+  @Override
+  public int getFirstColumn() {
+    return firstColumn;
+  }
+
+  @Override
+  public int getLastColumn() {
+    return lastColumn;
+  }
+
+  public Cell get(int column) {
+    return (column < firstColumn || column > lastColumn) ? null : row.getCell(column - 1);
+  }
+
+  @Override
+  public Object getCellValue(int column) {
+    Cell cell = get(column);
+    CellType cellType = getCellType(cell);
+    switch (cellType) {
+      case NUMERIC:
+        return ExcelRow.convertNumericValue(
+            cell.getNumericCellValue(), ExcelNumberFormat.from(cell.getCellStyle()));
+      case STRING:
+        return cell.getStringCellValue();
+      case BOOLEAN:
+        return cell.getBooleanCellValue();
+      default:
+        return null;
+    }
+  }
+
+  @Override
+  public String getFormattedCell(int column, DataFormatter formatter) {
+    Cell cell = get(column);
+    return cell == null ? "" : formatter.formatCellValue(cell);
+  }
+
+  public static CellType getCellType(Cell cell) {
+    if (cell == null) {
+      return CellType._NONE;
+    }
+
+    CellType cellType = cell.getCellType();
+    if (cellType == CellType.FORMULA) {
+      cellType = cell.getCachedFormulaResultType();
+    }
+
+    return cellType;
+  }
+
+  @Override
+  public boolean isEmpty(int column) {
+    CellType cellType = getCellType(get(column));
+    return (cellType == CellType._NONE) || (cellType == CellType.BLANK);
+  }
+
+  @Override
+  public String[] getCellsAsText(int startCol, int endCol) {
+    Context context = Context.getCurrent();
+    int currentEndCol = endCol == -1 ? getLastColumn() : endCol;
+
+    String[] output = new String[currentEndCol - startCol + 1];
+    for (int col = startCol; col <= currentEndCol; col++) {
+      Cell cell = get(col);
+      CellType type = ExcelWorkbookRow.getCellType(cell);
+      if (type != CellType._NONE && type != CellType.BLANK && type != CellType.STRING) {
+        return null;
+      }
+      output[col - startCol] =
+          type == CellType.STRING && cell != null ? cell.getStringCellValue() : "";
+      context.safepoint();
+    }
+
+    return output;
+  }
+}
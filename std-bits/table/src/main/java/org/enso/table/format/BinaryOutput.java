@@ -0,0 +1,137 @@
+package org.enso.table.format;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * A buffered output of little-endian binary data, keeping track of the number of bytes written, so
+ * that sections can be aligned.
+ */
+public final class BinaryOutput {
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  private final OutputStream output;
+  private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+  /** The number of bytes written so far, including the ones still in the buffer. */
+  private long position = 0;
+
+  public BinaryOutput(OutputStream output) {
+    this.output = output;
+  }
+
+  /** Returns the number of bytes written so far. */
+  public long position() {
+    return position;
+  }
+
+  public void putInt(int value) throws IOException {
+    ensureAvailable(Integer.BYTES);
+    buffer.putInt(value);
+    position += Integer.BYTES;
+  }
+
+  public void putLong(long value) throws IOException {
+    ensureAvailable(Long.BYTES);
+    buffer.putLong(value);
+    position += Long.BYTES;
+  }
+
+  public void putBytes(byte[] bytes) throws IOException {
+    putBytes(bytes, 0, bytes.length);
+  }
+
+  public void putBytes(byte[] bytes, int offset, int length) throws IOException {
+    for (int i = 0; i < length; ) {
+      ensureAvailable(1);
+      int n = Math.min(length - i, buffer.remaining());
+      buffer.put(bytes, offset + i, n);
+      position += n;
+      i += n;
+    }
+  }
+
+  /**
+   * Writes the first {@code count} values of the array. The array may be shorter if the remaining
+   * values are irrelevant, in which case zeros are written instead.
+   */
+  public void putLongs(long[] values, int count) throws IOException {
+    putLongs(values, 0, count);
+  }
+
+  /**
+   * Writes {@code count} values of the array, starting at index {@code from}. The array may be
+   * shorter if the remaining values are irrelevant, in which case zeros are written instead.
+   */
+  public void putLongs(long[] values, int from, int count) throws IOException {
+    int available = Math.max(0, Math.min(values.length - from, count));
+    for (int i = 0; i < available; ) {
+      ensureAvailable(Long.BYTES);
+      int n = Math.min(available - i, buffer.remaining() / Long.BYTES);
+      buffer.asLongBuffer().put(values, from + i, n);
+      buffer.position(buffer.position() + n * Long.BYTES);
+      position += (long) n * Long.BYTES;
+      i += n;
+    }
+    for (int i = available; i < count; i++) {
+      putLong(0);
+    }
+  }
+
+  /** Writes the first {@code count} values of the array. */
+  public void putInts(int[] values, int count) throws IOException {
+    for (int i = 0; i < count; ) {
+      ensureAvailable(Integer.BYTES);
+      int n = Math.min(count - i, buffer.remaining() / Integer.BYTES);
+      buffer.asIntBuffer().put(values, i, n);
+      buffer.position(buffer.position() + n * Integer.BYTES);
+      position += (long) n * Integer.BYTES;
+      i += n;
+    }
+  }
+
+  /**
+   * Writes the first {@code byteCount} bytes of the little-endian representation of the words,
+   * which is how bitmaps are stored.
+   */
+  public void putBits(long[] words, long byteCount) throws IOException {
+    int fullWords = (int) Math.min(words.length, byteCount / Long.BYTES);
+    putLongs(words, fullWords);
+    for (long i = (long) fullWords * Long.BYTES; i < byteCount; i++) {
+      int word = (int) (i / Long.BYTES);
+      long value = word < words.length ? words[word] : 0;
+      ensureAvailable(1);
+      buffer.put((byte) (value >>> (8 * (i % Long.BYTES))));
+      position++;
+    }
+  }
+
+  /** Pads the output with zeros up to the next multiple of {@code alignment}, a power of two. */
+  public void padTo(int alignment) throws IOException {
+    int padding = (int) (-position & (alignment - 1));
+    ensureAvailable(padding);
+    for (int i = 0; i < padding; i++) {
+      buffer.put((byte) 0);
+    }
+    position += padding;
+  }
+
+  /** Writes out the buffered data and flushes the underlying stream. */
+  public void flush() throws IOException {
+    flushBuffer();
+    output.flush();
+  }
+
+  private void ensureAvailable(int bytes) throws IOException {
+    if (buffer.remaining() < bytes) {
+      flushBuffer();
+    }
+  }
+
+  private void flushBuffer() throws IOException {
+    output.write(buffer.array(), 0, buffer.position());
+    buffer.clear();
+  }
+}
@@ -0,0 +1,73 @@
+package org.enso.table.format;
+
+import java.nio.ByteOrder;
+
+/**
+ * The layout of the columnar table files, shared by {@code ColumnarWriter} and {@code
+ * ColumnarReader}.
+ *
+ * <p>A file starts with a header consisting of the {@link #MAGIC} bytes, the format version, the
+ * column count and the row count. It is followed by the columns, one after another. Each column
+ * consists of its name, its {@link ColumnKind} with the parameters of its value type, the bitmap of
+ * missing values and the data section specific to its kind.
+ *
+ * <p>All values are little-endian, and every section starts at a multiple of {@link #ALIGNMENT}
+ * bytes, so that the typed arrays can be copied out of a memory-mapped file in bulk.
+ */
+public final class ColumnarLayout {
+  private ColumnarLayout() {}
+
+  /** The bytes the files start with. */
+  public static final byte[] MAGIC = {'E', 'N', 'S', 'O', 'T', 'B', 'L', 0};
+
+  public static final int VERSION = 1;
+
+  public static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+  public static final int ALIGNMENT = Long.BYTES;
+
+  /** The kinds of the stored columns, determining the layout of their data sections. */
+  public enum ColumnKind {
+    /** 64-bit integers, with the bit width of the value type as a parameter. */
+    INTEGER(1),
+    /** The raw bits of 64-bit floating point numbers. */
+    FLOAT(2),
+    /** A bitmap of the values. */
+    BOOLEAN(3),
+    /** 64-bit epoch days. */
+    DATE(4),
+    /** 64-bit nanoseconds of the day. */
+    TIME_OF_DAY(5),
+    /** Byte offsets of each value into the UTF-8 encoded values. */
+    TEXT(6),
+    /** Distinct values stored as {@link #TEXT}, followed by 32-bit codes into them. */
+    DICTIONARY_TEXT(7);
+
+    private final int code;
+
+    ColumnKind(int code) {
+      this.code = code;
+    }
+
+    public int getCode() {
+      return code;
+    }
+
+    /**
+     * @return the kind with the given code, or {@code null} if there is no such kind
+     */
+    public static ColumnKind fromCode(int code) {
+      for (ColumnKind kind : values()) {
+        if (kind.code == code) {
+          return kind;
+        }
+      }
+      return null;
+    }
+  }
+
+  /** Returns the number of padding bytes needed for {@code position} to be aligned. */
+  public static int paddingAt(long position) {
+    return (int) (-position & (ALIGNMENT - 1));
+  }
+}
@@ -0,0 +1,126 @@
+package org.enso.table.format.arrow;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Constants of the Arrow IPC file format, shared by {@code ArrowWriter} and {@code ArrowReader}.
+ *
+ * <p>The field ids are the indices of the fields in the tables of the {@code Schema.fbs}, {@code
+ * Message.fbs} and {@code File.fbs} FlatBuffers schemas of the Arrow format. A union field takes
+ * two ids - one for its type and one for its value.
+ */
+public final class ArrowFormat {
+  private ArrowFormat() {}
+
+  /** The bytes that an Arrow file starts and ends with. */
+  public static final byte[] MAGIC = "ARROW1".getBytes(StandardCharsets.US_ASCII);
+
+  /** The marker preceding the length of each encapsulated message. */
+  public static final int CONTINUATION_MARKER = 0xFFFFFFFF;
+
+  /** The alignment of the messages and of the buffers within their bodies. */
+  public static final int ALIGNMENT = 8;
+
+  public static final short METADATA_VERSION_V5 = 4;
+
+  /** The values of the {@code MessageHeader} union. */
+  public static final byte HEADER_SCHEMA = 1;
+
+  public static final byte HEADER_DICTIONARY_BATCH = 2;
+  public static final byte HEADER_RECORD_BATCH = 3;
+
+  /** The values of the {@code Type} union. */
+  public static final byte TYPE_INT = 2;
+
+  public static final byte TYPE_FLOATING_POINT = 3;
+  public static final byte TYPE_UTF8 = 5;
+  public static final byte TYPE_BOOL = 6;
+  public static final byte TYPE_DATE = 8;
+  public static final byte TYPE_TIME = 9;
+  public static final byte TYPE_LARGE_UTF8 = 20;
+
+  public static final short PRECISION_SINGLE = 1;
+  public static final short PRECISION_DOUBLE = 2;
+
+  public static final short DATE_UNIT_DAY = 0;
+  public static final short DATE_UNIT_MILLISECOND = 1;
+
+  public static final short TIME_UNIT_SECOND = 0;
+  public static final short TIME_UNIT_MILLISECOND = 1;
+  public static final short TIME_UNIT_MICROSECOND = 2;
+  public static final short TIME_UNIT_NANOSECOND = 3;
+
+  /** The size of the {@code FieldNode} and {@code Buffer} structs. */
+  public static final int FIELD_NODE_SIZE = 16;
+
+  public static final int BUFFER_SIZE = 16;
+
+  /** The size of the {@code Block} struct, including the padding after its 32-bit field. */
+  public static final int BLOCK_SIZE = 24;
+
+  /** The field ids of the {@code Message} table. */
+  public static final class Message {
+    public static final int VERSION = 0;
+    public static final int HEADER_TYPE = 1;
+    public static final int HEADER = 2;
+    public static final int BODY_LENGTH = 3;
+  }
+
+  /** The field ids of the {@code Schema} table. */
+  public static final class Schema {
+    public static final int ENDIANNESS = 0;
+    public static final int FIELDS = 1;
+  }
+
+  /** The field ids of the {@code Field} table. */
+  public static final class Field {
+    public static final int NAME = 0;
+    public static final int NULLABLE = 1;
+    public static final int TYPE_TYPE = 2;
+    public static final int TYPE = 3;
+    public static final int DICTIONARY = 4;
+    public static final int CHILDREN = 5;
+  }
+
+  /** The field ids of the {@code DictionaryEncoding} table. */
+  public static final class DictionaryEncoding {
+    public static final int ID = 0;
+    public static final int INDEX_TYPE = 1;
+    public static final int IS_ORDERED = 2;
+  }
+
+  /** The field ids of the {@code Int} table. */
+  public static final class IntType {
+    public static final int BIT_WIDTH = 0;
+    public static final int IS_SIGNED = 1;
+  }
+
+  /** The field id of the {@code FloatingPoint}, {@code Date} and {@code Time} tables. */
+  public static final int PRECISION_OR_UNIT = 0;
+
+  /** The field id of the bit width in the {@code Time} table. */
+  public static final int TIME_BIT_WIDTH = 1;
+
+  /** The field ids of the {@code RecordBatch} table. */
+  public static final class RecordBatch {
+    public static final int LENGTH = 0;
+    public static final int NODES = 1;
+    public static final int BUFFERS = 2;
+    public static final int COMPRESSION = 3;
+  }
+
+  /** The field ids of the {@code DictionaryBatch} table. */
+  public static final class DictionaryBatch {
+    public static final int ID = 0;
+    public static final int DATA = 1;
+    public static final int IS_DELTA = 2;
+  }
+
+  /** The field ids of the {@code Footer} table. */
+  public static final class Footer {
+    public static final int VERSION = 0;
+    public static final int SCHEMA = 1;
+    public static final int DICTIONARIES = 2;
+    public static final int RECORD_BATCHES = 3;
+  }
+}
@@ -0,0 +1,120 @@
+package org.enso.table.format.arrow;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A table within a serialized FlatBuffers buffer, as used by the Arrow IPC metadata.
+ *
+ * <p>The fields are accessed by their ids in the schema. Structs are read directly from the buffer,
+ * at the positions given by {@link #getStructVectorPosition}.
+ */
+public final class FlatBufferTable {
+  private final ByteBuffer buffer;
+  private final int position;
+  private final int vtable;
+  private final int vtableSize;
+
+  private FlatBufferTable(ByteBuffer buffer, int position) {
+    this.buffer = buffer;
+    this.position = position;
+    this.vtable = position - buffer.getInt(position);
+    this.vtableSize = Short.toUnsignedInt(buffer.getShort(vtable));
+  }
+
+  /** Returns the root table of the buffer, which starts at index 0 of the given buffer. */
+  public static FlatBufferTable root(ByteBuffer buffer) {
+    ByteBuffer littleEndian = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+    return new FlatBufferTable(littleEndian, littleEndian.getInt(0));
+  }
+
+  public ByteBuffer getBuffer() {
+    return buffer;
+  }
+
+  public boolean has(int id) {
+    return fieldOffset(id) != 0;
+  }
+
+  public long getLong(int id, long defaultValue) {
+    int offset = fieldOffset(id);
+    return offset == 0 ? defaultValue : buffer.getLong(position + offset);
+  }
+
+  public int getInt(int id, int defaultValue) {
+    int offset = fieldOffset(id);
+    return offset == 0 ? defaultValue : buffer.getInt(position + offset);
+  }
+
+  public short getShort(int id, short defaultValue) {
+    int offset = fieldOffset(id);
+    return offset == 0 ? defaultValue : buffer.getShort(position + offset);
+  }
+
+  public byte getByte(int id, byte defaultValue) {
+    int offset = fieldOffset(id);
+    return offset == 0 ? defaultValue : buffer.get(position + offset);
+  }
+
+  public boolean getBoolean(int id, boolean defaultValue) {
+    return getByte(id, (byte) (defaultValue ? 1 : 0)) != 0;
+  }
+
+  /**
+   * @return the referenced table, or {@code null} if the field is not present
+   */
+  public FlatBufferTable getTable(int id) {
+    int reference = referencePosition(id);
+    return reference == -1 ? null : new FlatBufferTable(buffer, dereference(reference));
+  }
+
+  /**
+   * @return the referenced string, or {@code null} if the field is not present
+   */
+  public String getString(int id) {
+    int reference = referencePosition(id);
+    if (reference == -1) {
+      return null;
+    }
+
+    int text = dereference(reference);
+    byte[] bytes = new byte[buffer.getInt(text)];
+    buffer.get(text + Integer.BYTES, bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /** Returns the length of the referenced vector, or 0 if the field is not present. */
+  public int getVectorLength(int id) {
+    int reference = referencePosition(id);
+    return reference == -1 ? 0 : buffer.getInt(dereference(reference));
+  }
+
+  /** Returns the table at the given index of the referenced vector of tables. */
+  public FlatBufferTable getVectorTable(int id, int index) {
+    int elements = dereference(referencePosition(id)) + Integer.BYTES;
+    return new FlatBufferTable(buffer, dereference(elements + Integer.BYTES * index));
+  }
+
+  /**
+   * Returns the position of the struct at the given index of the referenced vector of structs of
+   * the given size.
+   */
+  public int getStructVectorPosition(int id, int index, int structSize) {
+    return dereference(referencePosition(id)) + Integer.BYTES + structSize * index;
+  }
+
+  private int fieldOffset(int id) {
+    int entry = Short.BYTES * (2 + id);
+    return entry < vtableSize ? Short.toUnsignedInt(buffer.getShort(vtable + entry)) : 0;
+  }
+
+  private int referencePosition(int id) {
+    int offset = fieldOffset(id);
+    return offset == 0 ? -1 : position + offset;
+  }
+
+  private int dereference(int reference) {
+    return reference + buffer.getInt(reference);
+  }
+}
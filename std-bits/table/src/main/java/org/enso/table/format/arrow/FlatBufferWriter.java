@@ -0,0 +1,210 @@
+package org.enso.table.format.arrow;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Serializes a tree of FlatBuffers objects, as used by the Arrow IPC metadata.
+ *
+ * <p>Unlike the generated FlatBuffers builders, which serialize the objects back to front, the
+ * objects are described as a tree first and laid out front to back, with every object written after
+ * all the objects referencing it. Each vtable is written right before its table and is not shared.
+ * The result is a valid buffer that any FlatBuffers reader or verifier accepts.
+ */
+public final class FlatBufferWriter {
+  private ByteBuffer buffer = ByteBuffer.allocate(256).order(ByteOrder.LITTLE_ENDIAN);
+
+  private FlatBufferWriter() {}
+
+  /**
+   * Serializes the given root table.
+   *
+   * @return the serialized buffer, padded to a multiple of 8 bytes
+   */
+  public static byte[] serialize(Table root) {
+    FlatBufferWriter writer = new FlatBufferWriter();
+    writer.reserve(Integer.BYTES);
+    writer.patchOffset(0, root.writeTo(writer));
+    writer.align(Long.BYTES, 0);
+    return Arrays.copyOf(writer.buffer.array(), writer.buffer.position());
+  }
+
+  /** An object that can be referenced from a table or a vector. */
+  public abstract static sealed class Node permits Table, TableVector, StructVector, Text {
+    /**
+     * Writes the object at the current position of the writer.
+     *
+     * @return the position that references to the object should point to
+     */
+    abstract int writeTo(FlatBufferWriter writer);
+  }
+
+  /** A table with scalar fields and references to other objects. */
+  public static final class Table extends Node {
+    private record Field(int id, int size, long value, Node reference) {}
+
+    private final List<Field> fields = new ArrayList<>();
+
+    public Table addLong(int id, long value) {
+      fields.add(new Field(id, Long.BYTES, value, null));
+      return this;
+    }
+
+    public Table addInt(int id, int value) {
+      fields.add(new Field(id, Integer.BYTES, value, null));
+      return this;
+    }
+
+    public Table addShort(int id, short value) {
+      fields.add(new Field(id, Short.BYTES, value, null));
+      return this;
+    }
+
+    public Table addByte(int id, byte value) {
+      fields.add(new Field(id, Byte.BYTES, value, null));
+      return this;
+    }
+
+    public Table addBoolean(int id, boolean value) {
+      return addByte(id, (byte) (value ? 1 : 0));
+    }
+
+    public Table addReference(int id, Node node) {
+      fields.add(new Field(id, Integer.BYTES, 0, node));
+      return this;
+    }
+
+    @Override
+    int writeTo(FlatBufferWriter writer) {
+      int fieldCount = fields.stream().mapToInt(f -> f.id + 1).max().orElse(0);
+      writer.align(Short.BYTES, 0);
+      int vtable = writer.reserve(Short.BYTES * (2 + fieldCount));
+
+      // The table starts just before an 8-byte boundary, so that the fields following its vtable
+      // offset can be aligned without padding.
+      writer.align(Long.BYTES, Long.BYTES - Integer.BYTES);
+      int table = writer.reserve(Integer.BYTES);
+      writer.buffer.putInt(table, table - vtable);
+
+      List<Field> sorted = new ArrayList<>(fields);
+      sorted.sort(Comparator.comparingInt(Field::size).reversed());
+      int[] referencePositions = new int[sorted.size()];
+      for (int i = 0; i < sorted.size(); i++) {
+        Field field = sorted.get(i);
+        writer.align(field.size, 0);
+        int position = writer.reserve(field.size);
+        writer.buffer.putShort(vtable + Short.BYTES * (2 + field.id), (short) (position - table));
+        switch (field.size) {
+          case Long.BYTES -> writer.buffer.putLong(position, field.value);
+          case Integer.BYTES -> writer.buffer.putInt(position, (int) field.value);
+          case Short.BYTES -> writer.buffer.putShort(position, (short) field.value);
+          default -> writer.buffer.put(position, (byte) field.value);
+        }
+        referencePositions[i] = position;
+      }
+      writer.buffer.putShort(vtable, (short) (Short.BYTES * (2 + fieldCount)));
+      writer.buffer.putShort(vtable + Short.BYTES, (short) (writer.buffer.position() - table));
+
+      for (int i = 0; i < sorted.size(); i++) {
+        Node reference = sorted.get(i).reference;
+        if (reference != null) {
+          writer.patchOffset(referencePositions[i], reference.writeTo(writer));
+        }
+      }
+      return table;
+    }
+  }
+
+  /** A vector of references to tables. */
+  public static final class TableVector extends Node {
+    private final List<Table> elements;
+
+    public TableVector(List<Table> elements) {
+      this.elements = elements;
+    }
+
+    @Override
+    int writeTo(FlatBufferWriter writer) {
+      writer.align(Integer.BYTES, 0);
+      int vector = writer.reserve(Integer.BYTES * (1 + elements.size()));
+      writer.buffer.putInt(vector, elements.size());
+      for (int i = 0; i < elements.size(); i++) {
+        int position = vector + Integer.BYTES * (1 + i);
+        writer.patchOffset(position, elements.get(i).writeTo(writer));
+      }
+      return vector;
+    }
+  }
+
+  /** A vector of structs consisting of 8-byte fields, given as a flat array of the fields. */
+  public static final class StructVector extends Node {
+    private final long[] fields;
+    private final int fieldsPerStruct;
+
+    public StructVector(long[] fields, int fieldsPerStruct) {
+      this.fields = fields;
+      this.fieldsPerStruct = fieldsPerStruct;
+    }
+
+    @Override
+    int writeTo(FlatBufferWriter writer) {
+      // The structs following the length must be aligned to 8 bytes.
+      writer.align(Long.BYTES, Long.BYTES - Integer.BYTES);
+      int vector = writer.reserve(Integer.BYTES + Long.BYTES * fields.length);
+      writer.buffer.putInt(vector, fields.length / fieldsPerStruct);
+      for (int i = 0; i < fields.length; i++) {
+        writer.buffer.putLong(vector + Integer.BYTES + Long.BYTES * i, fields[i]);
+      }
+      return vector;
+    }
+  }
+
+  /** A string. */
+  public static final class Text extends Node {
+    private final byte[] bytes;
+
+    public Text(String text) {
+      this.bytes = text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    int writeTo(FlatBufferWriter writer) {
+      writer.align(Integer.BYTES, 0);
+      // The string is followed by a terminating zero byte.
+      int text = writer.reserve(Integer.BYTES + bytes.length + 1);
+      writer.buffer.putInt(text, bytes.length);
+      writer.buffer.put(text + Integer.BYTES, bytes);
+      return text;
+    }
+  }
+
+  /** Reserves the given number of zeroed bytes at the current position and returns it. */
+  private int reserve(int size) {
+    int position = buffer.position();
+    if (buffer.remaining() < size) {
+      ByteBuffer larger =
+          ByteBuffer.allocate(Math.max(buffer.capacity() * 2, position + size))
+              .order(ByteOrder.LITTLE_ENDIAN);
+      larger.put(buffer.array(), 0, position);
+      buffer = larger;
+    }
+    buffer.position(position + size);
+    return position;
+  }
+
+  /** Pads the buffer until the position is {@code remainder} modulo {@code alignment}. */
+  private void align(int alignment, int remainder) {
+    int padding = Math.floorMod(remainder - buffer.position(), alignment);
+    reserve(padding);
+  }
+
+  /** Stores the offset from the given position to the target, as a reference. */
+  private void patchOffset(int position, int target) {
+    buffer.putInt(position, target - position);
+  }
+}
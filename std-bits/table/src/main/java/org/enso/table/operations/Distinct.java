@@ -29,6 +29,12 @@ public class Distinct {
     Context context = Context.getCurrent();
     var mask = new BitSet();
     if (keyColumns.length != 0) {
+      var primitiveDistinct =
+          PrimitiveDistinct.tryCreate(keyColumns, textFoldingStrategy, groupingProblemAggregator);
+      if (primitiveDistinct != null) {
+        return primitiveDistinct.buildDistinctRowsMask();
+      }
+
       HashSet<MultiValueKeyBase> visitedRows = new HashSet<>();
       int size = keyColumns[0].getSize();
       Storage<?>[] storage =
@@ -64,6 +70,12 @@ public class Distinct {
     Context context = Context.getCurrent();
     var mask = new BitSet();
     if (keyColumns.length != 0) {
+      var primitiveDistinct =
+          PrimitiveDistinct.tryCreate(keyColumns, textFoldingStrategy, groupingProblemAggregator);
+      if (primitiveDistinct != null) {
+        return primitiveDistinct.buildDuplicatesRowsMask();
+      }
+
       Map<MultiValueKeyBase, Integer> visitedRows = new HashMap<>();
       int size = keyColumns[0].getSize();
       Storage<?>[] storage =
@@ -1,12 +1,16 @@
 package org.enso.table.operations;
 
-import java.util.Comparator;
+import java.util.BitSet;
 import java.util.List;
-import java.util.stream.IntStream;
-import org.enso.base.ObjectComparator;
+import org.enso.table.data.column.storage.ColumnStorageWithNothingMap;
 import org.enso.table.data.column.storage.Storage;
 import org.enso.table.data.mask.OrderMask;
 import org.enso.table.data.table.Column;
+import org.enso.table.operations.sort.IndexSorter;
+import org.enso.table.operations.sort.RowComparator;
+import org.enso.table.operations.sort.RowComparators;
+import org.enso.table.util.ParallelTasks;
+import org.graalvm.polyglot.Context;
 
 /** Builds an order mask resulting in sorting storages according to specified rules. */
 public class OrderBuilder {
@@ -30,27 +34,17 @@ public class OrderBuilder {
     }
 
     /**
-     * Builds an index-comparing comparator, that will sort array indexes according to the specified
+     * Builds a comparator of row indexes, that will sort array indexes according to the specified
      * ordering of the underlying column.
      *
      * @return a comparator with properties described above
      */
-    public Comparator<Integer> toComparator() {
-      final Storage<?> storage = column.getStorage();
-      Comparator<Object> itemCmp = ObjectComparator.DEFAULT;
-
-      if (!ascending) {
-        itemCmp = itemCmp.reversed();
-      }
-
-      if (missingLast) {
-        itemCmp = Comparator.nullsLast(itemCmp);
-      } else {
-        itemCmp = Comparator.nullsFirst(itemCmp);
-      }
+    public RowComparator toComparator() {
+      return RowComparators.forStorage(getStorage(), ascending, missingLast);
+    }
 
-      final Comparator<Object> cmp = itemCmp;
-      return (i, j) -> cmp.compare(storage.getItemBoxed(i), storage.getItemBoxed(j));
+    private Storage<?> getStorage() {
+      return column.getStorage().tryGettingMoreSpecializedStorage();
     }
   }
 
@@ -66,11 +60,76 @@ public class OrderBuilder {
    */
   public static OrderMask buildOrderMask(List<OrderRule> rules) {
     int size = rules.get(0).column.getSize();
-    Comparator<Integer> comparator =
-        rules.stream().map(OrderRule::toComparator).reduce(Comparator::thenComparing).get();
+    OrderRule firstRule = rules.get(0);
+    Storage<?> firstStorage = firstRule.getStorage();
+    RowComparator remainingComparator =
+        rules.stream()
+            .skip(1)
+            .map(OrderRule::toComparator)
+            .reduce(RowComparator::thenComparing)
+            .orElse(null);
 
-    int[] positions =
-        IntStream.range(0, size).boxed().sorted(comparator).mapToInt(i -> i).toArray();
+    // Missing values of the first column are partitioned out up-front, so that the values of the
+    // first column can be compared without checking for missing values. The positions within each
+    // part are kept in increasing order, so that the sort remains stable.
+    int[] positions = new int[size];
+    int missingCount = countMissing(firstStorage, size);
+    int valuesStart = firstRule.missingLast ? 0 : missingCount;
+    int missingStart = firstRule.missingLast ? size - missingCount : 0;
+    int valuesIx = valuesStart;
+    int missingIx = missingStart;
+    Context context = Context.getCurrent();
+    for (int i = 0; i < size; i++) {
+      if (firstStorage.isNothing(i)) {
+        positions[missingIx++] = i;
+      } else {
+        positions[valuesIx++] = i;
+      }
+
+      context.safepoint();
+    }
+
+    // Large inputs are sorted on multiple threads, unless some comparison needs to call back into
+    // Enso. Both variants yield the same, stable, ordering.
+    boolean parallel =
+        size >= ParallelTasks.getParallelThreshold()
+            && rules.stream().allMatch(rule -> RowComparators.isThreadSafe(rule.getStorage()));
+    RowComparator valuesComparator = RowComparators.forValues(firstStorage, firstRule.ascending);
+    if (remainingComparator != null) {
+      valuesComparator = valuesComparator.thenComparing(remainingComparator);
+      sort(positions, missingStart, missingStart + missingCount, remainingComparator, parallel);
+    }
+    sort(positions, valuesStart, valuesStart + size - missingCount, valuesComparator, parallel);
     return OrderMask.fromArray(positions);
   }
+
+  private static void sort(
+      int[] positions, int from, int to, RowComparator comparator, boolean parallel) {
+    if (parallel) {
+      IndexSorter.parallelSort(positions, from, to, comparator);
+    } else {
+      IndexSorter.sort(positions, from, to, comparator);
+    }
+  }
+
+  private static int countMissing(Storage<?> storage, int size) {
+    int count = 0;
+    if (storage instanceof ColumnStorageWithNothingMap withNothingMap) {
+      BitSet isNothing = withNothingMap.getIsNothingMap();
+      for (int i = isNothing.nextSetBit(0); i >= 0 && i < size; i = isNothing.nextSetBit(i + 1)) {
+        count++;
+      }
+      return count;
+    }
+
+    Context context = Context.getCurrent();
+    for (int i = 0; i < size; i++) {
+      if (storage.isNothing(i)) {
+        count++;
+      }
+
+      context.safepoint();
+    }
+    return count;
+  }
 }
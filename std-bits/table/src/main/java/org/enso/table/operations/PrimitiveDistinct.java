@@ -0,0 +1,175 @@
+package org.enso.table.operations;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import org.enso.base.text.TextFoldingStrategy;
+import org.enso.table.data.column.storage.BoolStorage;
+import org.enso.table.data.column.storage.Storage;
+import org.enso.table.data.column.storage.datetime.DateStorage;
+import org.enso.table.data.column.storage.numeric.AbstractLongStorage;
+import org.enso.table.data.column.storage.numeric.DoubleStorage;
+import org.enso.table.data.index.GroupTable;
+import org.enso.table.data.index.KeyColumn;
+import org.enso.table.data.table.Column;
+import org.enso.table.data.table.problems.FloatingPointGrouping;
+import org.enso.table.problems.ColumnAggregatedProblemAggregator;
+import org.enso.table.util.ConstantList;
+import org.graalvm.polyglot.Context;
+
+/**
+ * Finds distinct and duplicate rows of integer, floating point, date and boolean key columns.
+ *
+ * <p>It gives the same results as grouping the rows by {@link
+ * org.enso.table.data.index.UnorderedMultiValueKey}, but does not create a key object for each row.
+ * Keys consisting only of boolean columns have few possible values, so the first row of each value
+ * is looked up directly. Other keys are stored in a {@link GroupTable}, which hashes and compares
+ * the rows through {@link KeyColumn}s.
+ */
+final class PrimitiveDistinct {
+  /** Boolean keys with more columns than this are stored in the group table. */
+  private static final int MAX_DIRECT_BOOLEAN_COLUMNS = 8;
+
+  private static final int NOT_FOUND = -1;
+
+  private final Column[] keyColumns;
+  private final KeyColumn[] keys;
+  private final ColumnAggregatedProblemAggregator problemAggregator;
+
+  private PrimitiveDistinct(
+      Column[] keyColumns, KeyColumn[] keys, ColumnAggregatedProblemAggregator problemAggregator) {
+    this.keyColumns = keyColumns;
+    this.keys = keys;
+    this.problemAggregator = problemAggregator;
+  }
+
+  /**
+   * Creates an instance for the given key columns.
+   *
+   * @return the new instance, or {@code null} if some of the columns are not supported
+   */
+  static PrimitiveDistinct tryCreate(
+      Column[] keyColumns,
+      TextFoldingStrategy textFoldingStrategy,
+      ColumnAggregatedProblemAggregator problemAggregator) {
+    for (Column column : keyColumns) {
+      if (!isSupported(column.getStorage())) {
+        return null;
+      }
+    }
+
+    KeyColumn[] keys =
+        KeyColumn.of(keyColumns, ConstantList.make(textFoldingStrategy, keyColumns.length));
+    return new PrimitiveDistinct(keyColumns, keys, problemAggregator);
+  }
+
+  private static boolean isSupported(Storage<?> storage) {
+    return storage instanceof AbstractLongStorage
+        || storage instanceof DoubleStorage
+        || storage instanceof DateStorage
+        || storage instanceof BoolStorage;
+  }
+
+  /** Creates a row mask containing only the first row of each distinct key. */
+  BitSet buildDistinctRowsMask() {
+    BitSet mask = new BitSet();
+    forEachRow(
+        (row, firstRow) -> {
+          if (firstRow == row) {
+            mask.set(row);
+          }
+        });
+    return mask;
+  }
+
+  /** Creates a row mask containing all rows whose key occurs more than once. */
+  BitSet buildDuplicatesRowsMask() {
+    BitSet mask = new BitSet();
+    forEachRow(
+        (row, firstRow) -> {
+          if (firstRow != row) {
+            mask.set(firstRow);
+            mask.set(row);
+          }
+        });
+    return mask;
+  }
+
+  private interface RowConsumer {
+    void accept(int row, int firstRow);
+  }
+
+  /** Calls the consumer with each row and the first row that has the same key. */
+  private void forEachRow(RowConsumer consumer) {
+    Context context = Context.getCurrent();
+    int size = keyColumns[0].getSize();
+    FirstRowIndex index = makeIndex();
+    for (int row = 0; row < size; row++) {
+      reportFloatingPointValues(row);
+      consumer.accept(row, index.findFirstRow(row));
+      context.safepoint();
+    }
+  }
+
+  private FirstRowIndex makeIndex() {
+    boolean allBoolean =
+        Arrays.stream(keyColumns).allMatch(column -> column.getStorage() instanceof BoolStorage);
+    if (allBoolean && keyColumns.length <= MAX_DIRECT_BOOLEAN_COLUMNS) {
+      return new BooleanIndex(keyColumns);
+    }
+
+    GroupTable table = new GroupTable(keys);
+    return row -> table.getFirstRow(table.findOrInsert(KeyColumn.hashRow(keys, row), row));
+  }
+
+  /** Reports the problems consistently with {@code checkAndReportFloatingEquality}. */
+  private void reportFloatingPointValues(int row) {
+    for (int i = 0; i < keys.length; i++) {
+      if (keys[i].getStorage() instanceof DoubleStorage && !keys[i].isNothing(row)) {
+        problemAggregator.reportColumnAggregatedProblem(
+            new FloatingPointGrouping(keyColumns[i].getName(), row));
+      }
+    }
+  }
+
+  /** Remembers the first row of each distinct key. */
+  private interface FirstRowIndex {
+    /**
+     * Returns the first row with the same key as the given row. If there was no such row yet, the
+     * given row is remembered and returned.
+     */
+    int findFirstRow(int row);
+  }
+
+  /**
+   * Indexes keys of boolean columns by their position in the list of all possible keys, where each
+   * cell is either false, true or missing.
+   */
+  private static final class BooleanIndex implements FirstRowIndex {
+    private final BoolStorage[] storages;
+    private final int[] firstRows;
+
+    BooleanIndex(Column[] columns) {
+      this.storages = new BoolStorage[columns.length];
+      int possibleKeys = 1;
+      for (int i = 0; i < columns.length; i++) {
+        storages[i] = (BoolStorage) columns[i].getStorage();
+        possibleKeys *= 3;
+      }
+      this.firstRows = new int[possibleKeys];
+      Arrays.fill(firstRows, NOT_FOUND);
+    }
+
+    @Override
+    public int findFirstRow(int row) {
+      int key = 0;
+      for (BoolStorage storage : storages) {
+        key = key * 3 + (storage.isNothing(row) ? 2 : storage.getItem(row) ? 1 : 0);
+      }
+
+      if (firstRows[key] == NOT_FOUND) {
+        firstRows[key] = row;
+      }
+      return firstRows[key];
+    }
+  }
+}
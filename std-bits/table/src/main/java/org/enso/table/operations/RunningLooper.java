@@ -151,8 +151,8 @@ class GroupingOrderingRunning<T> extends RunningLooper<T> {
             (int) numRows,
             TextFoldingStrategy.unicodeNormalizedFold,
             problemAggregator);
-    for (var entry : groupIndex.mapping().entrySet()) {
-      List<Integer> indices = entry.getValue();
+    for (int group = 0; group < groupIndex.size(); group++) {
+      List<Integer> indices = groupIndex.getGroupRows(group);
       List<OrderedMultiValueKey> orderingKeys =
           new ArrayList<>(
               indices.stream()
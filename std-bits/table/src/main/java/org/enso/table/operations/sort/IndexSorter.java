@@ -0,0 +1,362 @@
+package org.enso.table.operations.sort;
+
+import java.util.concurrent.RecursiveAction;
+import org.enso.table.util.ParallelTasks;
+import org.graalvm.polyglot.Context;
+
+/**
+ * A stable merge sort over arrays of row indexes.
+ *
+ * <p>It is the primitive counterpart of sorting a {@code Stream<Integer>} with a comparator - it
+ * does not box the indexes and only allocates a single scratch buffer of the sorted range's size.
+ *
+ * <p>Large ranges can also be sorted on multiple threads with {@link #parallelSort}, which yields
+ * exactly the same permutation as the sequential variant.
+ */
+public final class IndexSorter {
+  private IndexSorter() {}
+
+  /** Ranges shorter than this are sorted using insertion sort. */
+  private static final int INSERTION_SORT_THRESHOLD = 16;
+
+  /**
+   * Ranges shorter than this are not split further between parallel tasks. Lowered for small {@link
+   * ParallelTasks#getParallelThreshold() parallel thresholds}.
+   */
+  private static final int PARALLEL_GRANULARITY = 1 << 13;
+
+  /**
+   * Sorts the whole array according to the comparator.
+   *
+   * <p>The sort is stable - indexes considered equal by the comparator keep their relative order.
+   */
+  public static void sort(int[] indexes, RowComparator comparator) {
+    sort(indexes, 0, indexes.length, comparator);
+  }
+
+  /**
+   * Sorts the range {@code [from, to)} of the array according to the comparator.
+   *
+   * <p>The sort is stable - indexes considered equal by the comparator keep their relative order.
+   */
+  public static void sort(int[] indexes, int from, int to, RowComparator comparator) {
+    if (to - from < 2) {
+      return;
+    }
+
+    int[] buffer = new int[to - from];
+    System.arraycopy(indexes, from, buffer, 0, to - from);
+    mergeSort(buffer, indexes, 0, from, to - from, comparator, Context.getCurrent());
+  }
+
+  /**
+   * Sorts the range {@code [from, to)} of the array according to the comparator, splitting the work
+   * between multiple threads if the range is large enough.
+   *
+   * <p>The result is the same as the one of {@link #sort(int[], int, int, RowComparator)}. The
+   * comparator is called from worker threads that are not entered into the polyglot context, so it
+   * must be thread-safe and must not call back into Enso.
+   */
+  public static void parallelSort(int[] indexes, int from, int to, RowComparator comparator) {
+    int length = to - from;
+    if (length < ParallelTasks.getParallelThreshold() || !ParallelTasks.isParallelismAvailable()) {
+      sort(indexes, from, to, comparator);
+      return;
+    }
+
+    int[] buffer = new int[length];
+    System.arraycopy(indexes, from, buffer, 0, length);
+    // Splitting tiny ranges could not make progress, as the halves of a merge may be empty.
+    int granularity =
+        Math.max(INSERTION_SORT_THRESHOLD, ParallelTasks.getChunkSize(PARALLEL_GRANULARITY));
+    ParallelTasks.invoke(
+        new MergeSortTask(buffer, indexes, 0, from, length, comparator, granularity));
+  }
+
+  /**
+   * Sorts {@code length} elements of {@code source} starting at {@code sourceOffset} into {@code
+   * destination} starting at {@code destinationOffset}.
+   *
+   * <p>Both ranges must initially hold the same elements, as the two arrays swap their roles at
+   * each level of the recursion. The {@code context} may be {@code null} on worker threads, in
+   * which case no safepoints are polled.
+   */
+  private static void mergeSort(
+      int[] source,
+      int[] destination,
+      int sourceOffset,
+      int destinationOffset,
+      int length,
+      RowComparator comparator,
+      Context context) {
+    if (length < INSERTION_SORT_THRESHOLD) {
+      insertionSort(destination, destinationOffset, destinationOffset + length, comparator);
+      return;
+    }
+
+    int half = length / 2;
+    mergeSort(destination, source, destinationOffset, sourceOffset, half, comparator, context);
+    mergeSort(
+        destination,
+        source,
+        destinationOffset + half,
+        sourceOffset + half,
+        length - half,
+        comparator,
+        context);
+
+    merge(
+        source,
+        sourceOffset,
+        sourceOffset + half,
+        sourceOffset + length,
+        destination,
+        destinationOffset,
+        comparator);
+    if (context != null) {
+      context.safepoint();
+    }
+  }
+
+  /**
+   * Merges the sorted ranges {@code [from, middle)} and {@code [middle, to)} of {@code source} into
+   * {@code destination}, starting at {@code destinationOffset}.
+   */
+  static void merge(
+      int[] source,
+      int from,
+      int middle,
+      int to,
+      int[] destination,
+      int destinationOffset,
+      RowComparator comparator) {
+    // If the ranges are already in order, we can just copy them.
+    if (comparator.compare(source[middle - 1], source[middle]) <= 0) {
+      System.arraycopy(source, from, destination, destinationOffset, to - from);
+      return;
+    }
+
+    int left = from;
+    int right = middle;
+    int out = destinationOffset;
+    while (left < middle && right < to) {
+      // Taking from the left on ties is what keeps the sort stable.
+      if (comparator.compare(source[left], source[right]) <= 0) {
+        destination[out++] = source[left++];
+      } else {
+        destination[out++] = source[right++];
+      }
+    }
+
+    System.arraycopy(source, left, destination, out, middle - left);
+    out += middle - left;
+    System.arraycopy(source, right, destination, out, to - right);
+  }
+
+  private static void insertionSort(int[] indexes, int from, int to, RowComparator comparator) {
+    for (int i = from + 1; i < to; i++) {
+      int current = indexes[i];
+      int j = i - 1;
+      while (j >= from && comparator.compare(indexes[j], current) > 0) {
+        indexes[j + 1] = indexes[j];
+        j--;
+      }
+      indexes[j + 1] = current;
+    }
+  }
+
+  /** The parallel counterpart of {@link #mergeSort}. */
+  private static final class MergeSortTask extends RecursiveAction {
+    private final int[] source;
+    private final int[] destination;
+    private final int sourceOffset;
+    private final int destinationOffset;
+    private final int length;
+    private final RowComparator comparator;
+    private final int granularity;
+
+    MergeSortTask(
+        int[] source,
+        int[] destination,
+        int sourceOffset,
+        int destinationOffset,
+        int length,
+        RowComparator comparator,
+        int granularity) {
+      this.source = source;
+      this.destination = destination;
+      this.sourceOffset = sourceOffset;
+      this.destinationOffset = destinationOffset;
+      this.length = length;
+      this.comparator = comparator;
+      this.granularity = granularity;
+    }
+
+    @Override
+    protected void compute() {
+      if (length < granularity) {
+        mergeSort(source, destination, sourceOffset, destinationOffset, length, comparator, null);
+        return;
+      }
+
+      int half = length / 2;
+      invokeAll(
+          new MergeSortTask(
+              destination, source, destinationOffset, sourceOffset, half, comparator, granularity),
+          new MergeSortTask(
+              destination,
+              source,
+              destinationOffset + half,
+              sourceOffset + half,
+              length - half,
+              comparator,
+              granularity));
+      new MergeTask(
+              source,
+              sourceOffset,
+              sourceOffset + half,
+              sourceOffset + half,
+              sourceOffset + length,
+              destination,
+              destinationOffset,
+              comparator,
+              granularity)
+          .compute();
+    }
+  }
+
+  /**
+   * Merges the sorted ranges {@code [leftFrom, leftTo)} and {@code [rightFrom, rightTo)} of {@code
+   * source} into {@code destination}, splitting large merges into independent parts.
+   *
+   * <p>The larger of the two ranges is split in half and the matching split point is found in the
+   * other one by binary search. The search is biased so that equal elements from the left range
+   * always end up before the ones from the right range, which keeps the merge stable.
+   */
+  private static final class MergeTask extends RecursiveAction {
+    private final int[] source;
+    private final int leftFrom;
+    private final int leftTo;
+    private final int rightFrom;
+    private final int rightTo;
+    private final int[] destination;
+    private final int destinationOffset;
+    private final RowComparator comparator;
+    private final int granularity;
+
+    MergeTask(
+        int[] source,
+        int leftFrom,
+        int leftTo,
+        int rightFrom,
+        int rightTo,
+        int[] destination,
+        int destinationOffset,
+        RowComparator comparator,
+        int granularity) {
+      this.source = source;
+      this.leftFrom = leftFrom;
+      this.leftTo = leftTo;
+      this.rightFrom = rightFrom;
+      this.rightTo = rightTo;
+      this.destination = destination;
+      this.destinationOffset = destinationOffset;
+      this.comparator = comparator;
+      this.granularity = granularity;
+    }
+
+    @Override
+    protected void compute() {
+      int leftLength = leftTo - leftFrom;
+      int rightLength = rightTo - rightFrom;
+      if (leftLength + rightLength < granularity) {
+        mergeSequentially();
+        return;
+      }
+
+      int leftSplit;
+      int rightSplit;
+      if (leftLength >= rightLength) {
+        leftSplit = leftFrom + leftLength / 2;
+        // Elements of the right range equal to the pivot must go after it.
+        rightSplit = lowerBound(rightFrom, rightTo, source[leftSplit]);
+      } else {
+        rightSplit = rightFrom + rightLength / 2;
+        // Elements of the left range equal to the pivot must go before it.
+        leftSplit = upperBound(leftFrom, leftTo, source[rightSplit]);
+      }
+
+      int secondOffset = destinationOffset + (leftSplit - leftFrom) + (rightSplit - rightFrom);
+      invokeAll(
+          new MergeTask(
+              source,
+              leftFrom,
+              leftSplit,
+              rightFrom,
+              rightSplit,
+              destination,
+              destinationOffset,
+              comparator,
+              granularity),
+          new MergeTask(
+              source,
+              leftSplit,
+              leftTo,
+              rightSplit,
+              rightTo,
+              destination,
+              secondOffset,
+              comparator,
+              granularity));
+    }
+
+    private void mergeSequentially() {
+      int left = leftFrom;
+      int right = rightFrom;
+      int out = destinationOffset;
+      while (left < leftTo && right < rightTo) {
+        if (comparator.compare(source[left], source[right]) <= 0) {
+          destination[out++] = source[left++];
+        } else {
+          destination[out++] = source[right++];
+        }
+      }
+
+      System.arraycopy(source, left, destination, out, leftTo - left);
+      out += leftTo - left;
+      System.arraycopy(source, right, destination, out, rightTo - right);
+    }
+
+    /**
+     * Finds the first position in {@code [from, to)} holding an element not less than the pivot.
+     */
+    private int lowerBound(int from, int to, int pivot) {
+      int low = from;
+      int high = to;
+      while (low < high) {
+        int mid = (low + high) >>> 1;
+        if (comparator.compare(source[mid], pivot) < 0) {
+          low = mid + 1;
+        } else {
+          high = mid;
+        }
+      }
+      return low;
+    }
+
+    /** Finds the first position in {@code [from, to)} holding an element greater than the pivot. */
+    private int upperBound(int from, int to, int pivot) {
+      int low = from;
+      int high = to;
+      while (low < high) {
+        int mid = (low + high) >>> 1;
+        if (comparator.compare(source[mid], pivot) <= 0) {
+          low = mid + 1;
+        } else {
+          high = mid;
+        }
+      }
+      return low;
+    }
+  }
+}
@@ -0,0 +1,29 @@
+package org.enso.table.operations.sort;
+
+/**
+ * Compares two rows of a table by their indexes.
+ *
+ * <p>Unlike {@code Comparator<Integer>} it works on primitive indexes, so sorting a permutation
+ * array does not need to box every row index.
+ */
+@FunctionalInterface
+public interface RowComparator {
+  /**
+   * Compares the rows at the given indexes.
+   *
+   * @return a negative value if row {@code i} should be placed before row {@code j}, a positive
+   *     value if it should be placed after it and 0 if the rows are equal
+   */
+  int compare(int i, int j);
+
+  /**
+   * Returns a comparator that uses this comparator first and falls back to {@code other} for rows
+   * that this comparator considers equal.
+   */
+  default RowComparator thenComparing(RowComparator other) {
+    return (i, j) -> {
+      int result = compare(i, j);
+      return result != 0 ? result : other.compare(i, j);
+    };
+  }
+}
@@ -0,0 +1,171 @@
+package org.enso.table.operations.sort;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import org.enso.base.ObjectComparator;
+import org.enso.base.Text_Utils;
+import org.enso.table.data.column.storage.BoolStorage;
+import org.enso.table.data.column.storage.ColumnStorageWithNothingMap;
+import org.enso.table.data.column.storage.DictionaryStringStorage;
+import org.enso.table.data.column.storage.Storage;
+import org.enso.table.data.column.storage.StringStorage;
+import org.enso.table.data.column.storage.datetime.DateStorage;
+import org.enso.table.data.column.storage.datetime.DateTimeStorage;
+import org.enso.table.data.column.storage.datetime.TimeOfDayStorage;
+import org.enso.table.data.column.storage.numeric.AbstractLongStorage;
+import org.enso.table.data.column.storage.numeric.DoubleStorage;
+import org.enso.table.data.column.storage.numeric.LongStorage;
+
+/**
+ * Builds {@link RowComparator}s specialized for the underlying storage type.
+ *
+ * <p>The comparators read the values directly from the primitive arrays backing the storages, where
+ * available, and fall back to {@link ObjectComparator#DEFAULT} on boxed items otherwise. The
+ * ordering is consistent with the one defined by {@link ObjectComparator#DEFAULT}.
+ */
+public final class RowComparators {
+  private RowComparators() {}
+
+  /**
+   * Creates a comparator for the non-missing values of the storage.
+   *
+   * <p>The returned comparator must only be called on indexes of rows that are not missing.
+   *
+   * @param storage the storage to compare rows of
+   * @param ascending whether the values should be sorted in ascending or descending order
+   */
+  public static RowComparator forValues(Storage<?> storage, boolean ascending) {
+    RowComparator specialized = specializedAscendingValues(storage);
+    RowComparator cmp =
+        specialized != null
+            ? specialized
+            : (i, j) ->
+                ObjectComparator.DEFAULT.compare(storage.getItemBoxed(i), storage.getItemBoxed(j));
+    return ascending ? cmp : (i, j) -> cmp.compare(j, i);
+  }
+
+  /**
+   * Checks if the comparators for the given storage can be used from threads that are not entered
+   * into the polyglot context.
+   *
+   * <p>This is the case for all specialized comparators. The generic fallback may need to call back
+   * into Enso to compare custom objects, so it must stay on the main thread.
+   */
+  public static boolean isThreadSafe(Storage<?> storage) {
+    // Dictionary storages are checked upfront, to avoid ranking their dictionary needlessly.
+    return storage instanceof DictionaryStringStorage
+        || specializedAscendingValues(storage) != null;
+  }
+
+  /**
+   * Creates a comparator for all values of the storage, including the missing ones.
+   *
+   * @param storage the storage to compare rows of
+   * @param ascending whether the values should be sorted in ascending or descending order
+   * @param missingLast whether the missing values should be placed after or before all other
+   *     values, regardless of {@code ascending}
+   */
+  public static RowComparator forStorage(
+      Storage<?> storage, boolean ascending, boolean missingLast) {
+    RowComparator values = forValues(storage, ascending);
+    BitSet isNothing = nothingMap(storage);
+    int missingOrder = missingLast ? 1 : -1;
+    if (isNothing != null) {
+      return (i, j) -> {
+        boolean iMissing = isNothing.get(i);
+        boolean jMissing = isNothing.get(j);
+        if (iMissing || jMissing) {
+          return iMissing == jMissing ? 0 : (iMissing ? missingOrder : -missingOrder);
+        }
+        return values.compare(i, j);
+      };
+    } else {
+      return (i, j) -> {
+        boolean iMissing = storage.isNothing(i);
+        boolean jMissing = storage.isNothing(j);
+        if (iMissing || jMissing) {
+          return iMissing == jMissing ? 0 : (iMissing ? missingOrder : -missingOrder);
+        }
+        return values.compare(i, j);
+      };
+    }
+  }
+
+  /**
+   * Returns the bit set denoting missing values of the storage, or {@code null} if the storage does
+   * not expose one.
+   */
+  static BitSet nothingMap(Storage<?> storage) {
+    if (storage instanceof ColumnStorageWithNothingMap withNothingMap) {
+      return withNothingMap.getIsNothingMap();
+    }
+    return null;
+  }
+
+  private static RowComparator specializedAscendingValues(Storage<?> storage) {
+    return switch (storage) {
+      case LongStorage longStorage -> {
+        long[] data = longStorage.getRawData();
+        int offset = longStorage.getRawDataOffset();
+        yield (i, j) -> Long.compare(data[offset + i], data[offset + j]);
+      }
+      case AbstractLongStorage longStorage -> (i, j) ->
+          Long.compare(longStorage.getItem(i), longStorage.getItem(j));
+      case DoubleStorage doubleStorage -> {
+        long[] data = doubleStorage.getRawData();
+        int offset = doubleStorage.getRawDataOffset();
+        yield (i, j) ->
+            Double.compare(
+                Double.longBitsToDouble(data[offset + i]),
+                Double.longBitsToDouble(data[offset + j]));
+      }
+      case BoolStorage boolStorage -> (i, j) ->
+          Boolean.compare(boolStorage.getItem(i), boolStorage.getItem(j));
+      case DictionaryStringStorage dictionaryStorage -> {
+        int[] codes = dictionaryStorage.getCodes();
+        int[] ranks = rankDictionary(dictionaryStorage.getDictionary());
+        yield (i, j) -> Integer.compare(ranks[codes[i]], ranks[codes[j]]);
+      }
+      case StringStorage stringStorage -> {
+        String[] data = stringStorage.getData();
+        yield (i, j) -> Text_Utils.compare_normalized(data[i], data[j]);
+      }
+      case DateStorage dateStorage -> {
+        var data = dateStorage.getData();
+        yield (i, j) -> data[i].compareTo(data[j]);
+      }
+      case DateTimeStorage dateTimeStorage -> {
+        var data = dateTimeStorage.getData();
+        yield (i, j) -> data[i].compareTo(data[j]);
+      }
+      case TimeOfDayStorage timeOfDayStorage -> {
+        var data = timeOfDayStorage.getData();
+        yield (i, j) -> data[i].compareTo(data[j]);
+      }
+      default -> null;
+    };
+  }
+
+  /**
+   * Assigns each value of the dictionary its rank in the sorted order, so that rows can be compared
+   * by comparing the ranks of their codes. Values that compare as equal get the same rank.
+   */
+  private static int[] rankDictionary(String[] dictionary) {
+    Integer[] order = new Integer[dictionary.length];
+    for (int i = 0; i < order.length; i++) {
+      order[i] = i;
+    }
+    Arrays.sort(order, (i, j) -> Text_Utils.compare_normalized(dictionary[i], dictionary[j]));
+
+    int[] ranks = new int[dictionary.length];
+    int rank = 0;
+    for (int k = 0; k < order.length; k++) {
+      if (k > 0
+          && Text_Utils.compare_normalized(dictionary[order[k - 1]], dictionary[order[k]]) != 0) {
+        rank++;
+      }
+      ranks[order[k]] = rank;
+    }
+    return ranks;
+  }
+}
@@ -21,6 +21,9 @@ public abstract class DatatypeParser {
   /**
    * Parses a column of texts (represented as a {@code StringStorage}) and returns a new storage,
    * containing the parsed elements.
+   *
+   * <p>Separate columns may be parsed in parallel, on worker threads that are not entered into the
+   * polyglot context, so implementations must not call back into Enso.
    */
   public abstract Storage<?> parseColumn(
       Storage<String> sourceStorage, CommonParseProblemAggregator problemAggregator);
@@ -4,6 +4,7 @@ import org.enso.table.data.column.builder.Builder;
 import org.enso.table.data.column.storage.Storage;
 import org.enso.table.parsing.problems.CommonParseProblemAggregator;
 import org.enso.table.problems.ProblemAggregator;
+import org.enso.table.util.ParallelTasks;
 import org.graalvm.polyglot.Context;
 
 /**
@@ -35,7 +36,7 @@ public abstract class IncrementalDatatypeParser extends DatatypeParser {
       Storage<String> sourceStorage, CommonParseProblemAggregator problemAggregator) {
     Builder builder = makeBuilderWithCapacity(sourceStorage.size(), problemAggregator);
 
-    Context context = Context.getCurrent();
+    Context context = ParallelTasks.getCurrentContextOrNull();
     for (int i = 0; i < sourceStorage.size(); ++i) {
       String cell = sourceStorage.getItemBoxed(i);
       if (cell != null) {
@@ -45,7 +46,9 @@ public abstract class IncrementalDatatypeParser extends DatatypeParser {
         builder.appendNoGrow(null);
       }
 
-      context.safepoint();
+      if (context != null) {
+        context.safepoint();
+      }
     }
 
     return builder.seal();
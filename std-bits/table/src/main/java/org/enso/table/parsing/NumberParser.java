@@ -13,6 +13,7 @@ import org.enso.table.data.column.storage.type.IntegerType;
 import org.enso.table.parsing.problems.CommonParseProblemAggregator;
 import org.enso.table.parsing.problems.ParseProblemAggregator;
 import org.enso.table.problems.ProblemAggregator;
+import org.enso.table.util.ParallelTasks;
 import org.graalvm.polyglot.Context;
 
 /**
@@ -339,7 +340,7 @@ public class NumberParser extends IncrementalDatatypeParser {
       Storage<String> sourceStorage,
       Builder builder,
       ParseProblemAggregator aggregator) {
-    Context context = Context.getCurrent();
+    Context context = ParallelTasks.getCurrentContextOrNull();
     for (int i = 0; i < sourceStorage.size(); i++) {
       var text = sourceStorage.getItemBoxed(i);
       if (text == null) {
@@ -358,7 +359,9 @@ public class NumberParser extends IncrementalDatatypeParser {
         }
       }
 
-      context.safepoint();
+      if (context != null) {
+        context.safepoint();
+      }
     }
     return -1;
   }
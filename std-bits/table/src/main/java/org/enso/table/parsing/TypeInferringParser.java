@@ -6,6 +6,7 @@ import org.enso.table.data.column.storage.Storage;
 import org.enso.table.parsing.problems.CommonParseProblemAggregator;
 import org.enso.table.parsing.problems.ParseProblemAggregator;
 import org.enso.table.parsing.problems.ShortCircuitParseProblemAggregator;
+import org.enso.table.util.ParallelTasks;
 import org.graalvm.polyglot.Context;
 
 /**
@@ -49,7 +50,7 @@ public class TypeInferringParser extends DatatypeParser {
       return fallbackParser.parseColumn(sourceStorage, problemAggregator);
     }
 
-    Context context = Context.getCurrent();
+    Context context = ParallelTasks.getCurrentContextOrNull();
     parsers:
     for (IncrementalDatatypeParser parser : baseParsers) {
       CommonParseProblemAggregator innerAggregator = problemAggregator.createContextAwareChild();
@@ -70,7 +71,9 @@ public class TypeInferringParser extends DatatypeParser {
           builder.appendNoGrow(null);
         }
 
-        context.safepoint();
+        if (context != null) {
+          context.safepoint();
+        }
       }
 
       return builder.seal();
@@ -0,0 +1,716 @@
+package org.enso.table.read;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.enso.table.data.column.storage.BoolStorage;
+import org.enso.table.data.column.storage.DictionaryStringStorage;
+import org.enso.table.data.column.storage.Storage;
+import org.enso.table.data.column.storage.StringStorage;
+import org.enso.table.data.column.storage.datetime.DateStorage;
+import org.enso.table.data.column.storage.datetime.TimeOfDayStorage;
+import org.enso.table.data.column.storage.numeric.DoubleStorage;
+import org.enso.table.data.column.storage.numeric.LongStorage;
+import org.enso.table.data.column.storage.type.Bits;
+import org.enso.table.data.column.storage.type.IntegerType;
+import org.enso.table.data.column.storage.type.TextType;
+import org.enso.table.data.table.Column;
+import org.enso.table.data.table.Table;
+import org.enso.table.error.CorruptedFileException;
+import org.enso.table.format.arrow.ArrowFormat;
+import org.enso.table.format.arrow.FlatBufferTable;
+import org.enso.table.util.MappedFiles;
+import org.graalvm.polyglot.Context;
+
+/**
+ * Reads a table from an Arrow IPC file.
+ *
+ * <p>Local files are mapped into memory, and the buffers of 64-bit integer, double and dictionary
+ * index columns are copied out of the mapping in bulk. All record batches of the file are
+ * concatenated into a single table.
+ *
+ * <p>Integer, floating point, boolean, date, time and text columns are supported, including
+ * dictionary-encoded text columns. Files with other column types or with compressed buffers are
+ * rejected with an {@link UnsupportedOperationException}.
+ */
+public final class ArrowReader {
+  private static final long NANOS_PER_DAY = 86_400_000_000_000L;
+  private static final long MILLIS_PER_DAY = 86_400_000L;
+
+  private final ByteBuffer data;
+  private final Map<Long, List<String>> dictionaries = new HashMap<>();
+
+  /** Whether the values of each dictionary are encoded as {@code LargeUtf8}. */
+  private final Map<Long, Boolean> isLargeDictionary = new HashMap<>();
+
+  private ArrowReader(ByteBuffer data) {
+    this.data = data.order(ByteOrder.LITTLE_ENDIAN);
+  }
+
+  /**
+   * Reads the table from the given file, mapping it into memory.
+   *
+   * @see MappedFiles#map(File)
+   */
+  public static Table readFile(File file) throws IOException {
+    return new ArrowReader(MappedFiles.map(file)).readTable();
+  }
+
+  /** Reads the table from the remaining contents of the stream. */
+  public static Table readStream(InputStream stream) throws IOException {
+    return new ArrowReader(ByteBuffer.wrap(stream.readAllBytes())).readTable();
+  }
+
+  /** Checks if the given bytes are the beginning of an Arrow IPC file. */
+  public static boolean hasMagicHeader(byte[] bytes) {
+    return bytes != null
+        && bytes.length >= ArrowFormat.MAGIC.length
+        && Arrays.equals(
+            bytes, 0, ArrowFormat.MAGIC.length, ArrowFormat.MAGIC, 0, ArrowFormat.MAGIC.length);
+  }
+
+  private Table readTable() {
+    try {
+      int size = data.limit();
+      int trailerLength = Integer.BYTES + ArrowFormat.MAGIC.length;
+      if (!hasMagicAt(0) || size < ArrowFormat.ALIGNMENT + trailerLength) {
+        throw new CorruptedFileException("The file is not an Arrow file.");
+      }
+      if (!hasMagicAt(size - ArrowFormat.MAGIC.length)) {
+        throw new CorruptedFileException("The Arrow file is truncated.");
+      }
+
+      int footerLength = data.getInt(size - trailerLength);
+      int footerStart = size - trailerLength - footerLength;
+      if (footerLength <= 0 || footerStart < ArrowFormat.ALIGNMENT) {
+        throw new CorruptedFileException("The Arrow file is truncated or corrupted.");
+      }
+      FlatBufferTable footer = FlatBufferTable.root(data.slice(footerStart, footerLength));
+      FlatBufferTable schema = footer.getTable(ArrowFormat.Footer.SCHEMA);
+      if (schema == null) {
+        throw new CorruptedFileException("The Arrow file does not contain a schema.");
+      }
+      if (schema.getShort(ArrowFormat.Schema.ENDIANNESS, (short) 0) != 0) {
+        throw new UnsupportedOperationException("Big-endian Arrow files are not supported.");
+      }
+
+      int fieldCount = schema.getVectorLength(ArrowFormat.Schema.FIELDS);
+      ColumnReader[] columns = new ColumnReader[fieldCount];
+      for (int i = 0; i < fieldCount; i++) {
+        columns[i] = columnReader(schema.getVectorTable(ArrowFormat.Schema.FIELDS, i));
+      }
+
+      int dictionaryCount = footer.getVectorLength(ArrowFormat.Footer.DICTIONARIES);
+      for (int i = 0; i < dictionaryCount; i++) {
+        readDictionaryBatch(footer, i);
+      }
+
+      int batchCount = footer.getVectorLength(ArrowFormat.Footer.RECORD_BATCHES);
+      RecordBatch[] batches = new RecordBatch[batchCount];
+      long rowCount = 0;
+      for (int i = 0; i < batchCount; i++) {
+        batches[i] = recordBatch(footer, ArrowFormat.Footer.RECORD_BATCHES, i);
+        rowCount = Math.addExact(rowCount, batches[i].length);
+      }
+      if (rowCount > Integer.MAX_VALUE) {
+        throw new UnsupportedOperationException(
+            "The Arrow file has too many rows to be read as a single table.");
+      }
+
+      int totalRows = (int) rowCount;
+      for (ColumnReader column : columns) {
+        column.allocate(totalRows);
+      }
+      int rowOffset = 0;
+      for (RecordBatch batch : batches) {
+        for (ColumnReader column : columns) {
+          column.read(batch, rowOffset);
+        }
+        rowOffset += Math.toIntExact(batch.length);
+      }
+
+      Column[] result = new Column[fieldCount];
+      for (int i = 0; i < fieldCount; i++) {
+        result[i] = new Column(columns[i].name, columns[i].build(totalRows));
+      }
+      return new Table(result);
+    } catch (BufferUnderflowException
+        | IndexOutOfBoundsException
+        | IllegalArgumentException
+        | ArithmeticException e) {
+      // Invalid offsets and lengths are reported as any of the latter three.
+      throw new CorruptedFileException("The Arrow file is truncated or corrupted.");
+    }
+  }
+
+  private boolean hasMagicAt(int position) {
+    if (position < 0 || position + ArrowFormat.MAGIC.length > data.limit()) {
+      return false;
+    }
+
+    byte[] bytes = new byte[ArrowFormat.MAGIC.length];
+    data.get(position, bytes);
+    return Arrays.equals(bytes, ArrowFormat.MAGIC);
+  }
+
+  private void readDictionaryBatch(FlatBufferTable footer, int index) {
+    Message message = message(footer, ArrowFormat.Footer.DICTIONARIES, index);
+    if (message.headerType != ArrowFormat.HEADER_DICTIONARY_BATCH) {
+      throw new CorruptedFileException("Invalid dictionary batch in the Arrow file.");
+    }
+
+    long id = message.header.getLong(ArrowFormat.DictionaryBatch.ID, 0);
+    FlatBufferTable data = message.header.getTable(ArrowFormat.DictionaryBatch.DATA);
+    if (data == null) {
+      throw new CorruptedFileException("Invalid dictionary batch in the Arrow file.");
+    }
+    RecordBatch batch = new RecordBatch(data, message.body);
+    if (batch.length > Integer.MAX_VALUE) {
+      throw new UnsupportedOperationException("The dictionaries of the Arrow file are too large.");
+    }
+
+    Boolean isLarge = isLargeDictionary.get(id);
+    if (isLarge == null) {
+      throw new CorruptedFileException("The Arrow file contains an unused dictionary.");
+    }
+    int length = (int) batch.length;
+    TextColumn values = new TextColumn("dictionary", isLarge);
+    values.allocate(length);
+    values.read(batch, 0);
+
+    List<String> dictionary =
+        message.header.getBoolean(ArrowFormat.DictionaryBatch.IS_DELTA, false)
+            ? dictionaries.computeIfAbsent(id, k -> new ArrayList<>())
+            : new ArrayList<>();
+    for (int i = 0; i < length; i++) {
+      dictionary.add(values.isNothing.get(i) ? null : values.values[i]);
+    }
+    dictionaries.put(id, dictionary);
+  }
+
+  private RecordBatch recordBatch(FlatBufferTable footer, int blocksId, int index) {
+    Message message = message(footer, blocksId, index);
+    if (message.headerType != ArrowFormat.HEADER_RECORD_BATCH) {
+      throw new CorruptedFileException("Invalid record batch in the Arrow file.");
+    }
+    return new RecordBatch(message.header, message.body);
+  }
+
+  private record Message(byte headerType, FlatBufferTable header, ByteBuffer body) {}
+
+  /** Reads the encapsulated message located by the block at the given index of the vector. */
+  private Message message(FlatBufferTable footer, int blocksId, int index) {
+    ByteBuffer footerBuffer = footer.getBuffer();
+    int block = footer.getStructVectorPosition(blocksId, index, ArrowFormat.BLOCK_SIZE);
+    int offset = Math.toIntExact(footerBuffer.getLong(block));
+    int metadataLength = footerBuffer.getInt(block + Long.BYTES);
+    long bodyLength = footerBuffer.getLong(block + 2 * Long.BYTES);
+
+    int flatBufferStart = offset + Integer.BYTES;
+    int flatBufferLength = data.getInt(offset);
+    if (flatBufferLength == ArrowFormat.CONTINUATION_MARKER) {
+      flatBufferStart += Integer.BYTES;
+      flatBufferLength = data.getInt(offset + Integer.BYTES);
+    }
+    FlatBufferTable message = FlatBufferTable.root(data.slice(flatBufferStart, flatBufferLength));
+    FlatBufferTable header = message.getTable(ArrowFormat.Message.HEADER);
+    if (header == null) {
+      throw new CorruptedFileException("Invalid message in the Arrow file.");
+    }
+
+    ByteBuffer body = data.slice(offset + metadataLength, Math.toIntExact(bodyLength));
+    return new Message(
+        message.getByte(ArrowFormat.Message.HEADER_TYPE, (byte) 0),
+        header,
+        body.order(ByteOrder.LITTLE_ENDIAN));
+  }
+
+  /**
+   * A record batch, whose nodes and buffers are consumed by the columns in order, as each column
+   * takes one node and a number of buffers depending on its type.
+   */
+  private static final class RecordBatch {
+    private final FlatBufferTable header;
+    private final ByteBuffer body;
+    private final long length;
+    private int nextNode = 0;
+    private int nextBuffer = 0;
+
+    RecordBatch(FlatBufferTable header, ByteBuffer body) {
+      if (header.has(ArrowFormat.RecordBatch.COMPRESSION)) {
+        throw new UnsupportedOperationException("Compressed Arrow files are not supported.");
+      }
+
+      this.header = header;
+      this.body = body;
+      this.length = header.getLong(ArrowFormat.RecordBatch.LENGTH, 0);
+      if (length < 0) {
+        throw new CorruptedFileException("Invalid record batch in the Arrow file.");
+      }
+    }
+
+    /** Returns the null count of the next node, checking that it covers the whole batch. */
+    long nextNodeNullCount() {
+      int node =
+          header.getStructVectorPosition(
+              ArrowFormat.RecordBatch.NODES, nextNode++, ArrowFormat.FIELD_NODE_SIZE);
+      if (header.getBuffer().getLong(node) != length) {
+        throw new CorruptedFileException("Invalid record batch in the Arrow file.");
+      }
+      return header.getBuffer().getLong(node + Long.BYTES);
+    }
+
+    ByteBuffer nextBuffer() {
+      if (nextBuffer >= header.getVectorLength(ArrowFormat.RecordBatch.BUFFERS)) {
+        throw new CorruptedFileException("Invalid record batch in the Arrow file.");
+      }
+      int buffer =
+          header.getStructVectorPosition(
+              ArrowFormat.RecordBatch.BUFFERS, nextBuffer++, ArrowFormat.BUFFER_SIZE);
+      long offset = header.getBuffer().getLong(buffer);
+      long length = header.getBuffer().getLong(buffer + Long.BYTES);
+      return body.slice(Math.toIntExact(offset), Math.toIntExact(length))
+          .order(ByteOrder.LITTLE_ENDIAN);
+    }
+  }
+
+  private ColumnReader columnReader(FlatBufferTable field) {
+    String name = field.getString(ArrowFormat.Field.NAME);
+    if (name == null) {
+      name = "";
+    }
+    byte typeType = field.getByte(ArrowFormat.Field.TYPE_TYPE, (byte) 0);
+    FlatBufferTable type = field.getTable(ArrowFormat.Field.TYPE);
+    if (type == null) {
+      throw new CorruptedFileException("The Arrow column [" + name + "] has no type.");
+    }
+
+    FlatBufferTable dictionary = field.getTable(ArrowFormat.Field.DICTIONARY);
+    if (dictionary != null) {
+      if (typeType != ArrowFormat.TYPE_UTF8 && typeType != ArrowFormat.TYPE_LARGE_UTF8) {
+        throw unsupportedType(name);
+      }
+      int indexWidth = Integer.SIZE;
+      FlatBufferTable indexType = dictionary.getTable(ArrowFormat.DictionaryEncoding.INDEX_TYPE);
+      if (indexType != null) {
+        indexWidth = indexType.getInt(ArrowFormat.IntType.BIT_WIDTH, 0);
+      }
+      long id = dictionary.getLong(ArrowFormat.DictionaryEncoding.ID, 0);
+      isLargeDictionary.put(id, typeType == ArrowFormat.TYPE_LARGE_UTF8);
+      return new DictionaryColumn(name, id, indexWidth);
+    }
+
+    return switch (typeType) {
+      case ArrowFormat.TYPE_INT -> {
+        int bitWidth = type.getInt(ArrowFormat.IntType.BIT_WIDTH, 0);
+        boolean isSigned = type.getBoolean(ArrowFormat.IntType.IS_SIGNED, false);
+        if (!isSupportedIntWidth(bitWidth) || (!isSigned && bitWidth == Long.SIZE)) {
+          throw unsupportedType(name);
+        }
+        yield new IntegerColumn(name, bitWidth, isSigned);
+      }
+      case ArrowFormat.TYPE_FLOATING_POINT -> {
+        short precision = type.getShort(ArrowFormat.PRECISION_OR_UNIT, (short) 0);
+        if (precision != ArrowFormat.PRECISION_SINGLE
+            && precision != ArrowFormat.PRECISION_DOUBLE) {
+          throw unsupportedType(name);
+        }
+        yield new FloatColumn(name, precision == ArrowFormat.PRECISION_DOUBLE);
+      }
+      case ArrowFormat.TYPE_BOOL -> new BooleanColumn(name);
+      case ArrowFormat.TYPE_DATE -> new DateColumn(
+          name,
+          type.getShort(ArrowFormat.PRECISION_OR_UNIT, ArrowFormat.DATE_UNIT_MILLISECOND)
+              == ArrowFormat.DATE_UNIT_DAY);
+      case ArrowFormat.TYPE_TIME -> {
+        short unit =
+            type.getShort(ArrowFormat.PRECISION_OR_UNIT, ArrowFormat.TIME_UNIT_MILLISECOND);
+        int bitWidth = type.getInt(ArrowFormat.TIME_BIT_WIDTH, Integer.SIZE);
+        if (unit < ArrowFormat.TIME_UNIT_SECOND
+            || unit > ArrowFormat.TIME_UNIT_NANOSECOND
+            || (bitWidth != Integer.SIZE && bitWidth != Long.SIZE)) {
+          throw unsupportedType(name);
+        }
+        yield new TimeColumn(name, unit, bitWidth == Long.SIZE);
+      }
+      case ArrowFormat.TYPE_UTF8 -> new TextColumn(name, false);
+      case ArrowFormat.TYPE_LARGE_UTF8 -> new TextColumn(name, true);
+      default -> throw unsupportedType(name);
+    };
+  }
+
+  private static boolean isSupportedIntWidth(int bitWidth) {
+    return bitWidth == Byte.SIZE
+        || bitWidth == Short.SIZE
+        || bitWidth == Integer.SIZE
+        || bitWidth == Long.SIZE;
+  }
+
+  private static UnsupportedOperationException unsupportedType(String name) {
+    return new UnsupportedOperationException(
+        "The Arrow column [" + name + "] has a type that is not supported.");
+  }
+
+  /** Reads the values of a column from consecutive record batches. */
+  private abstract static class ColumnReader {
+    final String name;
+    final BitSet isNothing = new BitSet();
+
+    ColumnReader(String name) {
+      this.name = name;
+    }
+
+    abstract void allocate(int rowCount);
+
+    /** Reads the values of the next column of the batch, starting at the given row. */
+    void read(RecordBatch batch, int rowOffset) {
+      long nullCount = batch.nextNodeNullCount();
+      ByteBuffer validity = batch.nextBuffer();
+      int length = Math.toIntExact(batch.length);
+      if (nullCount != 0 && validity.limit() > 0) {
+        readValidity(validity, rowOffset, length);
+      }
+      readValues(batch, rowOffset, length);
+    }
+
+    abstract void readValues(RecordBatch batch, int rowOffset, int length);
+
+    abstract Storage<?> build(int rowCount);
+
+    private void readValidity(ByteBuffer validity, int rowOffset, int length) {
+      Context context = Context.getCurrent();
+      for (int i = 0; i < length; i += Byte.SIZE) {
+        int bits = validity.get(i / Byte.SIZE) & 0xFF;
+        if (bits != 0xFF) {
+          for (int j = i; j < Math.min(i + Byte.SIZE, length); j++) {
+            if ((bits & (1 << (j - i))) == 0) {
+              isNothing.set(rowOffset + j);
+            }
+          }
+        }
+        context.safepoint();
+      }
+    }
+  }
+
+  /** Reads integers of the given width, sign-extending or zero-extending them to longs. */
+  private static long[] readIntegers(
+      ByteBuffer buffer, int bitWidth, boolean isSigned, int length) {
+    long[] values = new long[length];
+    switch (bitWidth) {
+      case Long.SIZE -> buffer.asLongBuffer().get(values, 0, length);
+      case Integer.SIZE -> {
+        for (int i = 0; i < length; i++) {
+          int value = buffer.getInt(i * Integer.BYTES);
+          values[i] = isSigned ? value : Integer.toUnsignedLong(value);
+        }
+      }
+      case Short.SIZE -> {
+        for (int i = 0; i < length; i++) {
+          short value = buffer.getShort(i * Short.BYTES);
+          values[i] = isSigned ? value : Short.toUnsignedInt(value);
+        }
+      }
+      default -> {
+        for (int i = 0; i < length; i++) {
+          byte value = buffer.get(i);
+          values[i] = isSigned ? value : Byte.toUnsignedInt(value);
+        }
+      }
+    }
+    return values;
+  }
+
+  private static final class IntegerColumn extends ColumnReader {
+    private final int bitWidth;
+    private final boolean isSigned;
+    private long[] values;
+
+    IntegerColumn(String name, int bitWidth, boolean isSigned) {
+      super(name);
+      this.bitWidth = bitWidth;
+      this.isSigned = isSigned;
+    }
+
+    @Override
+    void allocate(int rowCount) {
+      values = new long[rowCount];
+    }
+
+    @Override
+    void readValues(RecordBatch batch, int rowOffset, int length) {
+      long[] batchValues = readIntegers(batch.nextBuffer(), bitWidth, isSigned, length);
+      System.arraycopy(batchValues, 0, values, rowOffset, length);
+    }
+
+    @Override
+    Storage<?> build(int rowCount) {
+      // Unsigned integers need the next larger signed type to represent all their values.
+      int width = isSigned ? bitWidth : 2 * bitWidth;
+      return new LongStorage(
+          values, rowCount, isNothing, IntegerType.create(Bits.fromInteger(width)));
+    }
+  }
+
+  private static final class FloatColumn extends ColumnReader {
+    private final boolean isDouble;
+    private long[] values;
+
+    FloatColumn(String name, boolean isDouble) {
+      super(name);
+      this.isDouble = isDouble;
+    }
+
+    @Override
+    void allocate(int rowCount) {
+      values = new long[rowCount];
+    }
+
+    @Override
+    void readValues(RecordBatch batch, int rowOffset, int length) {
+      ByteBuffer buffer = batch.nextBuffer();
+      if (isDouble) {
+        buffer.asLongBuffer().get(values, rowOffset, length);
+      } else {
+        for (int i = 0; i < length; i++) {
+          double value = buffer.getFloat(i * Float.BYTES);
+          values[rowOffset + i] = Double.doubleToRawLongBits(value);
+        }
+      }
+    }
+
+    @Override
+    Storage<?> build(int rowCount) {
+      return new DoubleStorage(values, rowCount, isNothing);
+    }
+  }
+
+  private static final class BooleanColumn extends ColumnReader {
+    private final BitSet values = new BitSet();
+
+    BooleanColumn(String name) {
+      super(name);
+    }
+
+    @Override
+    void allocate(int rowCount) {}
+
+    @Override
+    void readValues(RecordBatch batch, int rowOffset, int length) {
+      ByteBuffer buffer = batch.nextBuffer();
+      if (rowOffset == 0) {
+        values.or(BitSet.valueOf(buffer).get(0, length));
+        return;
+      }
+
+      for (int i = 0; i < length; i++) {
+        if ((buffer.get(i / Byte.SIZE) & (1 << (i % Byte.SIZE))) != 0) {
+          values.set(rowOffset + i);
+        }
+      }
+    }
+
+    @Override
+    Storage<?> build(int rowCount) {
+      return new BoolStorage(values, isNothing, rowCount, false);
+    }
+  }
+
+  private static final class DateColumn extends ColumnReader {
+    private final boolean isDays;
+    private LocalDate[] values;
+
+    DateColumn(String name, boolean isDays) {
+      super(name);
+      this.isDays = isDays;
+    }
+
+    @Override
+    void allocate(int rowCount) {
+      values = new LocalDate[rowCount];
+    }
+
+    @Override
+    void readValues(RecordBatch batch, int rowOffset, int length) {
+      ByteBuffer buffer = batch.nextBuffer();
+      Context context = Context.getCurrent();
+      for (int i = 0; i < length; i++) {
+        if (!isNothing.get(rowOffset + i)) {
+          long days =
+              isDays
+                  ? buffer.getInt(i * Integer.BYTES)
+                  : Math.floorDiv(buffer.getLong(i * Long.BYTES), MILLIS_PER_DAY);
+          values[rowOffset + i] = LocalDate.ofEpochDay(days);
+        }
+        context.safepoint();
+      }
+    }
+
+    @Override
+    Storage<?> build(int rowCount) {
+      return new DateStorage(values, rowCount);
+    }
+  }
+
+  private static final class TimeColumn extends ColumnReader {
+    private final long nanosPerUnit;
+    private final boolean is64Bit;
+    private LocalTime[] values;
+
+    TimeColumn(String name, short unit, boolean is64Bit) {
+      super(name);
+      this.nanosPerUnit =
+          switch (unit) {
+            case ArrowFormat.TIME_UNIT_SECOND -> 1_000_000_000L;
+            case ArrowFormat.TIME_UNIT_MILLISECOND -> 1_000_000L;
+            case ArrowFormat.TIME_UNIT_MICROSECOND -> 1_000L;
+            default -> 1L;
+          };
+      this.is64Bit = is64Bit;
+    }
+
+    @Override
+    void allocate(int rowCount) {
+      values = new LocalTime[rowCount];
+    }
+
+    @Override
+    void readValues(RecordBatch batch, int rowOffset, int length) {
+      ByteBuffer buffer = batch.nextBuffer();
+      Context context = Context.getCurrent();
+      for (int i = 0; i < length; i++) {
+        if (!isNothing.get(rowOffset + i)) {
+          long value = is64Bit ? buffer.getLong(i * Long.BYTES) : buffer.getInt(i * Integer.BYTES);
+          if (value < 0 || value >= NANOS_PER_DAY / nanosPerUnit) {
+            throw new CorruptedFileException(
+                "Invalid time of day in the Arrow column [" + name + "].");
+          }
+          values[rowOffset + i] = LocalTime.ofNanoOfDay(value * nanosPerUnit);
+        }
+        context.safepoint();
+      }
+    }
+
+    @Override
+    Storage<?> build(int rowCount) {
+      return new TimeOfDayStorage(values, rowCount);
+    }
+  }
+
+  private static final class TextColumn extends ColumnReader {
+    private final boolean isLarge;
+    private String[] values;
+
+    TextColumn(String name, boolean isLarge) {
+      super(name);
+      this.isLarge = isLarge;
+    }
+
+    @Override
+    void allocate(int rowCount) {
+      values = new String[rowCount];
+    }
+
+    @Override
+    void readValues(RecordBatch batch, int rowOffset, int length) {
+      ByteBuffer offsets = batch.nextBuffer();
+      ByteBuffer data = batch.nextBuffer();
+      Context context = Context.getCurrent();
+      byte[] bytes = new byte[0];
+      for (int i = 0; i < length; i++) {
+        if (!isNothing.get(rowOffset + i)) {
+          int start = offset(offsets, i);
+          int size = offset(offsets, i + 1) - start;
+          if (bytes.length < size) {
+            bytes = new byte[Math.max(size, 2 * bytes.length)];
+          }
+          data.get(start, bytes, 0, size);
+          values[rowOffset + i] = new String(bytes, 0, size, StandardCharsets.UTF_8);
+        }
+        context.safepoint();
+      }
+    }
+
+    private int offset(ByteBuffer offsets, int index) {
+      return isLarge
+          ? Math.toIntExact(offsets.getLong(index * Long.BYTES))
+          : offsets.getInt(index * Integer.BYTES);
+    }
+
+    @Override
+    Storage<?> build(int rowCount) {
+      return new StringStorage(values, rowCount, TextType.VARIABLE_LENGTH);
+    }
+  }
+
+  private final class DictionaryColumn extends ColumnReader {
+    private final long id;
+    private final int indexWidth;
+    private int[] codes;
+
+    DictionaryColumn(String name, long id, int indexWidth) {
+      super(name);
+      if (!isSupportedIntWidth(indexWidth)) {
+        throw unsupportedType(name);
+      }
+      this.id = id;
+      this.indexWidth = indexWidth;
+    }
+
+    @Override
+    void allocate(int rowCount) {
+      codes = new int[rowCount];
+    }
+
+    @Override
+    void readValues(RecordBatch batch, int rowOffset, int length) {
+      ByteBuffer buffer = batch.nextBuffer();
+      if (indexWidth == Integer.SIZE) {
+        buffer.asIntBuffer().get(codes, rowOffset, length);
+        return;
+      }
+
+      long[] indices = readIntegers(buffer, indexWidth, true, length);
+      for (int i = 0; i < length; i++) {
+        codes[rowOffset + i] = (int) Math.max(Integer.MIN_VALUE, indices[i]);
+      }
+    }
+
+    @Override
+    Storage<?> build(int rowCount) {
+      List<String> dictionary = dictionaries.get(id);
+      if (dictionary == null) {
+        throw new CorruptedFileException(
+            "The dictionary of the Arrow column [" + name + "] is missing.");
+      }
+
+      Context context = Context.getCurrent();
+      for (int i = 0; i < rowCount; i++) {
+        if (isNothing.get(i)) {
+          codes[i] = DictionaryStringStorage.NOTHING;
+        } else if (codes[i] < 0 || codes[i] >= dictionary.size()) {
+          throw new CorruptedFileException(
+              "Invalid dictionary index in the Arrow column [" + name + "].");
+        } else if (dictionary.get(codes[i]) == null) {
+          codes[i] = DictionaryStringStorage.NOTHING;
+        }
+        context.safepoint();
+      }
+      // Missing dictionary values are never referenced by the codes, so they can be replaced.
+      String[] values = dictionary.stream().map(v -> v == null ? "" : v).toArray(String[]::new);
+      return new DictionaryStringStorage(codes, values, rowCount, TextType.VARIABLE_LENGTH);
+    }
+  }
+}
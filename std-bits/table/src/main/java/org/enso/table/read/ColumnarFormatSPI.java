@@ -0,0 +1,16 @@
+package org.enso.table.read;
+
+import org.enso.base.file_format.FileFormatSPI;
+
+@org.openide.util.lookup.ServiceProvider(service = FileFormatSPI.class)
+public class ColumnarFormatSPI extends FileFormatSPI {
+  @Override
+  protected String getModuleName() {
+    return "Standard.Table.Columnar.Columnar_Format";
+  }
+
+  @Override
+  protected String getTypeName() {
+    return "Columnar_Format";
+  }
+}
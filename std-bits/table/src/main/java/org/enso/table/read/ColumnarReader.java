@@ -0,0 +1,234 @@
+package org.enso.table.read;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.BitSet;
+import org.enso.table.data.column.storage.BoolStorage;
+import org.enso.table.data.column.storage.DictionaryStringStorage;
+import org.enso.table.data.column.storage.Storage;
+import org.enso.table.data.column.storage.StringStorage;
+import org.enso.table.data.column.storage.datetime.DateStorage;
+import org.enso.table.data.column.storage.datetime.TimeOfDayStorage;
+import org.enso.table.data.column.storage.numeric.DoubleStorage;
+import org.enso.table.data.column.storage.numeric.LongStorage;
+import org.enso.table.data.column.storage.type.Bits;
+import org.enso.table.data.column.storage.type.IntegerType;
+import org.enso.table.data.column.storage.type.TextType;
+import org.enso.table.data.table.Column;
+import org.enso.table.data.table.Table;
+import org.enso.table.error.CorruptedFileException;
+import org.enso.table.format.ColumnarLayout;
+import org.enso.table.format.ColumnarLayout.ColumnKind;
+import org.enso.table.util.MappedFiles;
+import org.graalvm.polyglot.Context;
+
+/**
+ * Reads a table written by {@code ColumnarWriter}.
+ *
+ * <p>Local files are mapped into memory, and the numeric, boolean and dictionary code arrays are
+ * copied out of the mapping in bulk, without parsing individual values. Only dates, times and text
+ * values that are not dictionary-encoded need to be decoded one by one.
+ */
+public final class ColumnarReader {
+  private final ByteBuffer data;
+
+  private ColumnarReader(ByteBuffer data) {
+    this.data = data.order(ColumnarLayout.BYTE_ORDER);
+  }
+
+  /**
+   * Reads the table from the given file, mapping it into memory.
+   *
+   * @see MappedFiles#map(File)
+   */
+  public static Table readFile(File file) throws IOException {
+    return new ColumnarReader(MappedFiles.map(file)).readTable();
+  }
+
+  /** Reads the table from the remaining contents of the stream. */
+  public static Table readStream(InputStream stream) throws IOException {
+    return new ColumnarReader(ByteBuffer.wrap(stream.readAllBytes())).readTable();
+  }
+
+  /** Checks if the given bytes are the beginning of a file in the columnar format. */
+  public static boolean hasMagicHeader(byte[] bytes) {
+    return bytes != null
+        && bytes.length >= ColumnarLayout.MAGIC.length
+        && Arrays.equals(
+            bytes,
+            0,
+            ColumnarLayout.MAGIC.length,
+            ColumnarLayout.MAGIC,
+            0,
+            ColumnarLayout.MAGIC.length);
+  }
+
+  private Table readTable() {
+    try {
+      byte[] magic = new byte[ColumnarLayout.MAGIC.length];
+      data.get(magic);
+      if (!hasMagicHeader(magic)) {
+        throw new CorruptedFileException("The file is not a columnar table file.");
+      }
+
+      int version = data.getInt();
+      if (version != ColumnarLayout.VERSION) {
+        throw new CorruptedFileException("Unsupported columnar table file version: " + version);
+      }
+
+      int columnCount = data.getInt();
+      int rowCount = data.getInt();
+      if (columnCount < 0 || rowCount < 0) {
+        throw new CorruptedFileException("Invalid columnar table file header.");
+      }
+      align();
+
+      Column[] columns = new Column[columnCount];
+      for (int i = 0; i < columnCount; i++) {
+        columns[i] = readColumn(rowCount);
+      }
+      return new Table(columns);
+    } catch (BufferUnderflowException
+        | IndexOutOfBoundsException
+        | IllegalArgumentException
+        | DateTimeException e) {
+      // Invalid lengths and parameters are reported as the second and third, and dates and times
+      // out of range as the last one.
+      throw new CorruptedFileException("The columnar table file is truncated or corrupted.");
+    }
+  }
+
+  private Column readColumn(int rowCount) {
+    String name = new String(getBytes(data.getInt()), StandardCharsets.UTF_8);
+    align();
+
+    int kindCode = data.getInt();
+    ColumnKind kind = ColumnKind.fromCode(kindCode);
+    if (kind == null) {
+      throw new CorruptedFileException("Unknown column kind " + kindCode + " of column " + name);
+    }
+    int intParameter = data.getInt();
+    long longParameter = data.getLong();
+
+    BitSet isNothing = getBitSet();
+    Storage<?> storage =
+        switch (kind) {
+          case INTEGER -> new LongStorage(
+              getLongs(rowCount),
+              rowCount,
+              isNothing,
+              IntegerType.create(Bits.fromInteger(intParameter)));
+          case FLOAT -> new DoubleStorage(getLongs(rowCount), rowCount, isNothing);
+          case BOOLEAN -> new BoolStorage(getBitSet(), isNothing, rowCount, false);
+          case DATE -> {
+            long[] epochDays = getLongs(rowCount);
+            LocalDate[] dates = new LocalDate[rowCount];
+            Context context = Context.getCurrent();
+            for (int i = 0; i < rowCount; i++) {
+              if (!isNothing.get(i)) {
+                dates[i] = LocalDate.ofEpochDay(epochDays[i]);
+              }
+              context.safepoint();
+            }
+            yield new DateStorage(dates, rowCount);
+          }
+          case TIME_OF_DAY -> {
+            long[] nanos = getLongs(rowCount);
+            LocalTime[] times = new LocalTime[rowCount];
+            Context context = Context.getCurrent();
+            for (int i = 0; i < rowCount; i++) {
+              if (!isNothing.get(i)) {
+                times[i] = LocalTime.ofNanoOfDay(nanos[i]);
+              }
+              context.safepoint();
+            }
+            yield new TimeOfDayStorage(times, rowCount);
+          }
+          case TEXT -> new StringStorage(
+              getStrings(rowCount, isNothing), rowCount, textType(intParameter, longParameter));
+          case DICTIONARY_TEXT -> {
+            int dictionarySize = data.getInt();
+            align();
+            String[] dictionary = getStrings(dictionarySize, new BitSet());
+            int[] codes = getInts(rowCount);
+            for (int code : codes) {
+              if (code < DictionaryStringStorage.NOTHING || code >= dictionarySize) {
+                throw new CorruptedFileException("Invalid dictionary code in column " + name);
+              }
+            }
+            yield new DictionaryStringStorage(
+                codes, dictionary, rowCount, textType(intParameter, longParameter));
+          }
+        };
+    return new Column(name, storage);
+  }
+
+  private static TextType textType(int fixedLength, long maxLength) {
+    return new TextType(maxLength, fixedLength != 0);
+  }
+
+  private String[] getStrings(int count, BitSet isNothing) {
+    int[] ends = getInts(count + 1);
+    byte[] bytes = getBytes(ends[count]);
+    align();
+
+    String[] strings = new String[count];
+    Context context = Context.getCurrent();
+    for (int i = 0; i < count; i++) {
+      if (!isNothing.get(i)) {
+        strings[i] = new String(bytes, ends[i], ends[i + 1] - ends[i], StandardCharsets.UTF_8);
+      }
+      context.safepoint();
+    }
+    return strings;
+  }
+
+  private BitSet getBitSet() {
+    int wordCount = data.getInt();
+    align();
+    return BitSet.valueOf(getLongs(wordCount));
+  }
+
+  private long[] getLongs(int count) {
+    ensureRemaining((long) count * Long.BYTES);
+    long[] values = new long[count];
+    data.asLongBuffer().get(values);
+    data.position(data.position() + count * Long.BYTES);
+    return values;
+  }
+
+  private int[] getInts(int count) {
+    ensureRemaining((long) count * Integer.BYTES);
+    int[] values = new int[count];
+    data.asIntBuffer().get(values);
+    data.position(data.position() + count * Integer.BYTES);
+    align();
+    return values;
+  }
+
+  private byte[] getBytes(int count) {
+    ensureRemaining(count);
+    byte[] bytes = new byte[count];
+    data.get(bytes);
+    return bytes;
+  }
+
+  /** Checks the length of a section before allocating an array for it. */
+  private void ensureRemaining(long bytes) {
+    if (bytes < 0 || bytes > data.remaining()) {
+      throw new CorruptedFileException("The columnar table file is truncated or corrupted.");
+    }
+  }
+
+  private void align() {
+    data.position(data.position() + ColumnarLayout.paddingAt(data.position()));
+  }
+}
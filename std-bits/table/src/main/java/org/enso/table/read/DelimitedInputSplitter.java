@@ -0,0 +1,267 @@
+package org.enso.table.read;
+
+import com.univocity.parsers.common.TextParsingException;
+import java.io.CharArrayReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Splits a delimited input into chunks of whole records, so that each chunk can be parsed
+ * independently.
+ *
+ * <p>The record boundaries are found by a {@link RecordBoundaryScanner}. Once the scanner
+ * encounters anything that could be interpreted differently by the parser, the splitter stops
+ * splitting. The rest of the input, starting at the last known record boundary, is then available
+ * through {@link #remainingInput()} and should be parsed sequentially.
+ */
+abstract class DelimitedInputSplitter {
+  protected final RecordBoundaryScanner scanner;
+
+  private DelimitedInputSplitter(RecordBoundaryScanner scanner) {
+    this.scanner = scanner;
+  }
+
+  /** Creates a splitter of a character input. */
+  static DelimitedInputSplitter ofReader(Reader input, RecordBoundaryScanner scanner) {
+    return new CharSplitter(input, scanner);
+  }
+
+  /**
+   * Creates a splitter of a UTF-8 encoded input, which scans the bytes without decoding them.
+   *
+   * <p>The chunks are decoded (and validated) lazily when they are read, so that the decoding may
+   * happen on the threads parsing them. It may only be used if all the special characters of the
+   * format are ASCII, as any byte of a multi-byte UTF-8 sequence is outside of the ASCII range.
+   */
+  static DelimitedInputSplitter ofUtf8(ByteBuffer data, RecordBoundaryScanner scanner) {
+    return new Utf8Splitter(data, scanner);
+  }
+
+  /**
+   * Returns the next chunk of the input.
+   *
+   * <p>The chunk consists of whole records and is at least {@code minLength} characters (or bytes,
+   * for byte inputs) long, unless it is the last chunk of the input. The first chunk also contains
+   * at least {@code minRecords} records (not counting the skipped lines), so that it can be used
+   * for detecting headers.
+   *
+   * @return a reader of the next chunk, or {@code null} if the whole input has been consumed or the
+   *     rest of the input cannot be split
+   */
+  abstract Reader nextChunk(int minLength, int minRecords);
+
+  /**
+   * Returns a reader of the part of the input that was not returned as chunks, or {@code null} if
+   * the whole input has been consumed.
+   */
+  abstract Reader remainingInput();
+
+  /** Returns a reader of the contents of the first reader followed by the second one. */
+  static Reader concatenate(Reader first, Reader second) {
+    return new ConcatenatedReader(first, second);
+  }
+
+  /** Splits a character input, buffering the characters until a whole chunk is found. */
+  private static final class CharSplitter extends DelimitedInputSplitter {
+    private static final int INITIAL_BUFFER_SIZE = 1 << 16;
+
+    private final Reader input;
+    private char[] buffer = new char[INITIAL_BUFFER_SIZE];
+
+    /** The start of the next chunk in the buffer. */
+    private int start = 0;
+
+    /** The position of the next character to be scanned. */
+    private int position = 0;
+
+    /** The end of the data read into the buffer. */
+    private int end = 0;
+
+    private boolean isEndOfInput = false;
+
+    CharSplitter(Reader input, RecordBoundaryScanner scanner) {
+      super(scanner);
+      this.input = input;
+    }
+
+    @Override
+    Reader nextChunk(int minLength, int minRecords) {
+      if (scanner.isFailed()) {
+        return null;
+      }
+
+      int records = 0;
+      while (true) {
+        if (position == end) {
+          if (!fill()) {
+            if (start == end) {
+              return null;
+            }
+
+            // The last chunk is returned as-is, even if it ends with an incomplete record.
+            return takeChunk(end);
+          }
+        }
+
+        boolean isRecordEnd = scanner.advance(buffer[position++]);
+        if (scanner.isFailed()) {
+          position = start;
+          return null;
+        }
+
+        if (isRecordEnd) {
+          records++;
+          if (position - start >= minLength && records >= minRecords) {
+            return takeChunk(position);
+          }
+        }
+      }
+    }
+
+    @Override
+    Reader remainingInput() {
+      if (isEndOfInput && start == end) {
+        return null;
+      }
+
+      Reader buffered = new CharArrayReader(buffer, start, end - start);
+      return isEndOfInput ? buffered : concatenate(buffered, input);
+    }
+
+    private Reader takeChunk(int chunkEnd) {
+      String chunk = new String(buffer, start, chunkEnd - start);
+      start = chunkEnd;
+      return new StringReader(chunk);
+    }
+
+    /**
+     * Reads more data into the buffer, discarding the part that was already returned as chunks.
+     *
+     * @return {@code false} if the end of the input has been reached
+     */
+    private boolean fill() {
+      if (isEndOfInput) {
+        return false;
+      }
+
+      if (start > 0) {
+        System.arraycopy(buffer, start, buffer, 0, end - start);
+        position -= start;
+        end -= start;
+        start = 0;
+      }
+
+      if (end == buffer.length) {
+        buffer = Arrays.copyOf(buffer, buffer.length * 2);
+      }
+
+      try {
+        int read = input.read(buffer, end, buffer.length - end);
+        if (read < 0) {
+          isEndOfInput = true;
+          return false;
+        }
+
+        end += read;
+        return true;
+      } catch (IOException e) {
+        throw new TextParsingException(null, "Error reading from input", e);
+      }
+    }
+  }
+
+  /**
+   * Splits a UTF-8 encoded input that is fully available in memory, e.g. a memory-mapped file.
+   *
+   * <p>The bytes are scanned as if they were characters - the ASCII ones map to the same
+   * characters, and the remaining ones can never be mistaken for an ASCII special character.
+   */
+  private static final class Utf8Splitter extends DelimitedInputSplitter {
+    private final ByteBuffer data;
+    private final int end;
+
+    /** The start of the next chunk. */
+    private int start = 0;
+
+    /** The position of the next byte to be scanned. */
+    private int position = 0;
+
+    Utf8Splitter(ByteBuffer data, RecordBoundaryScanner scanner) {
+      super(scanner);
+      this.data = data;
+      this.end = data.limit();
+    }
+
+    @Override
+    Reader nextChunk(int minLength, int minRecords) {
+      if (scanner.isFailed()) {
+        return null;
+      }
+
+      int records = 0;
+      while (position < end) {
+        boolean isRecordEnd = scanner.advance((char) (data.get(position++) & 0xFF));
+        if (scanner.isFailed()) {
+          position = start;
+          return null;
+        }
+
+        if (isRecordEnd) {
+          records++;
+          if (position - start >= minLength && records >= minRecords) {
+            return takeChunk(position);
+          }
+        }
+      }
+
+      // The last chunk is returned as-is, even if it ends with an incomplete record.
+      return start == end ? null : takeChunk(end);
+    }
+
+    @Override
+    Reader remainingInput() {
+      return start == end ? null : MappedUtf8Input.decode(data.slice(start, end - start));
+    }
+
+    private Reader takeChunk(int chunkEnd) {
+      Reader chunk = MappedUtf8Input.decode(data.slice(start, chunkEnd - start));
+      start = chunkEnd;
+      return chunk;
+    }
+  }
+
+  /** A reader returning the contents of the first reader followed by the second one. */
+  private static final class ConcatenatedReader extends Reader {
+    private Reader current;
+    private Reader next;
+
+    ConcatenatedReader(Reader first, Reader second) {
+      this.current = first;
+      this.next = second;
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+      while (true) {
+        int read = current.read(cbuf, off, len);
+        if (read >= 0 || next == null) {
+          return read;
+        }
+
+        current = next;
+        next = null;
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+      current.close();
+      if (next != null) {
+        next.close();
+      }
+    }
+  }
+}
@@ -1,8 +1,11 @@
 package org.enso.table.read;
 
+import com.univocity.parsers.common.TextParsingException;
 import com.univocity.parsers.csv.CsvFormat;
 import com.univocity.parsers.csv.CsvParser;
 import com.univocity.parsers.csv.CsvParserSettings;
+import java.io.CharArrayReader;
+import java.io.IOException;
 import java.io.Reader;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
@@ -16,6 +19,8 @@ import org.enso.table.data.column.storage.type.TextType;
 import org.enso.table.data.table.Column;
 import org.enso.table.data.table.Table;
 import org.enso.table.error.EmptyFileException;
+import org.enso.table.error.MalformedMappedInputException;
+import org.enso.table.error.MissingColumnsException;
 import org.enso.table.parsing.DatatypeParser;
 import org.enso.table.parsing.TypeInferringParser;
 import org.enso.table.parsing.problems.CommonParseProblemAggregator;
@@ -23,6 +28,7 @@ import org.enso.table.parsing.problems.NoOpParseProblemAggregator;
 import org.enso.table.parsing.problems.ParseProblemAggregator;
 import org.enso.table.problems.ProblemAggregator;
 import org.enso.table.util.NameDeduplicator;
+import org.enso.table.util.ParallelTasks;
 import org.graalvm.polyglot.Context;
 import org.graalvm.polyglot.Value;
 
@@ -49,13 +55,31 @@ public class DelimitedReader {
   private static final String COLUMN_NAME = "Column";
   private static final char noQuoteCharacter = '\0';
   private static final long invalidRowsLimit = 10;
+
+  /**
+   * The expected number of characters per row, used to derive the minimum length of the chunks that
+   * the input is split into from {@link ParallelTasks#getParallelThreshold()}.
+   */
+  private static final int CHUNK_CHARACTERS_PER_ROW = 16;
+
+  private static final int INITIAL_PREFIX_SIZE = 1 << 16;
+
+  /**
+   * Columns with fewer rows than this are always parsed on the current thread. It is lowered
+   * together with {@link ParallelTasks#getParallelThreshold()}.
+   */
+  private static final int PARALLEL_PARSE_THRESHOLD = 1 << 14;
+
   private final char delimiter;
   private final char quoteCharacter;
   private final char quoteEscapeCharacter;
   private final HeaderBehavior headerBehavior;
   private final long skipRows;
   private final long rowLimit;
+  private final Object[] columnSelection;
   private final int maxColumns;
+  private final char commentCharacter;
+  private final CsvParserSettings parserSettings;
   private final CsvParser parser;
   private final DatatypeParser valueParser;
   private final TypeInferringParser cellTypeGuesser;
@@ -85,6 +109,10 @@ public class DelimitedReader {
    * @param headerBehavior specifies how to set the header for the resulting table
    * @param skipRows specifies how many rows from the input to skip
    * @param rowLimit specifies how many rows to read (does not include the header row)
+   * @param columnSelection the names or indices of columns to read, or {@code null} to read all
+   *     columns; indices may be negative to count from the end; the selected columns are returned
+   *     in the order in which they appear in the input and the remaining ones are never stored nor
+   *     parsed
    * @param maxColumns specifies how many columns can be expected at most
    * @param valueParser an optional parser that is applied to each column to convert it to more
    *     specific datatype
@@ -107,6 +135,7 @@ public class DelimitedReader {
       HeaderBehavior headerBehavior,
       long skipRows,
       long rowLimit,
+      Object[] columnSelection,
       int maxColumns,
       DatatypeParser valueParser,
       TypeInferringParser cellTypeGuesser,
@@ -164,6 +193,10 @@ public class DelimitedReader {
     this.headerBehavior = headerBehavior;
     this.skipRows = skipRows;
     this.rowLimit = rowLimit;
+    if (columnSelection != null && columnSelection.length == 0) {
+      throw new IllegalArgumentException("At least one column must be selected.");
+    }
+    this.columnSelection = columnSelection;
     this.maxColumns = maxColumns;
     this.keepInvalidRows = keepInvalidRows;
 
@@ -173,11 +206,13 @@ public class DelimitedReader {
     this.problemAggregator =
         new DelimitedReaderProblemAggregator(
             problemAggregator, warningsAsErrors, quoteCharacter, invalidRowsLimit);
-    this.parser = setupCsvParser(commentCharacter);
+    this.parserSettings = setupCsvParserSettings(commentCharacter);
+    this.commentCharacter = parserSettings.getFormat().getComment();
+    this.parser = new CsvParser(parserSettings);
   }
 
-  /** Creates a {@code CsvParser} according to the settings specified at construction. */
-  private CsvParser setupCsvParser(String commentCharacter) {
+  /** Creates {@code CsvParser} settings according to the settings specified at construction. */
+  private CsvParserSettings setupCsvParserSettings(String commentCharacter) {
     CsvParserSettings settings = new CsvParserSettings();
     settings.setHeaderExtractionEnabled(false);
     CsvFormat format = new CsvFormat();
@@ -216,6 +251,20 @@ public class DelimitedReader {
     settings.setFormat(format);
     settings.setNumberOfRowsToSkip(skipRows);
 
+    return settings;
+  }
+
+  /**
+   * Creates a parser for a part of the input that starts at a record boundary, after the headers.
+   *
+   * <p>It uses the line separator that was resolved for the main parser.
+   */
+  private CsvParser makeContinuationParser() {
+    CsvParserSettings settings = parserSettings.clone();
+    settings.setNumberOfRowsToSkip(0);
+    settings.setLineSeparatorDetectionEnabled(false);
+    settings.getFormat().setLineSeparator(newlineSetting);
+    settings.setReadInputOnSeparateThread(false);
     return new CsvParser(settings);
   }
 
@@ -264,27 +313,25 @@ public class DelimitedReader {
     assert builders != null;
     assert canFitMoreRows();
 
-    if (row.length != builders.length) {
+    int columnCount = getColumnCount();
+    if (row.length != columnCount) {
       problemAggregator.reportInvalidRow(
-          currentLine, keepInvalidRows ? targetTableIndex : null, row, builders.length);
+          currentLine, keepInvalidRows ? targetTableIndex : null, row, columnCount);
 
       if (keepInvalidRows) {
-        for (int i = 0; i < builders.length && i < row.length; i++) {
-          builders[i].append(row[i]);
-        }
-
         // If the current row had fewer columns than expected, nulls are inserted for the missing
         // values.
         // If it had more columns, the excess columns are discarded.
-        for (int i = row.length; i < builders.length; i++) {
-          builders[i].append(null);
+        for (int i = 0; i < builders.length; i++) {
+          int column = selectedColumns[i];
+          builders[i].append(column < row.length ? row[column] : null);
         }
 
         targetTableIndex++;
       }
     } else {
       for (int i = 0; i < builders.length; i++) {
-        builders[i].append(row[i]);
+        builders[i].append(row[selectedColumns[i]]);
       }
 
       targetTableIndex++;
@@ -340,10 +387,66 @@ public class DelimitedReader {
    */
   private String[] effectiveColumnNames;
 
+  /** The indices of the columns that are read, in ascending order. */
+  private int[] selectedColumns;
+
   private int getColumnCount() {
     return effectiveColumnNames.length;
   }
 
+  /**
+   * Resolves the column selection against the effective column names.
+   *
+   * <p>Names are matched exactly. Columns selected more than once are only read once.
+   *
+   * @throws MissingColumnsException if some of the names or indices do not match any column
+   */
+  private int[] resolveSelectedColumns() {
+    int columnCount = getColumnCount();
+    if (columnSelection == null) {
+      int[] all = new int[columnCount];
+      for (int i = 0; i < columnCount; i++) {
+        all[i] = i;
+      }
+      return all;
+    }
+
+    boolean[] isSelected = new boolean[columnCount];
+    List<Object> missing = new ArrayList<>();
+    for (Object criterion : columnSelection) {
+      int column = -1;
+      if (criterion instanceof String name) {
+        column = Arrays.asList(effectiveColumnNames).indexOf(name);
+      } else if (criterion instanceof Number number) {
+        long index = number.longValue();
+        long resolved = index < 0 ? columnCount + index : index;
+        column = resolved >= 0 && resolved < columnCount ? (int) resolved : -1;
+      } else {
+        throw new IllegalArgumentException(
+            "Columns must be selected by name (Text) or index (Integer), but got: " + criterion);
+      }
+
+      if (column < 0) {
+        missing.add(criterion);
+      } else {
+        isSelected[column] = true;
+      }
+    }
+
+    if (!missing.isEmpty()) {
+      throw new MissingColumnsException(missing.toArray());
+    }
+
+    int[] selected = new int[columnCount];
+    int count = 0;
+    for (int i = 0; i < columnCount; i++) {
+      if (isSelected[i]) {
+        selected[count++] = i;
+      }
+    }
+    return Arrays.copyOf(selected, count);
+  }
+
   /**
    * Tries to infer some metadata about the input.
    *
@@ -441,46 +544,381 @@ public class DelimitedReader {
    * <p>It should only be called once.
    */
   public Table read(Reader input) {
-    markUsed();
-    Context context = Context.getCurrent();
+    return readTable(
+        () -> {
+          if (canReadInParallel()) {
+            readInParallel(input);
+          } else {
+            readSequentially(input);
+          }
+        });
+  }
+
+  /**
+   * Reads a memory-mapped UTF-8 input and returns a Table.
+   *
+   * <p>If the special characters of the format are ASCII, the record boundaries are found by
+   * scanning the bytes directly and the decoding is done as part of parsing the chunks in parallel.
+   * Otherwise, the input is decoded and read like any other {@link Reader}.
+   *
+   * <p>It should only be called once.
+   *
+   * @throws MalformedMappedInputException if the input is not valid UTF-8, in which case it should
+   *     be read as a stream by a new reader, to report the decoding problems
+   */
+  public Table read(MappedUtf8Input input) {
     try {
-      parser.beginParsing(input);
-      detectHeaders();
-      int columnCount = getColumnCount();
-      if (columnCount == 0) {
-        throw new EmptyFileException();
+      if (!areAsciiCharacters()) {
+        return read(input.newReader());
       }
 
-      initBuilders(columnCount);
-      while (canFitMoreRows()) {
-        var currentRow = readNextRow();
-        if (currentRow == null) break;
-        appendRow(currentRow);
-
-        context.safepoint();
+      return readTable(
+          () -> {
+            if (canReadInParallel()) {
+              readInParallel(input);
+            } else {
+              readSequentially(input.newReader());
+            }
+          });
+    } catch (RuntimeException e) {
+      if (MappedUtf8Input.isDecodingFailure(e)) {
+        throw new MalformedMappedInputException(e);
       }
+      throw e;
+    }
+  }
+
+  private Table readTable(Runnable readRows) {
+    markUsed();
+    try {
+      readRows.run();
     } finally {
       // We ensure that parsing is stopped, even if the parsing has been interrupted.
       // That is to ensure that the other thread that is used for reading is also stopped quickly.
       parser.stopParsing();
     }
 
+    return new Table(parseColumns());
+  }
+
+  /** Reads the whole input with the main parser. */
+  private void readSequentially(Reader input) {
+    parser.beginParsing(input);
+    readHeadersAndRows();
+  }
+
+  /**
+   * Detects the headers and reads the rows available to the main parser, which must already be
+   * started.
+   */
+  private void readHeadersAndRows() {
+    detectHeaders();
+    int columnCount = getColumnCount();
+    if (columnCount == 0) {
+      throw new EmptyFileException();
+    }
+
+    selectedColumns = resolveSelectedColumns();
+    initBuilders(selectedColumns.length);
+    Context context = Context.getCurrent();
+    while (canFitMoreRows()) {
+      var currentRow = readNextRow();
+      if (currentRow == null) break;
+      appendRow(currentRow);
+
+      context.safepoint();
+    }
+  }
+
+  /**
+   * Checks if the input may be split into chunks that are parsed in parallel.
+   *
+   * <p>Limited reads are not split, as they usually only need a small part of the input.
+   */
+  private boolean canReadInParallel() {
+    return rowLimit < 0
+        && ParallelTasks.isParallelismAvailable()
+        && (newlineSetting == null
+            || RecordBoundaryScanner.isSupportedLineSeparator(newlineSetting))
+        && RecordBoundaryScanner.areSupportedCharacters(
+            delimiter, quoteCharacter, quoteEscapeCharacter, commentCharacter);
+  }
+
+  /** Checks if all the special characters of the format are ASCII. */
+  private boolean areAsciiCharacters() {
+    return delimiter < 0x80
+        && quoteCharacter < 0x80
+        && quoteEscapeCharacter < 0x80
+        && commentCharacter < 0x80;
+  }
+
+  /**
+   * Reads the input, splitting it into chunks of whole records that are parsed in parallel.
+   *
+   * <p>Inputs shorter than a single chunk are read sequentially.
+   */
+  private void readInParallel(Reader input) {
+    int chunkSize = getParallelChunkSize();
+    char[] prefix = readPrefix(input, chunkSize);
+    if (prefix.length < chunkSize) {
+      readSequentially(new CharArrayReader(prefix));
+      return;
+    }
+
+    Reader fullInput = DelimitedInputSplitter.concatenate(new CharArrayReader(prefix), input);
+    String lineSeparator = newlineSetting == null ? detectLineSeparator(prefix) : newlineSetting;
+    if (!RecordBoundaryScanner.isSupportedLineSeparator(lineSeparator)) {
+      readSequentially(fullInput);
+      return;
+    }
+
+    readChunks(
+        DelimitedInputSplitter.ofReader(fullInput, makeScanner(lineSeparator)), lineSeparator);
+  }
+
+  /**
+   * Reads a memory-mapped input, splitting its bytes into chunks of whole records that are decoded
+   * and parsed in parallel.
+   */
+  private void readInParallel(MappedUtf8Input input) {
+    String lineSeparator = newlineSetting;
+    if (lineSeparator == null) {
+      lineSeparator = detectLineSeparator(readPrefix(input.newReader(), getParallelChunkSize()));
+    }
+
+    if (!RecordBoundaryScanner.isSupportedLineSeparator(lineSeparator)) {
+      readSequentially(input.newReader());
+      return;
+    }
+
+    readChunks(
+        DelimitedInputSplitter.ofUtf8(input.getData(), makeScanner(lineSeparator)), lineSeparator);
+  }
+
+  /**
+   * Returns the minimum length (in characters) of the chunks that the input is split into when it
+   * is read in parallel. Inputs shorter than that are always read sequentially.
+   */
+  private static int getParallelChunkSize() {
+    long size = (long) ParallelTasks.getParallelThreshold() * CHUNK_CHARACTERS_PER_ROW;
+    return (int) Math.min(size, Integer.MAX_VALUE);
+  }
+
+  private RecordBoundaryScanner makeScanner(String lineSeparator) {
+    return new RecordBoundaryScanner(
+        delimiter, quoteCharacter, quoteEscapeCharacter, commentCharacter, lineSeparator, skipRows);
+  }
+
+  /**
+   * Reads the chunks returned by a splitter using the given line separator.
+   *
+   * <p>The first chunk is parsed by the main parser, which also detects the headers. The following
+   * chunks are parsed in batches by separate parsers and their rows are appended in order, so the
+   * result (including any reported problems) is the same as if the input was parsed sequentially.
+   * If the input cannot be split reliably, the rest of it is parsed sequentially.
+   */
+  private void readChunks(DelimitedInputSplitter splitter, String lineSeparator) {
+    // The first chunk must contain enough rows to detect the headers.
+    int chunkSize = getParallelChunkSize();
+    Reader firstChunk = splitter.nextChunk(chunkSize, 2);
+    if (firstChunk == null) {
+      readSequentially(splitter.remainingInput());
+      return;
+    }
+
+    readSequentially(firstChunk);
+    assert newlineSetting.equals(lineSeparator);
+    long lineOffset = parser.getContext().currentLine() - 1;
+
+    Context context = Context.getCurrent();
+    int batchSize = ParallelTasks.getParallelism();
+    while (true) {
+      List<Reader> chunks = new ArrayList<>(batchSize);
+      while (chunks.size() < batchSize) {
+        Reader chunk = splitter.nextChunk(chunkSize, 1);
+        if (chunk == null) break;
+        chunks.add(chunk);
+        context.safepoint();
+      }
+
+      if (chunks.isEmpty()) {
+        break;
+      }
+
+      ParsedChunk[] parsedChunks = new ParsedChunk[chunks.size()];
+      ParallelTasks.forEachRange(
+          0,
+          chunks.size(),
+          1,
+          (from, to) -> {
+            for (int i = from; i < to; i++) {
+              parsedChunks[i] = parseChunk(chunks.get(i));
+            }
+          });
+
+      for (ParsedChunk parsedChunk : parsedChunks) {
+        if (parsedChunk.error != null) {
+          throw parsedChunk.error;
+        }
+
+        for (int i = 0; i < parsedChunk.rows.size(); i++) {
+          currentLine = lineOffset + parsedChunk.lineNumbers[i];
+          appendRow(parsedChunk.rows.get(i));
+        }
+
+        lineOffset += parsedChunk.lineCount;
+        context.safepoint();
+      }
+    }
+
+    Reader remainingInput = splitter.remainingInput();
+    if (remainingInput != null) {
+      CsvParser continuationParser = makeContinuationParser();
+      try {
+        continuationParser.beginParsing(remainingInput);
+        while (true) {
+          long line = continuationParser.getContext().currentLine() + 1;
+          String[] row = continuationParser.parseNext();
+          if (row == null) break;
+          currentLine = lineOffset + line;
+          appendRow(row);
+
+          context.safepoint();
+        }
+      } finally {
+        continuationParser.stopParsing();
+      }
+    }
+  }
+
+  /**
+   * The rows parsed from a single chunk of the input.
+   *
+   * @param rows the parsed rows
+   * @param lineNumbers the line number of the start of each row, relative to the chunk
+   * @param lineCount the number of lines in the chunk
+   * @param error the exception thrown when parsing the chunk, if any
+   */
+  private record ParsedChunk(
+      List<String[]> rows, long[] lineNumbers, long lineCount, RuntimeException error) {}
+
+  /** Parses a chunk of the input. It may be called from worker threads. */
+  private ParsedChunk parseChunk(Reader chunk) {
+    CsvParser chunkParser = makeContinuationParser();
+    List<String[]> rows = new ArrayList<>();
+    long[] lineNumbers = new long[INITIAL_ROW_CAPACITY];
+    try {
+      chunkParser.beginParsing(chunk);
+      while (true) {
+        long line = chunkParser.getContext().currentLine() + 1;
+        String[] row = chunkParser.parseNext();
+        if (row == null) break;
+        if (rows.size() == lineNumbers.length) {
+          lineNumbers = Arrays.copyOf(lineNumbers, lineNumbers.length * 2);
+        }
+        lineNumbers[rows.size()] = line;
+        rows.add(row);
+      }
+
+      long lineCount = chunkParser.getContext().currentLine() - 1;
+      return new ParsedChunk(rows, lineNumbers, lineCount, null);
+    } catch (RuntimeException e) {
+      // The error is rethrown on the main thread, once all preceding rows have been processed.
+      return new ParsedChunk(rows, lineNumbers, 0, e);
+    } finally {
+      chunkParser.stopParsing();
+    }
+  }
+
+  /**
+   * Reads up to {@code length} characters from the beginning of the input.
+   *
+   * <p>The buffer grows gradually, so that small inputs do not allocate the whole length.
+   */
+  private static char[] readPrefix(Reader input, int length) {
+    char[] prefix = new char[Math.min(length, INITIAL_PREFIX_SIZE)];
+    int read = 0;
+    try {
+      while (read < length) {
+        if (read == prefix.length) {
+          prefix = Arrays.copyOf(prefix, Math.min(length, prefix.length * 2));
+        }
+
+        int n = input.read(prefix, read, prefix.length - read);
+        if (n < 0) {
+          return Arrays.copyOf(prefix, read);
+        }
+        read += n;
+      }
+    } catch (IOException e) {
+      throw new TextParsingException(null, "Error reading from input", e);
+    }
+    return prefix;
+  }
+
+  /** Detects the line separator of an input beginning with the given text. */
+  private String detectLineSeparator(char[] prefix) {
+    CsvParser detector = new CsvParser(parserSettings);
+    try {
+      detector.beginParsing(new CharArrayReader(prefix));
+      detector.parseNext();
+      return detector.getDetectedFormat().getLineSeparatorString();
+    } finally {
+      detector.stopParsing();
+    }
+  }
+
+  /**
+   * Parses the text read into the builders into columns of the target types.
+   *
+   * <p>Large columns are parsed in parallel. Any exception is rethrown for the first failing
+   * column, so that the reported error does not depend on the timing of the threads.
+   */
+  private Column[] parseColumns() {
     Column[] columns = new Column[builders.length];
+    List<Storage<String>> sealed = new ArrayList<>(builders.length);
+    CommonParseProblemAggregator[] parseProblemAggregators =
+        new CommonParseProblemAggregator[builders.length];
     for (int i = 0; i < builders.length; i++) {
-      String columnName = effectiveColumnNames[i];
-      Storage<String> col = builders[i].seal();
+      sealed.add(builders[i].seal());
 
       // We don't expect InvalidFormat to be propagated back to Enso, there is no particular type
       // that we expect, so it can safely be null.
       Value expectedEnsoValueType = Value.asValue(null);
-      CommonParseProblemAggregator parseProblemAggregator =
-          ParseProblemAggregator.make(problemAggregator, columnName, expectedEnsoValueType);
-      Storage<?> storage = valueParser.parseColumn(col, parseProblemAggregator);
-      columns[i] = new Column(columnName, storage);
-      context.safepoint();
+      // The aggregators are created upfront, so that the problems are reported in column order.
+      parseProblemAggregators[i] =
+          ParseProblemAggregator.make(
+              problemAggregator, effectiveColumnNames[selectedColumns[i]], expectedEnsoValueType);
+    }
+
+    RuntimeException[] errors = new RuntimeException[builders.length];
+    boolean isLarge =
+        builders.length > 1
+            && targetTableIndex >= ParallelTasks.getChunkSize(PARALLEL_PARSE_THRESHOLD);
+    ParallelTasks.forEachRange(
+        0,
+        builders.length,
+        isLarge ? 1 : builders.length,
+        (from, to) -> {
+          for (int i = from; i < to; i++) {
+            try {
+              Storage<?> storage =
+                  valueParser.parseColumn(sealed.get(i), parseProblemAggregators[i]);
+              columns[i] = new Column(effectiveColumnNames[selectedColumns[i]], storage);
+            } catch (RuntimeException e) {
+              errors[i] = e;
+              return;
+            }
+          }
+        });
+
+    for (RuntimeException error : errors) {
+      if (error != null) {
+        throw error;
+      }
     }
 
-    return new Table(columns);
+    return columns;
   }
 
   private boolean wasAlreadyUsed = false;
@@ -24,12 +24,21 @@ import org.enso.table.excel.ExcelHeaders;
 import org.enso.table.excel.ExcelRange;
 import org.enso.table.excel.ExcelRow;
 import org.enso.table.excel.ExcelSheet;
+import org.enso.table.excel.ExcelStreamingRow;
+import org.enso.table.excel.ExcelStreamingSheet;
+import org.enso.table.excel.ExcelStreamingWorkbook;
 import org.enso.table.excel.ReadOnlyExcelConnection;
 import org.enso.table.problems.ProblemAggregator;
 import org.graalvm.polyglot.Context;
 
 /** A table reader for MS Excel files. */
 public class ExcelReader {
+  /**
+   * The initial capacity of the column builders when streaming whole columns, whose length is not
+   * known up front.
+   */
+  private static final int STREAMING_INITIAL_CAPACITY = 1024;
+
   /**
    * Reads a list of sheet names for the specified XLSX/XLS file into an array.
    *
@@ -105,6 +114,26 @@ public class ExcelReader {
       ExcelFileFormat format,
       ProblemAggregator problemAggregator)
       throws IOException, InvalidLocationException {
+    if (format == ExcelFileFormat.XLSX) {
+      return withStreamingWorkbook(
+          file,
+          workbook -> {
+            int sheetIndex = workbook.getSheetIndex(sheetName);
+            if (sheetIndex == -1) {
+              throw new InvalidLocationException(sheetName, "Unknown sheet '" + sheetName + "'.");
+            }
+
+            return readTable(
+                workbook,
+                sheetIndex,
+                null,
+                headers,
+                skip_rows,
+                row_limit == null ? Integer.MAX_VALUE : row_limit,
+                problemAggregator);
+          });
+    }
+
     return withWorkbook(
         file,
         format,
@@ -146,6 +175,28 @@ public class ExcelReader {
       ExcelFileFormat format,
       ProblemAggregator problemAggregator)
       throws IOException, InvalidLocationException {
+    if (format == ExcelFileFormat.XLSX) {
+      return withStreamingWorkbook(
+          file,
+          workbook -> {
+            int sheetCount = workbook.getSheetCount();
+            if (index < 1 || index > sheetCount) {
+              throw new InvalidLocationException(
+                  Integer.toString(index),
+                  "Sheet " + index + " is out of range (1 to " + sheetCount + " inclusive).");
+            }
+
+            return readTable(
+                workbook,
+                index - 1,
+                null,
+                headers,
+                skip_rows,
+                row_limit == null ? Integer.MAX_VALUE : row_limit,
+                problemAggregator);
+          });
+    }
+
     return withWorkbook(
         file,
         format,
@@ -191,6 +242,29 @@ public class ExcelReader {
       ExcelFileFormat format,
       ProblemAggregator problemAggregator)
       throws IOException, InvalidLocationException {
+    if (format == ExcelFileFormat.XLSX) {
+      return withStreamingWorkbook(
+          file,
+          workbook -> {
+            int sheetIndex = workbook.getSheetIndex(rangeNameOrAddress);
+            if (sheetIndex != -1) {
+              return readTable(
+                  workbook,
+                  sheetIndex,
+                  null,
+                  headers,
+                  skip_rows,
+                  row_limit == null ? Integer.MAX_VALUE : row_limit,
+                  problemAggregator);
+            }
+
+            ExcelRange excelRange =
+                parseRange(rangeNameOrAddress, workbook.getNameFormula(rangeNameOrAddress));
+            return readRange(
+                workbook, excelRange, headers, skip_rows, row_limit, problemAggregator);
+          });
+    }
+
     return withWorkbook(
         file,
         format,
@@ -231,17 +305,25 @@ public class ExcelReader {
     }
 
     Name name = workbook.getName(rangeNameOrAddress);
+    ExcelRange excelRange =
+        parseRange(rangeNameOrAddress, name == null ? null : name.getRefersToFormula());
+    return readRange(workbook, excelRange, headers, skip_rows, row_limit, problemAggregator);
+  }
 
-    ExcelRange excelRange;
+  /**
+   * Parses the range that the name refers to, or the address itself if it is not a name.
+   *
+   * @param rangeNameOrAddress the range name or address.
+   * @param nameFormula the formula that the name refers to, or null if it is not a name.
+   */
+  private static ExcelRange parseRange(String rangeNameOrAddress, String nameFormula) {
     try {
-      excelRange = new ExcelRange(name == null ? rangeNameOrAddress : name.getRefersToFormula());
+      return new ExcelRange(nameFormula == null ? rangeNameOrAddress : nameFormula);
     } catch (IllegalArgumentException e) {
       throw new InvalidLocationException(
           rangeNameOrAddress,
           "Unknown sheet or range name or invalid address: '" + rangeNameOrAddress + "'.");
     }
-
-    return readRange(workbook, excelRange, headers, skip_rows, row_limit, problemAggregator);
   }
 
   /**
@@ -264,6 +346,13 @@ public class ExcelReader {
       ExcelFileFormat format,
       ProblemAggregator problemAggregator)
       throws IOException, InvalidLocationException {
+    if (format == ExcelFileFormat.XLSX) {
+      return withStreamingWorkbook(
+          file,
+          workbook ->
+              readRange(workbook, excelRange, headers, skip_rows, row_limit, problemAggregator));
+    }
+
     return withWorkbook(
         file,
         format,
@@ -279,6 +368,46 @@ public class ExcelReader {
     }
   }
 
+  /** An action reading from a workbook opened for streaming. */
+  private interface StreamingAction<T> {
+    T apply(ExcelStreamingWorkbook workbook) throws IOException;
+  }
+
+  /**
+   * Opens the XLSX file for streaming its sheets, so that the sheets are read row by row into the
+   * column builders instead of being loaded into memory as a whole.
+   */
+  private static <T> T withStreamingWorkbook(File file, StreamingAction<T> action)
+      throws IOException {
+    try (ExcelStreamingWorkbook workbook = ExcelStreamingWorkbook.open(file)) {
+      return action.apply(workbook);
+    }
+  }
+
+  private static Table readRange(
+      ExcelStreamingWorkbook workbook,
+      ExcelRange excelRange,
+      ExcelHeaders.HeaderBehavior headers,
+      int skip_rows,
+      Integer row_limit,
+      ProblemAggregator problemAggregator)
+      throws IOException, InvalidLocationException {
+    int sheetIndex = workbook.getSheetIndex(excelRange.getSheetName());
+    if (sheetIndex == -1) {
+      throw new InvalidLocationException(
+          excelRange.getSheetName(), "Unknown sheet '" + excelRange.getSheetName() + "'.");
+    }
+
+    return readTable(
+        workbook,
+        sheetIndex,
+        excelRange,
+        headers,
+        skip_rows,
+        row_limit == null ? Integer.MAX_VALUE : row_limit,
+        problemAggregator);
+  }
+
   private static Table readRange(
       Workbook workbook,
       ExcelRange excelRange,
@@ -317,12 +446,7 @@ public class ExcelReader {
     if (excelRange != null && excelRange.isSingleCell()) {
       ExcelRow currentRow = sheet.get(excelRange.getTopRow());
       if (currentRow == null || currentRow.isEmpty(excelRange.getLeftColumn())) {
-        return new Table(
-            new Column[] {
-              new Column(
-                  CellReference.convertNumToColString(excelRange.getLeftColumn() - 1),
-                  new ObjectStorage(new Object[0], 0))
-            });
+        return emptyCellTable(excelRange);
       }
 
       excelRange = ExcelRange.expandSingleCell(excelRange, sheet);
@@ -383,11 +507,129 @@ public class ExcelReader {
     // Special case for stopping before firstRow
     if (wholeRow && (rowCount == 0 || row < sheet.getFirstRow())) {
       ExcelRow currentRow = sheet.get(sheet.getFirstRow());
-      int currentEndCol = currentRow.getLastColumn();
-      expandBuilders(builders, size, currentEndCol - startCol + 1, size, problemAggregator);
+      if (currentRow != null) {
+        int currentEndCol = currentRow.getLastColumn();
+        expandBuilders(builders, size, currentEndCol - startCol + 1, size, problemAggregator);
+      }
+    }
+
+    return createTable(builders, excelHeaders, startCol);
+  }
+
+  /**
+   * Reads a table from a sheet of a workbook opened for streaming, with the same semantics as
+   * reading it from a loaded workbook.
+   *
+   * <p>The rows are parsed one by one and appended to the builders right away. Expanding a single
+   * cell into a table requires a separate pass over the sheet, as the extent of the table is only
+   * known once all its rows are parsed.
+   */
+  private static Table readTable(
+      ExcelStreamingWorkbook workbook,
+      int sheetIndex,
+      ExcelRange excelRange,
+      ExcelHeaders.HeaderBehavior headers,
+      int skipRows,
+      int rowCount,
+      ProblemAggregator problemAggregator)
+      throws IOException {
+    // Expand Single Cell
+    if (excelRange != null && excelRange.isSingleCell()) {
+      try (ExcelStreamingSheet sheet = workbook.openSheet(sheetIndex)) {
+        ExcelRow currentRow = sheet.get(excelRange.getTopRow());
+        if (currentRow == null || currentRow.isEmpty(excelRange.getLeftColumn())) {
+          return emptyCellTable(excelRange);
+        }
+
+        excelRange = ExcelRange.expandSingleCell(excelRange, sheet::get);
+      }
+    }
+
+    try (ExcelStreamingSheet sheet = workbook.openSheet(sheetIndex)) {
+      // Row Range; for whole columns the last row is only known once the sheet has been read.
+      boolean wholeColumn = excelRange == null || excelRange.isWholeColumn();
+      int startRow = (wholeColumn ? 1 : excelRange.getTopRow()) + skipRows;
+      int endRow = wholeColumn ? Integer.MAX_VALUE : excelRange.getBottomRow();
+
+      // Column Range
+      boolean wholeRow = excelRange == null || excelRange.isWholeRow();
+      int startCol = wholeRow ? 1 : excelRange.getLeftColumn();
+      int endCol = wholeRow ? -1 : excelRange.getRightColumn();
+
+      // Headers
+      ExcelHeaders excelHeaders =
+          new ExcelHeaders(
+              headers,
+              sheet.get(startRow),
+              startRow < endRow ? sheet.get(startRow + 1) : null,
+              startCol,
+              endCol,
+              problemAggregator);
+      startRow += excelHeaders.getRowsUsed();
+
+      // Set up Storage
+      int size =
+          Math.max(
+              0,
+              Math.min(rowCount, wholeColumn ? STREAMING_INITIAL_CAPACITY : endRow - startRow + 1));
+      List<Builder> builders =
+          wholeRow
+              ? new ArrayList<>()
+              : IntStream.range(startCol, endCol + 1)
+                  .mapToObj(i -> new InferredBuilder(size, problemAggregator))
+                  .collect(Collectors.toList());
+
+      // Read Cell Data
+      int row = startRow;
+      while (row <= endRow && (row - startRow) < rowCount) {
+        ExcelRow currentRow = sheet.get(row);
+        if (currentRow == null) {
+          if (wholeColumn && !sheet.hasRowsAfter(row)) {
+            break;
+          }
+          builders.forEach(b -> b.append(null));
+        } else {
+          int currentEndCol =
+              endCol == -1
+                  ? Math.max(currentRow.getLastColumn(), startCol + builders.size() - 1)
+                  : endCol;
+          expandBuilders(
+              builders, size, currentEndCol - startCol, row - startRow, problemAggregator);
+
+          for (int col = startCol; col <= currentEndCol; col++) {
+            Object value = currentRow.getCellValue(col);
+            builders.get(col - startCol).append(value);
+          }
+        }
+
+        row++;
+      }
+
+      // Special case for stopping before firstRow
+      ExcelStreamingRow firstRow = sheet.getFirstRow();
+      if (wholeRow && firstRow != null && (rowCount == 0 || row < firstRow.getRowNumber())) {
+        int currentEndCol = firstRow.getLastColumn();
+        int rowsRead = row - startRow;
+        expandBuilders(
+            builders, rowsRead, currentEndCol - startCol + 1, rowsRead, problemAggregator);
+      }
+
+      return createTable(builders, excelHeaders, startCol);
     }
+  }
+
+  /** The table returned when the single cell that should be expanded into a table is empty. */
+  private static Table emptyCellTable(ExcelRange excelRange) {
+    return new Table(
+        new Column[] {
+          new Column(
+              CellReference.convertNumToColString(excelRange.getLeftColumn() - 1),
+              new ObjectStorage(new Object[0], 0))
+        });
+  }
 
-    // Create Table
+  private static Table createTable(
+      List<Builder> builders, ExcelHeaders excelHeaders, int startCol) {
     Column[] columns =
         IntStream.range(0, builders.size())
             .mapToObj(idx -> new Column(excelHeaders.get(idx + startCol), builders.get(idx).seal()))
@@ -0,0 +1,145 @@
+package org.enso.table.read;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import org.enso.table.error.MalformedMappedInputException;
+import org.enso.table.util.MappedFiles;
+
+/**
+ * A UTF-8 encoded file mapped into memory.
+ *
+ * <p>It allows {@link DelimitedReader} to find the record boundaries by scanning the bytes
+ * directly, without decoding the whole file on a single thread first.
+ */
+public final class MappedUtf8Input {
+  /** Files smaller than this are not worth mapping, they are read as a stream instead. */
+  private static final long MIN_MAPPED_SIZE = 1 << 20;
+
+  private static final byte[] UTF_8_BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+
+  private final ByteBuffer data;
+
+  private MappedUtf8Input(ByteBuffer data) {
+    this.data = data;
+  }
+
+  /**
+   * Maps the given file into memory, if it is suitable for that.
+   *
+   * <p>A leading UTF-8 BOM is skipped. The file is not mapped if it is too small for mapping to be
+   * beneficial, too large to be mapped as a single buffer, or if mapping is not supported on the
+   * current platform.
+   *
+   * <p>The contents are not validated upfront - the chunks of the file are validated as they are
+   * decoded, possibly in parallel. Reading a file that is not valid UTF-8 fails with {@link
+   * MalformedMappedInputException}, and such a file should then be read as a stream, so that any
+   * decoding problems are reported.
+   *
+   * @return the mapped input, or {@code null} if the file should be read as a stream
+   */
+  public static MappedUtf8Input open(File file) throws IOException {
+    long size = file.length();
+    if (!MappedFiles.isMappingSupported() || size < MIN_MAPPED_SIZE || size > Integer.MAX_VALUE) {
+      return null;
+    }
+
+    ByteBuffer data = MappedFiles.map(file);
+    if (startsWithBom(data)) {
+      data = data.slice(UTF_8_BOM.length, data.limit() - UTF_8_BOM.length);
+    }
+    return new MappedUtf8Input(data);
+  }
+
+  /** Returns a reader decoding the whole input. */
+  public Reader newReader() {
+    return decode(data.duplicate());
+  }
+
+  /** Returns the encoded contents of the file, excluding the BOM. */
+  ByteBuffer getData() {
+    return data.duplicate();
+  }
+
+  /**
+   * Returns a reader decoding the given UTF-8 encoded data.
+   *
+   * <p>The reader fails with a {@link java.nio.charset.CharacterCodingException} if the data is not
+   * valid UTF-8.
+   */
+  static Reader decode(ByteBuffer data) {
+    CharsetDecoder decoder =
+        StandardCharsets.UTF_8
+            .newDecoder()
+            .onMalformedInput(CodingErrorAction.REPORT)
+            .onUnmappableCharacter(CodingErrorAction.REPORT);
+    return new InputStreamReader(new ByteBufferInputStream(data), decoder);
+  }
+
+  /**
+   * Checks if the given exception, thrown while reading this input, was caused by the input not
+   * being valid UTF-8.
+   */
+  static boolean isDecodingFailure(Throwable exception) {
+    for (Throwable e = exception; e != null; e = e.getCause()) {
+      if (e instanceof CharacterCodingException) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean startsWithBom(ByteBuffer data) {
+    if (data.limit() < UTF_8_BOM.length) {
+      return false;
+    }
+
+    for (int i = 0; i < UTF_8_BOM.length; i++) {
+      if (data.get(i) != UTF_8_BOM[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** An input stream reading the remaining bytes of a buffer. */
+  private static final class ByteBufferInputStream extends InputStream {
+    private final ByteBuffer buffer;
+
+    ByteBufferInputStream(ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    @Override
+    public int read() {
+      return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+      if (len == 0) {
+        return 0;
+      }
+
+      if (!buffer.hasRemaining()) {
+        return -1;
+      }
+
+      int n = Math.min(len, buffer.remaining());
+      buffer.get(b, off, n);
+      return n;
+    }
+
+    @Override
+    public int available() {
+      return buffer.remaining();
+    }
+  }
+}
@@ -0,0 +1,205 @@
+package org.enso.table.read;
+
+/**
+ * Finds the boundaries of records in a delimited input, character by character.
+ *
+ * <p>Finding record boundaries requires tracking whether the scanned character is inside of a
+ * quoted value, as quoted values may contain newlines. The scanner follows the rules of the {@code
+ * CsvParser} as configured by {@link DelimitedReader} for well-formed inputs: a quote only starts a
+ * quoted value at the beginning of a cell (possibly after some leading whitespace), quotes inside
+ * of a quoted value must be escaped, and a comment character is only recognized at the beginning of
+ * a line.
+ *
+ * <p>Once the scanner encounters anything that could be interpreted differently by the parser, e.g.
+ * text following the closing quote of a cell, it fails and no further boundaries can be found.
+ */
+public final class RecordBoundaryScanner {
+  private static final char NUL = '\0';
+
+  /** The scanner is at the start of a line, before any cell. */
+  private static final int RECORD_START = 0;
+
+  /** The scanner is at the start of a cell (or in its leading whitespace). */
+  private static final int CELL_START = 1;
+
+  /** The scanner is inside of an unquoted cell. */
+  private static final int UNQUOTED = 2;
+
+  /** The scanner is inside of a quoted cell. */
+  private static final int QUOTED = 3;
+
+  /**
+   * The scanner is just after a quote inside of a quoted cell, which may be either the closing
+   * quote or the beginning of an escaped quote (if the quote escape character is the quote itself).
+   */
+  private static final int QUOTE_IN_QUOTED = 4;
+
+  /** The scanner is just after an escape character inside of a quoted cell. */
+  private static final int ESCAPE_IN_QUOTED = 5;
+
+  /** The scanner is after the closing quote of a cell. */
+  private static final int AFTER_QUOTE = 6;
+
+  /** The scanner is inside of a comment line. */
+  private static final int COMMENT = 7;
+
+  /** The scanner is inside of one of the initial lines that are skipped. */
+  private static final int SKIPPED_LINE = 8;
+
+  /** The scanner has found a construct that it cannot interpret reliably. */
+  private static final int FAILED = 9;
+
+  private final char delimiter;
+  private final char quoteCharacter;
+  private final char quoteEscapeCharacter;
+  private final char commentCharacter;
+  private final boolean isCrLf;
+
+  private int state;
+  private long linesToSkip;
+  private char previous = NUL;
+
+  /**
+   * Creates a new scanner.
+   *
+   * @param delimiter the delimiter character
+   * @param quoteCharacter the quote character, or {@code '\0'} if quotes are disabled
+   * @param quoteEscapeCharacter the quote escape character, or {@code '\0'} if disabled
+   * @param commentCharacter the character starting comment lines
+   * @param lineSeparator the line separator, must be either {@code "\n"} or {@code "\r\n"}
+   * @param linesToSkip the number of initial lines that are skipped by the parser
+   */
+  public RecordBoundaryScanner(
+      char delimiter,
+      char quoteCharacter,
+      char quoteEscapeCharacter,
+      char commentCharacter,
+      String lineSeparator,
+      long linesToSkip) {
+    if (!isSupportedLineSeparator(lineSeparator)) {
+      throw new IllegalArgumentException("Unsupported line separator: " + lineSeparator);
+    }
+
+    this.delimiter = delimiter;
+    this.quoteCharacter = quoteCharacter;
+    this.quoteEscapeCharacter = quoteEscapeCharacter;
+    this.commentCharacter = commentCharacter;
+    this.isCrLf = lineSeparator.equals("\r\n");
+    this.linesToSkip = linesToSkip;
+    this.state = linesToSkip > 0 ? SKIPPED_LINE : RECORD_START;
+  }
+
+  /** Checks if inputs using the given line separator can be scanned. */
+  static boolean isSupportedLineSeparator(String lineSeparator) {
+    return "\n".equals(lineSeparator) || "\r\n".equals(lineSeparator);
+  }
+
+  /**
+   * Checks if inputs using the given special characters can be scanned.
+   *
+   * <p>The delimiter must be distinct from all the other special characters and must not be a
+   * newline. If quotes are enabled, quote escaping must be enabled too, because the parser treats
+   * unescaped quotes inside of quoted cells ambiguously.
+   */
+  static boolean areSupportedCharacters(
+      char delimiter, char quoteCharacter, char quoteEscapeCharacter, char commentCharacter) {
+    return delimiter != '\n'
+        && delimiter != '\r'
+        && delimiter != NUL
+        && delimiter != quoteCharacter
+        && delimiter != quoteEscapeCharacter
+        && delimiter != commentCharacter
+        && (quoteCharacter == NUL || quoteEscapeCharacter != NUL);
+  }
+
+  /** Checks if the scanner has given up on finding further boundaries. */
+  public boolean isFailed() {
+    return state == FAILED;
+  }
+
+  /**
+   * Scans the next character of the input.
+   *
+   * @return {@code true} if the character ends a record (not counting comments and skipped lines)
+   */
+  public boolean advance(char c) {
+    int previousState = state;
+    state = nextState(previousState, c);
+    previous = c;
+    return state == RECORD_START && previousState != COMMENT && previousState != SKIPPED_LINE;
+  }
+
+  private int nextState(int state, char c) {
+    boolean isNewline = c == '\n' && (!isCrLf || previous == '\r');
+    if (c == '\n' && !isNewline && state != QUOTED && state != COMMENT) {
+      // The parser may end a record at a lone LF even if the line separator is CRLF.
+      return FAILED;
+    }
+
+    return switch (state) {
+      case SKIPPED_LINE -> {
+        if (isNewline && --linesToSkip == 0) {
+          yield RECORD_START;
+        }
+        yield SKIPPED_LINE;
+      }
+      case COMMENT -> isNewline ? RECORD_START : COMMENT;
+      case RECORD_START -> c == commentCharacter ? COMMENT : nextStateAtCellStart(c, isNewline);
+      case CELL_START -> nextStateAtCellStart(c, isNewline);
+      case UNQUOTED -> {
+        if (c == delimiter) {
+          yield CELL_START;
+        } else if (isNewline) {
+          yield RECORD_START;
+        } else if (c == NUL) {
+          yield FAILED;
+        } else {
+          yield UNQUOTED;
+        }
+      }
+      case QUOTED -> {
+        if (c == quoteCharacter) {
+          yield quoteEscapeCharacter == quoteCharacter ? QUOTE_IN_QUOTED : AFTER_QUOTE;
+        } else if (c == quoteEscapeCharacter && quoteEscapeCharacter != NUL) {
+          yield ESCAPE_IN_QUOTED;
+        } else {
+          yield QUOTED;
+        }
+      }
+      case QUOTE_IN_QUOTED -> c == quoteCharacter ? QUOTED : nextStateAfterQuote(c, isNewline);
+      case ESCAPE_IN_QUOTED -> c == quoteCharacter ? QUOTED : FAILED;
+      case AFTER_QUOTE -> nextStateAfterQuote(c, isNewline);
+      case FAILED -> FAILED;
+      default -> throw new IllegalStateException("Impossible branch.");
+    };
+  }
+
+  private int nextStateAtCellStart(char c, boolean isNewline) {
+    if (c == delimiter) {
+      return CELL_START;
+    } else if (isNewline) {
+      return RECORD_START;
+    } else if (c == NUL) {
+      return FAILED;
+    } else if (c == quoteCharacter) {
+      return QUOTED;
+    } else if (c <= ' ') {
+      // Leading whitespace is skipped by the parser, so a quote may still follow.
+      return CELL_START;
+    } else {
+      return UNQUOTED;
+    }
+  }
+
+  private int nextStateAfterQuote(char c, boolean isNewline) {
+    if (c == delimiter) {
+      return CELL_START;
+    } else if (isNewline) {
+      return RECORD_START;
+    } else if (c <= ' ' && c != NUL) {
+      return AFTER_QUOTE;
+    } else {
+      return FAILED;
+    }
+  }
+}
@@ -0,0 +1,35 @@
+package org.enso.table.util;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/** A read-only list view of a range of an array of integers. */
+public final class IntArraySlice extends AbstractList<Integer> implements RandomAccess {
+  private final int[] values;
+  private final int from;
+  private final int to;
+
+  /**
+   * Creates a view of the elements of {@code values} from {@code from} (inclusive) to {@code to}
+   * (exclusive). The array is not copied.
+   */
+  public IntArraySlice(int[] values, int from, int to) {
+    this.values = values;
+    this.from = from;
+    this.to = to;
+  }
+
+  @Override
+  public Integer get(int index) {
+    if (index < 0 || index >= to - from) {
+      throw new IndexOutOfBoundsException(index);
+    }
+
+    return values[from + index];
+  }
+
+  @Override
+  public int size() {
+    return to - from;
+  }
+}
@@ -0,0 +1,45 @@
+package org.enso.table.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/** Utilities for reading whole files through memory mapping. */
+public final class MappedFiles {
+  private MappedFiles() {}
+
+  /**
+   * Checks if files can be mapped without side effects.
+   *
+   * <p>On Windows, a mapped file cannot be modified or deleted until the mapping is garbage
+   * collected, so the files are not mapped there.
+   */
+  public static boolean isMappingSupported() {
+    return !System.getProperty("os.name", "").startsWith("Windows");
+  }
+
+  /**
+   * Returns the whole contents of the given file, mapping it into memory if {@link
+   * #isMappingSupported()}, or reading it into memory otherwise.
+   *
+   * @throws IOException if the file cannot be read, or is too large to fit into a single buffer
+   */
+  public static ByteBuffer map(File file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      long size = channel.size();
+      if (size > Integer.MAX_VALUE) {
+        throw new IOException("The file is too large to be read as a single buffer: " + file);
+      }
+
+      if (isMappingSupported()) {
+        return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+      }
+
+      ByteBuffer data = ByteBuffer.allocate((int) size);
+      while (data.hasRemaining() && channel.read(data) >= 0) {}
+      return data.flip();
+    }
+  }
+}
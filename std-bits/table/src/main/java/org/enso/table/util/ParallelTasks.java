@@ -0,0 +1,174 @@
+package org.enso.table.util;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.graalvm.polyglot.Context;
+
+/**
+ * Utilities for running Table operations on multiple threads.
+ *
+ * <p>The worker threads are not entered into the polyglot context, so the tasks must not call back
+ * into Enso (e.g. through {@link org.enso.base.ObjectComparator} fallbacks) and must not call
+ * {@link Context#getCurrent()}. The calling thread keeps polling safepoints while waiting for the
+ * results, so that the computation can still be interrupted.
+ */
+public final class ParallelTasks {
+  private ParallelTasks() {}
+
+  /** How often the waiting thread polls for safepoints. */
+  private static final long SAFEPOINT_INTERVAL_MS = 50;
+
+  /** The default value of {@link #getParallelThreshold()}. */
+  public static final int DEFAULT_PARALLEL_THRESHOLD = 1 << 17;
+
+  private static volatile int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+
+  /**
+   * Returns the number of rows from which operations are split between multiple threads. Smaller
+   * inputs are always processed on the current thread.
+   */
+  public static int getParallelThreshold() {
+    return parallelThreshold;
+  }
+
+  /**
+   * Changes the number of rows from which operations are split between multiple threads.
+   *
+   * <p>Meant for tests, which lower it to run the parallel variants of operations on small tables.
+   *
+   * @return the previous threshold
+   */
+  public static int setParallelThreshold(int threshold) {
+    if (threshold < 1) {
+      throw new IllegalArgumentException("The parallel threshold must be positive: " + threshold);
+    }
+    int previous = parallelThreshold;
+    parallelThreshold = threshold;
+    return previous;
+  }
+
+  /**
+   * Returns the number of rows that a single parallel task should process: the preferred size, but
+   * small enough to split inputs of the size of the {@link #getParallelThreshold() threshold}
+   * between several tasks.
+   */
+  public static int getChunkSize(int preferredSize) {
+    return Math.max(1, Math.min(preferredSize, parallelThreshold / 8));
+  }
+
+  /**
+   * Returns the polyglot context entered on the current thread, or {@code null} on worker threads
+   * that are not entered into any context.
+   *
+   * <p>Code that may run both on the main thread and inside of parallel tasks should only poll
+   * safepoints if the context is available.
+   */
+  public static Context getCurrentContextOrNull() {
+    try {
+      return Context.getCurrent();
+    } catch (IllegalStateException e) {
+      return null;
+    }
+  }
+
+  /** Checks if running tasks in parallel can give any benefit on the current machine. */
+  public static boolean isParallelismAvailable() {
+    return ForkJoinPool.getCommonPoolParallelism() > 1;
+  }
+
+  /** Returns the number of worker threads that parallel tasks should be split into. */
+  public static int getParallelism() {
+    return Math.max(1, ForkJoinPool.getCommonPoolParallelism());
+  }
+
+  /**
+   * Runs the task in the common fork-join pool and waits for its result.
+   *
+   * <p>Any runtime exception thrown by the task is rethrown in the calling thread.
+   */
+  public static <T> T invoke(ForkJoinTask<T> task) {
+    ForkJoinPool.commonPool().execute(task);
+    Context context = Context.getCurrent();
+    try {
+      while (true) {
+        try {
+          return task.get(SAFEPOINT_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+          context.safepoint();
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CancellationException("Interrupted while waiting for a parallel task.");
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      } else if (e.getCause() instanceof Error error) {
+        throw error;
+      } else {
+        throw new IllegalStateException(e.getCause());
+      }
+    } finally {
+      if (!task.isDone()) {
+        task.cancel(true);
+      }
+    }
+  }
+
+  /** An action processing a range {@code [from, to)} of indexes. */
+  @FunctionalInterface
+  public interface RangeAction {
+    void run(int from, int to);
+  }
+
+  /**
+   * Splits the range {@code [from, to)} into parts of at most {@code granularity} indexes and runs
+   * the action on each of them, in parallel.
+   *
+   * <p>The parts are disjoint, so the action may write to shared arrays at the indexes of its part.
+   */
+  public static void forEachRange(int from, int to, int granularity, RangeAction action) {
+    if (to - from <= granularity || !isParallelismAvailable()) {
+      Context context = Context.getCurrent();
+      for (int start = from; start < to; start += granularity) {
+        action.run(start, Math.min(start + granularity, to));
+        context.safepoint();
+      }
+      return;
+    }
+
+    invoke(new RangeTask(from, to, granularity, action));
+  }
+
+  private static final class RangeTask extends RecursiveAction {
+    private final int from;
+    private final int to;
+    private final int granularity;
+    private final RangeAction action;
+
+    RangeTask(int from, int to, int granularity, RangeAction action) {
+      this.from = from;
+      this.to = to;
+      this.granularity = granularity;
+      this.action = action;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= granularity) {
+        action.run(from, to);
+        return;
+      }
+
+      int middle = from + (to - from) / 2;
+      invokeAll(
+          new RangeTask(from, middle, granularity, action),
+          new RangeTask(middle, to, granularity, action));
+    }
+  }
+}
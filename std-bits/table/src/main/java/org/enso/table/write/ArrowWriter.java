@@ -0,0 +1,490 @@
+package org.enso.table.write;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import org.enso.table.data.column.storage.BoolStorage;
+import org.enso.table.data.column.storage.DictionaryStringStorage;
+import org.enso.table.data.column.storage.Storage;
+import org.enso.table.data.column.storage.StringStorage;
+import org.enso.table.data.column.storage.datetime.DateStorage;
+import org.enso.table.data.column.storage.datetime.TimeOfDayStorage;
+import org.enso.table.data.column.storage.numeric.AbstractLongStorage;
+import org.enso.table.data.column.storage.numeric.DoubleStorage;
+import org.enso.table.data.column.storage.numeric.LongStorage;
+import org.enso.table.data.table.Column;
+import org.enso.table.data.table.Table;
+import org.enso.table.format.BinaryOutput;
+import org.enso.table.format.arrow.ArrowFormat;
+import org.enso.table.format.arrow.FlatBufferWriter;
+import org.graalvm.polyglot.Context;
+
+/**
+ * Writes a table as an Arrow IPC file, which can be read by other tools supporting Apache Arrow.
+ *
+ * <p>The whole table is written as a single record batch. The buffers of integer, float and boolean
+ * columns are written directly from the underlying arrays of their storages, and dictionary-encoded
+ * text columns are written as Arrow dictionaries with their existing codes. Integers are always
+ * written as 64-bit values.
+ */
+public final class ArrowWriter {
+  private final BinaryOutput output;
+
+  private ArrowWriter(OutputStream output) {
+    this.output = new BinaryOutput(output);
+  }
+
+  /**
+   * Checks that all columns of the table can be written.
+   *
+   * @throws IllegalArgumentException if any column has a type that has no Arrow counterpart
+   */
+  public static void checkSupported(Table table) {
+    for (Column column : table.getColumns()) {
+      Storage<?> storage = column.getStorage();
+      boolean isSupported =
+          storage instanceof AbstractLongStorage
+              || storage instanceof DoubleStorage
+              || storage instanceof BoolStorage
+              || storage instanceof DateStorage
+              || storage instanceof TimeOfDayStorage
+              || storage instanceof StringStorage;
+      if (!isSupported) {
+        throw new IllegalArgumentException(
+            "The column ["
+                + column.getName()
+                + "] of type "
+                + storage.getType()
+                + " cannot be written to an Arrow file.");
+      }
+    }
+  }
+
+  /**
+   * Writes the table to the output stream.
+   *
+   * @throws IllegalArgumentException if any column has a type that has no Arrow counterpart;
+   *     nothing is written in that case
+   */
+  public static void write(Table table, OutputStream output) throws IOException {
+    checkSupported(table);
+    Column[] columns = table.getColumns();
+    int rowCount = table.rowCount();
+    List<EncodedColumn> encodedColumns = new ArrayList<>(columns.length);
+    for (int i = 0; i < columns.length; i++) {
+      encodedColumns.add(encode(columns[i].getName(), columns[i].getStorage(), i));
+    }
+
+    ArrowWriter writer = new ArrowWriter(output);
+    writer.output.putBytes(ArrowFormat.MAGIC);
+    writer.output.padTo(ArrowFormat.ALIGNMENT);
+
+    FlatBufferWriter.Table schema = schema(encodedColumns);
+    writer.writeMessage(ArrowFormat.HEADER_SCHEMA, schema, List.of());
+
+    List<Long> dictionaryBlocks = new ArrayList<>();
+    for (EncodedColumn column : encodedColumns) {
+      if (column.dictionary != null) {
+        EncodedColumn values = column.dictionary.values;
+        FlatBufferWriter.Table batch =
+            new FlatBufferWriter.Table()
+                .addLong(ArrowFormat.DictionaryBatch.ID, column.dictionary.id)
+                .addReference(
+                    ArrowFormat.DictionaryBatch.DATA, recordBatch(values.length, List.of(values)))
+                .addBoolean(ArrowFormat.DictionaryBatch.IS_DELTA, false);
+        dictionaryBlocks.addAll(
+            writer.writeMessage(ArrowFormat.HEADER_DICTIONARY_BATCH, batch, values.buffers));
+      }
+    }
+
+    List<BodyBuffer> buffers = new ArrayList<>();
+    for (EncodedColumn column : encodedColumns) {
+      buffers.addAll(column.buffers);
+    }
+    List<Long> recordBatchBlocks =
+        writer.writeMessage(
+            ArrowFormat.HEADER_RECORD_BATCH, recordBatch(rowCount, encodedColumns), buffers);
+
+    // The end-of-stream marker.
+    writer.output.putInt(ArrowFormat.CONTINUATION_MARKER);
+    writer.output.putInt(0);
+
+    FlatBufferWriter.Table footer =
+        new FlatBufferWriter.Table()
+            .addShort(ArrowFormat.Footer.VERSION, ArrowFormat.METADATA_VERSION_V5)
+            .addReference(ArrowFormat.Footer.SCHEMA, schema)
+            .addReference(ArrowFormat.Footer.DICTIONARIES, blocks(dictionaryBlocks))
+            .addReference(ArrowFormat.Footer.RECORD_BATCHES, blocks(recordBatchBlocks));
+    byte[] footerBytes = FlatBufferWriter.serialize(footer);
+    writer.output.putBytes(footerBytes);
+    writer.output.putInt(footerBytes.length);
+    writer.output.putBytes(ArrowFormat.MAGIC);
+    writer.output.flush();
+  }
+
+  /**
+   * Writes an encapsulated message with the given header and body.
+   *
+   * @return the fields of the {@code Block} struct locating the message
+   */
+  private List<Long> writeMessage(
+      byte headerType, FlatBufferWriter.Table header, List<BodyBuffer> buffers) throws IOException {
+    long bodyLength = 0;
+    for (BodyBuffer buffer : buffers) {
+      bodyLength += padded(buffer.length());
+    }
+
+    FlatBufferWriter.Table message =
+        new FlatBufferWriter.Table()
+            .addShort(ArrowFormat.Message.VERSION, ArrowFormat.METADATA_VERSION_V5)
+            .addByte(ArrowFormat.Message.HEADER_TYPE, headerType)
+            .addReference(ArrowFormat.Message.HEADER, header)
+            .addLong(ArrowFormat.Message.BODY_LENGTH, bodyLength);
+    byte[] metadata = FlatBufferWriter.serialize(message);
+
+    long offset = output.position();
+    output.putInt(ArrowFormat.CONTINUATION_MARKER);
+    output.putInt(metadata.length);
+    output.putBytes(metadata);
+    long metadataLength = output.position() - offset;
+    for (BodyBuffer buffer : buffers) {
+      buffer.writeTo(output);
+      output.padTo(ArrowFormat.ALIGNMENT);
+    }
+    return List.of(offset, metadataLength, bodyLength);
+  }
+
+  private static FlatBufferWriter.Table schema(List<EncodedColumn> columns) {
+    List<FlatBufferWriter.Table> fields = new ArrayList<>(columns.size());
+    for (EncodedColumn column : columns) {
+      FlatBufferWriter.Table field =
+          new FlatBufferWriter.Table()
+              .addReference(ArrowFormat.Field.NAME, new FlatBufferWriter.Text(column.name))
+              .addBoolean(ArrowFormat.Field.NULLABLE, true)
+              .addByte(ArrowFormat.Field.TYPE_TYPE, column.typeType)
+              .addReference(ArrowFormat.Field.TYPE, column.type)
+              .addReference(
+                  ArrowFormat.Field.CHILDREN, new FlatBufferWriter.TableVector(List.of()));
+      if (column.dictionary != null) {
+        FlatBufferWriter.Table indexType =
+            new FlatBufferWriter.Table()
+                .addInt(ArrowFormat.IntType.BIT_WIDTH, Integer.SIZE)
+                .addBoolean(ArrowFormat.IntType.IS_SIGNED, true);
+        field.addReference(
+            ArrowFormat.Field.DICTIONARY,
+            new FlatBufferWriter.Table()
+                .addLong(ArrowFormat.DictionaryEncoding.ID, column.dictionary.id)
+                .addReference(ArrowFormat.DictionaryEncoding.INDEX_TYPE, indexType)
+                .addBoolean(ArrowFormat.DictionaryEncoding.IS_ORDERED, false));
+      }
+      fields.add(field);
+    }
+    return new FlatBufferWriter.Table()
+        .addShort(ArrowFormat.Schema.ENDIANNESS, (short) 0)
+        .addReference(ArrowFormat.Schema.FIELDS, new FlatBufferWriter.TableVector(fields));
+  }
+
+  /** Describes the nodes and buffers of the columns, which are written one after another. */
+  private static FlatBufferWriter.Table recordBatch(long length, List<EncodedColumn> columns) {
+    long[] nodes = new long[2 * columns.size()];
+    List<Long> buffers = new ArrayList<>();
+    long offset = 0;
+    for (int i = 0; i < columns.size(); i++) {
+      EncodedColumn column = columns.get(i);
+      nodes[2 * i] = column.length;
+      nodes[2 * i + 1] = column.nullCount;
+      for (BodyBuffer buffer : column.buffers) {
+        buffers.add(offset);
+        buffers.add(buffer.length());
+        offset += padded(buffer.length());
+      }
+    }
+    return new FlatBufferWriter.Table()
+        .addLong(ArrowFormat.RecordBatch.LENGTH, length)
+        .addReference(ArrowFormat.RecordBatch.NODES, new FlatBufferWriter.StructVector(nodes, 2))
+        .addReference(
+            ArrowFormat.RecordBatch.BUFFERS,
+            new FlatBufferWriter.StructVector(toArray(buffers), 2));
+  }
+
+  /** The {@code Block} structs consist of a long, an int padded to 8 bytes, and a long. */
+  private static FlatBufferWriter.StructVector blocks(List<Long> blockFields) {
+    return new FlatBufferWriter.StructVector(toArray(blockFields), 3);
+  }
+
+  private static long[] toArray(List<Long> values) {
+    return values.stream().mapToLong(Long::longValue).toArray();
+  }
+
+  private static long padded(long length) {
+    return (length + ArrowFormat.ALIGNMENT - 1) & -ArrowFormat.ALIGNMENT;
+  }
+
+  /** A buffer of the body of a record batch. */
+  private interface BodyBuffer {
+    /** The length of the buffer in bytes, excluding the padding. */
+    long length();
+
+    void writeTo(BinaryOutput output) throws IOException;
+  }
+
+  private record Dictionary(long id, EncodedColumn values) {}
+
+  private record EncodedColumn(
+      String name,
+      byte typeType,
+      FlatBufferWriter.Table type,
+      int length,
+      long nullCount,
+      List<BodyBuffer> buffers,
+      Dictionary dictionary) {}
+
+  private static EncodedColumn encode(String name, Storage<?> storage, int columnIndex) {
+    int size = storage.size();
+    BitSet isNothing = nothingMap(storage);
+    long nullCount = isNothing.cardinality();
+    BodyBuffer validity = validityBuffer(isNothing, size, nullCount);
+    Context context = Context.getCurrent();
+    return switch (storage) {
+      case AbstractLongStorage s -> {
+        long[] values;
+        int from = 0;
+        if (s instanceof LongStorage longStorage) {
+          values = longStorage.getRawData();
+          from = longStorage.getRawDataOffset();
+        } else {
+          values = new long[size];
+          for (int i = 0; i < size; i++) {
+            values[i] = s.isNothing(i) ? 0 : s.getItem(i);
+            context.safepoint();
+          }
+        }
+        FlatBufferWriter.Table type =
+            new FlatBufferWriter.Table()
+                .addInt(ArrowFormat.IntType.BIT_WIDTH, Long.SIZE)
+                .addBoolean(ArrowFormat.IntType.IS_SIGNED, true);
+        yield new EncodedColumn(
+            name,
+            ArrowFormat.TYPE_INT,
+            type,
+            size,
+            nullCount,
+            List.of(validity, longs(values, from, size)),
+            null);
+      }
+      case DoubleStorage s -> {
+        FlatBufferWriter.Table type =
+            new FlatBufferWriter.Table()
+                .addShort(ArrowFormat.PRECISION_OR_UNIT, ArrowFormat.PRECISION_DOUBLE);
+        yield new EncodedColumn(
+            name,
+            ArrowFormat.TYPE_FLOATING_POINT,
+            type,
+            size,
+            nullCount,
+            List.of(validity, longs(s.getRawData(), s.getRawDataOffset(), size)),
+            null);
+      }
+      case BoolStorage s -> {
+        BitSet values = s.getValues().get(0, size);
+        if (s.isNegated()) {
+          values.flip(0, size);
+        }
+        yield new EncodedColumn(
+            name,
+            ArrowFormat.TYPE_BOOL,
+            new FlatBufferWriter.Table(),
+            size,
+            nullCount,
+            List.of(validity, bits(values, size)),
+            null);
+      }
+      case DateStorage s -> {
+        int[] days = new int[size];
+        for (int i = 0; i < size; i++) {
+          LocalDate date = s.getItemBoxed(i);
+          days[i] = date == null ? 0 : Math.toIntExact(date.toEpochDay());
+          context.safepoint();
+        }
+        FlatBufferWriter.Table type =
+            new FlatBufferWriter.Table()
+                .addShort(ArrowFormat.PRECISION_OR_UNIT, ArrowFormat.DATE_UNIT_DAY);
+        yield new EncodedColumn(
+            name,
+            ArrowFormat.TYPE_DATE,
+            type,
+            size,
+            nullCount,
+            List.of(validity, ints(days, size)),
+            null);
+      }
+      case TimeOfDayStorage s -> {
+        long[] nanos = new long[size];
+        for (int i = 0; i < size; i++) {
+          LocalTime time = s.getItemBoxed(i);
+          nanos[i] = time == null ? 0 : time.toNanoOfDay();
+          context.safepoint();
+        }
+        FlatBufferWriter.Table type =
+            new FlatBufferWriter.Table()
+                .addShort(ArrowFormat.PRECISION_OR_UNIT, ArrowFormat.TIME_UNIT_NANOSECOND)
+                .addInt(ArrowFormat.TIME_BIT_WIDTH, Long.SIZE);
+        yield new EncodedColumn(
+            name,
+            ArrowFormat.TYPE_TIME,
+            type,
+            size,
+            nullCount,
+            List.of(validity, longs(nanos, 0, size)),
+            null);
+      }
+      case DictionaryStringStorage s -> {
+        int[] codes = s.getCodes();
+        int[] indices = new int[size];
+        for (int i = 0; i < size; i++) {
+          // Arrow expects valid indices even in the null slots.
+          indices[i] = codes[i] == DictionaryStringStorage.NOTHING ? 0 : codes[i];
+        }
+        String[] dictionary = s.getDictionary();
+        EncodedColumn values = encodeText(name, dictionary, dictionary.length, new BitSet());
+        yield new EncodedColumn(
+            name,
+            ArrowFormat.TYPE_UTF8,
+            new FlatBufferWriter.Table(),
+            size,
+            nullCount,
+            List.of(validity, ints(indices, size)),
+            new Dictionary(columnIndex, values));
+      }
+      case StringStorage s -> encodeText(name, s.getData(), size, isNothing);
+      default -> throw new IllegalStateException("Unexpected storage: " + storage);
+    };
+  }
+
+  private static EncodedColumn encodeText(
+      String name, String[] strings, int count, BitSet isNothing) {
+    byte[][] encoded = new byte[count][];
+    int[] ends = new int[count + 1];
+    long length = 0;
+    Context context = Context.getCurrent();
+    for (int i = 0; i < count; i++) {
+      if (strings[i] != null) {
+        encoded[i] = strings[i].getBytes(StandardCharsets.UTF_8);
+        length += encoded[i].length;
+        if (length > Integer.MAX_VALUE) {
+          throw new IllegalArgumentException(
+              "The column [" + name + "] is too large to be written to an Arrow file.");
+        }
+      }
+      ends[i + 1] = (int) length;
+      context.safepoint();
+    }
+
+    long dataLength = length;
+    BodyBuffer data =
+        new BodyBuffer() {
+          @Override
+          public long length() {
+            return dataLength;
+          }
+
+          @Override
+          public void writeTo(BinaryOutput output) throws IOException {
+            for (byte[] bytes : encoded) {
+              if (bytes != null) {
+                output.putBytes(bytes);
+              }
+            }
+          }
+        };
+    long nullCount = isNothing.cardinality();
+    return new EncodedColumn(
+        name,
+        ArrowFormat.TYPE_UTF8,
+        new FlatBufferWriter.Table(),
+        count,
+        nullCount,
+        List.of(validityBuffer(isNothing, count, nullCount), ints(ends, count + 1), data),
+        null);
+  }
+
+  private static BitSet nothingMap(Storage<?> storage) {
+    return switch (storage) {
+      case AbstractLongStorage s -> s.getIsNothingMap();
+      case DoubleStorage s -> s.getIsNothingMap();
+      case BoolStorage s -> s.getIsNothingMap();
+      default -> {
+        BitSet isNothing = new BitSet();
+        Context context = Context.getCurrent();
+        for (int i = 0; i < storage.size(); i++) {
+          if (storage.isNothing(i)) {
+            isNothing.set(i);
+          }
+          context.safepoint();
+        }
+        yield isNothing;
+      }
+    };
+  }
+
+  /** The validity bitmap is omitted if there are no missing values. */
+  private static BodyBuffer validityBuffer(BitSet isNothing, int size, long nullCount) {
+    if (nullCount == 0) {
+      return bits(new BitSet(), 0);
+    }
+
+    BitSet isValid = new BitSet(size);
+    isValid.set(0, size);
+    isValid.andNot(isNothing);
+    return bits(isValid, size);
+  }
+
+  private static BodyBuffer bits(BitSet bits, int count) {
+    long[] words = bits.toLongArray();
+    long length = (count + 7) / 8;
+    return new BodyBuffer() {
+      @Override
+      public long length() {
+        return length;
+      }
+
+      @Override
+      public void writeTo(BinaryOutput output) throws IOException {
+        output.putBits(words, length);
+      }
+    };
+  }
+
+  private static BodyBuffer longs(long[] values, int from, int count) {
+    return new BodyBuffer() {
+      @Override
+      public long length() {
+        return (long) count * Long.BYTES;
+      }
+
+      @Override
+      public void writeTo(BinaryOutput output) throws IOException {
+        output.putLongs(values, from, count);
+      }
+    };
+  }
+
+  private static BodyBuffer ints(int[] values, int count) {
+    return new BodyBuffer() {
+      @Override
+      public long length() {
+        return (long) count * Integer.BYTES;
+      }
+
+      @Override
+      public void writeTo(BinaryOutput output) throws IOException {
+        output.putInts(values, count);
+      }
+    };
+  }
+}
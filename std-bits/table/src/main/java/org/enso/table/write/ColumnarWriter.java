@@ -0,0 +1,235 @@
+package org.enso.table.write;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.BitSet;
+import org.enso.table.data.column.storage.BoolStorage;
+import org.enso.table.data.column.storage.DictionaryStringStorage;
+import org.enso.table.data.column.storage.Storage;
+import org.enso.table.data.column.storage.StringStorage;
+import org.enso.table.data.column.storage.datetime.DateStorage;
+import org.enso.table.data.column.storage.datetime.TimeOfDayStorage;
+import org.enso.table.data.column.storage.numeric.AbstractLongStorage;
+import org.enso.table.data.column.storage.numeric.DoubleStorage;
+import org.enso.table.data.column.storage.numeric.LongStorage;
+import org.enso.table.data.column.storage.type.TextType;
+import org.enso.table.data.table.Column;
+import org.enso.table.data.table.Table;
+import org.enso.table.format.BinaryOutput;
+import org.enso.table.format.ColumnarLayout;
+import org.enso.table.format.ColumnarLayout.ColumnKind;
+import org.graalvm.polyglot.Context;
+
+/**
+ * Writes a table in the columnar binary format described by {@link ColumnarLayout}.
+ *
+ * <p>Numeric and boolean columns are written directly from their underlying arrays. Text columns
+ * with few distinct values are dictionary-encoded, so that they can be loaded without decoding each
+ * value separately.
+ */
+public final class ColumnarWriter {
+  private final BinaryOutput output;
+
+  private ColumnarWriter(OutputStream output) {
+    this.output = new BinaryOutput(output);
+  }
+
+  /**
+   * Checks that all columns of the table can be written.
+   *
+   * @throws IllegalArgumentException if any column has a type that the format cannot represent
+   */
+  public static void checkSupported(Table table) {
+    for (Column column : table.getColumns()) {
+      if (kindOf(column.getStorage()) == null) {
+        throw new IllegalArgumentException(
+            "The column ["
+                + column.getName()
+                + "] of type "
+                + column.getStorage().getType()
+                + " cannot be written to the columnar format.");
+      }
+    }
+  }
+
+  /**
+   * Writes the table to the output stream.
+   *
+   * @throws IllegalArgumentException if any column has a type that the format cannot represent;
+   *     nothing is written in that case
+   */
+  public static void write(Table table, OutputStream output) throws IOException {
+    checkSupported(table);
+    Column[] columns = table.getColumns();
+    ColumnarWriter writer = new ColumnarWriter(output);
+    writer.output.putBytes(ColumnarLayout.MAGIC);
+    writer.output.putInt(ColumnarLayout.VERSION);
+    writer.output.putInt(columns.length);
+    writer.output.putInt(table.rowCount());
+    writer.align();
+    for (Column column : columns) {
+      writer.writeColumn(column);
+    }
+    writer.output.flush();
+  }
+
+  private static ColumnKind kindOf(Storage<?> storage) {
+    return switch (storage) {
+      case AbstractLongStorage s -> ColumnKind.INTEGER;
+      case DoubleStorage s -> ColumnKind.FLOAT;
+      case BoolStorage s -> ColumnKind.BOOLEAN;
+      case DateStorage s -> ColumnKind.DATE;
+      case TimeOfDayStorage s -> ColumnKind.TIME_OF_DAY;
+      case DictionaryStringStorage s -> ColumnKind.DICTIONARY_TEXT;
+      case StringStorage s -> ColumnKind.TEXT;
+      default -> null;
+    };
+  }
+
+  private void writeColumn(Column column) throws IOException {
+    Storage<?> storage = column.getStorage();
+    int size = storage.size();
+    // Plain text columns are encoded on the fly if they are worth it.
+    if (storage instanceof StringStorage stringStorage
+        && !(storage instanceof DictionaryStringStorage)) {
+      DictionaryStringStorage encoded =
+          DictionaryStringStorage.tryEncode(stringStorage.getData(), size, stringStorage.getType());
+      if (encoded != null) {
+        storage = encoded;
+      }
+    }
+    ColumnKind kind = kindOf(storage);
+
+    byte[] name = column.getName().getBytes(StandardCharsets.UTF_8);
+    output.putInt(name.length);
+    output.putBytes(name);
+    align();
+
+    output.putInt(kind.getCode());
+    switch (storage) {
+      case AbstractLongStorage s -> {
+        output.putInt(s.getType().bits().toInteger());
+        output.putLong(0);
+      }
+      case StringStorage s -> {
+        TextType type = s.getType();
+        output.putInt(type.fixedLength() ? 1 : 0);
+        output.putLong(type.maxLength());
+      }
+      default -> {
+        output.putInt(0);
+        output.putLong(0);
+      }
+    }
+
+    putBitSet(nothingMap(storage));
+    switch (storage) {
+      case LongStorage s -> output.putLongs(s.getRawData(), s.getRawDataOffset(), size);
+      case AbstractLongStorage s -> {
+        Context context = Context.getCurrent();
+        for (int i = 0; i < size; i++) {
+          output.putLong(s.isNothing(i) ? 0 : s.getItem(i));
+          context.safepoint();
+        }
+      }
+      case DoubleStorage s -> output.putLongs(s.getRawData(), s.getRawDataOffset(), size);
+      case BoolStorage s -> {
+        BitSet values = s.getValues();
+        if (s.isNegated()) {
+          values = (BitSet) values.clone();
+          values.flip(0, size);
+        }
+        putBitSet(values);
+      }
+      case DateStorage s -> {
+        Context context = Context.getCurrent();
+        for (int i = 0; i < size; i++) {
+          LocalDate date = s.getItemBoxed(i);
+          output.putLong(date == null ? 0 : date.toEpochDay());
+          context.safepoint();
+        }
+      }
+      case TimeOfDayStorage s -> {
+        Context context = Context.getCurrent();
+        for (int i = 0; i < size; i++) {
+          LocalTime time = s.getItemBoxed(i);
+          output.putLong(time == null ? 0 : time.toNanoOfDay());
+          context.safepoint();
+        }
+      }
+      case DictionaryStringStorage s -> {
+        String[] dictionary = s.getDictionary();
+        output.putInt(dictionary.length);
+        align();
+        putStrings(dictionary, dictionary.length);
+        output.putInts(s.getCodes(), size);
+        align();
+      }
+      case StringStorage s -> putStrings(s.getData(), size);
+      default -> throw new IllegalStateException("Unexpected storage: " + storage);
+    }
+  }
+
+  private static BitSet nothingMap(Storage<?> storage) {
+    return switch (storage) {
+      case AbstractLongStorage s -> s.getIsNothingMap();
+      case DoubleStorage s -> s.getIsNothingMap();
+      case BoolStorage s -> s.getIsNothingMap();
+      default -> {
+        BitSet isNothing = new BitSet();
+        Context context = Context.getCurrent();
+        for (int i = 0; i < storage.size(); i++) {
+          if (storage.isNothing(i)) {
+            isNothing.set(i);
+          }
+          context.safepoint();
+        }
+        yield isNothing;
+      }
+    };
+  }
+
+  /** Writes the strings as offsets of their ends, followed by their UTF-8 encoded contents. */
+  private void putStrings(String[] strings, int count) throws IOException {
+    byte[][] encoded = new byte[count][];
+    int[] ends = new int[count + 1];
+    long length = 0;
+    Context context = Context.getCurrent();
+    for (int i = 0; i < count; i++) {
+      if (strings[i] != null) {
+        encoded[i] = strings[i].getBytes(StandardCharsets.UTF_8);
+        length += encoded[i].length;
+        if (length > Integer.MAX_VALUE) {
+          throw new IllegalArgumentException(
+              "The text column is too large to be written to the columnar format.");
+        }
+      }
+      ends[i + 1] = (int) length;
+      context.safepoint();
+    }
+
+    output.putInts(ends, count + 1);
+    align();
+    for (byte[] bytes : encoded) {
+      if (bytes != null) {
+        output.putBytes(bytes);
+      }
+    }
+    align();
+  }
+
+  private void putBitSet(BitSet bitSet) throws IOException {
+    long[] words = bitSet.toLongArray();
+    output.putInt(words.length);
+    align();
+    output.putLongs(words, words.length);
+  }
+
+  /** Pads the output with zeros up to the next aligned position. */
+  private void align() throws IOException {
+    output.padTo(ColumnarLayout.ALIGNMENT);
+  }
+}
@@ -12,6 +12,7 @@ import org.apache.poi.ss.usermodel.Name;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.enso.table.data.column.storage.BoolStorage;
 import org.enso.table.data.column.storage.Storage;
 import org.enso.table.data.column.storage.datetime.DateTimeStorage;
@@ -28,6 +29,7 @@ import org.enso.table.excel.ExcelHeaders;
 import org.enso.table.excel.ExcelRange;
 import org.enso.table.excel.ExcelRow;
 import org.enso.table.excel.ExcelSheet;
+import org.enso.table.excel.ExcelWorkbookRow;
 import org.enso.table.util.ColumnMapper;
 import org.enso.table.util.NameDeduplicator;
 
@@ -83,7 +85,8 @@ public class ExcelWriter {
       headers =
           headers != ExcelHeaders.HeaderBehavior.INFER
               ? headers
-              : shouldWriteHeaders(new ExcelSheet(workbook, sheetIndex), firstRow + 1, 1, -1);
+              : shouldWriteHeaders(
+                  new ExcelSheet(existingSheets(workbook), sheetIndex), firstRow + 1, 1, -1);
 
       String sheetName = workbook.getSheetName(sheetIndex - 1);
       workbook.removeSheetAt(sheetIndex - 1);
@@ -136,7 +139,8 @@ public class ExcelWriter {
       headers =
           headers != ExcelHeaders.HeaderBehavior.INFER
               ? headers
-              : shouldWriteHeaders(new ExcelSheet(workbook, sheetIndex), firstRow + 1, 1, -1);
+              : shouldWriteHeaders(
+                  new ExcelSheet(existingSheets(workbook), sheetIndex), firstRow + 1, 1, -1);
 
       workbook.removeSheetAt(sheetIndex);
       Sheet sheet = workbook.createSheet(sheetName);
@@ -199,6 +203,8 @@ public class ExcelWriter {
           ExistingDataException,
           ColumnNameMismatchException,
           ColumnCountMismatchException {
+    // Ranges are always within an existing sheet, which has to be modified in place.
+    workbook = existingSheets(workbook);
     int sheetIndex = workbook.getSheetIndex(range.getSheetName());
     if (sheetIndex == -1) {
       throw new InvalidLocationException(
@@ -408,7 +414,7 @@ public class ExcelWriter {
   private static void clearRange(Workbook workbook, ExcelRange range, ExcelSheet sheet) {
     ExcelRange fullRange = range.getAbsoluteRange(workbook);
     for (int row = fullRange.getTopRow(); row <= fullRange.getBottomRow(); row++) {
-      ExcelRow excelRow = sheet.get(row);
+      ExcelWorkbookRow excelRow = sheet.get(row);
       if (excelRow != null) {
         for (int column = fullRange.getLeftColumn();
             column <= fullRange.getRightColumn();
@@ -476,6 +482,19 @@ public class ExcelWriter {
     workbook.setForceFormulaRecalculation(true);
   }
 
+  /**
+   * Returns the workbook through which the sheets already present in the given workbook can be read
+   * and modified.
+   *
+   * <p>A streaming workbook only gives access to the rows of the sheets it creates, so the sheets
+   * loaded from the file are accessed through the workbook it is based on.
+   */
+  private static Workbook existingSheets(Workbook workbook) {
+    return workbook instanceof SXSSFWorkbook streamingWorkbook
+        ? streamingWorkbook.getXSSFWorkbook()
+        : workbook;
+  }
+
   private static CellStyle getDateTimeStyle(Workbook workbook, String format) {
     for (int i = 0; i < workbook.getNumCellStyles(); i++) {
       CellStyle style = workbook.getCellStyleAt(i);
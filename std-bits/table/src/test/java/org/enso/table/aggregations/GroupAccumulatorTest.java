@@ -0,0 +1,104 @@
+package org.enso.table.aggregations;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.util.BitSet;
+import java.util.List;
+import org.enso.table.data.column.storage.numeric.DoubleStorage;
+import org.enso.table.data.column.storage.numeric.LongStorage;
+import org.enso.table.data.column.storage.type.IntegerType;
+import org.enso.table.data.table.Column;
+import org.enso.table.problems.BlackholeProblemAggregator;
+import org.junit.Test;
+
+/**
+ * Checks that accumulating consecutive ranges of rows separately and merging the partial states
+ * gives the same results as accumulating all the rows at once.
+ */
+public class GroupAccumulatorTest {
+  private static final int ROW_COUNT = 1000;
+  private static final int GROUP_COUNT = 9;
+
+  /** Group 7 only has rows in the first part of the table, group 8 has only missing values. */
+  private static final int[] ROW_GROUPS = new int[ROW_COUNT];
+
+  private static final Column LONGS;
+  private static final Column DOUBLES;
+
+  static {
+    long[] longs = new long[ROW_COUNT];
+    long[] doubles = new long[ROW_COUNT];
+    BitSet missing = new BitSet();
+    for (int row = 0; row < ROW_COUNT; row++) {
+      ROW_GROUPS[row] = row < 50 && row % 10 == 0 ? 7 : row % 23 == 0 ? 8 : row % 7;
+      if (ROW_GROUPS[row] == 8 || row % 11 == 0) {
+        missing.set(row);
+      } else {
+        longs[row] = (row * 7919L) % 1000 - 500;
+        doubles[row] = Double.doubleToRawLongBits(((row * 31) % 211) / 4.0);
+      }
+    }
+    LONGS = new Column("longs", new LongStorage(longs, ROW_COUNT, missing, IntegerType.INT_64));
+    DOUBLES = new Column("doubles", new DoubleStorage(doubles, ROW_COUNT, missing));
+  }
+
+  private static List<Aggregator> aggregators() {
+    return List.of(
+        new Count("count"),
+        new CountNothing("count_nothing", LONGS, true),
+        new CountNothing("count_not_nothing", DOUBLES, false),
+        new First("first", LONGS, true),
+        new First("first_or_nothing", DOUBLES, false),
+        new Last("last", DOUBLES, true),
+        new Last("last_or_nothing", LONGS, false),
+        new GroupBy("group_by", LONGS),
+        new Sum("sum_longs", LONGS),
+        new Sum("sum_doubles", DOUBLES),
+        new Mean("mean", DOUBLES),
+        new StandardDeviation("standard_deviation", LONGS, false),
+        new StandardDeviation("population_deviation", DOUBLES, true),
+        new MinOrMax("min", DOUBLES, -1),
+        new MinOrMax("max", LONGS, 1));
+  }
+
+  @Test
+  public void mergingTwoPartsGivesSameResults() {
+    for (int split : new int[] {0, 1, 40, 500, ROW_COUNT - 1, ROW_COUNT}) {
+      for (Aggregator aggregator : aggregators()) {
+        GroupAccumulator expected = accumulate(aggregator, 0, ROW_COUNT);
+        GroupAccumulator merged = accumulate(aggregator, 0, split);
+        merged.merge(accumulate(aggregator, split, ROW_COUNT));
+        assertSameResults(aggregator.getName() + " split at " + split, expected, merged);
+      }
+    }
+  }
+
+  @Test
+  public void mergingManyPartsInOrderGivesSameResults() {
+    int[] bounds = {0, 13, 14, 260, 499, 777, ROW_COUNT};
+    for (Aggregator aggregator : aggregators()) {
+      GroupAccumulator expected = accumulate(aggregator, 0, ROW_COUNT);
+      GroupAccumulator merged = accumulate(aggregator, bounds[0], bounds[1]);
+      for (int part = 1; part < bounds.length - 1; part++) {
+        merged.merge(accumulate(aggregator, bounds[part], bounds[part + 1]));
+      }
+      assertSameResults(aggregator.getName(), expected, merged);
+    }
+  }
+
+  private static GroupAccumulator accumulate(Aggregator aggregator, int from, int to) {
+    GroupAccumulator accumulator =
+        aggregator.makeAccumulator(GROUP_COUNT, BlackholeProblemAggregator.INSTANCE);
+    assertNotNull(aggregator.getName(), accumulator);
+    accumulator.accumulate(ROW_GROUPS, from, to);
+    return accumulator;
+  }
+
+  private static void assertSameResults(
+      String message, GroupAccumulator expected, GroupAccumulator actual) {
+    for (int group = 0; group < GROUP_COUNT; group++) {
+      assertEquals(message + ", group " + group, expected.finish(group), actual.finish(group));
+    }
+  }
+}
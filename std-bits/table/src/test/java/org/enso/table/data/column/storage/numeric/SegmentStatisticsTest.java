@@ -0,0 +1,264 @@
+package org.enso.table.data.column.storage.numeric;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.BitSet;
+import java.util.List;
+import org.enso.table.data.column.operation.map.MapOperationProblemAggregator;
+import org.enso.table.data.column.operation.map.numeric.comparisons.EqualsComparison;
+import org.enso.table.data.column.operation.map.numeric.comparisons.GreaterComparison;
+import org.enso.table.data.column.operation.map.numeric.comparisons.GreaterOrEqualComparison;
+import org.enso.table.data.column.operation.map.numeric.comparisons.LessComparison;
+import org.enso.table.data.column.operation.map.numeric.comparisons.LessOrEqualComparison;
+import org.enso.table.data.column.operation.map.numeric.comparisons.NumericComparison;
+import org.enso.table.data.column.storage.BoolStorage;
+import org.enso.table.data.column.storage.Storage;
+import org.enso.table.data.column.storage.type.IntegerType;
+import org.enso.table.problems.BlackholeProblemAggregator;
+import org.graalvm.polyglot.Context;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks that comparisons with a constant decide whole segments of numeric storages from their
+ * statistics, and that doing so gives the same results as comparing row by row.
+ */
+public class SegmentStatisticsTest {
+  private static final int SEGMENT_SIZE = SegmentStatistics.SEGMENT_SIZE;
+
+  /** Three full segments, of which the third one is all missing, and a partial fourth one. */
+  private static final int SIZE = 3 * SEGMENT_SIZE + 100;
+
+  /** The row of the only NaN, in the second segment. */
+  private static final int NAN_ROW = SEGMENT_SIZE + 5;
+
+  private Context context;
+
+  @Before
+  public void setup() {
+    context = Context.newBuilder().option("engine.WarnInterpreterOnly", "false").build();
+    context.enter();
+  }
+
+  @After
+  public void teardown() {
+    context.leave();
+    context.close();
+  }
+
+  @Test
+  public void computesStatisticsOnSecondRequest() {
+    LongStorage storage = makeLongs();
+    assertNull(storage.getStatisticsIfReused());
+    LongSegmentStatistics statistics = storage.getStatisticsIfReused();
+    assertNotNull(statistics);
+    assertSame(statistics, storage.getStatisticsIfReused());
+
+    assertEquals(4, statistics.getSegmentCount());
+    assertEquals(3 * SEGMENT_SIZE, statistics.getSegmentStart(3));
+    assertEquals(SIZE, statistics.getSegmentEnd(3));
+    assertEquals(1, statistics.getMin(0));
+    assertEquals(SEGMENT_SIZE - 1, statistics.getMax(0));
+    assertEquals(missingCount(0, SEGMENT_SIZE), statistics.getNothingCount(0));
+    assertTrue(statistics.isAllNothing(2));
+    assertFalse(statistics.isAllNothing(3));
+    assertEquals(3 * SEGMENT_SIZE, statistics.getMin(3));
+    assertEquals(SIZE - 1, statistics.getMax(3));
+  }
+
+  @Test
+  public void comparingLongsBySegmentsGivesSameResultsAsRowByRow() {
+    long[] constants = {
+      Long.MIN_VALUE,
+      0,
+      1,
+      500,
+      SEGMENT_SIZE - 1,
+      SEGMENT_SIZE,
+      SEGMENT_SIZE + 1,
+      2 * SEGMENT_SIZE + 7,
+      3 * SEGMENT_SIZE,
+      3 * SEGMENT_SIZE + 1,
+      SIZE - 1,
+      SIZE,
+      Long.MAX_VALUE
+    };
+    for (NumericComparison<Long, LongStorage> comparison :
+        SegmentStatisticsTest.<Long, LongStorage>comparisons()) {
+      for (long constant : constants) {
+        LongStorage storage = makeLongs();
+        BoolStorage rowByRow = comparison.runBinaryMap(storage, constant, problems());
+        BoolStorage bySegments = comparison.runBinaryMap(storage, constant, problems());
+        assertNotNull(storage.getStatisticsIfReused());
+        assertSameResults(comparison.getName() + " " + constant, rowByRow, bySegments);
+      }
+    }
+  }
+
+  @Test
+  public void comparingDoublesBySegmentsGivesSameResultsAsRowByRow() {
+    double[] constants = {
+      Double.NEGATIVE_INFINITY,
+      -0.0,
+      0.0,
+      0.25,
+      doubleAt(SEGMENT_SIZE - 1),
+      doubleAt(SEGMENT_SIZE),
+      doubleAt(SEGMENT_SIZE) + 0.1,
+      doubleAt(2 * SEGMENT_SIZE + 7),
+      doubleAt(3 * SEGMENT_SIZE + 1),
+      doubleAt(SIZE - 1),
+      Double.POSITIVE_INFINITY,
+      Double.NaN
+    };
+    for (NumericComparison<Double, DoubleStorage> comparison :
+        SegmentStatisticsTest.<Double, DoubleStorage>comparisons()) {
+      for (double constant : constants) {
+        DoubleStorage storage = makeDoubles();
+        BoolStorage rowByRow = comparison.runBinaryMap(storage, constant, problems());
+        BoolStorage bySegments = comparison.runBinaryMap(storage, constant, problems());
+        assertNotNull(storage.getStatisticsIfReused());
+        assertSameResults(comparison.getName() + " " + constant, rowByRow, bySegments);
+      }
+    }
+  }
+
+  /**
+   * Overwrites the values of segments whose result is decided by their statistics, which are not
+   * updated, so the result only stays the same if those segments are not looked at.
+   */
+  @Test
+  public void skipsSegmentsDecidedByStatistics() {
+    LongStorage longs = makeLongs();
+    longs.getStatisticsIfReused();
+    assertNotNull(longs.getStatisticsIfReused());
+    fillSegment(longs.getRawData(), longs.getRawDataOffset(), 0, Long.MAX_VALUE);
+    fillSegment(longs.getRawData(), longs.getRawDataOffset(), 3, Long.MIN_VALUE);
+    long constant = 2 * SEGMENT_SIZE + 7;
+    BoolStorage longResults =
+        new GreaterComparison<Long, LongStorage>().runBinaryMap(longs, constant, problems());
+    assertSegmentResults(longResults, 0, false);
+    assertSegmentResults(longResults, 1, false);
+    assertSegmentResults(longResults, 3, true);
+
+    DoubleStorage doubles = makeDoubles();
+    doubles.getStatisticsIfReused();
+    assertNotNull(doubles.getStatisticsIfReused());
+    fillSegment(
+        doubles.getRawData(),
+        doubles.getRawDataOffset(),
+        0,
+        Double.doubleToRawLongBits(Double.MAX_VALUE));
+    fillSegment(
+        doubles.getRawData(),
+        doubles.getRawDataOffset(),
+        3,
+        Double.doubleToRawLongBits(-Double.MAX_VALUE));
+    BoolStorage doubleResults =
+        new LessOrEqualComparison<Double, DoubleStorage>()
+            .runBinaryMap(doubles, doubleAt(SEGMENT_SIZE) + 0.1, problems());
+    assertSegmentResults(doubleResults, 0, true);
+    assertSegmentResults(doubleResults, 3, false);
+    // The segment with NaN is always compared row by row.
+    assertTrue(doubleResults.getItem(SEGMENT_SIZE));
+    assertFalse(doubleResults.getItem(NAN_ROW));
+    assertFalse(doubleResults.getItem(SEGMENT_SIZE + 2));
+  }
+
+  private static <T extends Number, I extends Storage<? super T>>
+      List<NumericComparison<T, I>> comparisons() {
+    return List.of(
+        new LessComparison<>(),
+        new LessOrEqualComparison<>(),
+        new GreaterComparison<>(),
+        new GreaterOrEqualComparison<>(),
+        new EqualsComparison<>());
+  }
+
+  private static boolean isMissing(int row) {
+    return row % 97 == 0 || (row >= 2 * SEGMENT_SIZE && row < 3 * SEGMENT_SIZE);
+  }
+
+  private static int missingCount(int from, int to) {
+    int count = 0;
+    for (int row = from; row < to; row++) {
+      if (isMissing(row)) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /** Makes a storage of increasing values, so that the ranges of the segments do not overlap. */
+  private static LongStorage makeLongs() {
+    long[] data = new long[SIZE];
+    BitSet missing = new BitSet();
+    for (int row = 0; row < SIZE; row++) {
+      if (isMissing(row)) {
+        missing.set(row);
+      } else {
+        data[row] = row;
+      }
+    }
+    return new LongStorage(data, SIZE, missing, IntegerType.INT_64);
+  }
+
+  private static double doubleAt(int row) {
+    return (row - 10) / 4.0;
+  }
+
+  /**
+   * Makes a storage of increasing values, with -0.0 in the first segment and NaN in the second one.
+   */
+  private static DoubleStorage makeDoubles() {
+    long[] data = new long[SIZE];
+    BitSet missing = new BitSet();
+    for (int row = 0; row < SIZE; row++) {
+      if (isMissing(row)) {
+        missing.set(row);
+      } else {
+        double value = row == 10 ? -0.0 : row == NAN_ROW ? Double.NaN : doubleAt(row);
+        data[row] = Double.doubleToRawLongBits(value);
+      }
+    }
+    return new DoubleStorage(data, SIZE, missing);
+  }
+
+  private static void fillSegment(long[] data, int offset, int segment, long value) {
+    int end = Math.min((segment + 1) * SEGMENT_SIZE, SIZE);
+    for (int row = segment * SEGMENT_SIZE; row < end; row++) {
+      data[offset + row] = value;
+    }
+  }
+
+  private static MapOperationProblemAggregator problems() {
+    return new MapOperationProblemAggregator(BlackholeProblemAggregator.INSTANCE, "test");
+  }
+
+  private static void assertSegmentResults(BoolStorage results, int segment, boolean expected) {
+    int end = Math.min((segment + 1) * SEGMENT_SIZE, SIZE);
+    for (int row = segment * SEGMENT_SIZE; row < end; row++) {
+      if (isMissing(row)) {
+        assertTrue("row " + row, results.isNothing(row));
+      } else {
+        assertEquals("row " + row, expected, results.getItem(row));
+      }
+    }
+  }
+
+  private static void assertSameResults(String message, BoolStorage expected, BoolStorage actual) {
+    assertEquals(message, expected.size(), actual.size());
+    for (int row = 0; row < expected.size(); row++) {
+      assertEquals(message + ", row " + row, expected.isNothing(row), actual.isNothing(row));
+      if (!expected.isNothing(row)) {
+        assertEquals(message + ", row " + row, expected.getItem(row), actual.getItem(row));
+      }
+    }
+  }
+}
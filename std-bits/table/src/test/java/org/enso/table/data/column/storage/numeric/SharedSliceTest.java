@@ -0,0 +1,230 @@
+package org.enso.table.data.column.storage.numeric;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.IntFunction;
+import org.enso.table.data.column.operation.map.MapOperationProblemAggregator;
+import org.enso.table.data.column.operation.map.numeric.comparisons.GreaterComparison;
+import org.enso.table.data.column.storage.BoolStorage;
+import org.enso.table.data.column.storage.Storage;
+import org.enso.table.data.column.storage.type.IntegerType;
+import org.enso.table.data.mask.OrderMask;
+import org.enso.table.data.mask.SliceRange;
+import org.enso.table.problems.BlackholeProblemAggregator;
+import org.graalvm.polyglot.Context;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks that slices of numeric storages, whether they share the array of their parent or copy it,
+ * hold the right rows and can be operated on.
+ */
+public class SharedSliceTest {
+  private static final int SIZE = 5 * SegmentStatistics.SEGMENT_SIZE;
+
+  private Context context;
+
+  @Before
+  public void setup() {
+    context = Context.newBuilder().option("engine.WarnInterpreterOnly", "false").build();
+    context.enter();
+  }
+
+  @After
+  public void teardown() {
+    context.leave();
+    context.close();
+  }
+
+  @Test
+  public void slicesOfSlicesShareTheArray() {
+    LongStorage longs = makeLongs();
+    LongStorage slice = longs.slice(1000, 16000);
+    LongStorage sliceOfSlice = slice.slice(500, 10000);
+    assertSame(longs.getRawData(), sliceOfSlice.getRawData());
+    assertEquals(1500, sliceOfSlice.getRawDataOffset());
+    checkLongs(slice, 1000, 16000);
+    checkLongs(sliceOfSlice, 1500, 10000);
+
+    DoubleStorage doubles = makeDoubles();
+    DoubleStorage doubleSlice = doubles.slice(1000, 16000).slice(500, 10000);
+    assertSame(doubles.getRawData(), doubleSlice.getRawData());
+    assertEquals(1500, doubleSlice.getRawDataOffset());
+    checkDoubles(doubleSlice, 1500, 10000);
+  }
+
+  @Test
+  public void emptySlices() {
+    LongStorage longs = makeLongs();
+    checkLongs(longs.slice(0, 0), 0, 0);
+    checkLongs(longs.slice(SIZE, 10), SIZE, 0);
+    LongStorage slice = longs.slice(1000, 16000);
+    checkLongs(slice.slice(16000, 10), 17000, 0);
+    checkLongs(slice.slice(List.of(new Range(5, 5))), 1005, 0);
+
+    DoubleStorage doubles = makeDoubles();
+    checkDoubles(doubles.slice(SIZE, 10), SIZE, 0);
+    checkDoubles(doubles.slice(1000, 16000).slice(7, 0), 1007, 0);
+  }
+
+  @Test
+  public void slicesAtTheEndOfTheStorage() {
+    LongStorage longs = makeLongs();
+    LongStorage shared = longs.slice(SIZE - 6000, 10000);
+    assertSame(longs.getRawData(), shared.getRawData());
+    checkLongs(shared, SIZE - 6000, 6000);
+
+    LongStorage copied = longs.slice(SIZE - 100, Integer.MAX_VALUE);
+    assertNotSame(longs.getRawData(), copied.getRawData());
+    checkLongs(copied, SIZE - 100, 100);
+
+    LongStorage slice = longs.slice(1000, SIZE);
+    checkLongs(slice.slice(slice.size() - 5000, 5000), SIZE - 5000, 5000);
+    checkLongs(
+        slice.slice(List.of(new Range(slice.size() - 4096, slice.size()))), SIZE - 4096, 4096);
+
+    DoubleStorage doubles = makeDoubles();
+    checkDoubles(doubles.slice(SIZE - 6000, Integer.MAX_VALUE), SIZE - 6000, 6000);
+    checkDoubles(doubles.slice(1000, SIZE).slice(SIZE - 1001, 10), SIZE - 1, 1);
+  }
+
+  @Test
+  public void slicesOfStorageWithoutData() {
+    LongStorage missing = LongStorage.makeEmpty(SIZE, IntegerType.INT_64);
+    checkMissing(missing.slice(SIZE - 6000, 6000), 6000);
+    checkMissing(missing.slice(SIZE - 3, 10), 3);
+    checkMissing(missing.slice(SIZE - 3, 10).appendNulls(2), 5);
+    checkMissing(missing.slice(List.of(new Range(0, 10), new Range(SIZE - 10, SIZE))), 20);
+  }
+
+  private record Range(int start, int end) implements SliceRange {}
+
+  private static boolean isMissing(int row) {
+    return row % 7 == 3;
+  }
+
+  private static Long longAt(int row) {
+    return isMissing(row) ? null : row * 3L - 100;
+  }
+
+  private static Double doubleAt(int row) {
+    return isMissing(row) ? null : row / 4.0 - 100;
+  }
+
+  private static LongStorage makeLongs() {
+    long[] data = new long[SIZE];
+    BitSet missing = new BitSet();
+    for (int row = 0; row < SIZE; row++) {
+      if (isMissing(row)) {
+        missing.set(row);
+      } else {
+        data[row] = longAt(row);
+      }
+    }
+    return new LongStorage(data, SIZE, missing, IntegerType.INT_64);
+  }
+
+  private static DoubleStorage makeDoubles() {
+    long[] data = new long[SIZE];
+    BitSet missing = new BitSet();
+    for (int row = 0; row < SIZE; row++) {
+      if (isMissing(row)) {
+        missing.set(row);
+      } else {
+        data[row] = Double.doubleToRawLongBits(doubleAt(row));
+      }
+    }
+    return new DoubleStorage(data, SIZE, missing);
+  }
+
+  /** Checks that the slice holds the rows from {@code start} of the parent, and operates on it. */
+  private static void checkLongs(LongStorage slice, int start, int size) {
+    checkOperations(slice, start, size, row -> longAt(start + row));
+    checkComparison(slice, start * 3L + size * 3L / 2 - 100, row -> longAt(start + row));
+  }
+
+  private static void checkDoubles(DoubleStorage slice, int start, int size) {
+    checkOperations(slice, start, size, row -> doubleAt(start + row));
+    checkComparison(slice, start / 4.0 + size / 8.0 - 100, row -> doubleAt(start + row));
+  }
+
+  private static void checkMissing(Storage<?> storage, int size) {
+    assertRows("missing", storage, size, row -> null);
+  }
+
+  private static <T extends Number> void checkOperations(
+      Storage<T> slice, int start, int size, IntFunction<T> expected) {
+    String message = "slice from " + start + " of size " + size;
+    assertRows(message, slice, size, expected);
+
+    BitSet everyThirdRow = new BitSet();
+    for (int row = 0; row < size; row += 3) {
+      everyThirdRow.set(row);
+    }
+    int filteredSize = everyThirdRow.cardinality();
+    assertRows(
+        message + " filtered",
+        slice.applyFilter(everyThirdRow, filteredSize),
+        filteredSize,
+        row -> expected.apply(row * 3));
+
+    assertRows(
+        message + " reversed",
+        slice.applyMask(OrderMask.reverse(size)),
+        size,
+        row -> expected.apply(size - 1 - row));
+
+    int middle = size / 2;
+    assertRows(
+        message + " sliced in ranges",
+        slice.slice(List.of(new Range(0, middle / 2), new Range(middle, size))),
+        middle / 2 + size - middle,
+        row -> expected.apply(row < middle / 2 ? row : row - middle / 2 + middle));
+
+    assertRows(
+        message + " with nulls appended",
+        slice.appendNulls(3),
+        size + 3,
+        row -> row < size ? expected.apply(row) : null);
+  }
+
+  /**
+   * Compares the slice with a constant twice, so that the second comparison uses the statistics of
+   * the slice's segments.
+   */
+  private static <T extends Number, I extends Storage<? super T>> void checkComparison(
+      I slice, T constant, IntFunction<T> expected) {
+    GreaterComparison<T, I> comparison = new GreaterComparison<>();
+    for (int attempt = 0; attempt < 2; attempt++) {
+      BoolStorage result = comparison.runBinaryMap(slice, constant, problems());
+      assertEquals(slice.size(), result.size());
+      for (int row = 0; row < slice.size(); row++) {
+        T value = expected.apply(row);
+        String message = "comparison " + attempt + ", row " + row;
+        assertEquals(message, value == null, result.isNothing(row));
+        if (value != null) {
+          assertEquals(message, value.doubleValue() > constant.doubleValue(), result.getItem(row));
+        }
+      }
+    }
+  }
+
+  private static MapOperationProblemAggregator problems() {
+    return new MapOperationProblemAggregator(BlackholeProblemAggregator.INSTANCE, "test");
+  }
+
+  private static <T> void assertRows(
+      String message, Storage<?> storage, int size, IntFunction<T> expected) {
+    assertNotNull(message, storage);
+    assertEquals(message, size, storage.size());
+    for (int row = 0; row < size; row++) {
+      assertEquals(message + ", row " + row, expected.apply(row), storage.getItemBoxed(row));
+    }
+  }
+}
@@ -0,0 +1,249 @@
+package org.enso.table.format.arrow;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.DateDayVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.ValueVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.dictionary.Dictionary;
+import org.apache.arrow.vector.dictionary.DictionaryEncoder;
+import org.apache.arrow.vector.ipc.ArrowFileReader;
+import org.apache.arrow.vector.ipc.ArrowFileWriter;
+import org.apache.arrow.vector.types.pojo.DictionaryEncoding;
+import org.apache.arrow.vector.util.ByteArrayReadableSeekableByteChannel;
+import org.apache.arrow.vector.util.Text;
+import org.enso.table.data.column.storage.BoolStorage;
+import org.enso.table.data.column.storage.DictionaryStringStorage;
+import org.enso.table.data.column.storage.Storage;
+import org.enso.table.data.column.storage.StringStorage;
+import org.enso.table.data.column.storage.datetime.DateStorage;
+import org.enso.table.data.column.storage.numeric.DoubleStorage;
+import org.enso.table.data.column.storage.numeric.LongStorage;
+import org.enso.table.data.column.storage.type.IntegerType;
+import org.enso.table.data.column.storage.type.TextType;
+import org.enso.table.data.table.Column;
+import org.enso.table.data.table.Table;
+import org.enso.table.read.ArrowReader;
+import org.enso.table.write.ArrowWriter;
+import org.graalvm.polyglot.Context;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks that the Arrow files read and written by the Table library are compatible with the
+ * reference Java implementation of Apache Arrow.
+ */
+public class ArrowCompatibilityTest {
+  private Context context;
+  private BufferAllocator allocator;
+
+  @Before
+  public void setup() {
+    context = Context.newBuilder().option("engine.WarnInterpreterOnly", "false").build();
+    context.enter();
+    allocator = new RootAllocator();
+  }
+
+  @After
+  public void teardown() {
+    allocator.close();
+    context.leave();
+    context.close();
+  }
+
+  @Test
+  public void readsFilesWrittenByApacheArrow() throws Exception {
+    int[] batchSizes = {1000, 0, 1, 2500};
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (BigIntVector longs = new BigIntVector("longs", allocator);
+        IntVector ints = new IntVector("ints", allocator);
+        Float8Vector doubles = new Float8Vector("doubles", allocator);
+        BitVector booleans = new BitVector("booleans", allocator);
+        VarCharVector texts = new VarCharVector("texts", allocator);
+        DateDayVector dates = new DateDayVector("dates", allocator)) {
+      VectorSchemaRoot root = VectorSchemaRoot.of(longs, ints, doubles, booleans, texts, dates);
+      try (ArrowFileWriter writer = new ArrowFileWriter(root, null, Channels.newChannel(bytes))) {
+        writer.start();
+        int firstRow = 0;
+        for (int batchSize : batchSizes) {
+          root.allocateNew();
+          for (int i = 0; i < batchSize; i++) {
+            int row = firstRow + i;
+            if (expectedLong(row) == null) {
+              longs.setNull(i);
+            } else {
+              longs.setSafe(i, expectedLong(row));
+            }
+            ints.setSafe(i, row % 100 - 50);
+            if (expectedDouble(row) == null) {
+              doubles.setNull(i);
+            } else {
+              doubles.setSafe(i, expectedDouble(row));
+            }
+            if (expectedBoolean(row) == null) {
+              booleans.setNull(i);
+            } else {
+              booleans.setSafe(i, expectedBoolean(row) ? 1 : 0);
+            }
+            if (expectedText(row) == null) {
+              texts.setNull(i);
+            } else {
+              texts.setSafe(i, expectedText(row).getBytes(StandardCharsets.UTF_8));
+            }
+            if (expectedDate(row) == null) {
+              dates.setNull(i);
+            } else {
+              dates.setSafe(i, (int) expectedDate(row).toEpochDay());
+            }
+          }
+          root.setRowCount(batchSize);
+          writer.writeBatch();
+          firstRow += batchSize;
+        }
+        writer.end();
+      }
+    }
+
+    Table table = ArrowReader.readStream(new ByteArrayInputStream(bytes.toByteArray()));
+    int rowCount = 3501;
+    assertEquals(rowCount, table.rowCount());
+    for (int row = 0; row < rowCount; row++) {
+      assertEquals(expectedLong(row), item(table, "longs", row));
+      assertEquals((long) (row % 100 - 50), item(table, "ints", row));
+      assertEquals(expectedDouble(row), item(table, "doubles", row));
+      assertEquals(expectedBoolean(row), item(table, "booleans", row));
+      assertEquals(expectedText(row), item(table, "texts", row));
+      assertEquals(expectedDate(row), item(table, "dates", row));
+    }
+  }
+
+  @Test
+  public void writesFilesReadableByApacheArrow() throws Exception {
+    int size = 5000;
+    long[] longs = new long[size];
+    long[] doubles = new long[size];
+    BitSet missingNumbers = new BitSet();
+    BitSet booleans = new BitSet();
+    BitSet missingBooleans = new BitSet();
+    String[] texts = new String[size];
+    String[] categories = new String[size];
+    LocalDate[] dates = new LocalDate[size];
+    for (int row = 0; row < size; row++) {
+      if (expectedLong(row) == null) {
+        missingNumbers.set(row);
+      } else {
+        longs[row] = expectedLong(row);
+        doubles[row] = Double.doubleToRawLongBits(row / 4.0);
+      }
+      if (expectedBoolean(row) == null) {
+        missingBooleans.set(row);
+      } else if (expectedBoolean(row)) {
+        booleans.set(row);
+      }
+      texts[row] = expectedText(row);
+      categories[row] = row % 13 == 0 ? null : "category " + (row % 5);
+      dates[row] = expectedDate(row);
+    }
+    DictionaryStringStorage dictionary =
+        DictionaryStringStorage.tryEncode(categories, size, TextType.VARIABLE_LENGTH);
+    assertNotNull(dictionary);
+    Table table =
+        new Table(
+            new Column[] {
+              new Column("longs", new LongStorage(longs, size, missingNumbers, IntegerType.INT_64)),
+              new Column("doubles", new DoubleStorage(doubles, size, missingNumbers)),
+              new Column("booleans", new BoolStorage(booleans, missingBooleans, size, false)),
+              new Column("texts", new StringStorage(texts, size, TextType.VARIABLE_LENGTH)),
+              new Column("categories", dictionary),
+              new Column("dates", new DateStorage(dates, size))
+            });
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    ArrowWriter.write(table, bytes);
+
+    List<List<Object>> values = new ArrayList<>();
+    try (ArrowFileReader reader =
+        new ArrowFileReader(
+            new ByteArrayReadableSeekableByteChannel(bytes.toByteArray()), allocator)) {
+      VectorSchemaRoot root = reader.getVectorSchemaRoot();
+      for (int i = 0; i < root.getFieldVectors().size(); i++) {
+        values.add(new ArrayList<>());
+      }
+      while (reader.loadNextBatch()) {
+        for (int i = 0; i < root.getFieldVectors().size(); i++) {
+          FieldVector vector = root.getVector(i);
+          DictionaryEncoding encoding = vector.getField().getDictionary();
+          if (encoding == null) {
+            addValues(vector, values.get(i));
+          } else {
+            Dictionary dictionary = reader.getDictionaryVectors().get(encoding.getId());
+            try (ValueVector decoded = DictionaryEncoder.decode(vector, dictionary)) {
+              addValues(decoded, values.get(i));
+            }
+          }
+        }
+      }
+    }
+
+    for (int i = 0; i < table.getColumns().length; i++) {
+      Storage<?> storage = table.getColumns()[i].getStorage();
+      assertEquals(size, values.get(i).size());
+      for (int row = 0; row < size; row++) {
+        assertEquals(storage.getItemBoxed(row), values.get(i).get(row));
+      }
+    }
+  }
+
+  private static void addValues(ValueVector vector, List<Object> values) {
+    for (int i = 0; i < vector.getValueCount(); i++) {
+      Object value = vector.getObject(i);
+      if (value instanceof Text text) {
+        value = text.toString();
+      } else if (vector instanceof DateDayVector && value != null) {
+        value = LocalDate.ofEpochDay((Integer) value);
+      }
+      values.add(value);
+    }
+  }
+
+  private static Object item(Table table, String column, int row) {
+    return table.getColumnByName(column).getStorage().getItemBoxed(row);
+  }
+
+  private static Long expectedLong(int row) {
+    return row % 7 == 0 ? null : row * 1_000_003L - 5_000;
+  }
+
+  private static Double expectedDouble(int row) {
+    return row % 5 == 0 ? null : row / 4.0;
+  }
+
+  private static Boolean expectedBoolean(int row) {
+    return row % 11 == 0 ? null : row % 2 == 0;
+  }
+
+  private static String expectedText(int row) {
+    return row % 3 == 0 ? null : "ząb " + row;
+  }
+
+  private static LocalDate expectedDate(int row) {
+    return row % 17 == 0 ? null : LocalDate.ofEpochDay(row - 1000);
+  }
+}